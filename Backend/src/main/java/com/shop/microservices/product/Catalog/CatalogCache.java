@@ -0,0 +1,518 @@
+package com.shop.microservices.product.Catalog;
+
+import com.mongodb.MongoException;
+import com.shop.microservices.product.Event.CatalogLoadedEvent;
+import com.shop.microservices.product.Event.CategoryChangeEvent;
+import com.shop.microservices.product.Event.ChangeType;
+import com.shop.microservices.product.Event.MaterialChangeEvent;
+import com.shop.microservices.product.Event.ProductChangeEvent;
+import com.shop.microservices.product.Model.Category;
+import com.shop.microservices.product.Model.Material;
+import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Repository.CategoryRepository;
+import com.shop.microservices.product.Repository.MaterialRepository;
+import com.shop.microservices.product.Repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * In-memory copy of the products, categories and materials, persisted to a {@link CatalogSnapshot} so that a
+ * restarted instance is warm within seconds.
+ * <p>
+ * On startup the snapshot file is read through a memory mapping, and only the entities written since its resume
+ * point are fetched, using the modification time stamped on every write. Deletions leave no trace to fetch, so the
+ * first synchronization also reconciles the cache with the identifiers of each collection, which are read from the
+ * {@code _id} index only. Without a snapshot the collections are read once in full. The three collections are
+ * always read in parallel, on virtual threads.
+ * </p>
+ * <p>
+ * Afterwards the cache follows the writes of this instance through the change events, and fetches the changes of
+ * other instances every {@code sync-interval-ms}, re-reading {@code sync-overlap} before the resume point to absorb
+ * clock skew between instances; deletions made elsewhere are reconciled every {@code reconcile-interval-ms}.
+ * The snapshot is rewritten every {@code snapshot-interval-ms} when the catalog changed, and on shutdown.
+ * Writes made outside the application must stamp {@code lastModified} to be picked up before a full reload.
+ * </p>
+ */
+@Slf4j
+@Component
+public class CatalogCache {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final MaterialRepository materialRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final Path snapshotPath;
+    private final Duration syncOverlap;
+    private final Duration reconcileInterval;
+
+    private final Map<UUID, Product> products = new ConcurrentHashMap<>();
+    private final Map<UUID, Category> categories = new ConcurrentHashMap<>();
+    private final Map<UUID, Material> materials = new ConcurrentHashMap<>();
+
+    // Set once the cache holds the whole catalog; lookups are not served from it before
+    private volatile boolean warm;
+    // Guarded by this: time from which the changes have still to be fetched, null until the catalog was read once,
+    // and the changes applied while a synchronization reads the collections, to be replayed over its results
+    private Instant resumePoint;
+    private List<Runnable> pendingChanges;
+    // Guarded by the sync lock
+    private Instant lastReconciliation;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final AtomicBoolean syncQueued = new AtomicBoolean();
+    // Number of modifications of the cache, compared with the number held by the last snapshot written
+    private final AtomicLong modifications = new AtomicLong();
+    private volatile long snapshotModifications = -1;
+
+    /**
+     * Constructs the cache.
+     *
+     * @param productRepository  The repository the products are read from.
+     * @param categoryRepository The repository the categories are read from.
+     * @param materialRepository The repository the materials are read from.
+     * @param eventPublisher     The publisher of the {@link CatalogLoadedEvent}.
+     * @param enabled            Whether lookups are served from the cache.
+     * @param snapshotPath       The snapshot file.
+     * @param syncOverlap        How far before the resume point the changes are re-read.
+     * @param reconcileInterval  The minimum interval between two reconciliations of the deletions, in milliseconds.
+     */
+    public CatalogCache(ProductRepository productRepository,
+                        CategoryRepository categoryRepository,
+                        MaterialRepository materialRepository,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${shop.catalog-cache.enabled:true}") boolean enabled,
+                        @Value("${shop.catalog-cache.snapshot-path:data/catalog-snapshot.bin}") Path snapshotPath,
+                        @Value("${shop.catalog-cache.sync-overlap:5s}") Duration syncOverlap,
+                        @Value("${shop.catalog-cache.reconcile-interval-ms:60000}") long reconcileInterval) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.materialRepository = materialRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.snapshotPath = snapshotPath;
+        this.syncOverlap = syncOverlap;
+        this.reconcileInterval = Duration.ofMillis(reconcileInterval);
+    }
+
+    /**
+     * Returns whether the cache holds the whole catalog.
+     *
+     * @return {@code true} once the catalog has been loaded.
+     */
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Returns whether the cache is enabled, in which case it is expected to become warm.
+     *
+     * @return {@code true} if the cache is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns a cached product. A missing product may still have been created by another instance, and a cached one
+     * modified or deleted by another instance since the last synchronization.
+     *
+     * @param id The identifier of the product.
+     * @return The product, or an empty optional if it is not cached or the cache is not warm.
+     */
+    public Optional<Product> product(UUID id) {
+        return warm ? Optional.ofNullable(products.get(id)) : Optional.empty();
+    }
+
+    /**
+     * Returns a cached category. A missing category may still have been created by another instance.
+     *
+     * @param id The identifier of the category.
+     * @return The category, or an empty optional if it is not cached or the cache is not warm.
+     */
+    public Optional<Category> category(UUID id) {
+        return warm ? Optional.ofNullable(categories.get(id)) : Optional.empty();
+    }
+
+    /**
+     * Returns a cached material. A missing material may still have been created by another instance.
+     *
+     * @param id The identifier of the material.
+     * @return The material, or an empty optional if it is not cached or the cache is not warm.
+     */
+    public Optional<Material> material(UUID id) {
+        return warm ? Optional.ofNullable(materials.get(id)) : Optional.empty();
+    }
+
+    /**
+     * Returns a live, unmodifiable view of the cached products, meaningful once the cache is warm.
+     *
+     * @return The products.
+     */
+    public Collection<Product> products() {
+        return Collections.unmodifiableCollection(products.values());
+    }
+
+    /**
+     * Returns a live, unmodifiable view of the cached categories, meaningful once the cache is warm.
+     *
+     * @return The categories.
+     */
+    public Collection<Category> categories() {
+        return Collections.unmodifiableCollection(categories.values());
+    }
+
+    /**
+     * Returns a live, unmodifiable view of the cached materials, meaningful once the cache is warm.
+     *
+     * @return The materials.
+     */
+    public Collection<Material> materials() {
+        return Collections.unmodifiableCollection(materials.values());
+    }
+
+    /**
+     * Loads the snapshot file, if any. A missing or unreadable snapshot only means the catalog is read in full.
+     */
+    @PostConstruct
+    void loadSnapshot() {
+        if (!enabled || !Files.exists(snapshotPath)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            CatalogSnapshot snapshot = CatalogSnapshot.readFrom(snapshotPath);
+            snapshot.products().forEach(product -> products.put(product.getId(), product));
+            snapshot.categories().forEach(category -> categories.put(category.getCategoryId(), category));
+            snapshot.materials().forEach(material -> materials.put(material.getMaterialId(), material));
+            synchronized (this) {
+                resumePoint = snapshot.resumePoint();
+            }
+            log.info("Catalog snapshot loaded in {} ms: {} products, {} categories, {} materials, resuming from {}",
+                    (System.nanoTime() - start) / 1_000_000, products.size(), categories.size(), materials.size(),
+                    snapshot.resumePoint());
+        } catch (IOException ex) {
+            log.warn("Catalog snapshot {} could not be loaded, the catalog is read in full: {}", snapshotPath, ex.getMessage());
+            products.clear();
+            categories.clear();
+            materials.clear();
+        }
+    }
+
+    /**
+     * Fetches the changes since the resume point, or the whole catalog the first time, and reconciles the deletions
+     * when due. The {@link CatalogLoadedEvent} is published on the calling thread once the catalog is loaded.
+     * The first synchronization is run by the startup warm-up, or after one interval when it is disabled.
+     */
+    @Scheduled(fixedDelayString = "${shop.catalog-cache.sync-interval-ms:5000}",
+            initialDelayString = "${shop.catalog-cache.sync-interval-ms:5000}")
+    public void synchronize() {
+        if (!enabled) {
+            return;
+        }
+        boolean loaded = false;
+        syncLock.lock();
+        try {
+            syncQueued.set(false);
+            boolean loading = !warm;
+            long start = System.nanoTime();
+            Instant since;
+            synchronized (this) {
+                since = resumePoint == null ? null : resumePoint.minus(syncOverlap);
+            }
+            int fetched = fetch(since);
+            // Deletions made while the snapshot was not followed are only found by a reconciliation
+            if (since != null && (loading || lastReconciliation.plus(reconcileInterval).isBefore(Instant.now()))) {
+                reconcile();
+            }
+            if (loading) {
+                warm = true;
+                loaded = true;
+                log.info("Catalog cache warm in {} ms, {} entities fetched: {} products, {} categories, {} materials",
+                        (System.nanoTime() - start) / 1_000_000, fetched, products.size(), categories.size(), materials.size());
+            }
+        } catch (DataAccessException | MongoException ex) {
+            log.warn("Catalog cache could not be synchronized, {}: {}", warm ? "it may be stale" : "lookups read the database",
+                    ex.getMessage());
+        } finally {
+            syncLock.unlock();
+        }
+        if (loaded) {
+            eventPublisher.publishEvent(new CatalogLoadedEvent(products.size(), categories.size(), materials.size()));
+        }
+    }
+
+    /**
+     * Returns the number of cached entities.
+     *
+     * @return The number of products, categories and materials held.
+     */
+    public int size() {
+        return products.size() + categories.size() + materials.size();
+    }
+
+    /**
+     * Writes the snapshot file if the catalog changed since the last one.
+     */
+    @Scheduled(fixedDelayString = "${shop.catalog-cache.snapshot-interval-ms:300000}",
+            initialDelayString = "${shop.catalog-cache.snapshot-interval-ms:300000}")
+    public void writeSnapshot() {
+        if (!warm) {
+            return;
+        }
+        long modificationsAtStart = modifications.get();
+        if (modificationsAtStart == snapshotModifications) {
+            return;
+        }
+        long start = System.nanoTime();
+        Instant snapshotResumePoint;
+        synchronized (this) {
+            snapshotResumePoint = resumePoint;
+        }
+        // Copied after the resume point is read: any change missing from the copies is fetched again after a restart
+        CatalogSnapshot snapshot = new CatalogSnapshot(snapshotResumePoint,
+                List.copyOf(products.values()), List.copyOf(categories.values()), List.copyOf(materials.values()));
+        try {
+            snapshot.writeTo(snapshotPath);
+            snapshotModifications = modificationsAtStart;
+            log.info("Catalog snapshot written in {} ms: {} products, {} categories, {} materials",
+                    (System.nanoTime() - start) / 1_000_000, snapshot.products().size(), snapshot.categories().size(),
+                    snapshot.materials().size());
+        } catch (IOException ex) {
+            log.warn("Catalog snapshot {} could not be written: {}", snapshotPath, ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        writeSnapshot();
+    }
+
+    /**
+     * Applies a product change to the cache. Bulk changes are fetched by an immediate synchronization.
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (event.type() == ChangeType.BULK_CHANGED) {
+            requestSync();
+        } else {
+            apply(products, event.type(), event.productId(), event.product());
+        }
+    }
+
+    /**
+     * Applies a category change to the cache.
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChange(CategoryChangeEvent event) {
+        apply(categories, event.type(), event.categoryId(), event.category());
+    }
+
+    /**
+     * Applies a material change to the cache.
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMaterialChange(MaterialChangeEvent event) {
+        apply(materials, event.type(), event.materialId(), event.material());
+    }
+
+    /**
+     * Applies a single-entity change now, and again after a running synchronization, which may have read an older
+     * version of the entity.
+     */
+    private <T> void apply(Map<UUID, T> entities, ChangeType type, UUID id, T entity) {
+        if (!enabled) {
+            return;
+        }
+        Runnable change = type == ChangeType.DELETED ? () -> entities.remove(id) : () -> entities.put(id, entity);
+        synchronized (this) {
+            change.run();
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+        modifications.incrementAndGet();
+    }
+
+    private void requestSync() {
+        if (enabled && syncQueued.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("catalog-cache-sync").start(this::synchronize);
+        }
+    }
+
+    /**
+     * Fetches the entities written since the given time, or every entity, then moves the resume point to the start
+     * of the fetch. Reads the primary: a lagging secondary could miss writes older than the new resume point.
+     * Runs under the sync lock.
+     *
+     * @return The number of entities fetched.
+     */
+    private int fetch(Instant since) {
+        Instant start = Instant.now();
+        synchronized (this) {
+            pendingChanges = new ArrayList<>();
+        }
+        try {
+            int fetched = inParallel(List.of(
+                    () -> {
+                        try (Stream<Product> changed = since == null
+                                ? productRepository.streamAllBy()
+                                : productRepository.streamByLastModifiedGreaterThanEqual(since)) {
+                            return mergeAll(products, changed::iterator, Product::getId, Product::getLastModified);
+                        }
+                    },
+                    () -> mergeAll(categories, since == null
+                                    ? categoryRepository.findAll()
+                                    : categoryRepository.findByLastModifiedGreaterThanEqual(since),
+                            Category::getCategoryId, Category::getLastModified),
+                    () -> mergeAll(materials, since == null
+                                    ? materialRepository.findAll()
+                                    : materialRepository.findByLastModifiedGreaterThanEqual(since),
+                            Material::getMaterialId, Material::getLastModified)));
+
+            synchronized (this) {
+                pendingChanges.forEach(Runnable::run);
+                resumePoint = start;
+                if (since == null) {
+                    lastReconciliation = start;
+                }
+            }
+            return fetched;
+        } finally {
+            synchronized (this) {
+                pendingChanges = null;
+            }
+        }
+    }
+
+    /**
+     * Removes the cached entities missing from their collection. Entities written after the identifiers started to
+     * be read are kept, as they may have been created meanwhile. Runs under the sync lock.
+     */
+    private void reconcile() {
+        Instant start = Instant.now();
+        Instant writtenBefore = start.minus(syncOverlap);
+        int removed = inParallel(List.of(
+                () -> {
+                    Set<UUID> productIds = new HashSet<>();
+                    try (Stream<Product> ids = productRepository.streamIdsBy()) {
+                        ids.forEach(product -> productIds.add(product.getId()));
+                    }
+                    return removeMissing(products, productIds, Product::getLastModified, writtenBefore);
+                },
+                () -> {
+                    Set<UUID> categoryIds = new HashSet<>();
+                    categoryRepository.findIdsBy().forEach(category -> categoryIds.add(category.getCategoryId()));
+                    return removeMissing(categories, categoryIds, Category::getLastModified, writtenBefore);
+                },
+                () -> {
+                    Set<UUID> materialIds = new HashSet<>();
+                    materialRepository.findIdsBy().forEach(material -> materialIds.add(material.getMaterialId()));
+                    return removeMissing(materials, materialIds, Material::getLastModified, writtenBefore);
+                }));
+
+        lastReconciliation = start;
+        if (removed > 0) {
+            modifications.incrementAndGet();
+            log.info("Catalog cache reconciled, {} deleted entities removed", removed);
+        }
+    }
+
+    /**
+     * Runs the given reads on virtual threads and returns the sum of their results, rethrowing the first failure.
+     */
+    private static int inParallel(List<Callable<Integer>> reads) {
+        List<Future<Integer>> results;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results = reads.stream().map(executor::submit).toList();
+        }
+        int total = 0;
+        for (Future<Integer> result : results) {
+            if (result.state() == Future.State.FAILED) {
+                Throwable failure = result.exceptionNow();
+                if (failure instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(failure);
+            }
+            total += result.resultNow();
+        }
+        return total;
+    }
+
+    /**
+     * Stores the fetched entities, unless the cache holds a more recent version.
+     */
+    private <T> int mergeAll(Map<UUID, T> entities, Iterable<T> fetched, Function<T, UUID> idOf,
+                             Function<T, Instant> lastModifiedOf) {
+        int count = 0;
+        for (T entity : fetched) {
+            count++;
+            T stored = entities.merge(idOf.apply(entity), entity,
+                    (cached, incoming) -> isNewer(lastModifiedOf.apply(cached), lastModifiedOf.apply(incoming)) ? cached : incoming);
+            if (stored == entity) {
+                modifications.incrementAndGet();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Removes the cached entities missing from the given identifiers and last written before the given time.
+     */
+    private static <T> int removeMissing(Map<UUID, T> entities, Set<UUID> existing, Function<T, Instant> lastModifiedOf,
+                                         Instant writtenBefore) {
+        int removed = 0;
+        for (Map.Entry<UUID, T> entry : entities.entrySet()) {
+            Instant lastModified = lastModifiedOf.apply(entry.getValue());
+            if (!existing.contains(entry.getKey()) && (lastModified == null || lastModified.isBefore(writtenBefore))
+                    && entities.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private static boolean isNewer(Instant cached, Instant fetched) {
+        return cached != null && (fetched == null || cached.isAfter(fetched));
+    }
+}
@@ -0,0 +1,233 @@
+package com.shop.microservices.product.Catalog;
+
+import com.shop.microservices.product.Model.Category;
+import com.shop.microservices.product.Model.Material;
+import com.shop.microservices.product.Model.Product;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Point-in-time copy of the catalog, stored on disk in a compact binary format.
+ * <p>
+ * The file starts with a magic number, a format version and the resume point, followed by the products, the
+ * categories and the materials, each section prefixed by its count, and ends with a CRC-32 of everything before it.
+ * Strings are stored as UTF-8 and prices as their unscaled value and scale. The file is written to a temporary file
+ * and moved into place, so a crash never leaves a partial snapshot, and read through a memory mapping.
+ * </p>
+ *
+ * @param resumePoint The time from which the changes missing from the snapshot have to be fetched.
+ * @param products    The products.
+ * @param categories  The categories.
+ * @param materials   The materials.
+ */
+public record CatalogSnapshot(Instant resumePoint, List<Product> products, List<Category> categories, List<Material> materials) {
+
+    private static final int MAGIC = 0x43415453; // "CATS"
+    private static final int VERSION = 1;
+    private static final long NO_INSTANT = Long.MIN_VALUE;
+
+    /**
+     * Writes the snapshot to the given file, replacing it atomically.
+     *
+     * @param file The snapshot file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeTo(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            CRC32 checksum = new CRC32();
+            try (OutputStream stream = Files.newOutputStream(temporary);
+                 DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(stream, checksum), 1 << 16))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                writeInstant(output, resumePoint);
+
+                output.writeInt(products.size());
+                for (Product product : products) {
+                    writeUuid(output, product.getId());
+                    writeString(output, product.getName());
+                    writeString(output, product.getDescription());
+                    writeDecimal(output, product.getPrice());
+                    writeInstant(output, product.getLastModified());
+                }
+                output.writeInt(categories.size());
+                for (Category category : categories) {
+                    writeUuid(output, category.getCategoryId());
+                    writeString(output, category.getName());
+                    writeString(output, category.getDescription());
+                    writeInstant(output, category.getLastModified());
+                }
+                output.writeInt(materials.size());
+                for (Material material : materials) {
+                    writeUuid(output, material.getMaterialId());
+                    writeString(output, material.getMaterialName());
+                    writeString(output, material.getMaterialType());
+                    writeString(output, material.getDescription());
+                    writeInstant(output, material.getLastModified());
+                }
+                output.flush();
+                // The checksum covers everything written so far, and is not part of itself
+                output.writeLong(checksum.getValue());
+            }
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Reads a snapshot file through a memory mapping.
+     *
+     * @param file The snapshot file.
+     * @return The snapshot.
+     * @throws IOException If the file cannot be read, or is not a valid snapshot.
+     */
+    public static CatalogSnapshot readFrom(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Integer.BYTES * 2 + Long.BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid catalog snapshot size " + size + " of " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32 checksum = new CRC32();
+            checksum.update(buffer.slice(0, (int) size - Long.BYTES));
+            if (checksum.getValue() != buffer.getLong((int) size - Long.BYTES)) {
+                throw new IOException("Corrupted catalog snapshot " + file);
+            }
+            ByteBuffer input = buffer.slice(0, (int) size - Long.BYTES);
+            if (input.getInt() != MAGIC || input.getInt() != VERSION) {
+                throw new IOException("Unsupported catalog snapshot format of " + file);
+            }
+            Instant resumePoint = readInstant(input);
+
+            List<Product> products = new ArrayList<>();
+            for (int i = 0, count = input.getInt(); i < count; i++) {
+                products.add(Product.builder()
+                        .id(readUuid(input))
+                        .name(readString(input))
+                        .description(readString(input))
+                        .price(readDecimal(input))
+                        .lastModified(readInstant(input))
+                        .build());
+            }
+            List<Category> categories = new ArrayList<>();
+            for (int i = 0, count = input.getInt(); i < count; i++) {
+                categories.add(Category.builder()
+                        .categoryId(readUuid(input))
+                        .name(readString(input))
+                        .description(readString(input))
+                        .lastModified(readInstant(input))
+                        .build());
+            }
+            List<Material> materials = new ArrayList<>();
+            for (int i = 0, count = input.getInt(); i < count; i++) {
+                materials.add(Material.builder()
+                        .materialId(readUuid(input))
+                        .materialName(readString(input))
+                        .materialType(readString(input))
+                        .description(readString(input))
+                        .lastModified(readInstant(input))
+                        .build());
+            }
+            if (input.hasRemaining()) {
+                throw new IOException("Unexpected trailing data in catalog snapshot " + file);
+            }
+            return new CatalogSnapshot(resumePoint, products, categories, materials);
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            throw new IOException("Truncated catalog snapshot " + file, ex);
+        }
+    }
+
+    private static void writeUuid(DataOutputStream output, UUID id) throws IOException {
+        output.writeLong(id.getMostSignificantBits());
+        output.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(ByteBuffer input) {
+        return new UUID(input.getLong(), input.getLong());
+    }
+
+    /**
+     * Writes a nullable string as its UTF-8 length, {@code -1} for {@code null}, followed by its bytes.
+     */
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer input) {
+        int length = input.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a nullable decimal as the length and bytes of its unscaled value, {@code -1} for {@code null}, followed by its scale.
+     */
+    private static void writeDecimal(DataOutputStream output, BigDecimal value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        output.writeInt(unscaled.length);
+        output.write(unscaled);
+        output.writeInt(value.scale());
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer input) {
+        int length = input.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        input.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), input.getInt());
+    }
+
+    private static void writeInstant(DataOutputStream output, Instant value) throws IOException {
+        output.writeLong(value == null ? NO_INSTANT : value.getEpochSecond());
+        output.writeInt(value == null ? 0 : value.getNano());
+    }
+
+    private static Instant readInstant(ByteBuffer input) {
+        long seconds = input.getLong();
+        int nanos = input.getInt();
+        return seconds == NO_INSTANT ? null : Instant.ofEpochSecond(seconds, nanos);
+    }
+}
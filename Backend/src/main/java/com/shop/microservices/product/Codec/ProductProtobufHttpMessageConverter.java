@@ -0,0 +1,92 @@
+package com.shop.microservices.product.Codec;
+
+import com.google.protobuf.Message;
+import com.shop.microservices.product.Dto.PageResponseDTO;
+import com.shop.microservices.product.Dto.ProductResponseDTO;
+import com.shop.microservices.product.Mapper.ProductProtobufMapper;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Writes product responses, and pages of them, as Protobuf messages ({@code application/x-protobuf}).
+ * <p>
+ * Only {@link ProductResponseDTO} and {@code PageResponseDTO<ProductResponseDTO>} are written, as described by
+ * {@code src/main/proto/product.proto}; the message type is sent in the {@code X-Protobuf-Message} header. Other
+ * responses, such as errors, are not available in Protobuf, so clients should also accept JSON, e.g.
+ * {@code Accept: application/x-protobuf, application/json;q=0.5}.
+ * </p>
+ */
+public class ProductProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    /**
+     * The Protobuf media type.
+     */
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    static final String SCHEMA_HEADER = "X-Protobuf-Schema";
+    static final String MESSAGE_HEADER = "X-Protobuf-Message";
+
+    private static final ResolvableType PRODUCT_PAGE = ResolvableType.forClassWithGenerics(PageResponseDTO.class, ProductResponseDTO.class);
+
+    private final ProductProtobufMapper mapper;
+
+    /**
+     * Creates the converter.
+     *
+     * @param mapper The mapper of the product responses to their messages.
+     */
+    public ProductProtobufHttpMessageConverter(ProductProtobufMapper mapper) {
+        super(PROTOBUF);
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ProductResponseDTO.class == clazz || PageResponseDTO.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (type == null || type instanceof Class<?>) {
+            return ProductResponseDTO.class == clazz;
+        }
+        // Pages are only written when their items are known to be products
+        return PRODUCT_PAGE.isAssignableFrom(ResolvableType.forType(type));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        Message message = body instanceof ProductResponseDTO product
+                ? mapper.toMessage(product)
+                : mapper.toMessage((PageResponseDTO<ProductResponseDTO>) body);
+        outputMessage.getHeaders().set(SCHEMA_HEADER, "product.proto");
+        outputMessage.getHeaders().set(MESSAGE_HEADER, message.getDescriptorForType().getFullName());
+        message.writeTo(outputMessage.getBody());
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+}
@@ -0,0 +1,43 @@
+package com.shop.microservices.product.Configuration;
+
+import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Repository.ProductRepository;
+import com.shop.microservices.product.Utils.BatchLoader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Configuration of the {@link BatchLoader}s merging concurrent single-id lookups into {@code findAllById} queries.
+ * <p>
+ * The collection window and the maximum batch size are set with the {@code shop.batch-loader.product.*}
+ * properties; a window of {@code 0} disables the batching, each lookup being loaded on its own.
+ * </p>
+ */
+@Configuration
+public class BatchLoaderConfig {
+
+    /**
+     * Creates the loader used by the service layer to look up products by ID.
+     *
+     * @param productRepository The repository queried with one {@code findAllById} per batch.
+     * @param window            How long a lookup waits for other lookups to join its batch.
+     * @param maxBatchSize      The number of IDs after which a batch is queried without waiting for the window.
+     * @return the product {@link BatchLoader}.
+     */
+    @Bean
+    public BatchLoader<UUID, Product> productBatchLoader(ProductRepository productRepository,
+                                                         @Value("${shop.batch-loader.product.window:1ms}") Duration window,
+                                                         @Value("${shop.batch-loader.product.max-batch-size:100}") int maxBatchSize) {
+        return new BatchLoader<>("product", ids -> {
+            Map<UUID, Product> products = new HashMap<>();
+            productRepository.findAllById(ids).forEach(product -> products.put(product.getId(), product));
+            return products;
+        }, window, maxBatchSize);
+    }
+}
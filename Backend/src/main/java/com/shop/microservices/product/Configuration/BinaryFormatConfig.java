@@ -0,0 +1,53 @@
+package com.shop.microservices.product.Configuration;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.shop.microservices.product.Codec.ProductProtobufHttpMessageConverter;
+import com.shop.microservices.product.Mapper.ProductProtobufMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Configuration of the binary response formats offered to the other services, chosen with the {@code Accept} header:
+ * Smile ({@code application/x-jackson-smile}) and CBOR ({@code application/cbor}) for every response, and Protobuf
+ * ({@code application/x-protobuf}) for the product responses.
+ * <p>
+ * The Smile and CBOR mappers are built like the JSON one, so they write the same fields. The converters are added
+ * after the JSON converter, so JSON stays the format of the clients that accept any.
+ * </p>
+ */
+@Configuration
+public class BinaryFormatConfig implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+    private final ProductProtobufMapper productProtobufMapper;
+
+    /**
+     * Constructor for the BinaryFormatConfig class.
+     *
+     * @param objectMapperBuilder   Builder configured like the JSON object mapper, a new instance for this configuration.
+     * @param productProtobufMapper The mapper of the product responses to their Protobuf messages.
+     */
+    public BinaryFormatConfig(Jackson2ObjectMapperBuilder objectMapperBuilder, ProductProtobufMapper productProtobufMapper) {
+        this.objectMapperBuilder = objectMapperBuilder;
+        this.productProtobufMapper = productProtobufMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Replaces the Smile and CBOR converters registered with default mappers, when their modules are present
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.factory(new SmileFactory()).build()));
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.factory(new CBORFactory()).build()));
+        converters.add(new ProductProtobufHttpMessageConverter(productProtobufMapper));
+    }
+}
@@ -0,0 +1,79 @@
+package com.shop.microservices.product.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shop.microservices.product.Limiter.AdaptiveConcurrencyLimiter;
+import com.shop.microservices.product.Limiter.ConcurrencyLimitFilter;
+import com.shop.microservices.product.Utils.ErrorMessageUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the adaptive concurrency limits applied in front of the product, category and material
+ * controllers.
+ * <p>
+ * Reads and writes get their own {@link AdaptiveConcurrencyLimiter}, configured with the
+ * {@code shop.concurrency-limit.read.*} and {@code shop.concurrency-limit.write.*} properties. Both limiters
+ * are {@link io.micrometer.core.instrument.binder.MeterBinder}s, so their limit, in-flight and rejection metrics
+ * are published on the actuator metrics endpoint.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "shop.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    /**
+     * Creates the limiter applied to read requests.
+     *
+     * @return the read {@link AdaptiveConcurrencyLimiter}.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter readConcurrencyLimiter(
+            @Value("${shop.concurrency-limit.read.initial:100}") int initialLimit,
+            @Value("${shop.concurrency-limit.read.min:10}") int minLimit,
+            @Value("${shop.concurrency-limit.read.max:180}") int maxLimit,
+            @Value("${shop.concurrency-limit.read.latency-threshold:200ms}") Duration latencyThreshold,
+            @Value("${shop.concurrency-limit.backoff-ratio:0.9}") double backoffRatio) {
+        return new AdaptiveConcurrencyLimiter("read", initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio);
+    }
+
+    /**
+     * Creates the limiter applied to write requests.
+     *
+     * @return the write {@link AdaptiveConcurrencyLimiter}.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter writeConcurrencyLimiter(
+            @Value("${shop.concurrency-limit.write.initial:20}") int initialLimit,
+            @Value("${shop.concurrency-limit.write.min:2}") int minLimit,
+            @Value("${shop.concurrency-limit.write.max:60}") int maxLimit,
+            @Value("${shop.concurrency-limit.write.latency-threshold:500ms}") Duration latencyThreshold,
+            @Value("${shop.concurrency-limit.backoff-ratio:0.9}") double backoffRatio) {
+        return new AdaptiveConcurrencyLimiter("write", initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio);
+    }
+
+    /**
+     * Registers the {@link ConcurrencyLimitFilter} on the controller paths.
+     *
+     * @return the filter registration.
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            AdaptiveConcurrencyLimiter readConcurrencyLimiter,
+            AdaptiveConcurrencyLimiter writeConcurrencyLimiter,
+            ErrorMessageUtil errorMessageUtil,
+            ObjectMapper objectMapper,
+            @Value("${shop.concurrency-limit.retry-after:1s}") Duration retryAfter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(readConcurrencyLimiter, writeConcurrencyLimiter, errorMessageUtil, objectMapper, retryAfter));
+        registration.addUrlPatterns("/api/v1/product/*", "/api/v1/category/*", "/api/v1/material/*");
+        // Shed load before any other filter does work for the request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
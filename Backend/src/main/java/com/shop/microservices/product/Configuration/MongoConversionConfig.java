@@ -0,0 +1,59 @@
+package com.shop.microservices.product.Configuration;
+
+import org.bson.types.Decimal128;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Configuration of the custom MongoDB type conversions.
+ * <p>
+ * By default Spring Data MongoDB writes {@link BigDecimal} values as strings, which makes range queries such as
+ * {@code findByPriceGreaterThanEqual} compare lexicographically and prevents a numeric index from serving them.
+ * The converters registered here store every {@link BigDecimal} field as a BSON {@link Decimal128} instead.
+ * </p>
+ */
+@Configuration
+public class MongoConversionConfig {
+
+    /**
+     * Registers the {@link BigDecimal} to {@link Decimal128} conversions.
+     *
+     * @return the custom conversions used by the MongoDB mapping converter.
+     */
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(
+                new BigDecimalToDecimal128Converter(),
+                new Decimal128ToBigDecimalConverter()
+        ));
+    }
+
+    /**
+     * Writes {@link BigDecimal} values as {@link Decimal128}, used for both documents and query parameters.
+     */
+    @WritingConverter
+    static class BigDecimalToDecimal128Converter implements Converter<BigDecimal, Decimal128> {
+        @Override
+        public Decimal128 convert(BigDecimal source) {
+            return new Decimal128(source);
+        }
+    }
+
+    /**
+     * Reads {@link Decimal128} values back as {@link BigDecimal}.
+     */
+    @ReadingConverter
+    static class Decimal128ToBigDecimalConverter implements Converter<Decimal128, BigDecimal> {
+        @Override
+        public BigDecimal convert(Decimal128 source) {
+            return source.bigDecimalValue();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.shop.microservices.product.Configuration;
+
+import com.shop.microservices.product.Dto.BulkPriceAdjustmentRequestDTO;
+import com.shop.microservices.product.Dto.BulkPriceAdjustmentResponseDTO;
+import com.shop.microservices.product.Dto.CatalogChangeEventDTO;
+import com.shop.microservices.product.Dto.CategoryRequestDTO;
+import com.shop.microservices.product.Dto.CategoryResponseDTO;
+import com.shop.microservices.product.Dto.JobResponseDTO;
+import com.shop.microservices.product.Dto.MaterialRequestDTO;
+import com.shop.microservices.product.Dto.MaterialResponseDTO;
+import com.shop.microservices.product.Dto.PageResponseDTO;
+import com.shop.microservices.product.Dto.ProductImportErrorDTO;
+import com.shop.microservices.product.Dto.ProductImportReportDTO;
+import com.shop.microservices.product.Dto.ProductRequestDTO;
+import com.shop.microservices.product.Dto.ProductResponseDTO;
+import com.shop.microservices.product.Dto.SearchReindexResponseDTO;
+import com.shop.microservices.product.Dto.TrendingProductDTO;
+import com.shop.microservices.product.Dto.TypeaheadSuggestionDTO;
+import com.shop.microservices.product.Model.Category;
+import com.shop.microservices.product.Model.IdempotencyRecord;
+import com.shop.microservices.product.Model.Job;
+import com.shop.microservices.product.Model.Material;
+import com.shop.microservices.product.Model.OutboxEvent;
+import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Model.ProductViews;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Reachability metadata of the classes read and written by reflection, for the native image.
+ * <p>
+ * The documents are instantiated and populated by the MongoDB mapping, and the DTOs are bound by Jackson; both get
+ * their constructors, fields and accessors registered, along with the types they refer to. The error messages are
+ * loaded as a resource bundle. The mappers need no metadata, as they copy the fields explicitly.
+ * </p>
+ */
+public class ProductServiceRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<Class<?>> DOCUMENTS = List.of(
+            Product.class, Category.class, Material.class, Job.class, IdempotencyRecord.class,
+            ProductViews.class, OutboxEvent.class);
+
+    static final List<Class<?>> DTOS = List.of(
+            ProductRequestDTO.class, ProductResponseDTO.class,
+            CategoryRequestDTO.class, CategoryResponseDTO.class,
+            MaterialRequestDTO.class, MaterialResponseDTO.class,
+            BulkPriceAdjustmentRequestDTO.class, BulkPriceAdjustmentResponseDTO.class,
+            ProductImportReportDTO.class, ProductImportErrorDTO.class,
+            PageResponseDTO.class, JobResponseDTO.class, SearchReindexResponseDTO.class, TypeaheadSuggestionDTO.class,
+            TrendingProductDTO.class, CatalogChangeEventDTO.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        bindings.registerReflectionHints(hints.reflection(), DOCUMENTS.toArray(Class<?>[]::new));
+        bindings.registerReflectionHints(hints.reflection(), DTOS.toArray(Class<?>[]::new));
+        hints.resources().registerResourceBundle("error_message_en");
+        hints.resources().registerPattern("error_message_en*.properties");
+    }
+}
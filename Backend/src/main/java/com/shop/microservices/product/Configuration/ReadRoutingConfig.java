@@ -0,0 +1,72 @@
+package com.shop.microservices.product.Configuration;
+
+import com.mongodb.client.MongoClient;
+import com.shop.microservices.product.Routing.CausalConsistencyFilter;
+import com.shop.microservices.product.Routing.CausalSessionCallableInterceptor;
+import com.shop.microservices.product.Routing.RoutingMongoDatabaseFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration of the per-operation read routing.
+ * <p>
+ * Wraps the auto-configured {@link MongoDatabaseFactory} in a {@link RoutingMongoDatabaseFactory}, so the read
+ * preference chosen by {@link com.shop.microservices.product.Routing.ReadRouter} and the causally consistent
+ * session bound by the {@link CausalConsistencyFilter} apply to every repository and template operation. The
+ * factory is wrapped rather than replaced, as declaring another factory would turn off the client
+ * auto-configuration. Disabled with {@code shop.read-routing.enabled=false}, in which case every read goes to the
+ * primary. Streamed responses keep the causally consistent session of their request through a
+ * {@link CausalSessionCallableInterceptor}.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "shop.read-routing.enabled", havingValue = "true", matchIfMissing = true)
+public class ReadRoutingConfig implements WebMvcConfigurer {
+
+    /**
+     * Wraps the auto-configured database factory in a {@link RoutingMongoDatabaseFactory}.
+     *
+     * @return the post-processor wrapping the factory.
+     */
+    @Bean
+    public static BeanPostProcessor routingMongoDatabaseFactoryPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof MongoDatabaseFactory factory && !(bean instanceof RoutingMongoDatabaseFactory)) {
+                    return new RoutingMongoDatabaseFactory(factory);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Registers the {@link CausalConsistencyFilter} on the controller paths.
+     *
+     * @return the filter registration.
+     */
+    @Bean
+    public FilterRegistrationBean<CausalConsistencyFilter> causalConsistencyFilter(MongoClient mongoClient) {
+        FilterRegistrationBean<CausalConsistencyFilter> registration = new FilterRegistrationBean<>(new CausalConsistencyFilter(mongoClient));
+        registration.addUrlPatterns("/api/v1/product/*", "/api/v1/category/*", "/api/v1/material/*");
+        // Runs after the concurrency limiter, so rejected requests never start a session
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * Binds the causally consistent session of a request to the thread writing its streamed response.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CausalSessionCallableInterceptor());
+    }
+}
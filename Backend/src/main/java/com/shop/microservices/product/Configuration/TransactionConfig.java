@@ -0,0 +1,34 @@
+package com.shop.microservices.product.Configuration;
+
+import com.shop.microservices.product.Routing.CausalMongoTransactionManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * Configuration of the MongoDB transactions.
+ * <p>
+ * Declares the transaction manager that turns the {@code @Transactional} service methods into multi-document
+ * transactions, so the change events the {@link com.shop.microservices.product.Outbox.OutboxRecorder} inserts are
+ * committed with the changes they describe. MongoDB only supports transactions on replica sets and sharded clusters,
+ * such as the single-node replica set of {@code docker-compose.yml}. They are enabled by default; against a standalone
+ * server they are opted out of with {@code shop.transactions.enabled=false}, as the {@code in-memory} profile does,
+ * and without the manager the annotations have no effect and every write commits on its own.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "shop.transactions.enabled", havingValue = "true", matchIfMissing = true)
+public class TransactionConfig {
+
+    /**
+     * Creates the transaction manager, on the database factory the repositories use.
+     *
+     * @return the {@link MongoTransactionManager}.
+     */
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new CausalMongoTransactionManager(databaseFactory);
+    }
+}
@@ -0,0 +1,54 @@
+package com.shop.microservices.product.Configuration;
+
+import com.shop.microservices.product.Catalog.CatalogCache;
+import com.shop.microservices.product.ReadModel.ProductListingView;
+import com.shop.microservices.product.WarmUp.StartupWarmUp;
+import com.shop.microservices.product.WarmUp.WarmUpTask;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the caches filled by the {@link StartupWarmUp}.
+ * <p>
+ * The catalog cache holds every category, material and product, which covers the most requested products; the
+ * typeahead index is built from it as soon as it is loaded, within the same task. The first pages of the default
+ * listing are loaded alongside.
+ * </p>
+ */
+@Configuration
+public class WarmUpConfig {
+
+    /**
+     * Creates the task loading the catalog cache, from its snapshot and the changes since, or in full.
+     *
+     * @param catalogCache The catalog cache.
+     * @return the catalog {@link WarmUpTask}.
+     */
+    @Bean
+    public WarmUpTask catalogWarmUp(CatalogCache catalogCache) {
+        return new WarmUpTask("catalog", () -> {
+            if (!catalogCache.isEnabled()) {
+                return 0L;
+            }
+            catalogCache.synchronize();
+            if (!catalogCache.isWarm()) {
+                throw new IllegalStateException("The catalog could not be loaded");
+            }
+            return (long) catalogCache.size();
+        });
+    }
+
+    /**
+     * Creates the task loading the first pages of the default product listing.
+     *
+     * @param productListingView The materialized listing.
+     * @return the listing {@link WarmUpTask}.
+     */
+    @Bean
+    public WarmUpTask productListingWarmUp(ProductListingView productListingView) {
+        return new WarmUpTask("product-listing", () -> {
+            productListingView.refresh();
+            return (long) productListingView.size();
+        });
+    }
+}
@@ -3,6 +3,8 @@ package com.shop.microservices.product.Controller;
 
 import com.shop.microservices.product.Dto.CategoryRequestDTO;
 import com.shop.microservices.product.Dto.CategoryResponseDTO;
+import com.shop.microservices.product.Dto.PageResponseDTO;
+import com.shop.microservices.product.Service.ServiceInterface.IIdempotencyService;
 import com.shop.microservices.product.Service.ServiceInterface.ICategoryService;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -11,7 +13,6 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -28,6 +29,7 @@ import org.springframework.web.bind.annotation.*;
 public class CategoryController {
 
     private final ICategoryService categoryService;
+    private final IIdempotencyService idempotencyService;
 
     /**
      * Creates a new category based on the provided category data.
@@ -36,19 +38,24 @@ public class CategoryController {
      * validates and processes the request, and returns the created category in {@link CategoryResponseDTO} format.</p>
      *
      * @param categoryRequest The category data from the client in {@link CategoryRequestDTO} format.
+     * @param idempotencyKey Optional key; a retried request with the same key returns the stored response.
      * @return A {@link ResponseEntity} containing the created category as {@link CategoryResponseDTO}.
      */
     @Operation(summary = "Create a new category", description = "Creates a new category in the system",
             responses = {
                     @ApiResponse(responseCode = "201", description = "Category created successfully",
                             content = @Content(schema = @Schema(implementation = CategoryResponseDTO.class))),
-                    @ApiResponse(responseCode = "400", description = "Invalid category data")
+                    @ApiResponse(responseCode = "400", description = "Invalid category data"),
+                    @ApiResponse(responseCode = "409", description = "A request with the same idempotency key is still in progress")
             })
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseEntity<CategoryResponseDTO> createCategory(
-            @RequestBody @Parameter(description = "Category data to be created", required = true) CategoryRequestDTO categoryRequest) {
-        return ResponseEntity.ok(categoryService.createCategory(categoryRequest));
+            @RequestBody @Parameter(description = "Category data to be created", required = true) CategoryRequestDTO categoryRequest,
+            @RequestHeader(value = "Idempotency-Key", required = false)
+            @Parameter(description = "Client key making retries of the request safe") String idempotencyKey) {
+        return ResponseEntity.ok(idempotencyService.execute("category", idempotencyKey, categoryRequest, CategoryResponseDTO.class,
+                () -> categoryService.createCategory(categoryRequest)));
     }
 
     /**
@@ -77,20 +84,20 @@ public class CategoryController {
      *
      * @param page The page number to retrieve (0-based index). Defaults to 0 if not provided.
      * @param size The number of categories per page. Defaults to 10 if not provided.
-     * @return A {@link ResponseEntity} containing a {@link Page} of {@link CategoryResponseDTO} objects.
+     * @return A {@link ResponseEntity} containing a {@link PageResponseDTO} of {@link CategoryResponseDTO} objects.
      */
     @Operation(summary = "Retrieve paginated categories", description = "Fetches categories with pagination support",
             responses = {
                     @ApiResponse(responseCode = "200", description = "List of categories",
-                            content = @Content(schema = @Schema(implementation = CategoryResponseDTO.class))),
+                            content = @Content(schema = @Schema(implementation = PageResponseDTO.class))),
                     @ApiResponse(responseCode = "400", description = "Invalid pagination parameters")
             })
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<Page<CategoryResponseDTO>> getAllCategories(
+    public ResponseEntity<PageResponseDTO<CategoryResponseDTO>> getAllCategories(
             @RequestParam(defaultValue = "0") @Parameter(description = "Page number (default is 0)", required = false) int page,
             @RequestParam(defaultValue = "10") @Parameter(description = "Page size (default is 10)", required = false) int size) {
-        Page<CategoryResponseDTO> categories = categoryService.getAllCategory(page, size);
+        PageResponseDTO<CategoryResponseDTO> categories = categoryService.getAllCategory(page, size);
         return ResponseEntity.ok(categories);
     }
 
@@ -0,0 +1,70 @@
+package com.shop.microservices.product.Controller;
+
+import com.shop.microservices.product.Dto.JobResponseDTO;
+import com.shop.microservices.product.Service.ServiceInterface.IJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller to follow and cancel the background jobs running long catalog operations.
+ *
+ * <p>Jobs are submitted by the asynchronous endpoints of the other controllers, which answer with
+ * {@code 202 Accepted} and the location of the job to poll.</p>
+ */
+@RestController
+@RequestMapping("/api/v1/job")
+@RequiredArgsConstructor
+@Tag(name = "Job Controller", description = "APIs for following background jobs")
+public class JobController {
+
+    private final IJobService jobService;
+
+    /**
+     * Retrieves the status, progress and result of a job.
+     *
+     * @param jobId The ID of the job to retrieve.
+     * @return A {@link ResponseEntity} containing the job as {@link JobResponseDTO}.
+     */
+    @Operation(summary = "Get job by ID", description = "Retrieve the status, progress and result of a background job.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the job",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = JobResponseDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    @GetMapping("{jobId}")
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<JobResponseDTO> getJob(
+            @Parameter(description = "The ID of the job to retrieve", required = true)
+            @PathVariable String jobId) {
+        return ResponseEntity.ok(jobService.getJob(jobId));
+    }
+
+    /**
+     * Requests the cancellation of a queued or running job.
+     *
+     * @param jobId The ID of the job to cancel.
+     * @return A {@link ResponseEntity} containing the job as {@link JobResponseDTO}.
+     */
+    @Operation(summary = "Cancel a job", description = "Requests the cancellation of a queued or running job. The job stops at its next checkpoint.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Cancellation requested",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = JobResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "The job has already finished"),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    @DeleteMapping("{jobId}")
+    public ResponseEntity<JobResponseDTO> cancelJob(
+            @Parameter(description = "The ID of the job to cancel", required = true)
+            @PathVariable String jobId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(jobService.cancelJob(jobId));
+    }
+}
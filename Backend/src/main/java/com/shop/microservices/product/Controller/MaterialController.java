@@ -2,6 +2,8 @@ package com.shop.microservices.product.Controller;
 
 import com.shop.microservices.product.Dto.MaterialRequestDTO;
 import com.shop.microservices.product.Dto.MaterialResponseDTO;
+import com.shop.microservices.product.Dto.PageResponseDTO;
+import com.shop.microservices.product.Service.ServiceInterface.IIdempotencyService;
 import com.shop.microservices.product.Service.ServiceInterface.IMaterialService;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
@@ -10,7 +12,6 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
-import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -25,9 +26,11 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/v1/material")
 public class MaterialController {
     private final IMaterialService materialService;
+    private final IIdempotencyService idempotencyService;
 
-    public MaterialController(IMaterialService materialService) {
+    public MaterialController(IMaterialService materialService, IIdempotencyService idempotencyService) {
         this.materialService = materialService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
@@ -36,19 +39,24 @@ public class MaterialController {
      * <p>This endpoint accepts a {@link MaterialRequestDTO} with the material details and returns the created material in {@link MaterialResponseDTO} format.</p>
      *
      * @param materialRequest The material data to create.
+     * @param idempotencyKey Optional key; a retried request with the same key returns the stored response.
      * @return A {@link ResponseEntity} containing the created material as {@link MaterialResponseDTO}.
      */
     @Operation(summary = "Create a new material", description = "Creates a new material in the system",
             responses = {
                     @ApiResponse(responseCode = "201", description = "Material created successfully",
                             content = @Content(schema = @Schema(implementation = MaterialResponseDTO.class))),
-                    @ApiResponse(responseCode = "400", description = "Invalid material data")
+                    @ApiResponse(responseCode = "400", description = "Invalid material data"),
+                    @ApiResponse(responseCode = "409", description = "A request with the same idempotency key is still in progress")
             })
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseEntity<MaterialResponseDTO> createMaterial(
-            @RequestBody @Parameter(description = "Material data to be created", required = true) MaterialRequestDTO materialRequest) {
-        return ResponseEntity.ok(materialService.createMaterial(materialRequest));
+            @RequestBody @Parameter(description = "Material data to be created", required = true) MaterialRequestDTO materialRequest,
+            @RequestHeader(value = "Idempotency-Key", required = false)
+            @Parameter(description = "Client key making retries of the request safe") String idempotencyKey) {
+        return ResponseEntity.ok(idempotencyService.execute("material", idempotencyKey, materialRequest, MaterialResponseDTO.class,
+                () -> materialService.createMaterial(materialRequest)));
     }
 
     /**
@@ -86,15 +94,15 @@ public class MaterialController {
     @Operation(summary = "Retrieve paginated materials", description = "Fetches materials with pagination support",
             responses = {
                     @ApiResponse(responseCode = "200", description = "List of materials",
-                            content = @Content(schema = @Schema(implementation = MaterialResponseDTO.class))),
+                            content = @Content(schema = @Schema(implementation = PageResponseDTO.class))),
                     @ApiResponse(responseCode = "400", description = "Invalid pagination parameters")
             })
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<Page<MaterialResponseDTO>> getAllMaterials(
+    public ResponseEntity<PageResponseDTO<MaterialResponseDTO>> getAllMaterials(
             @RequestParam(defaultValue = "0") @Parameter(description = "Page number (default is 0)", required = false) int page,
             @RequestParam(defaultValue = "10") @Parameter(description = "Page size (default is 10)", required = false) int size) {
-        Page<MaterialResponseDTO> materials = materialService.getAllMaterials(page, size);
+        PageResponseDTO<MaterialResponseDTO> materials = materialService.getAllMaterials(page, size);
         return ResponseEntity.ok(materials);
     }
 
@@ -1,17 +1,33 @@
 package com.shop.microservices.product.Controller;
 
+import com.shop.microservices.product.Dto.BulkPriceAdjustmentRequestDTO;
+import com.shop.microservices.product.Dto.BulkPriceAdjustmentResponseDTO;
+import com.shop.microservices.product.Dto.JobResponseDTO;
+import com.shop.microservices.product.Dto.PageResponseDTO;
+import com.shop.microservices.product.Dto.ProductImportReportDTO;
 import com.shop.microservices.product.Dto.ProductRequestDTO;
 import com.shop.microservices.product.Dto.ProductResponseDTO;
+import com.shop.microservices.product.Dto.TrendingProductDTO;
 import com.shop.microservices.product.Exception.EntityCreationException;
+import com.shop.microservices.product.Import.ProductImportFormat;
+import com.shop.microservices.product.Search.SearchMode;
+import com.shop.microservices.product.Service.ServiceInterface.IProductExportService;
+import com.shop.microservices.product.Service.ServiceInterface.IProductImportService;
+import com.shop.microservices.product.Service.ServiceInterface.IProductSearchService;
+import com.shop.microservices.product.Service.ServiceInterface.IIdempotencyService;
 import com.shop.microservices.product.Service.ServiceInterface.IProductService;
+import com.shop.microservices.product.Service.ServiceInterface.ITrendingService;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -19,6 +35,10 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -33,6 +53,11 @@ import java.util.Map;
 public class ProductController {
 
     private final IProductService productService;
+    private final IIdempotencyService idempotencyService;
+    private final IProductImportService productImportService;
+    private final IProductExportService productExportService;
+    private final IProductSearchService productSearchService;
+    private final ITrendingService trendingService;
 
     /**
      * Creates a new product based on the provided product data.
@@ -41,6 +66,7 @@ public class ProductController {
      * validates and processes the request, and returns the created product in {@link ProductResponseDTO} format.</p>
      *
      * @param productRequest The product data from the client in {@link ProductRequestDTO} format.
+     * @param idempotencyKey Optional key; a retried request with the same key returns the stored response.
      * @return A {@link ResponseEntity} containing the created product as {@link ProductResponseDTO}.
      * @throws EntityCreationException If there is an issue during product creation.
      */
@@ -48,14 +74,18 @@ public class ProductController {
             responses = {
                     @ApiResponse(responseCode = "201", description = "Product created successfully",
                             content = @Content(schema = @Schema(implementation = ProductResponseDTO.class))),
-                    @ApiResponse(responseCode = "400", description = "Invalid product data")
+                    @ApiResponse(responseCode = "400", description = "Invalid product data"),
+                    @ApiResponse(responseCode = "409", description = "A request with the same idempotency key is still in progress")
             })
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseEntity<ProductResponseDTO> createProduct(
-            @RequestBody @Parameter(description = "Product data to be created", required = true) ProductRequestDTO productRequest) {
-        // Call the service layer to create a product and return a successful response
-        return ResponseEntity.ok(productService.createProduct(productRequest));
+            @RequestBody @Parameter(description = "Product data to be created", required = true) ProductRequestDTO productRequest,
+            @RequestHeader(value = "Idempotency-Key", required = false)
+            @Parameter(description = "Client key making retries of the request safe") String idempotencyKey) {
+        // Call the service layer to create a product once per idempotency key and return a successful response
+        return ResponseEntity.ok(idempotencyService.execute("product", idempotencyKey, productRequest, ProductResponseDTO.class,
+                () -> productService.createProduct(productRequest)));
     }
 
     /**
@@ -84,6 +114,184 @@ public class ProductController {
         return ResponseEntity.ok(productService.updateProduct(productId, productRequestDTO));
     }
 
+    /**
+     * Adjusts the price of a filtered set of products in a single server-side operation.
+     *
+     * <p>This endpoint accepts a {@link BulkPriceAdjustmentRequestDTO} with the filters (product IDs, price range,
+     * name prefix) and a percentage or absolute adjustment, and returns how many products were matched and modified.</p>
+     *
+     * @param adjustmentRequest The filters and adjustment in {@link BulkPriceAdjustmentRequestDTO} format.
+     * @return A {@link ResponseEntity} containing the {@link BulkPriceAdjustmentResponseDTO} with the matched and modified counts.
+     */
+    @Operation(summary = "Bulk adjust product prices", description = "Applies a percentage or absolute price adjustment to all products matching the filters",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Prices adjusted successfully",
+                            content = @Content(schema = @Schema(implementation = BulkPriceAdjustmentResponseDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid adjustment request")
+            })
+    @PostMapping("/price-adjustments")
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<BulkPriceAdjustmentResponseDTO> adjustPrices(
+            @RequestBody @Parameter(description = "Filters and adjustment to apply", required = true) BulkPriceAdjustmentRequestDTO adjustmentRequest) {
+        // Apply the adjustment server-side and return the matched/modified counts
+        return ResponseEntity.ok(productService.adjustPrices(adjustmentRequest));
+    }
+
+    /**
+     * Submits a bulk price adjustment as a background job.
+     *
+     * <p>The request is validated immediately; the adjustment then runs in the background and the client polls the
+     * job returned in the body, whose location is also given in the {@code Location} header.</p>
+     *
+     * @param adjustmentRequest The filters and adjustment in {@link BulkPriceAdjustmentRequestDTO} format.
+     * @return A {@link ResponseEntity} containing the queued job as {@link JobResponseDTO}.
+     */
+    @Operation(summary = "Bulk adjust product prices in the background", description = "Submits a price adjustment job and returns it for polling",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Adjustment job submitted",
+                            content = @Content(schema = @Schema(implementation = JobResponseDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid adjustment request")
+            })
+    @PostMapping("/price-adjustments/async")
+    public ResponseEntity<JobResponseDTO> submitPriceAdjustment(
+            @RequestBody @Parameter(description = "Filters and adjustment to apply", required = true) BulkPriceAdjustmentRequestDTO adjustmentRequest) {
+        return accepted(productService.submitPriceAdjustment(adjustmentRequest));
+    }
+
+    /**
+     * Imports a product catalog streamed as CSV or NDJSON.
+     *
+     * <p>The request body is parsed while it is uploaded; valid rows are upserted by product name in batches and
+     * invalid rows are reported without failing the import. CSV uploads need a header row with the columns
+     * {@code name}, {@code price} and optionally {@code description}; NDJSON uploads contain one JSON object per line
+     * with the same fields.</p>
+     *
+     * @param contentType The content type of the upload, {@code text/csv} or {@code application/x-ndjson}.
+     * @param content     The streamed request body.
+     * @return A {@link ResponseEntity} containing the {@link ProductImportReportDTO}.
+     */
+    @Operation(summary = "Import a product catalog", description = "Streams a CSV or NDJSON catalog and upserts the products by name in batches",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Import finished, see the report for rejected rows",
+                            content = @Content(schema = @Schema(implementation = ProductImportReportDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Unsupported content type or invalid CSV header")
+            })
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<ProductImportReportDTO> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream content) {
+        // Stream the body straight into the import pipeline
+        return ResponseEntity.ok(productImportService.importProducts(content, ProductImportFormat.fromContentType(contentType)));
+    }
+
+    /**
+     * Submits the import of a product catalog as a background job.
+     *
+     * <p>The upload is stored as soon as it is received and imported in the background; the job result is the
+     * same report as the synchronous import. The client polls the job returned in the body, whose location is also
+     * given in the {@code Location} header.</p>
+     *
+     * @param contentType The content type of the upload, {@code text/csv} or {@code application/x-ndjson}.
+     * @param content     The streamed request body.
+     * @return A {@link ResponseEntity} containing the queued job as {@link JobResponseDTO}.
+     */
+    @Operation(summary = "Import a product catalog in the background", description = "Stores a CSV or NDJSON catalog and imports it as a job",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Import job submitted",
+                            content = @Content(schema = @Schema(implementation = JobResponseDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Unsupported content type")
+            })
+    @PostMapping(value = "/import/async", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<JobResponseDTO> submitImport(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream content) {
+        return accepted(productImportService.submitImport(content, ProductImportFormat.fromContentType(contentType)));
+    }
+
+    /**
+     * Exports the whole product catalog as NDJSON.
+     *
+     * <p>Products are streamed one JSON object per line as they are read, in the format accepted by the NDJSON
+     * import.</p>
+     *
+     * @return A {@link ResponseEntity} streaming the catalog.
+     */
+    @Operation(summary = "Export the product catalog", description = "Streams every product as newline-delimited JSON",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "The catalog, one product per line")
+            })
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(productExportService::exportProducts);
+    }
+
+    /**
+     * Searches the products by name and description.
+     *
+     * <p>Searches are answered from the embedded search index, ranked by relevance, and never query the database.
+     * The index follows the product writes near-real-time.</p>
+     *
+     * @param query    The text to search for.
+     * @param mode     How the terms are matched: AUTO (default), FUZZY, PREFIX or PHRASE.
+     * @param minPrice The minimum price, inclusive.
+     * @param maxPrice The maximum price, inclusive.
+     * @param page     The page number to retrieve (0-based index). Defaults to 0 if not provided.
+     * @param size     The number of products per page. Defaults to 10 if not provided.
+     * @return A {@link ResponseEntity} containing a {@link PageResponseDTO} of the matching products, best matches first.
+     */
+    @Operation(summary = "Search products", description = "Full-text search with fuzzy, prefix and phrase matching and price filters",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Matching products, best matches first",
+                            content = @Content(schema = @Schema(implementation = PageResponseDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Empty query, unknown mode, invalid price range or pagination")
+            })
+    @GetMapping("/search")
+    public ResponseEntity<PageResponseDTO<ProductResponseDTO>> searchProducts(
+            @RequestParam("q") @Parameter(description = "Text to search for", required = true) String query,
+            @RequestParam(defaultValue = "AUTO") @Parameter(description = "Matching mode (AUTO, FUZZY, PREFIX, PHRASE)") String mode,
+            @RequestParam(required = false) @Parameter(description = "Minimum price, inclusive") BigDecimal minPrice,
+            @RequestParam(required = false) @Parameter(description = "Maximum price, inclusive") BigDecimal maxPrice,
+            @RequestParam(defaultValue = "0") @Parameter(description = "Page number (default is 0)") int page,
+            @RequestParam(defaultValue = "10") @Parameter(description = "Page size (default is 10)") int size) {
+        return ResponseEntity.ok(productSearchService.searchProducts(query, SearchMode.fromParameter(mode), minPrice, maxPrice, page, size));
+    }
+
+    /**
+     * Rebuilds the search index from the product collection as a background job.
+     *
+     * @return A {@link ResponseEntity} containing the queued job as {@link JobResponseDTO}.
+     */
+    @Operation(summary = "Rebuild the search index", description = "Re-indexes every product in the background",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Rebuild job submitted",
+                            content = @Content(schema = @Schema(implementation = JobResponseDTO.class)))
+            })
+    @PostMapping("/search/reindex")
+    public ResponseEntity<JobResponseDTO> submitReindex() {
+        return accepted(productSearchService.submitReindex());
+    }
+
+    /**
+     * Retrieves the products viewed most in the recent past.
+     *
+     * @param limit The maximum number of products. Defaults to 10 if not provided.
+     * @return A {@link ResponseEntity} containing the trending products, most viewed first.
+     */
+    @Operation(summary = "Trending products", description = "Lists the products viewed most in the recent past",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Trending products, most viewed first",
+                            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = TrendingProductDTO.class)))),
+                    @ApiResponse(responseCode = "400", description = "Invalid limit")
+            })
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingProductDTO>> getTrendingProducts(
+            @RequestParam(defaultValue = "10") @Parameter(description = "Maximum number of products (default is 10)") int limit) {
+        return ResponseEntity.ok(trendingService.getTrendingProducts(limit));
+    }
+
     /**
      * Retrieves a paginated list of products.
      *
@@ -92,22 +300,22 @@ public class ProductController {
      *
      * @param page The page number to retrieve (0-based index). Defaults to 0 if not provided.
      * @param size The number of products per page. Defaults to 10 if not provided.
-     * @return A {@link ResponseEntity} containing a {@link Page} of {@link ProductResponseDTO} objects.
+     * @return A {@link ResponseEntity} containing a {@link PageResponseDTO} of {@link ProductResponseDTO} objects.
      */
     @Operation(summary = "Retrieve paginated products", description = "Fetches products with pagination support",
             responses = {
                     @ApiResponse(responseCode = "200", description = "List of products",
-                            content = @Content(schema = @Schema(implementation = ProductResponseDTO.class))),
+                            content = @Content(schema = @Schema(implementation = PageResponseDTO.class))),
                     @ApiResponse(responseCode = "400", description = "Invalid pagination parameters")
             })
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<Page<ProductResponseDTO>> getAllProducts(
+    public ResponseEntity<PageResponseDTO<ProductResponseDTO>> getAllProducts(
             @RequestParam(defaultValue = "0") @Parameter(description = "Page number (default is 0)", required = false) int page,
             @RequestParam(defaultValue = "10") @Parameter(description = "Page size (default is 10)", required = false) int size) {
 
         // Fetch paginated products from the service layer
-        Page<ProductResponseDTO> products = productService.getAllProducts(page, size);
+        PageResponseDTO<ProductResponseDTO> products = productService.getAllProducts(page, size);
 
         // Return the paginated result wrapped in ResponseEntity
         return ResponseEntity.ok(products);
@@ -169,4 +377,13 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.NO_CONTENT).body(Map.of("message", "Product successfully deleted"));
     }
 
+    /**
+     * Builds the {@code 202 Accepted} response of a submitted job, pointing to the job resource.
+     */
+    private static ResponseEntity<JobResponseDTO> accepted(JobResponseDTO job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/job/" + job.jobId()))
+                .body(job);
+    }
+
 }
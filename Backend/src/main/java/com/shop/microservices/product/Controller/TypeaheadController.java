@@ -0,0 +1,54 @@
+package com.shop.microservices.product.Controller;
+
+import com.shop.microservices.product.Dto.TypeaheadSuggestionDTO;
+import com.shop.microservices.product.Service.ServiceInterface.ITypeaheadService;
+import com.shop.microservices.product.Typeahead.SuggestionType;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controller suggesting product, category and material names while the user types.
+ *
+ * <p>Suggestions are served from an in-memory prefix index, so the endpoint can be called on every keystroke.</p>
+ */
+@RestController
+@RequestMapping("/api/v1/typeahead")
+@RequiredArgsConstructor
+@Tag(name = "Typeahead Controller", description = "APIs for autocompleting catalog names")
+public class TypeaheadController {
+
+    private final ITypeaheadService typeaheadService;
+
+    /**
+     * Suggests the most popular names whose name, or one of its words, starts with the typed prefix.
+     *
+     * @param prefix The typed prefix.
+     * @param limit  The maximum number of suggestions. Defaults to 10 if not provided.
+     * @param types  Comma-separated kinds of entities to suggest (PRODUCT, CATEGORY, MATERIAL). Defaults to all.
+     * @return A {@link ResponseEntity} containing the suggestions, most popular first.
+     */
+    @Operation(summary = "Autocomplete catalog names", description = "Returns the top product, category and material names for a prefix")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions, most popular first",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = TypeaheadSuggestionDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Empty prefix, invalid limit or unknown type")
+    })
+    @GetMapping
+    public ResponseEntity<List<TypeaheadSuggestionDTO>> suggest(
+            @RequestParam @Parameter(description = "Typed prefix", required = true) String prefix,
+            @RequestParam(defaultValue = "10") @Parameter(description = "Maximum number of suggestions (default is 10)") int limit,
+            @RequestParam(required = false) @Parameter(description = "Kinds of entities to suggest (PRODUCT, CATEGORY, MATERIAL)") String types) {
+        return ResponseEntity.ok(typeaheadService.suggest(prefix, limit, SuggestionType.fromParameter(types)));
+    }
+}
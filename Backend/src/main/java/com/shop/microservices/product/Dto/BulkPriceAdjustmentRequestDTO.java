@@ -0,0 +1,42 @@
+package com.shop.microservices.product.Dto;
+
+import com.shop.microservices.product.Model.PriceAdjustmentType;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) for adjusting the price of a filtered set of products in one operation.
+ * The filters are combined with a logical AND and at least one of them must be provided.
+ */
+@Getter
+@Setter
+@ApiModel(description = "Request DTO for a bulk price adjustment.")
+public class BulkPriceAdjustmentRequestDTO {
+
+    @ApiModelProperty(value = "Only adjust the products with these IDs", required = false)
+    private List<UUID> productIds;
+
+    @ApiModelProperty(value = "Only adjust products priced at or above this value", required = false, example = "10.00")
+    private BigDecimal minPrice;
+
+    @ApiModelProperty(value = "Only adjust products priced at or below this value", required = false, example = "500.00")
+    private BigDecimal maxPrice;
+
+    @ApiModelProperty(value = "Only adjust products whose name starts with this prefix (case-sensitive)", required = false, example = "Summer")
+    private String namePrefix;
+
+    @NotNull(message = "Adjustment type must not be null")
+    @ApiModelProperty(value = "PERCENTAGE or ABSOLUTE", required = true, example = "PERCENTAGE")
+    private PriceAdjustmentType adjustmentType;
+
+    @NotNull(message = "Adjustment value must not be null")
+    @ApiModelProperty(value = "The percentage or amount to add to the price; negative values lower the price", required = true, example = "-20")
+    private BigDecimal value;
+}
@@ -0,0 +1,17 @@
+package com.shop.microservices.product.Dto;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * Represents the outcome of a bulk price adjustment.
+ */
+@ApiModel(description = "Represents the outcome of a bulk price adjustment.")
+public record BulkPriceAdjustmentResponseDTO(
+
+        @ApiModelProperty(notes = "Number of products matching the filters whose adjusted price stays positive", required = true, example = "1200")
+        long matchedCount,
+
+        @ApiModelProperty(notes = "Number of products whose price was changed", required = true, example = "1180")
+        long modifiedCount
+) {}
@@ -0,0 +1,35 @@
+package com.shop.microservices.product.Dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.shop.microservices.product.Event.ChangeType;
+import com.shop.microservices.product.Model.CatalogEntityType;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Represents a change to the catalog as published to its consumers by the outbox relay.
+ */
+@ApiModel(description = "Represents a change to the catalog as published to its consumers.")
+public record CatalogChangeEventDTO(
+
+        @ApiModelProperty(notes = "Unique identifier of the event, to skip events delivered again", required = true, example = "01920e6c-4b7e-7c3a-9f1e-2d4b8a6c0e11")
+        UUID eventId,
+
+        @ApiModelProperty(notes = "The type of the changed entity", required = true, example = "PRODUCT")
+        CatalogEntityType entityType,
+
+        @ApiModelProperty(notes = "The identifier of the changed entity, absent for bulk changes", required = false, example = "550e8400-e29b-41d4-a716-446655440000")
+        UUID entityId,
+
+        @ApiModelProperty(notes = "The kind of change; upon BULK_CHANGED the products are read again", required = true, example = "UPDATED")
+        ChangeType changeType,
+
+        @ApiModelProperty(notes = "When the change was recorded", required = true, example = "2024-10-01T12:00:00Z")
+        Instant occurredAt,
+
+        @ApiModelProperty(notes = "The entity as written, as returned by its endpoints; absent for deletions and bulk changes", required = false)
+        JsonNode payload
+) {}
@@ -0,0 +1,50 @@
+package com.shop.microservices.product.Dto;
+
+import com.shop.microservices.product.Model.JobStatus;
+import com.shop.microservices.product.Model.JobType;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Represents the state of a background job returned to clients polling it.
+ */
+@ApiModel(description = "Represents the state of a background job returned to clients polling it.")
+public record JobResponseDTO(
+
+        @ApiModelProperty(notes = "Unique identifier of the job", required = true, example = "0192f0c4-7b1e-7c3a-9d4e-1a2b3c4d5e6f")
+        UUID jobId,
+
+        @ApiModelProperty(notes = "The kind of operation the job runs", required = true, example = "PRODUCT_IMPORT")
+        JobType type,
+
+        @ApiModelProperty(notes = "The current status of the job", required = true, example = "RUNNING")
+        JobStatus status,
+
+        @ApiModelProperty(notes = "Number of items processed so far", required = true, example = "25000")
+        long processed,
+
+        @ApiModelProperty(notes = "Total number of items to process, absent when unknown", example = "100000")
+        Long total,
+
+        @ApiModelProperty(notes = "The result of the operation once the job succeeded")
+        Map<String, Object> result,
+
+        @ApiModelProperty(notes = "The error message once the job failed")
+        String error,
+
+        @ApiModelProperty(notes = "Whether the cancellation of the job was requested", required = true, example = "false")
+        boolean cancelRequested,
+
+        @ApiModelProperty(notes = "When the job was submitted", required = true)
+        Instant createdAt,
+
+        @ApiModelProperty(notes = "When the job started running")
+        Instant startedAt,
+
+        @ApiModelProperty(notes = "When the job finished")
+        Instant finishedAt
+) {}
@@ -0,0 +1,108 @@
+package com.shop.microservices.product.Dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import org.springframework.data.domain.Page;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * Represents one page of a listing returned to the client.
+ * <p>
+ * Only the items and the position of the page are exposed, unlike a serialized {@link Page} whose pageable and sort
+ * internals change with the Spring Data version. The page is written by the {@link PageResponseSerializer}; when it is
+ * built from a page of entities, the items are mapped one by one as they are written, without an intermediate list.
+ * </p>
+ *
+ * @param items         The items of the page.
+ * @param page          The page number (0-based index).
+ * @param size          The requested page size.
+ * @param totalElements The total number of items over all pages.
+ * @param totalPages    The total number of pages.
+ * @param <T>           The type of the items.
+ */
+@ApiModel(description = "Represents one page of a listing.")
+@JsonSerialize(using = PageResponseSerializer.class)
+// hasNext is derived from the other fields, so it is written but not read back
+@JsonIgnoreProperties(value = "hasNext", allowGetters = true)
+public record PageResponseDTO<T>(
+
+        @ApiModelProperty(notes = "The items of the page", required = true)
+        List<T> items,
+
+        @ApiModelProperty(notes = "The page number (0-based index)", required = true, example = "0")
+        int page,
+
+        @ApiModelProperty(notes = "The requested page size", required = true, example = "10")
+        int size,
+
+        @ApiModelProperty(notes = "The total number of items over all pages", required = true, example = "125")
+        long totalElements,
+
+        @ApiModelProperty(notes = "The total number of pages", required = true, example = "13")
+        int totalPages
+) {
+
+    /**
+     * Returns whether a page follows this one.
+     *
+     * @return {@code true} if this is not the last page.
+     */
+    public boolean hasNext() {
+        return page + 1 < totalPages;
+    }
+
+    /**
+     * Creates the response of a page whose items are already mapped.
+     *
+     * @param page The page.
+     * @param <T>  The type of the items.
+     * @return The page response, sharing the items of the page.
+     */
+    public static <T> PageResponseDTO<T> of(Page<T> page) {
+        return new PageResponseDTO<>(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages());
+    }
+
+    /**
+     * Creates the response of a page of entities, mapped to their DTOs only when the items are read.
+     *
+     * @param page   The page of entities.
+     * @param mapper The mapping of an entity to its DTO.
+     * @param <S>    The type of the entities.
+     * @param <T>    The type of the items.
+     * @return The page response.
+     */
+    public static <S, T> PageResponseDTO<T> of(Page<S> page, Function<? super S, ? extends T> mapper) {
+        return new PageResponseDTO<>(new MappedList<>(page.getContent(), mapper),
+                page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages());
+    }
+
+    /**
+     * Read-only view of a list mapping each element when it is accessed.
+     */
+    private static final class MappedList<S, T> extends AbstractList<T> implements RandomAccess {
+
+        private final List<S> source;
+        private final Function<? super S, ? extends T> mapper;
+
+        private MappedList(List<S> source, Function<? super S, ? extends T> mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public T get(int index) {
+            return mapper.apply(source.get(index));
+        }
+
+        @Override
+        public int size() {
+            return source.size();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.shop.microservices.product.Dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link PageResponseDTO} directly to the JSON generator.
+ * <p>
+ * The items are written as they are iterated, so items mapped lazily are mapped one at a time while the response is
+ * streamed. The serializer of the item type is looked up once per page rather than once per item.
+ * </p>
+ */
+public class PageResponseSerializer extends StdSerializer<PageResponseDTO<?>> {
+
+    /**
+     * Creates the serializer, instantiated by Jackson.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public PageResponseSerializer() {
+        super((Class<PageResponseDTO<?>>) (Class) PageResponseDTO.class);
+    }
+
+    @Override
+    public void serialize(PageResponseDTO<?> value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(value);
+        generator.writeFieldName("items");
+        generator.writeStartArray(value.items(), value.items().size());
+        Class<?> itemType = null;
+        JsonSerializer<Object> itemSerializer = null;
+        for (Object item : value.items()) {
+            if (item == null) {
+                provider.defaultSerializeNull(generator);
+                continue;
+            }
+            if (item.getClass() != itemType) {
+                itemType = item.getClass();
+                itemSerializer = provider.findValueSerializer(itemType);
+            }
+            itemSerializer.serialize(item, generator, provider);
+        }
+        generator.writeEndArray();
+        generator.writeNumberField("page", value.page());
+        generator.writeNumberField("size", value.size());
+        generator.writeNumberField("totalElements", value.totalElements());
+        generator.writeNumberField("totalPages", value.totalPages());
+        generator.writeBooleanField("hasNext", value.hasNext());
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,17 @@
+package com.shop.microservices.product.Dto;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * Describes a row rejected by a product catalog import.
+ */
+@ApiModel(description = "Describes a row rejected by a product catalog import.")
+public record ProductImportErrorDTO(
+
+        @ApiModelProperty(notes = "The line where the rejected row starts", required = true, example = "42")
+        long line,
+
+        @ApiModelProperty(notes = "Why the row was rejected", required = true, example = "prod.error.3119: The product name must not be blank.")
+        String message
+) {}
@@ -0,0 +1,25 @@
+package com.shop.microservices.product.Dto;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.util.List;
+
+/**
+ * Represents the final report of a product catalog import.
+ */
+@ApiModel(description = "Represents the final report of a product catalog import.")
+public record ProductImportReportDTO(
+
+        @ApiModelProperty(notes = "Number of new products inserted", required = true, example = "1500")
+        long inserted,
+
+        @ApiModelProperty(notes = "Number of existing products updated, matched by name", required = true, example = "300")
+        long updated,
+
+        @ApiModelProperty(notes = "Number of rows rejected", required = true, example = "2")
+        long rejected,
+
+        @ApiModelProperty(notes = "The first rejected rows, capped to keep the report small", required = true)
+        List<ProductImportErrorDTO> errors
+) {}
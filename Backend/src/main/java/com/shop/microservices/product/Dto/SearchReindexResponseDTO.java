@@ -0,0 +1,17 @@
+package com.shop.microservices.product.Dto;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * Represents the outcome of a rebuild of the product search index.
+ */
+@ApiModel(description = "Represents the outcome of a rebuild of the product search index.")
+public record SearchReindexResponseDTO(
+
+        @ApiModelProperty(notes = "Number of products read from the collection and indexed", required = true, example = "125000")
+        long indexedCount,
+
+        @ApiModelProperty(notes = "Number of products in the index once rebuilt", required = true, example = "125000")
+        long documentCount
+) {}
@@ -0,0 +1,17 @@
+package com.shop.microservices.product.Dto;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * Represents a product trending now, with its recent views.
+ */
+@ApiModel(description = "Represents a product trending now, with its recent views.")
+public record TrendingProductDTO(
+
+        @ApiModelProperty(notes = "The trending product", required = true)
+        ProductResponseDTO product,
+
+        @ApiModelProperty(notes = "Estimated recent views, each counted for half after every half-life", required = true, example = "1250")
+        long recentViews
+) {}
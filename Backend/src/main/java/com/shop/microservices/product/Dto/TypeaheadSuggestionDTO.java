@@ -0,0 +1,23 @@
+package com.shop.microservices.product.Dto;
+
+import com.shop.microservices.product.Typeahead.SuggestionType;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.util.UUID;
+
+/**
+ * Represents a name suggested for a typed prefix.
+ */
+@ApiModel(description = "Represents a name suggested for a typed prefix.")
+public record TypeaheadSuggestionDTO(
+
+        @ApiModelProperty(notes = "The suggested name", required = true, example = "Wireless Mouse")
+        String name,
+
+        @ApiModelProperty(notes = "The kind of entity the name belongs to", required = true, example = "PRODUCT")
+        SuggestionType type,
+
+        @ApiModelProperty(notes = "Unique identifier of the entity", required = true, example = "550e8400-e29b-41d4-a716-446655440000")
+        UUID id
+) {}
@@ -0,0 +1,12 @@
+package com.shop.microservices.product.Event;
+
+/**
+ * Application event published once the catalog cache holds the whole catalog, so read models can be built from
+ * memory instead of reading the collections.
+ *
+ * @param products   The number of cached products.
+ * @param categories The number of cached categories.
+ * @param materials  The number of cached materials.
+ */
+public record CatalogLoadedEvent(int products, int categories, int materials) {
+}
@@ -0,0 +1,45 @@
+package com.shop.microservices.product.Event;
+
+import com.shop.microservices.product.Model.Category;
+
+import java.util.UUID;
+
+/**
+ * Application event published once a change to the category collection has been written.
+ *
+ * @param type       The kind of change.
+ * @param categoryId The identifier of the changed category.
+ * @param category   The category as written, {@code null} for deletions.
+ */
+public record CategoryChangeEvent(ChangeType type, UUID categoryId, Category category) {
+
+    /**
+     * Creates the event of a newly created category.
+     *
+     * @param category The saved category.
+     * @return The event.
+     */
+    public static CategoryChangeEvent created(Category category) {
+        return new CategoryChangeEvent(ChangeType.CREATED, category.getCategoryId(), category);
+    }
+
+    /**
+     * Creates the event of an updated category.
+     *
+     * @param category The saved category.
+     * @return The event.
+     */
+    public static CategoryChangeEvent updated(Category category) {
+        return new CategoryChangeEvent(ChangeType.UPDATED, category.getCategoryId(), category);
+    }
+
+    /**
+     * Creates the event of a deleted category.
+     *
+     * @param categoryId The identifier of the deleted category.
+     * @return The event.
+     */
+    public static CategoryChangeEvent deleted(UUID categoryId) {
+        return new CategoryChangeEvent(ChangeType.DELETED, categoryId, null);
+    }
+}
@@ -0,0 +1,27 @@
+package com.shop.microservices.product.Event;
+
+/**
+ * The kinds of changes published by the change events of the catalog entities.
+ */
+public enum ChangeType {
+
+    /**
+     * A single entity was created.
+     */
+    CREATED,
+
+    /**
+     * A single entity was updated.
+     */
+    UPDATED,
+
+    /**
+     * A single entity was deleted.
+     */
+    DELETED,
+
+    /**
+     * Any number of entities were written by a bulk operation.
+     */
+    BULK_CHANGED
+}
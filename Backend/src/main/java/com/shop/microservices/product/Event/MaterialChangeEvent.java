@@ -0,0 +1,45 @@
+package com.shop.microservices.product.Event;
+
+import com.shop.microservices.product.Model.Material;
+
+import java.util.UUID;
+
+/**
+ * Application event published once a change to the material collection has been written.
+ *
+ * @param type       The kind of change.
+ * @param materialId The identifier of the changed material.
+ * @param material   The material as written, {@code null} for deletions.
+ */
+public record MaterialChangeEvent(ChangeType type, UUID materialId, Material material) {
+
+    /**
+     * Creates the event of a newly created material.
+     *
+     * @param material The saved material.
+     * @return The event.
+     */
+    public static MaterialChangeEvent created(Material material) {
+        return new MaterialChangeEvent(ChangeType.CREATED, material.getMaterialId(), material);
+    }
+
+    /**
+     * Creates the event of an updated material.
+     *
+     * @param material The saved material.
+     * @return The event.
+     */
+    public static MaterialChangeEvent updated(Material material) {
+        return new MaterialChangeEvent(ChangeType.UPDATED, material.getMaterialId(), material);
+    }
+
+    /**
+     * Creates the event of a deleted material.
+     *
+     * @param materialId The identifier of the deleted material.
+     * @return The event.
+     */
+    public static MaterialChangeEvent deleted(UUID materialId) {
+        return new MaterialChangeEvent(ChangeType.DELETED, materialId, null);
+    }
+}
@@ -0,0 +1,59 @@
+package com.shop.microservices.product.Event;
+
+import com.shop.microservices.product.Model.Product;
+
+import java.util.UUID;
+
+/**
+ * Application event published once a change to the product collection has been written.
+ * <p>
+ * Single-product changes carry the written product (or, for deletions, only its identifier), so read models can
+ * be updated incrementally. Bulk writes such as imports and price adjustments touch an unknown set of products and
+ * are published as {@link ChangeType#BULK_CHANGED}, upon which read models rebuild from the collection.
+ * </p>
+ *
+ * @param type      The kind of change.
+ * @param productId The identifier of the changed product, {@code null} for bulk changes.
+ * @param product   The product as written, {@code null} for deletions and bulk changes.
+ */
+public record ProductChangeEvent(ChangeType type, UUID productId, Product product) {
+
+    /**
+     * Creates the event of a newly created product.
+     *
+     * @param product The saved product.
+     * @return The event.
+     */
+    public static ProductChangeEvent created(Product product) {
+        return new ProductChangeEvent(ChangeType.CREATED, product.getId(), product);
+    }
+
+    /**
+     * Creates the event of an updated product.
+     *
+     * @param product The saved product.
+     * @return The event.
+     */
+    public static ProductChangeEvent updated(Product product) {
+        return new ProductChangeEvent(ChangeType.UPDATED, product.getId(), product);
+    }
+
+    /**
+     * Creates the event of a deleted product.
+     *
+     * @param productId The identifier of the deleted product.
+     * @return The event.
+     */
+    public static ProductChangeEvent deleted(UUID productId) {
+        return new ProductChangeEvent(ChangeType.DELETED, productId, null);
+    }
+
+    /**
+     * Creates the event of a bulk write touching any number of products.
+     *
+     * @return The event.
+     */
+    public static ProductChangeEvent bulkChanged() {
+        return new ProductChangeEvent(ChangeType.BULK_CHANGED, null, null);
+    }
+}
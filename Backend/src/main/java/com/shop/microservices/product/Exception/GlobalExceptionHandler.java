@@ -131,6 +131,23 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Exception handler for {@link IdempotencyConflictException}.
+     * This method captures the exception and constructs a user-friendly error response.
+     *
+     * @param ex The {@link IdempotencyConflictException} thrown when a request with the same idempotency key is in progress.
+     * @return A {@link ResponseEntity} containing the error response as a map with relevant details.
+     */
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyConflictException(IdempotencyConflictException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", HttpStatus.CONFLICT.value());
+        response.put("message", errorMessageUtil.getErrorMessage(ex.getErrorCode(), ex.getMessageArgs()));
+
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
     /**
      * Handles ApplicationException thrown for general application-specific errors.
      * <p>
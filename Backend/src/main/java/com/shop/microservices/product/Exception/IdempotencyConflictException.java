@@ -0,0 +1,17 @@
+package com.shop.microservices.product.Exception;
+
+/**
+ * Exception thrown when a request arrives with an {@code Idempotency-Key} whose first request is still being
+ * processed. The client is expected to retry once the first request has completed.
+ */
+public class IdempotencyConflictException extends ApplicationException {
+
+    /**
+     * Constructor for IdempotencyConflictException.
+     *
+     * @param errorCode The error code to be used for this exception.
+     */
+    public IdempotencyConflictException(String errorCode) {
+        super(errorCode, null);
+    }
+}
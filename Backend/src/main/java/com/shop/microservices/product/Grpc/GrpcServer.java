@@ -0,0 +1,105 @@
+package com.shop.microservices.product.Grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gRPC server of the internal APIs, listening on {@code shop.grpc.port} next to the HTTP server.
+ * <p>
+ * Every {@link BindableService} bean is served. Calls run on virtual threads, so a lookup waiting on MongoDB holds
+ * no platform thread, while the messages of many concurrent calls are multiplexed over each client connection. The
+ * server is started with the application context and, on shutdown, lets the calls in progress complete for up to
+ * {@code shop.grpc.shutdown-grace-period} before cancelling them.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shop.grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcServer implements SmartLifecycle {
+
+    private final List<BindableService> services;
+    private final int port;
+    private final Duration shutdownGracePeriod;
+    private volatile ExecutorService executor;
+    private volatile Server server;
+
+    /**
+     * Constructs the server.
+     *
+     * @param services            The services to serve.
+     * @param port                The port to listen on, 0 for any free port.
+     * @param shutdownGracePeriod How long the calls in progress may take to complete on shutdown.
+     */
+    public GrpcServer(List<BindableService> services,
+                      @Value("${shop.grpc.port:9090}") int port,
+                      @Value("${shop.grpc.shutdown-grace-period:10s}") Duration shutdownGracePeriod) {
+        this.services = List.copyOf(services);
+        this.port = port;
+        this.shutdownGracePeriod = shutdownGracePeriod;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        ServerBuilder<?> builder = Grpc.newServerBuilderForPort(port, InsecureServerCredentials.create())
+                .executor(executor);
+        services.forEach(builder::addService);
+        try {
+            server = builder.build().start();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("The gRPC server could not listen on port " + port, ex);
+        }
+        log.info("gRPC server started on port {} with {} services", server.getPort(), services.size());
+    }
+
+    @Override
+    public void stop() {
+        Server running = server;
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(shutdownGracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("gRPC calls still in progress after {}, cancelling them", shutdownGracePeriod);
+                running.shutdownNow().awaitTermination(shutdownGracePeriod.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException ex) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdown();
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Returns the port the server listens on, the one chosen when configured with 0.
+     *
+     * @return The port, or -1 if the server is not running.
+     */
+    public int getPort() {
+        Server running = server;
+        return running == null ? -1 : running.getPort();
+    }
+}
@@ -0,0 +1,275 @@
+package com.shop.microservices.product.Grpc;
+
+import com.shop.microservices.product.Dto.ProductResponseDTO;
+import com.shop.microservices.product.Exception.ApplicationException;
+import com.shop.microservices.product.Exception.FieldValidationException;
+import com.shop.microservices.product.Exception.InvalidInputException;
+import com.shop.microservices.product.Exception.ResourceNotFoundException;
+import com.shop.microservices.product.Mapper.ProductProtobufMapper;
+import com.shop.microservices.product.Proto.ProductLookupGrpc;
+import com.shop.microservices.product.Proto.ProductLookupProtos.GetProductRequest;
+import com.shop.microservices.product.Proto.ProductLookupProtos.ListProductsRequest;
+import com.shop.microservices.product.Proto.ProductLookupProtos.LookupError;
+import com.shop.microservices.product.Proto.ProductLookupProtos.ProductResult;
+import com.shop.microservices.product.Proto.ProductProtos;
+import com.shop.microservices.product.Service.ServiceInterface.IProductService;
+import com.shop.microservices.product.Utils.ErrorMessageUtil;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * gRPC implementation of the {@code ProductLookup} service of {@code src/main/proto/product_lookup.proto}, over
+ * {@link IProductService}, for internal callers.
+ * <p>
+ * Lookups go through {@link IProductService#getProductById(String)}, so they are served from the catalog cache and
+ * share the batched database reads of the REST endpoints. Errors are reported with the gRPC status matching the HTTP
+ * status of the REST endpoints, described by the same error message, with the error code in the
+ * {@value #ERROR_CODE_HEADER} trailer.
+ * </p>
+ * <p>
+ * Both streaming calls follow the flow control of the client: {@code BatchGetProducts} only requests the next
+ * identifier once the result of the previous one could be sent, and {@code ListProducts} only fetches the next page
+ * once the client has consumed the previous one, so a slow client holds back neither memory nor database reads.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ProductLookupGrpcService extends ProductLookupGrpc.ProductLookupImplBase {
+
+    static final String ERROR_CODE_HEADER = "shop-error-code";
+    static final Metadata.Key<String> ERROR_CODE = Metadata.Key.of(ERROR_CODE_HEADER, Metadata.ASCII_STRING_MARSHALLER);
+
+    private final IProductService productService;
+    private final ProductProtobufMapper protobufMapper;
+    private final ErrorMessageUtil errorMessageUtil;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    /**
+     * Constructs the service.
+     *
+     * @param productService   The product service.
+     * @param protobufMapper   The mapper to the Protobuf messages.
+     * @param errorMessageUtil The error message lookup.
+     * @param defaultPageSize  The number of products fetched per page by {@code ListProducts}, unless requested otherwise.
+     * @param maxPageSize      The largest page size a {@code ListProducts} call may request.
+     */
+    public ProductLookupGrpcService(IProductService productService,
+                                    ProductProtobufMapper protobufMapper,
+                                    ErrorMessageUtil errorMessageUtil,
+                                    @Value("${shop.grpc.list-products.page-size:500}") int defaultPageSize,
+                                    @Value("${shop.grpc.list-products.max-page-size:1000}") int maxPageSize) {
+        this.productService = productService;
+        this.protobufMapper = protobufMapper;
+        this.errorMessageUtil = errorMessageUtil;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Returns a product by its identifier.
+     *
+     * @param request          The identifier of the product.
+     * @param responseObserver The observer receiving the product, or the error.
+     */
+    @Override
+    public void getProduct(GetProductRequest request, StreamObserver<ProductProtos.Product> responseObserver) {
+        ProductProtos.Product product;
+        try {
+            product = protobufMapper.toMessage(productService.getProductById(request.getId()));
+        } catch (RuntimeException ex) {
+            responseObserver.onError(toStatusException(ex));
+            return;
+        }
+        responseObserver.onNext(product);
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Looks up the products as their identifiers are received, sending one result per identifier, in order. A failed
+     * lookup is reported in its result and does not end the call.
+     * <p>
+     * Identifiers are requested one at a time: the next one is requested as soon as a result is sent, unless the
+     * client is not reading fast enough, in which case it is requested once the transport is ready again.
+     * </p>
+     *
+     * @param responseObserver The observer receiving the results.
+     * @return The observer receiving the identifiers.
+     */
+    @Override
+    public StreamObserver<GetProductRequest> batchGetProducts(StreamObserver<ProductResult> responseObserver) {
+        ServerCallStreamObserver<ProductResult> results = (ServerCallStreamObserver<ProductResult>) responseObserver;
+        results.disableAutoRequest();
+        BatchGet batchGet = new BatchGet(results);
+        results.setOnReadyHandler(batchGet::onReady);
+        return batchGet;
+    }
+
+    /**
+     * Streams every product, in the listing order, fetching the pages through
+     * {@link IProductService#getProductsAfter(String, int)} as the client consumes them.
+     * <p>
+     * Each page is read after the last product sent rather than at an offset, so deep pages cost no more than the
+     * first one, and a product created or deleted during the call never shifts the others: no product is skipped or
+     * sent twice. A product created during the call is sent if it sorts after the products already sent.
+     * </p>
+     *
+     * @param request          The page size to fetch with, and the product to resume after.
+     * @param responseObserver The observer receiving the products.
+     */
+    @Override
+    public void listProducts(ListProductsRequest request, StreamObserver<ProductProtos.Product> responseObserver) {
+        ServerCallStreamObserver<ProductProtos.Product> products = (ServerCallStreamObserver<ProductProtos.Product>) responseObserver;
+        int pageSize = request.getPageSize() > 0 ? Math.min(request.getPageSize(), maxPageSize) : defaultPageSize;
+        String afterId = request.getAfterId().isEmpty() ? null : request.getAfterId();
+        Listing listing = new Listing(products, pageSize, afterId);
+        products.setOnCancelHandler(listing::cancel);
+        products.setOnReadyHandler(listing::drain);
+    }
+
+    /**
+     * Returns the status of a failed lookup: {@code NOT_FOUND} and {@code INVALID_ARGUMENT} for the application errors
+     * the REST endpoints answer with 404 and 400, {@code INTERNAL} otherwise.
+     */
+    private Status toStatus(RuntimeException ex) {
+        if (ex instanceof ApplicationException applicationException) {
+            Status status;
+            if (ex instanceof ResourceNotFoundException) {
+                status = Status.NOT_FOUND;
+            } else if (ex instanceof InvalidInputException || ex instanceof FieldValidationException) {
+                status = Status.INVALID_ARGUMENT;
+            } else {
+                status = Status.INTERNAL;
+            }
+            return status.withDescription(
+                    errorMessageUtil.getErrorMessage(applicationException.getErrorCode(), applicationException.getMessageArgs()));
+        }
+        log.error("Unexpected error occurred during a gRPC product lookup. Error Message: {}", ex.getMessage(), ex);
+        return Status.INTERNAL.withDescription(errorMessageUtil.getErrorMessage("generic.error.message"));
+    }
+
+    private RuntimeException toStatusException(RuntimeException ex) {
+        Metadata trailers = new Metadata();
+        trailers.put(ERROR_CODE, ex instanceof ApplicationException applicationException
+                ? applicationException.getErrorCode()
+                : "generic.error.message");
+        return toStatus(ex).asRuntimeException(trailers);
+    }
+
+    /**
+     * A {@code BatchGetProducts} call. The gRPC callbacks of a call never run concurrently, so its state needs no
+     * synchronization.
+     */
+    private final class BatchGet implements StreamObserver<GetProductRequest> {
+
+        private final ServerCallStreamObserver<ProductResult> results;
+        // Whether an identifier was requested when the transport was last ready
+        private boolean wasReady;
+
+        private BatchGet(ServerCallStreamObserver<ProductResult> results) {
+            this.results = results;
+        }
+
+        private void onReady() {
+            if (results.isReady() && !wasReady) {
+                wasReady = true;
+                results.request(1);
+            }
+        }
+
+        @Override
+        public void onNext(GetProductRequest request) {
+            ProductResult.Builder result = ProductResult.newBuilder().setId(request.getId());
+            try {
+                result.setProduct(protobufMapper.toMessage(productService.getProductById(request.getId())));
+            } catch (RuntimeException ex) {
+                Status status = toStatus(ex);
+                result.setError(LookupError.newBuilder()
+                        .setStatus(status.getCode().value())
+                        .setCode(ex instanceof ApplicationException applicationException
+                                ? applicationException.getErrorCode()
+                                : "generic.error.message")
+                        .setMessage(status.getDescription()));
+            }
+            results.onNext(result.build());
+
+            if (results.isReady()) {
+                results.request(1);
+            } else {
+                // Requested again by onReady, once the client has caught up
+                wasReady = false;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            // Cancelled by the client, nothing more can be sent
+            log.debug("gRPC batch product lookup cancelled: {}", t.getMessage());
+        }
+
+        @Override
+        public void onCompleted() {
+            results.onCompleted();
+        }
+    }
+
+    /**
+     * A {@code ListProducts} call, sending products while the transport is ready and resuming when it is ready again.
+     */
+    private final class Listing {
+
+        private final ServerCallStreamObserver<ProductProtos.Product> products;
+        private final int pageSize;
+        private Iterator<ProductResponseDTO> items = Collections.emptyIterator();
+        // The identifier of the last product fetched, the next page starts after it
+        private String lastId;
+        private boolean lastPage;
+        private boolean done;
+
+        private Listing(ServerCallStreamObserver<ProductProtos.Product> products, int pageSize, String afterId) {
+            this.products = products;
+            this.pageSize = pageSize;
+            this.lastId = afterId;
+        }
+
+        private void drain() {
+            try {
+                while (!done && products.isReady()) {
+                    if (items.hasNext()) {
+                        products.onNext(protobufMapper.toMessage(items.next()));
+                    } else if (lastPage) {
+                        done = true;
+                        products.onCompleted();
+                    } else {
+                        fetchNextPage();
+                    }
+                }
+            } catch (RuntimeException ex) {
+                done = true;
+                products.onError(toStatusException(ex));
+            }
+        }
+
+        private void fetchNextPage() {
+            List<ProductResponseDTO> page = productService.getProductsAfter(lastId, pageSize);
+            items = page.iterator();
+            lastPage = page.size() < pageSize;
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).id().toString();
+            }
+        }
+
+        private void cancel() {
+            done = true;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.shop.microservices.product.Identifier;
+
+/**
+ * The identifier generation strategies that can be selected per entity type in {@code application.properties}.
+ */
+public enum IdGenerationStrategy {
+
+    /**
+     * Random version 4 UUIDs, see {@link RandomUuidGenerator}.
+     */
+    RANDOM,
+
+    /**
+     * Time-ordered version 7 UUIDs, see {@link UuidV7Generator}.
+     */
+    UUID_V7
+}
@@ -0,0 +1,17 @@
+package com.shop.microservices.product.Identifier;
+
+import java.util.UUID;
+
+/**
+ * Strategy for generating the unique identifiers assigned to new entities before they are persisted.
+ * Implementations must be thread-safe, as a single instance is shared by all request threads.
+ */
+public interface IdGenerator {
+
+    /**
+     * Generates a new unique identifier.
+     *
+     * @return A newly generated {@link UUID}, never {@code null}.
+     */
+    UUID generate();
+}
@@ -0,0 +1,71 @@
+package com.shop.microservices.product.Identifier;
+
+import com.shop.microservices.product.Model.Category;
+import com.shop.microservices.product.Model.Job;
+import com.shop.microservices.product.Model.Material;
+import com.shop.microservices.product.Model.OutboxEvent;
+import com.shop.microservices.product.Model.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Registry holding the {@link IdGenerator} configured for each entity type.
+ * <p>
+ * The strategy is selected per entity type with the {@code shop.id-generator.*} properties. All entity types
+ * configured with the same strategy share one generator instance, so time-ordered identifiers stay monotonic
+ * across the whole service. {@link OutboxEvent} identifiers are always time-ordered, as the outbox relay publishes
+ * the events in their order.
+ * </p>
+ */
+@Slf4j
+@Component
+public class IdGeneratorRegistry {
+
+    private final Map<Class<?>, IdGenerator> generators;
+
+    /**
+     * Constructs the registry from the configured strategy of each entity type.
+     *
+     * @param productStrategy  The strategy used for {@link Product} identifiers.
+     * @param categoryStrategy The strategy used for {@link Category} identifiers.
+     * @param materialStrategy The strategy used for {@link Material} identifiers.
+     * @param jobStrategy      The strategy used for {@link Job} identifiers.
+     */
+    public IdGeneratorRegistry(@Value("${shop.id-generator.product:UUID_V7}") IdGenerationStrategy productStrategy,
+                               @Value("${shop.id-generator.category:UUID_V7}") IdGenerationStrategy categoryStrategy,
+                               @Value("${shop.id-generator.material:UUID_V7}") IdGenerationStrategy materialStrategy,
+                               @Value("${shop.id-generator.job:UUID_V7}") IdGenerationStrategy jobStrategy) {
+        Map<IdGenerationStrategy, IdGenerator> instances = Map.of(
+                IdGenerationStrategy.RANDOM, new RandomUuidGenerator(),
+                IdGenerationStrategy.UUID_V7, new UuidV7Generator()
+        );
+        this.generators = Map.of(
+                Product.class, instances.get(productStrategy),
+                Category.class, instances.get(categoryStrategy),
+                Material.class, instances.get(materialStrategy),
+                Job.class, instances.get(jobStrategy),
+                OutboxEvent.class, instances.get(IdGenerationStrategy.UUID_V7)
+        );
+        log.info("Id generation strategies - product: {}, category: {}, material: {}, job: {}",
+                productStrategy, categoryStrategy, materialStrategy, jobStrategy);
+    }
+
+    /**
+     * Generates a new identifier for the given entity type.
+     *
+     * @param entityType The class of the entity that needs an identifier.
+     * @return A newly generated {@link UUID}.
+     * @throws IllegalArgumentException If no generator is registered for the entity type.
+     */
+    public UUID nextId(Class<?> entityType) {
+        IdGenerator generator = generators.get(entityType);
+        if (generator == null) {
+            throw new IllegalArgumentException("No id generator registered for " + entityType.getName());
+        }
+        return generator.generate();
+    }
+}
@@ -0,0 +1,23 @@
+package com.shop.microservices.product.Identifier;
+
+import java.util.UUID;
+
+/**
+ * {@link IdGenerator} producing random (version 4) UUIDs.
+ * <p>
+ * Random identifiers carry no ordering, so consecutive inserts land at random positions of the {@code _id} index.
+ * This strategy is kept for entity types that do not benefit from time-ordered identifiers.
+ * </p>
+ */
+public class RandomUuidGenerator implements IdGenerator {
+
+    /**
+     * Generates a random version 4 UUID.
+     *
+     * @return A new random {@link UUID}.
+     */
+    @Override
+    public UUID generate() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,79 @@
+package com.shop.microservices.product.Identifier;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link IdGenerator} producing time-ordered version 7 UUIDs as described in RFC 9562.
+ * <p>
+ * The 48 most significant bits hold the Unix timestamp in milliseconds, followed by the version nibble and a
+ * 12-bit sequence counter (the {@code rand_a} field); the remaining 62 bits are random. The timestamp and the
+ * counter are kept together in a single {@link AtomicLong}, so identifiers are strictly increasing across all
+ * threads without any locking: within the same millisecond the counter is incremented, and when it overflows
+ * the carry moves the timestamp forward by one millisecond until the clock catches up.
+ * </p>
+ * <p>
+ * Because new identifiers are always greater than the previous ones, inserts append to the right-most page of the
+ * {@code _id} index instead of splitting random pages, and sorting by {@code _id} yields insertion order.
+ * </p>
+ */
+public class UuidV7Generator implements IdGenerator {
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final long VARIANT_RFC_4122 = 0x8000000000000000L;
+
+    // Last issued (timestamp << 12 | sequence) value.
+    private final AtomicLong lastTimestampAndSequence = new AtomicLong();
+    private final LongSupplier clock;
+
+    /**
+     * Creates a generator driven by the system clock.
+     */
+    public UuidV7Generator() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a generator driven by the given millisecond clock.
+     *
+     * @param clock Supplier of the current Unix time in milliseconds.
+     */
+    UuidV7Generator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Generates a new version 7 UUID that is greater than every UUID previously returned by this instance.
+     *
+     * @return A new time-ordered {@link UUID}.
+     */
+    @Override
+    public UUID generate() {
+        long timestampAndSequence = lastTimestampAndSequence.updateAndGet(previous -> {
+            long candidate = clock.getAsLong() << SEQUENCE_BITS;
+            return candidate > previous ? candidate : previous + 1;
+        });
+
+        long timestamp = timestampAndSequence >>> SEQUENCE_BITS;
+        long sequence = timestampAndSequence & SEQUENCE_MASK;
+
+        long mostSigBits = (timestamp << 16) | VERSION_7 | sequence;
+        long leastSigBits = (ThreadLocalRandom.current().nextLong() & VARIANT_MASK) | VARIANT_RFC_4122;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Extracts the Unix timestamp in milliseconds embedded in a version 7 UUID.
+     *
+     * @param uuid A UUID produced by this generator.
+     * @return The embedded timestamp in milliseconds.
+     */
+    public static long timestampOf(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -0,0 +1,157 @@
+package com.shop.microservices.product.Import;
+
+import com.shop.microservices.product.Exception.InvalidInputException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads products from RFC 4180 CSV.
+ * <p>
+ * The first row is a header naming the columns; {@code name} and {@code price} are required and {@code description}
+ * is optional, in any order. Fields may be quoted with double quotes, in which case they can contain commas, line
+ * breaks and escaped quotes ({@code ""}).
+ * </p>
+ */
+public class CsvProductRecordReader extends ProductRecordReader {
+
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private int nameColumn = -1;
+    private int descriptionColumn = -1;
+    private int priceColumn = -1;
+    private boolean headerRead;
+
+    /**
+     * @param reader A reader supporting {@link Reader#mark(int)}, such as a {@link java.io.BufferedReader}.
+     */
+    public CsvProductRecordReader(Reader reader) {
+        super(reader);
+    }
+
+    /**
+     * Reads the next record, reading the header row first.
+     *
+     * @return The next {@link ProductImportRecord}, or {@code null} at the end of the input.
+     * @throws IOException           If the input cannot be read.
+     * @throws InvalidInputException If the header is missing required columns.
+     */
+    @Override
+    public ProductImportRecord next() throws IOException {
+        if (!headerRead) {
+            skipByteOrderMark();
+            readHeader();
+        }
+        while (true) {
+            long recordLine = line;
+            RowStatus status = readRow();
+            switch (status) {
+                case END:
+                    return null;
+                case TOO_LONG:
+                    return ProductImportRecord.failed(recordLine, "prod.error.3118", "record too long");
+                case UNTERMINATED_QUOTE:
+                    return ProductImportRecord.failed(recordLine, "prod.error.3118", "unterminated quoted field");
+                default:
+                    break;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue; // blank line
+            }
+            return ProductImportRecord.of(recordLine, column(nameColumn), column(descriptionColumn), column(priceColumn));
+        }
+    }
+
+    private void readHeader() throws IOException {
+        headerRead = true;
+        if (readRow() != RowStatus.ROW) {
+            throw new InvalidInputException("prod.error.3117");
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            switch (fields.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "name" -> nameColumn = i;
+                case "description" -> descriptionColumn = i;
+                case "price" -> priceColumn = i;
+                default -> { /* unknown columns are ignored */ }
+            }
+        }
+        if (nameColumn < 0 || priceColumn < 0) {
+            throw new InvalidInputException("prod.error.3117");
+        }
+    }
+
+    private String column(int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+
+    private enum RowStatus { ROW, END, TOO_LONG, UNTERMINATED_QUOTE }
+
+    /**
+     * Reads one row into {@link #fields}.
+     */
+    private RowStatus readRow() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        int length = 0;
+        boolean quoted = false;
+        boolean any = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (++length > MAX_RECORD_LENGTH) {
+                skipLine(c);
+                return RowStatus.TOO_LONG;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                fields.add(stripCarriageReturn(field));
+                return RowStatus.ROW;
+            } else {
+                field.append((char) c);
+            }
+        }
+        if (!any) {
+            return RowStatus.END;
+        }
+        if (quoted) {
+            return RowStatus.UNTERMINATED_QUOTE;
+        }
+        fields.add(stripCarriageReturn(field));
+        return RowStatus.ROW;
+    }
+
+    private static String stripCarriageReturn(StringBuilder value) {
+        int end = value.length();
+        if (end > 0 && value.charAt(end - 1) == '\r') {
+            end--;
+        }
+        return value.substring(0, end);
+    }
+}
@@ -0,0 +1,71 @@
+package com.shop.microservices.product.Import;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads products from newline-delimited JSON, one object per line with the fields {@code name},
+ * {@code description} and {@code price}. Blank lines are ignored.
+ */
+public class NdjsonProductRecordReader extends ProductRecordReader {
+
+    private final ObjectMapper objectMapper;
+    private final StringBuilder buffer = new StringBuilder();
+
+    /**
+     * @param reader       A reader supporting {@link Reader#mark(int)}, such as a {@link java.io.BufferedReader}.
+     * @param objectMapper The mapper parsing each line.
+     */
+    public NdjsonProductRecordReader(Reader reader, ObjectMapper objectMapper) {
+        super(reader);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ProductImportRecord next() throws IOException {
+        skipByteOrderMark();
+        while (true) {
+            buffer.setLength(0);
+            long recordLine = line;
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            while (c != -1 && c != '\n') {
+                if (buffer.length() == MAX_RECORD_LENGTH) {
+                    skipLine(c);
+                    return ProductImportRecord.failed(recordLine, "prod.error.3118", "record too long");
+                }
+                buffer.append((char) c);
+                c = reader.read();
+            }
+            if (c == '\n') {
+                line++;
+            }
+            if (!buffer.isEmpty() && !buffer.toString().isBlank()) {
+                return parse(recordLine, buffer.toString());
+            }
+        }
+    }
+
+    private ProductImportRecord parse(long recordLine, String json) {
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            if (!node.isObject()) {
+                return ProductImportRecord.failed(recordLine, "prod.error.3118", "expected a JSON object");
+            }
+            return ProductImportRecord.of(recordLine, text(node, "name"), text(node, "description"), text(node, "price"));
+        } catch (JsonProcessingException ex) {
+            return ProductImportRecord.failed(recordLine, "prod.error.3118", ex.getOriginalMessage());
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
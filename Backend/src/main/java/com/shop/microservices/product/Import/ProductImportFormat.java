@@ -0,0 +1,78 @@
+package com.shop.microservices.product.Import;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shop.microservices.product.Exception.InvalidInputException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The file formats accepted by the product catalog import.
+ */
+public enum ProductImportFormat {
+
+    /**
+     * Comma-separated values with a header row, see {@link CsvProductRecordReader}.
+     */
+    CSV("text/csv"),
+
+    /**
+     * Newline-delimited JSON, see {@link NdjsonProductRecordReader}.
+     */
+    NDJSON("application/x-ndjson");
+
+    private final MediaType mediaType;
+
+    ProductImportFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    /**
+     * @return The media type of the format.
+     */
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Resolves the import format from a request content type.
+     *
+     * @param contentType The {@code Content-Type} of the upload.
+     * @return The matching {@link ProductImportFormat}.
+     * @throws InvalidInputException If the content type is missing or not supported.
+     */
+    public static ProductImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            try {
+                MediaType requested = MediaType.parseMediaType(contentType);
+                for (ProductImportFormat format : values()) {
+                    if (format.mediaType.isCompatibleWith(requested)) {
+                        return format;
+                    }
+                }
+            } catch (InvalidMediaTypeException ex) {
+                // fall through to the unsupported content type error
+            }
+        }
+        throw new InvalidInputException("prod.error.3116");
+    }
+
+    /**
+     * Opens a streaming record reader for the given UTF-8 content.
+     *
+     * @param content      The uploaded content.
+     * @param objectMapper The mapper used to parse JSON records.
+     * @return A {@link ProductRecordReader} for this format.
+     */
+    public ProductRecordReader open(InputStream content, ObjectMapper objectMapper) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+        return switch (this) {
+            case CSV -> new CsvProductRecordReader(reader);
+            case NDJSON -> new NdjsonProductRecordReader(reader, objectMapper);
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.shop.microservices.product.Import;
+
+/**
+ * A single product record read from an import file, before validation.
+ * <p>
+ * Either the raw field values are set, or {@code errorCode}/{@code errorArgs} describe why the record could not be
+ * parsed. Values are kept as text so that validation is done in one place for every import format.
+ * </p>
+ *
+ * @param line        The 1-based line number where the record starts.
+ * @param name        The raw product name, may be {@code null}.
+ * @param description The raw product description, may be {@code null}.
+ * @param price       The raw product price, may be {@code null}.
+ * @param errorCode   The error message code if the record could not be parsed, otherwise {@code null}.
+ * @param errorArgs   The arguments of the error message, may be {@code null}.
+ */
+public record ProductImportRecord(long line, String name, String description, String price,
+                                  String errorCode, Object[] errorArgs) {
+
+    /**
+     * Creates a successfully parsed record.
+     */
+    static ProductImportRecord of(long line, String name, String description, String price) {
+        return new ProductImportRecord(line, name, description, price, null, null);
+    }
+
+    /**
+     * Creates a record that could not be parsed.
+     */
+    static ProductImportRecord failed(long line, String errorCode, Object... errorArgs) {
+        return new ProductImportRecord(line, null, null, null, errorCode, errorArgs);
+    }
+
+    /**
+     * @return {@code true} if the record could not be parsed.
+     */
+    public boolean isFailed() {
+        return errorCode != null;
+    }
+}
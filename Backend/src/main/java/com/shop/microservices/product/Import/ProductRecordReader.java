@@ -0,0 +1,78 @@
+package com.shop.microservices.product.Import;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Base class of the streaming readers turning an import file into {@link ProductImportRecord}s.
+ * <p>
+ * Readers consume the underlying {@link Reader} one record at a time and never hold more than a single record in
+ * memory. Records longer than {@link #MAX_RECORD_LENGTH} characters are rejected, so a malformed file cannot make
+ * the reader buffer unbounded input. A leading UTF-8 byte order mark, as written by spreadsheet exports, is skipped.
+ * </p>
+ */
+public abstract class ProductRecordReader implements Closeable {
+
+    /**
+     * The maximum number of characters of a single record.
+     */
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private static final int BYTE_ORDER_MARK = '\uFEFF';
+
+    protected final Reader reader;
+    protected long line = 1;
+    private boolean started;
+
+    /**
+     * @param reader A reader supporting {@link Reader#mark(int)}, such as a {@link java.io.BufferedReader}.
+     */
+    protected ProductRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return The next {@link ProductImportRecord}, or {@code null} at the end of the input.
+     * @throws IOException If the underlying input cannot be read.
+     */
+    public abstract ProductImportRecord next() throws IOException;
+
+    /**
+     * Skips the byte order mark starting the input, if any; does nothing after the first call.
+     *
+     * @throws IOException If the underlying input cannot be read.
+     */
+    protected void skipByteOrderMark() throws IOException {
+        if (started) {
+            return;
+        }
+        started = true;
+        reader.mark(1);
+        if (reader.read() != BYTE_ORDER_MARK) {
+            reader.reset();
+        }
+    }
+
+    /**
+     * Skips the remainder of the current line after an oversized record.
+     *
+     * @param c The last character read.
+     * @throws IOException If the underlying input cannot be read.
+     */
+    protected void skipLine(int c) throws IOException {
+        while (c != -1 && c != '\n') {
+            c = reader.read();
+        }
+        if (c == '\n') {
+            line++;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
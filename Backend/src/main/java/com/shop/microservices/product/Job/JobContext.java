@@ -0,0 +1,39 @@
+package com.shop.microservices.product.Job;
+
+/**
+ * Handle given to a running job, used to report progress and to cooperate with cancellation.
+ * <p>
+ * Cancellation is cooperative: a task is never interrupted while it talks to the database, it is expected to
+ * check {@link #isCancelled()} between units of work and to stop by throwing a
+ * {@link java.util.concurrent.CancellationException}.
+ * </p>
+ */
+public interface JobContext {
+
+    /**
+     * Context used when an operation runs outside of a job: it is never cancelled and ignores progress.
+     */
+    JobContext NONE = new JobContext() {
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public void reportProgress(long processed, Long total) {
+        }
+    };
+
+    /**
+     * @return {@code true} if a client asked to cancel the job.
+     */
+    boolean isCancelled();
+
+    /**
+     * Reports the progress of the job. Implementations may throttle how often progress is persisted.
+     *
+     * @param processed The number of items processed so far.
+     * @param total     The total number of items, or {@code null} if unknown.
+     */
+    void reportProgress(long processed, Long total);
+}
@@ -0,0 +1,18 @@
+package com.shop.microservices.product.Job;
+
+/**
+ * A unit of work executed as a background job.
+ *
+ * @param <T> The type of the result, serialized into the job once it succeeds.
+ */
+@FunctionalInterface
+public interface JobTask<T> {
+
+    /**
+     * Runs the work.
+     *
+     * @param context The context used to report progress and detect cancellation.
+     * @return The result of the job.
+     */
+    T run(JobContext context);
+}
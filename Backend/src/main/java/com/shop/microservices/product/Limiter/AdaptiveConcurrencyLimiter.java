@@ -0,0 +1,139 @@
+package com.shop.microservices.product.Limiter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limiter whose limit adapts to the observed latency with an AIMD (additive increase, multiplicative
+ * decrease) policy.
+ * <p>
+ * A request may start only while fewer than {@code limit} requests are in flight. When a request completes within
+ * the latency threshold while the limiter is at least half used, the limit grows by one; when it is slower than
+ * the threshold or fails, the limit is multiplied by the backoff ratio. The limit therefore settles around the
+ * concurrency MongoDB can serve within the threshold, and excess requests are rejected immediately instead of
+ * queuing on Tomcat threads for a database connection.
+ * </p>
+ */
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final LongAdder rejected = new LongAdder();
+
+    private double limit;
+    private int inFlight;
+
+    /**
+     * Creates a limiter.
+     *
+     * @param name             The name of the limiter, used as the {@code operation} tag of its metrics.
+     * @param initialLimit     The limit used until latency samples are available.
+     * @param minLimit         The lowest limit the backoff can reach.
+     * @param maxLimit         The highest limit the increase can reach.
+     * @param latencyThreshold The latency above which a request is considered a sign of overload.
+     * @param backoffRatio     The factor applied to the limit on overload, between 0 and 1.
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      Duration latencyThreshold, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limits for concurrency limiter " + name);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("The backoff ratio of concurrency limiter " + name + " must be between 0 and 1");
+        }
+        this.name = name;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * Reserves a slot for a request.
+     *
+     * @return {@code true} if the request may proceed and must later call one of the release methods,
+     *         {@code false} if it must be rejected.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected.increment();
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Releases the slot of a completed request and adapts the limit to its outcome.
+     *
+     * @param latencyNanos The time the request took.
+     * @param failed       Whether the request failed with a server error.
+     */
+    public synchronized void release(long latencyNanos, boolean failed) {
+        if (failed || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= limit) {
+            // Only grow while the limit is actually used, otherwise it would drift up during quiet periods
+            limit = Math.min(maxLimit, limit + 1);
+        }
+        inFlight--;
+    }
+
+    /**
+     * Releases the slot of a request whose latency says nothing about the load, such as a streamed upload.
+     */
+    public synchronized void release() {
+        inFlight--;
+    }
+
+    /**
+     * @return The current limit.
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return The number of requests currently in flight.
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return The number of requests rejected since startup.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Registers the limit, in-flight and rejection metrics of this limiter.
+     *
+     * @param registry The registry the metrics are added to.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shop.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("operation", name)
+                .register(registry);
+        Gauge.builder("shop.concurrency.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently holding a concurrency slot")
+                .tag("operation", name)
+                .register(registry);
+        FunctionCounter.builder("shop.concurrency.rejected", this, AdaptiveConcurrencyLimiter::getRejected)
+                .description("Requests rejected because the concurrency limit was reached")
+                .tag("operation", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,181 @@
+package com.shop.microservices.product.Limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shop.microservices.product.Utils.ErrorMessageUtil;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Servlet filter applying the adaptive concurrency limits in front of the controllers.
+ * <p>
+ * Safe methods ({@code GET}, {@code HEAD}, {@code OPTIONS}) use the read limiter and all other methods the write
+ * limiter, so a burst of writes cannot starve reads and the other way around. A request over the limit is
+ * answered with {@code 503 Service Unavailable}, a {@code Retry-After} header and the same error body as
+ * {@link com.shop.microservices.product.Exception.GlobalExceptionHandler}, without reaching the controller.
+ * </p>
+ * <p>
+ * A request handled asynchronously, such as the export writing a {@code StreamingResponseBody} on an MVC task,
+ * holds its slot until the asynchronous processing completes, fails or times out, not only until the controller
+ * returns. The {@link #STREAMED_ENDPOINTS} hold their slot for as long as the client streams the body, so their
+ * latency is not fed back into the limit.
+ * </p>
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * The endpoints streaming their request or response body, as {@code <method> <path>}.
+     */
+    static final Set<String> STREAMED_ENDPOINTS = Set.of(
+            "POST /api/v1/product/import",
+            "POST /api/v1/product/import/async",
+            "GET /api/v1/product/export");
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final ErrorMessageUtil errorMessageUtil;
+    private final ObjectMapper objectMapper;
+    private final long retryAfterSeconds;
+
+    /**
+     * Creates the filter.
+     *
+     * @param readLimiter      The limiter applied to safe requests.
+     * @param writeLimiter     The limiter applied to all other requests.
+     * @param errorMessageUtil Utility resolving the rejection message.
+     * @param objectMapper     The mapper writing the rejection body.
+     * @param retryAfter       The delay advertised to rejected clients.
+     */
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter readLimiter, AdaptiveConcurrencyLimiter writeLimiter,
+                                  ErrorMessageUtil errorMessageUtil, ObjectMapper objectMapper, Duration retryAfter) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.errorMessageUtil = errorMessageUtil;
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = isRead(request) ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            reject(response);
+            return;
+        }
+
+        // Streamed uploads and downloads last as long as the transfer itself, their latency must not shrink the limit
+        boolean streamed = isStreamed(request);
+        long start = System.nanoTime();
+        boolean failed = true;
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+            // The response is still being produced, e.g. streamed by the export, the slot is released once it is done
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(limiter, response, streamed, start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                release(limiter, streamed, start, failed);
+            }
+        }
+    }
+
+    private static void release(AdaptiveConcurrencyLimiter limiter, boolean streamed, long start, boolean failed) {
+        if (streamed) {
+            limiter.release();
+        } else {
+            limiter.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    private static boolean isStreamed(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return STREAMED_ENDPOINTS.contains(request.getMethod() + " " + path);
+    }
+
+    /**
+     * Releases the slot of an asynchronously handled request once, whether it completes, fails or times out.
+     */
+    private static final class ReleaseOnCompletion implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final HttpServletResponse response;
+        private final boolean streamed;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleaseOnCompletion(AdaptiveConcurrencyLimiter limiter, HttpServletResponse response, boolean streamed,
+                                    long start) {
+            this.limiter = limiter;
+            this.response = response;
+            this.streamed = streamed;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value());
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Asynchronous processing started again from an async dispatch, keep listening to the new context
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release(boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                ConcurrencyLimitFilter.release(limiter, streamed, start, failed);
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("message", errorMessageUtil.getErrorMessage("prod.error.3900", new Object[]{retryAfterSeconds}));
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -1,5 +1,6 @@
 package com.shop.microservices.product.Listener;
 
+import com.shop.microservices.product.Identifier.IdGeneratorRegistry;
 import com.shop.microservices.product.Model.Category;
 import com.shop.microservices.product.Model.Material;
 import com.shop.microservices.product.Model.Product;
@@ -7,45 +8,62 @@ import org.springframework.context.event.EventListener;
 import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
 import org.springframework.stereotype.Component;
 
-import java.util.UUID;
+import java.time.Instant;
 
 /**
  * A consolidated event listener for handling entity-related events in the shop's system.
  * This listener ensures that entities (Product, Material, Category) have valid UUIDs before being persisted.
  * By centralizing the logic, this class minimizes boilerplate code and simplifies event handling.
+ * The identifiers are produced by the {@link IdGeneratorRegistry}, which selects the generator per entity type.
+ * Every written entity is also stamped with its modification time, from which the catalog cache fetches the changes.
  */
 @Component
 public class EntityEventListener {
 
+    private final IdGeneratorRegistry idGeneratorRegistry;
+
+    /**
+     * Constructs the listener with the registry providing the identifier generator of each entity type.
+     *
+     * @param idGeneratorRegistry The registry used to generate identifiers for new entities.
+     */
+    public EntityEventListener(IdGeneratorRegistry idGeneratorRegistry) {
+        this.idGeneratorRegistry = idGeneratorRegistry;
+    }
+
     /**
      * Event listener triggered before an entity is converted and persisted in the MongoDB database.
-     * It ensures that entities have valid UUIDs if they do not already have one.
+     * It ensures that entities have valid UUIDs if they do not already have one, and stamps their modification time.
      *
      * @param event The event containing the entity object being persisted.
      */
     @EventListener
     public void handleBeforeConvert(BeforeConvertEvent<?> event) {
         Object source = event.getSource(); // Get the source of the event (entity)
+        Instant now = Instant.now();
 
         // Handle Product entity
         if (source instanceof Product product) {
             if (product.getId() == null) {
-                product.setId(UUID.randomUUID());
+                product.setId(idGeneratorRegistry.nextId(Product.class));
             }
+            product.setLastModified(now);
         }
 
         // Handle Material entity
         if (source instanceof Material material) {
             if (material.getMaterialId() == null) {
-                material.setMaterialId(UUID.randomUUID());
+                material.setMaterialId(idGeneratorRegistry.nextId(Material.class));
             }
+            material.setLastModified(now);
         }
 
         // Handle Category entity
         if (source instanceof Category category) {
             if (category.getCategoryId() == null) {
-                category.setCategoryId(UUID.randomUUID());
+                category.setCategoryId(idGeneratorRegistry.nextId(Category.class));
             }
+            category.setLastModified(now);
         }
     }
 }
@@ -3,47 +3,16 @@ package com.shop.microservices.product.Mapper;
 import com.shop.microservices.product.Dto.CategoryRequestDTO;
 import com.shop.microservices.product.Dto.CategoryResponseDTO;
 import com.shop.microservices.product.Model.Category;
-import jakarta.annotation.PostConstruct;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeMap;
 import org.springframework.stereotype.Component;
 
 /**
  * Mapper class responsible for transforming category-related data between DTOs and domain objects.
- * It uses ModelMapper to convert between the DTOs ({@link CategoryRequestDTO}, {@link CategoryResponseDTO}) and the {@link Category} entity.
+ * It converts between the DTOs ({@link CategoryRequestDTO}, {@link CategoryResponseDTO}) and the {@link Category} entity
+ * field by field, without reflection.
  */
 @Component
 public class CategoryMapper {
 
-    // Instance of ModelMapper to handle object mapping
-    private final ModelMapper modelMapper;
-
-    /**
-     * Constructor for the productMapper class.
-     *  Initializes the ModelMapper instance used for object mapping.
-     * @param modelMapper The ModelMapper instance that will be used to map objects between different types.
-     */
-    public CategoryMapper(ModelMapper modelMapper) {
-        this.modelMapper = modelMapper;
-    }
-
-    /**
-     * Configures the mapping to handle Category -> CategoryResponseDTO mapping for records.
-     */
-    @PostConstruct
-    public void configureMappings() {
-        // Map Product to ProductResponseDTO using the constructor
-        TypeMap<Category, CategoryResponseDTO> typeMap = modelMapper.createTypeMap(Category.class, CategoryResponseDTO.class);
-        typeMap.setProvider(provision -> {
-            Category source = (Category) provision.getSource();
-            return new CategoryResponseDTO(
-                    source.getCategoryId(),
-                    source.getName(),
-                    source.getDescription()
-            );
-        });
-    }
-
     /**
      * Converts a ProductRequestDTO to a Product entity.
      * This method maps the fields of ProductRequestDTO to the corresponding fields in the Product entity.
@@ -52,7 +21,10 @@ public class CategoryMapper {
      * @return the mapped {@link Category} entity.
      */
     public Category categoryRequestDTOToCategory(CategoryRequestDTO categoryRequestDTO){
-        return modelMapper.map(categoryRequestDTO, Category.class);
+        return Category.builder()
+                .name(categoryRequestDTO.getName())
+                .description(categoryRequestDTO.getDescription())
+                .build();
     }
 
     /**
@@ -63,7 +35,11 @@ public class CategoryMapper {
      * @return The mapped {@link CategoryResponseDTO}.
      */
     public CategoryResponseDTO categoryToCategoryResponseDTO(Category category){
-        return modelMapper.map(category, CategoryResponseDTO.class);
+        return new CategoryResponseDTO(
+                category.getCategoryId(),
+                category.getName(),
+                category.getDescription()
+        );
     }
 
 }
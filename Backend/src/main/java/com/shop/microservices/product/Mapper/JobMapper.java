@@ -0,0 +1,34 @@
+package com.shop.microservices.product.Mapper;
+
+import com.shop.microservices.product.Dto.JobResponseDTO;
+import com.shop.microservices.product.Model.Job;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper class responsible for transforming {@link Job} entities into {@link JobResponseDTO}s.
+ */
+@Component
+public class JobMapper {
+
+    /**
+     * Converts a {@link Job} entity to a {@link JobResponseDTO}.
+     *
+     * @param job The Job entity to be converted.
+     * @return The mapped {@link JobResponseDTO}.
+     */
+    public JobResponseDTO jobToJobResponseDTO(Job job) {
+        return new JobResponseDTO(
+                job.getJobId(),
+                job.getType(),
+                job.getStatus(),
+                job.getProcessed(),
+                job.getTotal(),
+                job.getResult(),
+                job.getError(),
+                job.isCancelRequested(),
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt()
+        );
+    }
+}
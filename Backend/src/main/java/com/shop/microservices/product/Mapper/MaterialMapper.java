@@ -3,49 +3,16 @@ package com.shop.microservices.product.Mapper;
 import com.shop.microservices.product.Dto.MaterialRequestDTO;
 import com.shop.microservices.product.Dto.MaterialResponseDTO;
 import com.shop.microservices.product.Model.Material;
-import jakarta.annotation.PostConstruct;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeMap;
 import org.springframework.stereotype.Component;
 
 /**
  * Mapper class responsible for transforming material-related data between DTOs and domain objects.
- * It uses ModelMapper to convert between the DTOs ({@link MaterialRequestDTO}, {@link MaterialResponseDTO}) and the {@link Material} entity.
+ * It converts between the DTOs ({@link MaterialRequestDTO}, {@link MaterialResponseDTO}) and the {@link Material} entity
+ * field by field, without reflection.
  */
 @Component
 public class MaterialMapper {
 
-    // Instance of ModelMapper to handle object mapping
-    private final ModelMapper modelMapper;
-
-    /**
-     * Constructor for the MaterialMapper class.
-     * Initializes the ModelMapper instance used for object mapping.
-     * @param modelMapper The ModelMapper instance that will be used to map objects between different types.
-     */
-    public MaterialMapper(ModelMapper modelMapper) {
-        this.modelMapper = modelMapper;
-    }
-
-    /**
-     * Configures the mapping to handle Material -> MaterialResponseDTO mapping for records.
-     * This method uses a provider to handle the transformation of the Material entity into the MaterialResponseDTO.
-     */
-    @PostConstruct
-    public void configureMappings() {
-        // Map Material to MaterialResponseDTO using the constructor
-        TypeMap<Material, MaterialResponseDTO> typeMap = modelMapper.createTypeMap(Material.class, MaterialResponseDTO.class);
-        typeMap.setProvider(provision -> {
-            Material source = (Material) provision.getSource();
-            return new MaterialResponseDTO(
-                    source.getMaterialId(),
-                    source.getMaterialName(),
-                    source.getMaterialType(),
-                    source.getDescription()
-            );
-        });
-    }
-
     /**
      * Converts a MaterialRequestDTO to a Material entity.
      * This method maps the fields of MaterialRequestDTO to the corresponding fields in the Material entity.
@@ -54,7 +21,11 @@ public class MaterialMapper {
      * @return the mapped {@link Material} entity.
      */
     public Material materialRequestDTOToMaterial(MaterialRequestDTO materialRequestDTO) {
-        return modelMapper.map(materialRequestDTO, Material.class);
+        return Material.builder()
+                .materialName(materialRequestDTO.getMaterialName())
+                .materialType(materialRequestDTO.getMaterialType())
+                .description(materialRequestDTO.getDescription())
+                .build();
     }
 
     /**
@@ -65,6 +36,11 @@ public class MaterialMapper {
      * @return The mapped {@link MaterialResponseDTO}.
      */
     public MaterialResponseDTO materialToMaterialResponseDTO(Material material) {
-        return modelMapper.map(material, MaterialResponseDTO.class);
+        return new MaterialResponseDTO(
+                material.getMaterialId(),
+                material.getMaterialName(),
+                material.getMaterialType(),
+                material.getDescription()
+        );
     }
 }
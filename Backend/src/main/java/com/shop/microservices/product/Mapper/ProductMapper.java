@@ -3,46 +3,15 @@ package com.shop.microservices.product.Mapper;
 import com.shop.microservices.product.Dto.ProductRequestDTO;
 import com.shop.microservices.product.Dto.ProductResponseDTO;
 import com.shop.microservices.product.Model.Product;
-import jakarta.annotation.PostConstruct;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeMap;
 import org.springframework.stereotype.Component;
 
 /**
  * Mapper class responsible for transforming product-related data between DTOs and domain objects.
- * It uses ModelMapper to convert between the DTOs ({@link ProductRequestDTO}, {@link ProductResponseDTO}) and the {@link Product} entity.
+ * It converts between the DTOs ({@link ProductRequestDTO}, {@link ProductResponseDTO}) and the {@link Product} entity
+ * field by field, without reflection, so nothing has to be introspected at startup or registered for a native image.
  */
 @Component
 public class ProductMapper {
-    // Instance of ModelMapper to handle object mapping
-    private final ModelMapper modelMapper;
-
-    /**
-     * Constructor for the productMapper class.
-     *  Initializes the ModelMapper instance used for object mapping.
-     * @param modelMapper The ModelMapper instance that will be used to map objects between different types.
-     */
-    public ProductMapper(ModelMapper modelMapper) {
-        this.modelMapper = modelMapper;
-    }
-
-    /**
-     * Configures the mapping to handle Product -> ProductResponseDTO mapping for records.
-     */
-    @PostConstruct
-    public void configureMappings() {
-        // Map Product to ProductResponseDTO using the constructor
-        TypeMap<Product, ProductResponseDTO> typeMap = modelMapper.createTypeMap(Product.class, ProductResponseDTO.class);
-        typeMap.setProvider(provision -> {
-            Product source = (Product) provision.getSource();
-            return new ProductResponseDTO(
-                    source.getId(),
-                    source.getName(),
-                    source.getDescription(),
-                    source.getPrice()
-            );
-        });
-    }
 
     /**
      * Converts a ProductRequestDTO to a Product entity.
@@ -52,7 +21,11 @@ public class ProductMapper {
      * @return the mapped Product entity.
      */
     public Product productRequestDTOToProduct(ProductRequestDTO productRequestDTO){
-        return modelMapper.map(productRequestDTO, Product.class);
+        return Product.builder()
+                .name(productRequestDTO.getName())
+                .description(productRequestDTO.getDescription())
+                .price(productRequestDTO.getPrice())
+                .build();
     }
 
     /**
@@ -63,6 +36,11 @@ public class ProductMapper {
      * @return The mapped ProductResponseDTO.
      */
     public ProductResponseDTO productToProductResponseDTO(Product product){
-        return modelMapper.map(product, ProductResponseDTO.class);
+        return new ProductResponseDTO(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getPrice()
+        );
     }
 }
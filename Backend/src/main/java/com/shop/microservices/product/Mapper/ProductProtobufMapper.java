@@ -0,0 +1,103 @@
+package com.shop.microservices.product.Mapper;
+
+import com.google.protobuf.ByteString;
+import com.shop.microservices.product.Dto.PageResponseDTO;
+import com.shop.microservices.product.Dto.ProductResponseDTO;
+import com.shop.microservices.product.Proto.ProductProtos;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Mapper class responsible for transforming product responses to and from their Protobuf messages, defined in
+ * {@code src/main/proto/product.proto}.
+ * The identifier is written as its 16 bytes and the price as its unscaled value and scale, so both are exact and compact.
+ */
+@Component
+public class ProductProtobufMapper {
+
+    /**
+     * Converts a {@link ProductResponseDTO} to its Protobuf message.
+     *
+     * @param product The product response.
+     * @return The mapped {@link ProductProtos.Product} message.
+     */
+    public ProductProtos.Product toMessage(ProductResponseDTO product) {
+        ProductProtos.Product.Builder message = ProductProtos.Product.newBuilder()
+                .setId(toBytes(product.id()));
+        if (product.name() != null) {
+            message.setName(product.name());
+        }
+        if (product.description() != null) {
+            message.setDescription(product.description());
+        }
+        if (product.price() != null) {
+            message.setPrice(ProductProtos.Decimal.newBuilder()
+                    .setUnscaledValue(ByteString.copyFrom(product.price().unscaledValue().toByteArray()))
+                    .setScale(product.price().scale()));
+        }
+        return message.build();
+    }
+
+    /**
+     * Converts a page of product responses to its Protobuf message, mapping the items one by one.
+     *
+     * @param page The page of product responses.
+     * @return The mapped {@link ProductProtos.ProductPage} message.
+     */
+    public ProductProtos.ProductPage toMessage(PageResponseDTO<ProductResponseDTO> page) {
+        ProductProtos.ProductPage.Builder message = ProductProtos.ProductPage.newBuilder()
+                .setPage(page.page())
+                .setSize(page.size())
+                .setTotalElements(page.totalElements())
+                .setTotalPages(page.totalPages());
+        for (ProductResponseDTO product : page.items()) {
+            message.addItems(toMessage(product));
+        }
+        return message.build();
+    }
+
+    /**
+     * Converts a Protobuf message back to a {@link ProductResponseDTO}, as a client of the endpoints does.
+     *
+     * @param message The product message.
+     * @return The mapped {@link ProductResponseDTO}.
+     */
+    public ProductResponseDTO fromMessage(ProductProtos.Product message) {
+        ByteBuffer id = message.getId().asReadOnlyByteBuffer();
+        return new ProductResponseDTO(
+                new UUID(id.getLong(), id.getLong()),
+                message.getName(),
+                message.hasDescription() ? message.getDescription() : null,
+                message.hasPrice()
+                        ? new BigDecimal(new BigInteger(message.getPrice().getUnscaledValue().toByteArray()), message.getPrice().getScale())
+                        : null
+        );
+    }
+
+    /**
+     * Converts a page message back to a {@link PageResponseDTO}.
+     *
+     * @param message The page message.
+     * @return The mapped page of {@link ProductResponseDTO}.
+     */
+    public PageResponseDTO<ProductResponseDTO> fromMessage(ProductProtos.ProductPage message) {
+        List<ProductResponseDTO> items = new ArrayList<>(message.getItemsCount());
+        for (ProductProtos.Product item : message.getItemsList()) {
+            items.add(fromMessage(item));
+        }
+        return new PageResponseDTO<>(items, message.getPage(), message.getSize(), message.getTotalElements(), message.getTotalPages());
+    }
+
+    private static ByteString toBytes(UUID id) {
+        return ByteString.copyFrom(ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .flip());
+    }
+}
@@ -0,0 +1,123 @@
+package com.shop.microservices.product.Migration;
+
+import com.mongodb.MongoException;
+import com.shop.microservices.product.Model.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One-off migration converting product prices stored as strings into {@link Decimal128}.
+ * <p>
+ * Products written before the Decimal128 conversion was registered hold their price as a string, which numeric
+ * range queries and the price index cannot match. On startup this runner walks those documents in {@code _id}
+ * order, in batches, and rewrites each price with an unordered bulk update. The update is conditional on the
+ * price still being the string that was read, so concurrent writes are never overwritten. The migration is
+ * idempotent and does nothing once every price is numeric.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shop.migration.price-decimal128.enabled", havingValue = "true", matchIfMissing = true)
+public class PriceDecimal128Migration implements ApplicationRunner {
+
+    private static final String PRICE_FIELD = "price";
+    private static final String ID_FIELD = "_id";
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+
+    /**
+     * Constructs the migration.
+     *
+     * @param mongoTemplate The template used to read and update the product collection.
+     * @param batchSize     The number of documents converted per bulk update.
+     */
+    public PriceDecimal128Migration(MongoTemplate mongoTemplate,
+                                    @Value("${shop.migration.price-decimal128.batch-size:1000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Runs the migration on application startup.
+     *
+     * @param args The application arguments (unused).
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            migrate();
+        } catch (DataAccessException | MongoException ex) {
+            // Do not prevent startup; the migration is retried on the next start.
+            log.error("Price Decimal128 migration failed. Error Message: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Converts all string prices in batches.
+     *
+     * @return The number of documents that were converted.
+     */
+    public long migrate() {
+        String collection = mongoTemplate.getCollectionName(Product.class);
+        long converted = 0;
+        long skipped = 0;
+        Object lastId = null;
+
+        while (true) {
+            Criteria criteria = Criteria.where(PRICE_FIELD).type(JsonSchemaObject.Type.STRING);
+            if (lastId != null) {
+                criteria = criteria.and(ID_FIELD).gt(lastId);
+            }
+            Query query = new Query(criteria).with(Sort.by(ID_FIELD)).limit(batchSize);
+            query.fields().include(ID_FIELD, PRICE_FIELD);
+
+            List<Document> batch = mongoTemplate.find(query, Document.class, collection);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+            int operations = 0;
+            for (Document document : batch) {
+                Object id = document.get(ID_FIELD);
+                String price = document.getString(PRICE_FIELD);
+                try {
+                    Decimal128 decimal = new Decimal128(new BigDecimal(price.trim()));
+                    bulk.updateOne(new Query(Criteria.where(ID_FIELD).is(id).and(PRICE_FIELD).is(price)),
+                            new Update().set(PRICE_FIELD, decimal));
+                    operations++;
+                } catch (NumberFormatException ex) {
+                    log.warn("Skipping product {} with non-numeric price '{}'", id, price);
+                    skipped++;
+                }
+            }
+            if (operations > 0) {
+                converted += bulk.execute().getModifiedCount();
+            }
+            lastId = batch.get(batch.size() - 1).get(ID_FIELD);
+        }
+
+        if (converted > 0 || skipped > 0) {
+            log.info("Price Decimal128 migration converted {} products, skipped {}", converted, skipped);
+        }
+        return converted;
+    }
+}
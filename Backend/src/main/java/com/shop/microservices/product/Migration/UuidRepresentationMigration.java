@@ -0,0 +1,208 @@
+package com.shop.microservices.product.Migration;
+
+import com.mongodb.MongoException;
+import com.shop.microservices.product.Model.Category;
+import com.shop.microservices.product.Model.Material;
+import com.shop.microservices.product.Model.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonBinary;
+import org.bson.BsonBinarySubType;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.types.Binary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One-off migration rewriting the identifiers stored with the {@code JAVA_LEGACY} UUID representation into the
+ * standard one.
+ * <p>
+ * Products, categories and materials written before the standard representation was configured hold their
+ * {@code _id} as a binary of subtype 3 with the bytes of each half reversed, which lookups by a standard UUID do not
+ * match. The {@code _id} of a document cannot be updated, so on startup this runner moves each of them, in batches
+ * and in {@code _id} order: the batch is first copied to a {@code <collection>_uuid_migration} backup collection,
+ * then every document is removed and inserted again under the same UUID in the standard representation, and the
+ * batch is finally removed from the backup. The document is removed before it is inserted again so the unique name
+ * indexes never see both copies. A document left only in the backup by a crash is restored on the next start, and
+ * one whose name was taken in between stays there to be resolved by hand. The migration is idempotent and does
+ * nothing once every identifier is in the standard representation. It runs before the other runners, as they read
+ * the documents by their identifiers.
+ * </p>
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "shop.migration.uuid-standard.enabled", havingValue = "true", matchIfMissing = true)
+public class UuidRepresentationMigration implements ApplicationRunner {
+
+    static final String BACKUP_SUFFIX = "_uuid_migration";
+
+    private static final String ID_FIELD = "_id";
+    private static final int UUID_LENGTH = 16;
+    // Binaries are ordered by length, then subtype, then bytes, so these bounds select exactly the legacy UUIDs
+    private static final Binary LEGACY_MIN = new Binary(BsonBinarySubType.UUID_LEGACY, new byte[UUID_LENGTH]);
+    private static final Binary LEGACY_MAX = new Binary(BsonBinarySubType.UUID_LEGACY, filled((byte) 0xFF));
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+
+    /**
+     * Constructs the migration.
+     *
+     * @param mongoTemplate The template used to read and rewrite the collections.
+     * @param batchSize     The number of documents moved per batch.
+     */
+    public UuidRepresentationMigration(MongoTemplate mongoTemplate,
+                                       @Value("${shop.migration.uuid-standard.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Runs the migration on application startup.
+     *
+     * @param args The application arguments (unused).
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            migrate();
+        } catch (DataAccessException | MongoException ex) {
+            // Do not prevent startup; the migration resumes from its backup on the next start.
+            log.error("UUID representation migration failed. Error Message: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Rewrites the legacy identifiers of the products, categories and materials.
+     *
+     * @return The number of documents that were moved to a standard identifier.
+     */
+    public long migrate() {
+        long migrated = 0;
+        for (Class<?> type : List.of(Product.class, Category.class, Material.class)) {
+            migrated += migrate(mongoTemplate.getCollectionName(type));
+        }
+        return migrated;
+    }
+
+    private long migrate(String collection) {
+        String backup = collection + BACKUP_SUFFIX;
+        long migrated = restore(collection, backup);
+        long unresolved = 0;
+
+        while (true) {
+            Query query = new Query(legacyIds()).with(Sort.by(ID_FIELD)).limit(batchSize);
+            List<Document> batch = mongoTemplate.find(query, Document.class, collection);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            BulkOperations copy = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, backup);
+            for (Document document : batch) {
+                copy.replaceOne(byId(document.get(ID_FIELD)), document, FindAndReplaceOptions.options().upsert());
+            }
+            copy.execute();
+
+            List<Object> moved = new ArrayList<>(batch.size());
+            for (Document document : batch) {
+                Object legacyId = document.get(ID_FIELD);
+                Document removed = mongoTemplate.findAndRemove(byId(legacyId), Document.class, collection);
+                if (removed == null || insertWithStandardId(removed, collection)) {
+                    moved.add(legacyId);
+                    migrated += removed == null ? 0 : 1;
+                } else {
+                    unresolved++;
+                }
+            }
+            // The documents that could not be inserted again stay in the backup, and out of the next batches
+            mongoTemplate.remove(new Query(Criteria.where(ID_FIELD).in(moved)), backup);
+        }
+
+        if (mongoTemplate.collectionExists(backup) && mongoTemplate.count(new Query(), backup) == 0) {
+            mongoTemplate.dropCollection(backup);
+        }
+        if (migrated > 0 || unresolved > 0) {
+            log.info("UUID representation migration of {} moved {} documents, left {} in {}", collection, migrated, unresolved, backup);
+        }
+        return migrated;
+    }
+
+    /**
+     * Inserts the documents a previous run removed but did not insert again, as found in the backup collection.
+     */
+    private long restore(String collection, String backup) {
+        if (!mongoTemplate.collectionExists(backup)) {
+            return 0;
+        }
+        long restored = 0;
+        for (Document document : mongoTemplate.findAll(Document.class, backup)) {
+            Object legacyId = document.get(ID_FIELD);
+            boolean present = legacyId instanceof Binary binary
+                    && mongoTemplate.exists(new Query(Criteria.where(ID_FIELD).in(binary, toUuid(binary))), collection);
+            if (!present) {
+                if (!insertWithStandardId(document, collection)) {
+                    continue;
+                }
+                restored++;
+            }
+            mongoTemplate.remove(byId(legacyId), backup);
+        }
+        return restored;
+    }
+
+    private boolean insertWithStandardId(Document document, String collection) {
+        Document converted = new Document(document);
+        converted.put(ID_FIELD, toUuid((Binary) document.get(ID_FIELD)));
+        try {
+            mongoTemplate.insert(converted, collection);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            log.warn("Cannot move {} {} to a standard identifier, kept in {}{}. Error Message: {}",
+                    collection, converted.get(ID_FIELD), collection, BACKUP_SUFFIX, ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Decodes an identifier stored with the {@code JAVA_LEGACY} representation.
+     *
+     * @param legacyId The binary of subtype 3 holding the identifier.
+     * @return The UUID it encodes.
+     */
+    static UUID toUuid(Binary legacyId) {
+        return new BsonBinary(legacyId.getType(), legacyId.getData()).asUuid(UuidRepresentation.JAVA_LEGACY);
+    }
+
+    private static Criteria legacyIds() {
+        return Criteria.where(ID_FIELD).gte(LEGACY_MIN).lte(LEGACY_MAX);
+    }
+
+    private static Query byId(Object id) {
+        return new Query(Criteria.where(ID_FIELD).is(id));
+    }
+
+    private static byte[] filled(byte value) {
+        byte[] bytes = new byte[UUID_LENGTH];
+        Arrays.fill(bytes, value);
+        return bytes;
+    }
+}
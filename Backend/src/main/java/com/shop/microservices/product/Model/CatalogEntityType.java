@@ -0,0 +1,22 @@
+package com.shop.microservices.product.Model;
+
+/**
+ * The types of catalog entities whose changes are recorded in the outbox.
+ */
+public enum CatalogEntityType {
+
+    /**
+     * A {@link Product}.
+     */
+    PRODUCT,
+
+    /**
+     * A {@link Category}.
+     */
+    CATEGORY,
+
+    /**
+     * A {@link Material}.
+     */
+    MATERIAL
+}
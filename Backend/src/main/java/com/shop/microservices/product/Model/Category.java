@@ -2,10 +2,12 @@ package com.shop.microservices.product.Model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import java.time.Instant;
 import java.util.UUID;
 
 /**
@@ -40,4 +42,10 @@ public class Category {
      * The description may be blank.
      */
     private String description;
+
+    /**
+     * When the category was last written, stamped on every write so that changes can be fetched incrementally.
+     */
+    @Indexed(name = "last_modified_idx")
+    private Instant lastModified;
 }
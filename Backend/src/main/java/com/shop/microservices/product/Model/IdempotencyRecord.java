@@ -0,0 +1,51 @@
+package com.shop.microservices.product.Model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Represents a request processed with an {@code Idempotency-Key} header.
+ * This class is mapped to the "idempotency_keys" collection in MongoDB; documents are removed by a TTL index once
+ * {@link #expiresAt} has passed.
+ */
+@Getter
+@Setter
+@Document(value = "idempotency_keys")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    /**
+     * The scope of the endpoint and the client key, as {@code <scope>:<key>}.
+     */
+    @Id
+    private String id;
+
+    /**
+     * SHA-256 hash of the request body, used to detect a key reused for a different request.
+     */
+    private String requestHash;
+
+    /**
+     * {@code true} once the request has completed and {@link #response} holds its result.
+     */
+    private boolean completed;
+
+    /**
+     * The JSON response returned for the request.
+     */
+    private String response;
+
+    private Instant createdAt;
+
+    /**
+     * The time after which the record is removed by the TTL index.
+     */
+    @Indexed(name = "idempotency_expires_at_idx", expireAfterSeconds = 0)
+    private Instant expiresAt;
+}
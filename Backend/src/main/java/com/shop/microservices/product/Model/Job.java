@@ -0,0 +1,78 @@
+package com.shop.microservices.product.Model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Represents a long-running catalog operation executed in the background.
+ * This class is mapped to the "jobs" collection in MongoDB, so clients can poll a job's status, progress and
+ * result from any instance of the service.
+ */
+@Getter
+@Setter
+@Document(value = "jobs")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class Job {
+
+    /**
+     * Unique identifier for the job.
+     */
+    @Id
+    private UUID jobId;
+
+    /**
+     * The kind of operation the job runs.
+     */
+    private JobType type;
+
+    /**
+     * The current lifecycle state of the job.
+     */
+    @Indexed(name = "job_status_idx")
+    private JobStatus status;
+
+    /**
+     * Number of items processed so far.
+     */
+    private long processed;
+
+    /**
+     * Total number of items to process, or {@code null} if unknown.
+     */
+    private Long total;
+
+    /**
+     * The result of a successful job.
+     */
+    private Map<String, Object> result;
+
+    /**
+     * The error message of a failed job.
+     */
+    private String error;
+
+    /**
+     * Whether a client asked to cancel the job.
+     */
+    private boolean cancelRequested;
+
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    /**
+     * The last time the instance running the job reported it as still queued or running. A job whose heartbeat
+     * stops was left behind by an instance that stopped, and is failed by the others.
+     */
+    private Instant heartbeatAt;
+}
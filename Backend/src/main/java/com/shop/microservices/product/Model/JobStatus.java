@@ -0,0 +1,39 @@
+package com.shop.microservices.product.Model;
+
+/**
+ * The lifecycle states of a {@link Job}.
+ */
+public enum JobStatus {
+
+    /**
+     * Submitted and waiting for a free slot of its job type.
+     */
+    QUEUED,
+
+    /**
+     * Currently running.
+     */
+    RUNNING,
+
+    /**
+     * Finished successfully; the result is available.
+     */
+    SUCCEEDED,
+
+    /**
+     * Finished with an error.
+     */
+    FAILED,
+
+    /**
+     * Stopped after a cancellation request.
+     */
+    CANCELLED;
+
+    /**
+     * @return {@code true} if the job has finished and its status will not change anymore.
+     */
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+    }
+}
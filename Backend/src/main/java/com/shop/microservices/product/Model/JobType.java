@@ -0,0 +1,23 @@
+package com.shop.microservices.product.Model;
+
+/**
+ * The kinds of long-running catalog operations that can run as a {@link Job}.
+ * Each type has its own concurrency limit, configured with {@code shop.jobs.max-concurrent.<type>}.
+ */
+public enum JobType {
+
+    /**
+     * Streaming product catalog import.
+     */
+    PRODUCT_IMPORT,
+
+    /**
+     * Bulk product price adjustment.
+     */
+    PRICE_ADJUSTMENT,
+
+    /**
+     * Rebuild of the product search index from the product collection.
+     */
+    SEARCH_REINDEX
+}
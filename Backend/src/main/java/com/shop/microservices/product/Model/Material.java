@@ -2,9 +2,11 @@ package com.shop.microservices.product.Model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.validation.constraints.NotBlank;
+import java.time.Instant;
 import java.util.UUID;
 
 /**
@@ -45,4 +47,10 @@ public class Material {
      * The description may be blank.
      */
     private String description;
+
+    /**
+     * When the material was last written, stamped on every write so that changes can be fetched incrementally.
+     */
+    @Indexed(name = "last_modified_idx")
+    private Instant lastModified;
 }
@@ -0,0 +1,69 @@
+package com.shop.microservices.product.Model;
+
+import com.shop.microservices.product.Event.ChangeType;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Represents a change to the catalog waiting to be published to the consumers of the catalog, or recently published.
+ * This class is mapped to the "outbox_events" collection in MongoDB. Events are written along with the change they
+ * describe and published in the order of their time-ordered identifiers; published events are removed by a TTL index
+ * once {@link #expiresAt} has passed.
+ */
+@Getter
+@Setter
+@Document(value = "outbox_events")
+@CompoundIndex(name = "outbox_pending_idx", def = "{ 'publishedAt' : 1, '_id' : 1 }")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    /**
+     * Unique identifier of the event, a version 7 UUID ordering the events by the time they were recorded.
+     */
+    @Id
+    private UUID eventId;
+
+    /**
+     * The type of the changed entity.
+     */
+    private CatalogEntityType entityType;
+
+    /**
+     * The identifier of the changed entity, {@code null} for bulk changes.
+     */
+    private UUID entityId;
+
+    /**
+     * The kind of change.
+     */
+    private ChangeType changeType;
+
+    /**
+     * The entity as written, as the JSON of its response DTO; {@code null} for deletions and bulk changes.
+     */
+    private String payload;
+
+    /**
+     * When the change was recorded.
+     */
+    private Instant occurredAt;
+
+    /**
+     * When the event was published, {@code null} while it is pending.
+     */
+    private Instant publishedAt;
+
+    /**
+     * The time after which a published event is removed by the TTL index.
+     */
+    @Indexed(name = "outbox_expires_at_idx", expireAfterSeconds = 0)
+    private Instant expiresAt;
+}
@@ -0,0 +1,43 @@
+package com.shop.microservices.product.Model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Represents the lease of the instance relaying the outbox events.
+ * This class is mapped to the "outbox_relay_lease" collection in MongoDB, which holds a single document: an instance
+ * only relays while it holds the lease, so the events are published once and in order however many instances run
+ * the relay.
+ */
+@Getter
+@Setter
+@Document(value = "outbox_relay_lease")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OutboxRelayLease {
+
+    /**
+     * The identifier of the single lease.
+     */
+    public static final String RELAY_LEASE_ID = "outbox-relay";
+
+    /**
+     * The identifier of the lease, {@link #RELAY_LEASE_ID}.
+     */
+    @Id
+    private String id;
+
+    /**
+     * The instance holding the lease.
+     */
+    private String owner;
+
+    /**
+     * The time until which the owner holds the lease, unless it renews it; another instance may take it over after.
+     */
+    private Instant lockedUntil;
+}
@@ -0,0 +1,17 @@
+package com.shop.microservices.product.Model;
+
+/**
+ * The kind of adjustment applied by a bulk price adjustment.
+ */
+public enum PriceAdjustmentType {
+
+    /**
+     * The value is a percentage of the current price, e.g. {@code -20} for a 20% discount.
+     */
+    PERCENTAGE,
+
+    /**
+     * The value is an amount added to the current price, e.g. {@code -5.00} to lower every price by 5.
+     */
+    ABSOLUTE
+}
@@ -10,6 +10,7 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.DecimalMin;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.UUID;
 
 /**
@@ -48,11 +49,19 @@ public class Product {
     /**
      * The price of the product.
      * Price must be greater than 0.01 to ensure it's a valid positive value.
+     * Stored as a Decimal128 and indexed so price range queries are numeric and index-backed.
      */
+    @Indexed(name = "price_idx")
     @NotNull(message = "Product price must not be null")
     @DecimalMin(value = "0.01", message = "Price must be greater than 0")
     private BigDecimal price;
 
+    /**
+     * When the product was last written, stamped on every write so that changes can be fetched incrementally.
+     */
+    @Indexed(name = "last_modified_idx")
+    private Instant lastModified;
+
     /**
      * Sets the price for the product, ensuring that only positive values are allowed.
      * <p>
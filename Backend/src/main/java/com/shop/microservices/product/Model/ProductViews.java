@@ -0,0 +1,40 @@
+package com.shop.microservices.product.Model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Represents the number of times a product was viewed, its popularity.
+ * This class is mapped to the "product_views" collection in MongoDB, apart from the product itself, so that the
+ * counts incremented in bulk are never overwritten by a product being saved.
+ */
+@Getter
+@Setter
+@Document(value = "product_views")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductViews {
+
+    /**
+     * The identifier of the viewed product.
+     */
+    @Id
+    private UUID productId;
+
+    /**
+     * The number of views, indexed to rank the products by popularity.
+     */
+    @Indexed(name = "views_idx")
+    private long views;
+
+    /**
+     * When views were last counted, to within the flush interval of the counters.
+     */
+    private Instant lastViewed;
+}
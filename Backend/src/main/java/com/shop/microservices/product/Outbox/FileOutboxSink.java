@@ -0,0 +1,126 @@
+package com.shop.microservices.product.Outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shop.microservices.product.Dto.CatalogChangeEventDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * {@link OutboxSink} appending the events to a local file, one JSON object per line, for consumers tailing it.
+ * <p>
+ * Each batch is written with a single append and forced to the disk before it is acknowledged, so an event marked
+ * as published is in the file even if the machine stops right after. A batch interrupted by a failure or a crash may
+ * leave a partial last line, which is ended before the next batch is appended. Selected with
+ * {@code shop.outbox.sink=file}, the default; the file is {@code shop.outbox.file.path}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "shop.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileOutboxSink implements OutboxSink {
+
+    private static final byte LINE_SEPARATOR = '\n';
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    // Opened on the first batch, and again after a failed one
+    private FileChannel channel;
+
+    /**
+     * Constructs the sink.
+     *
+     * @param path         The file the events are appended to, created with its directory if missing.
+     * @param objectMapper The mapper writing the events as JSON.
+     */
+    public FileOutboxSink(@Value("${shop.outbox.file.path:data/outbox/catalog-changes.ndjson}") Path path,
+                          ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<CatalogChangeEventDTO> events) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (CatalogChangeEventDTO event : events) {
+            objectMapper.writeValue(lines, event);
+            lines.write(LINE_SEPARATOR);
+        }
+        try {
+            FileChannel output = channel();
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                output.write(buffer);
+            }
+            output.force(false);
+        } catch (IOException ex) {
+            // Reopened by the next batch, which then ends the partial line this one may have left
+            close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the file the events are appended to.
+     *
+     * @return The path of the file.
+     */
+    public Path path() {
+        return path;
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            // Every batch was forced to the disk already
+        }
+        channel = null;
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            // Written at its end by this sink only, and read to find a partial line, which appending does not allow
+            FileChannel opened = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                opened.position(opened.size());
+                endPartialLine(opened);
+            } catch (IOException ex) {
+                opened.close();
+                throw ex;
+            }
+            channel = opened;
+        }
+        return channel;
+    }
+
+    /**
+     * Appends a line break to a file not ending with one, so the next event starts on a line of its own.
+     */
+    private static void endPartialLine(FileChannel file) throws IOException {
+        long size = file.size();
+        if (size == 0) {
+            return;
+        }
+        ByteBuffer last = ByteBuffer.allocate(1);
+        file.read(last, size - 1);
+        if (last.get(0) != LINE_SEPARATOR) {
+            file.write(ByteBuffer.wrap(new byte[]{LINE_SEPARATOR}));
+        }
+    }
+}
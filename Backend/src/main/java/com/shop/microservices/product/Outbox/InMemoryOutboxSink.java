@@ -0,0 +1,75 @@
+package com.shop.microservices.product.Outbox;
+
+import com.shop.microservices.product.Dto.CatalogChangeEventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * {@link OutboxSink} keeping the latest events in memory and handing them to the consumers subscribed in-process,
+ * e.g. for tests or with the {@code in-memory} profile. Selected with {@code shop.outbox.sink=in-memory}; the number
+ * of events kept is {@code shop.outbox.in-memory.capacity}, the oldest being dropped first.
+ */
+@Component
+@ConditionalOnProperty(name = "shop.outbox.sink", havingValue = "in-memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final int capacity;
+    // Guarded by itself
+    private final ArrayDeque<CatalogChangeEventDTO> events;
+    private final List<Consumer<CatalogChangeEventDTO>> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs an empty sink.
+     *
+     * @param capacity The number of events kept.
+     */
+    public InMemoryOutboxSink(@Value("${shop.outbox.in-memory.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+        this.events = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Keeps the events, then hands them to the subscribers in order. A subscriber failing fails the batch, which is
+     * then published again, to every subscriber.
+     */
+    @Override
+    public void publish(List<CatalogChangeEventDTO> batch) {
+        synchronized (events) {
+            for (CatalogChangeEventDTO event : batch) {
+                if (events.size() == capacity) {
+                    events.removeFirst();
+                }
+                events.addLast(event);
+            }
+        }
+        for (CatalogChangeEventDTO event : batch) {
+            subscribers.forEach(subscriber -> subscriber.accept(event));
+        }
+    }
+
+    /**
+     * Subscribes a consumer to the events published from now on.
+     *
+     * @param subscriber The consumer, called by the relay thread.
+     */
+    public void subscribe(Consumer<CatalogChangeEventDTO> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Returns the latest events kept.
+     *
+     * @return The events, oldest first.
+     */
+    public List<CatalogChangeEventDTO> events() {
+        synchronized (events) {
+            return List.copyOf(events);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.shop.microservices.product.Outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoException;
+import com.shop.microservices.product.Event.CategoryChangeEvent;
+import com.shop.microservices.product.Event.ChangeType;
+import com.shop.microservices.product.Event.MaterialChangeEvent;
+import com.shop.microservices.product.Event.ProductChangeEvent;
+import com.shop.microservices.product.Exception.EntityCreationException;
+import com.shop.microservices.product.Identifier.IdGeneratorRegistry;
+import com.shop.microservices.product.Mapper.CategoryMapper;
+import com.shop.microservices.product.Mapper.MaterialMapper;
+import com.shop.microservices.product.Mapper.ProductMapper;
+import com.shop.microservices.product.Model.CatalogEntityType;
+import com.shop.microservices.product.Model.OutboxEvent;
+import com.shop.microservices.product.Repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Records every change to the catalog in the {@code outbox_events} collection, for the {@link OutboxRelay} to
+ * publish.
+ * <p>
+ * The change events are published by the services synchronously, right after the write, so the event is inserted
+ * in the same MongoDB transaction as the change it describes when the service method runs in one
+ * (the default, {@code shop.transactions.enabled=true}, which requires a replica set): either both are written or
+ * neither is, and a change whose event cannot be recorded fails and is rolled back. The in-memory read models only
+ * apply a change once its transaction has committed.
+ * </p>
+ * <p>
+ * Without transactions, or for the bulk changes recorded after the bulk write as imports write from several threads,
+ * the event is inserted right after the change. An event that cannot be inserted still fails the request, or the
+ * job, although the change is already written, so that no change goes unpublished silently: the client learns that
+ * the change may not be published and can retry it. The read models of the instance then only pick the change up
+ * with their next refresh. An event is still lost if the instance stops between the change and its insert.
+ * </p>
+ */
+@Slf4j
+@Component
+public class OutboxRecorder {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final IdGeneratorRegistry idGeneratorRegistry;
+    private final ProductMapper productMapper;
+    private final CategoryMapper categoryMapper;
+    private final MaterialMapper materialMapper;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    /**
+     * Constructs the recorder.
+     *
+     * @param outboxEventRepository The repository the events are inserted in.
+     * @param idGeneratorRegistry   The registry providing the time-ordered identifiers of the events.
+     * @param productMapper         The mapper of the product payloads.
+     * @param categoryMapper        The mapper of the category payloads.
+     * @param materialMapper        The mapper of the material payloads.
+     * @param objectMapper          The mapper writing the payloads as JSON.
+     * @param enabled               Whether the changes are recorded.
+     */
+    public OutboxRecorder(OutboxEventRepository outboxEventRepository, IdGeneratorRegistry idGeneratorRegistry,
+                          ProductMapper productMapper, CategoryMapper categoryMapper, MaterialMapper materialMapper,
+                          ObjectMapper objectMapper, @Value("${shop.outbox.enabled:true}") boolean enabled) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.idGeneratorRegistry = idGeneratorRegistry;
+        this.productMapper = productMapper;
+        this.categoryMapper = categoryMapper;
+        this.materialMapper = materialMapper;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Records a change to the product collection.
+     *
+     * @param event The product change.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onProductChange(ProductChangeEvent event) {
+        record(CatalogEntityType.PRODUCT, event.type(), event.productId(),
+                event.product() == null ? null : productMapper.productToProductResponseDTO(event.product()));
+    }
+
+    /**
+     * Records a change to the category collection.
+     *
+     * @param event The category change.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onCategoryChange(CategoryChangeEvent event) {
+        record(CatalogEntityType.CATEGORY, event.type(), event.categoryId(),
+                event.category() == null ? null : categoryMapper.categoryToCategoryResponseDTO(event.category()));
+    }
+
+    /**
+     * Records a change to the material collection.
+     *
+     * @param event The material change.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onMaterialChange(MaterialChangeEvent event) {
+        record(CatalogEntityType.MATERIAL, event.type(), event.materialId(),
+                event.material() == null ? null : materialMapper.materialToMaterialResponseDTO(event.material()));
+    }
+
+    /**
+     * Inserts the event of a change. A failed insert is rethrown: in a transaction it rolls the change back, outside
+     * of one it fails the request whose change is already written.
+     *
+     * @throws EntityCreationException If the payload cannot be written as JSON.
+     */
+    private void record(CatalogEntityType entityType, ChangeType changeType, UUID entityId, Object payload) {
+        if (!enabled) {
+            return;
+        }
+        OutboxEvent event = OutboxEvent.builder()
+                .eventId(idGeneratorRegistry.nextId(OutboxEvent.class))
+                .entityType(entityType)
+                .entityId(entityId)
+                .changeType(changeType)
+                .payload(payload == null ? null : toJson(payload))
+                .occurredAt(Instant.now())
+                .build();
+        try {
+            outboxEventRepository.insert(event);
+        } catch (DataAccessException | MongoException ex) {
+            if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                log.error("Event of the {} change of {} {} could not be recorded, the change is written but not published: {}",
+                        changeType, entityType, entityId, ex.getMessage());
+            }
+            throw ex;
+        }
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new EntityCreationException("prod.error.4300", ex);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.shop.microservices.product.Outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoException;
+import com.shop.microservices.product.Dto.CatalogChangeEventDTO;
+import com.shop.microservices.product.Model.OutboxEvent;
+import com.shop.microservices.product.Repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes the catalog changes recorded in the outbox to the {@link OutboxSink}, in batches, oldest first.
+ * <p>
+ * Every {@code shop.outbox.relay.interval-ms} the relay reads the pending events in the order of their time-ordered
+ * identifiers, at most {@code shop.outbox.relay.batch-size} at a time, publishes them and marks them as published,
+ * until none is left. A batch is only marked once the sink has accepted it, so a failure of the sink or of the
+ * database leaves the batch pending and the next run publishes it again, before any later event.
+ * </p>
+ * <p>
+ * Events are only read once they are {@code shop.outbox.relay.settle-time} old. An event is recorded, and gets its
+ * identifier, before the transaction of its change commits, so a later event could otherwise be published while an
+ * earlier one is still uncommitted and invisible; waiting for commits to settle keeps the events in order unless a
+ * commit takes longer than that, in which case the late event is still published, with the next batch.
+ * </p>
+ * <p>
+ * The relay is disabled by default and enabled with {@code shop.outbox.relay.enabled=true}. However many instances
+ * enable it, only the one holding the lease of the relay publishes: the lease is taken, or renewed, for
+ * {@code shop.outbox.relay.lease} before every batch, and given up on shutdown; once an instance stops renewing it,
+ * another one takes it over when it expires and publishes the events left pending, in order.
+ * </p>
+ * <p>
+ * The duration and the size of the batches are published as the {@code shop.outbox.relay.*} metrics.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shop.outbox.relay.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink outboxSink;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final Duration settleTime;
+    private final Duration retention;
+    private final Duration lease;
+    private final String owner;
+    private final Clock clock;
+    private final ReentrantLock relayLock = new ReentrantLock();
+
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter publishedEvents;
+    private final Counter failedBatches;
+
+    /**
+     * Constructs the relay.
+     *
+     * @param outboxEventRepository The repository the events are read from.
+     * @param outboxSink            The sink the events are published to.
+     * @param objectMapper          The mapper reading the payloads of the events.
+     * @param meterRegistry         The registry the relay metrics are published to.
+     * @param batchSize             The largest number of events published at once.
+     * @param settleTime            How old an event must be to be published.
+     * @param retention             How long published events are kept in the outbox.
+     * @param lease                 How long the lease of the relay is held without being renewed.
+     */
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxSink outboxSink, ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       @Value("${shop.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${shop.outbox.relay.settle-time:1s}") Duration settleTime,
+                       @Value("${shop.outbox.retention:7d}") Duration retention,
+                       @Value("${shop.outbox.relay.lease:30s}") Duration lease) {
+        this(outboxEventRepository, outboxSink, objectMapper, meterRegistry, batchSize, settleTime, retention, lease,
+                ManagementFactory.getRuntimeMXBean().getName(), Clock.systemUTC());
+    }
+
+    OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxSink outboxSink, ObjectMapper objectMapper,
+                MeterRegistry meterRegistry, int batchSize, Duration settleTime, Duration retention, Duration lease,
+                String owner, Clock clock) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSink = outboxSink;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.settleTime = settleTime;
+        this.retention = retention;
+        this.lease = lease;
+        this.owner = owner;
+        this.clock = clock;
+        this.batchTimer = Timer.builder("shop.outbox.relay.batch")
+                .description("Duration of the publication of a batch of outbox events, marking included")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("shop.outbox.relay.batch-size")
+                .description("Number of outbox events published by one batch")
+                .register(meterRegistry);
+        this.publishedEvents = Counter.builder("shop.outbox.relay.published")
+                .description("Outbox events published")
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder("shop.outbox.relay.failures")
+                .description("Batches of outbox events that failed and are published again")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes the pending events, batch after batch, until none is left, a batch fails or the lease of the relay
+     * is held by another instance. Runs do not overlap.
+     *
+     * @return The number of events published.
+     */
+    @Scheduled(fixedDelayString = "${shop.outbox.relay.interval-ms:500}")
+    public long relay() {
+        if (!relayLock.tryLock()) {
+            return 0;
+        }
+        try {
+            long published = 0;
+            Instant settled = clock.instant().minus(settleTime);
+            while (acquireLease()) {
+                int count = publishBatch(settled);
+                published += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+            return published;
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        relayLock.lock();
+        try {
+            outboxEventRepository.releaseRelayLease(owner, clock.instant());
+        } catch (DataAccessException | MongoException ex) {
+            log.warn("Lease of the outbox relay could not be given up and is taken over once it expires: {}", ex.getMessage());
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    /**
+     * Takes or renews the lease of the relay for the next batch.
+     *
+     * @return {@code true} if this instance holds the lease.
+     */
+    private boolean acquireLease() {
+        Instant now = clock.instant();
+        try {
+            return outboxEventRepository.acquireRelayLease(owner, now, now.plus(lease));
+        } catch (DataAccessException | MongoException ex) {
+            log.warn("Lease of the outbox relay could not be taken, the events are published later: {}", ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Publishes the oldest pending events recorded before a time.
+     *
+     * @return The number of events published, {@code 0} if there were none or the batch failed.
+     */
+    private int publishBatch(Instant occurredBefore) {
+        List<OutboxEvent> batch;
+        try {
+            batch = outboxEventRepository.findPending(occurredBefore, batchSize);
+        } catch (DataAccessException | MongoException ex) {
+            failedBatches.increment();
+            log.warn("Pending outbox events could not be read and are published later: {}", ex.getMessage());
+            return 0;
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        try {
+            List<CatalogChangeEventDTO> events = new ArrayList<>(batch.size());
+            List<UUID> eventIds = new ArrayList<>(batch.size());
+            for (OutboxEvent event : batch) {
+                events.add(toDto(event));
+                eventIds.add(event.getEventId());
+            }
+            outboxSink.publish(events);
+            Instant now = clock.instant();
+            outboxEventRepository.markPublished(eventIds, now, now.plus(retention));
+        } catch (IOException | RuntimeException ex) {
+            failedBatches.increment();
+            log.warn("Batch of {} outbox events from {} could not be published and is published again: {}",
+                    batch.size(), batch.get(0).getEventId(), ex.getMessage());
+            return 0;
+        } finally {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+        }
+        publishedEvents.increment(batch.size());
+        return batch.size();
+    }
+
+    private CatalogChangeEventDTO toDto(OutboxEvent event) throws IOException {
+        return new CatalogChangeEventDTO(
+                event.getEventId(),
+                event.getEntityType(),
+                event.getEntityId(),
+                event.getChangeType(),
+                event.getOccurredAt(),
+                event.getPayload() == null ? null : objectMapper.readTree(event.getPayload()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.shop.microservices.product.Outbox;
+
+import com.shop.microservices.product.Dto.CatalogChangeEventDTO;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of the catalog changes published by the {@link OutboxRelay}, selected with {@code shop.outbox.sink}.
+ * <p>
+ * Delivery is at least once: a batch the sink fails to publish is published again, in full, by the next run of the
+ * relay, and so is a batch published by an instance that stops before marking it, so consumers skip the event
+ * identifiers they have already seen.
+ * </p>
+ */
+public interface OutboxSink {
+
+    /**
+     * Publishes a batch of events, in the given order, after those of the previous batches.
+     *
+     * @param events The events, oldest first.
+     * @throws IOException If the events could not all be published; they are published again later.
+     */
+    void publish(List<CatalogChangeEventDTO> events) throws IOException;
+}
@@ -0,0 +1,107 @@
+package com.shop.microservices.product.Popularity;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min Sketch of weighted counts by UUID, in fixed memory.
+ * <p>
+ * Each key is hashed to one counter in each of the {@code depth} rows of {@code width} counters, and its count is
+ * estimated as the smallest of them: the estimate never falls below the true count, and exceeds it by at most
+ * {@code e / width} of the total count with probability {@code 1 - e^-depth}. Counters are doubles, so that weights
+ * can grow for time decay, held as their bits in an {@link AtomicLongArray} and added to by compare-and-set: adds
+ * from concurrent threads take no lock and are never lost.
+ * </p>
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final AtomicLongArray counters;
+
+    /**
+     * Constructs an empty sketch.
+     *
+     * @param depth The number of rows, each an independent estimate.
+     * @param width The number of counters per row.
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("The depth and width of a sketch must be positive");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counters = new AtomicLongArray(depth * width);
+    }
+
+    /**
+     * Adds a weight to the count of a key.
+     *
+     * @param key    The key.
+     * @param weight The weight to add, positive.
+     * @return The estimated count of the key, including the weight.
+     */
+    public double add(UUID key, double weight) {
+        long hash = hash(key);
+        double estimate = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = index(hash, row);
+            long current;
+            double updated;
+            do {
+                current = counters.get(index);
+                updated = Double.longBitsToDouble(current) + weight;
+            } while (!counters.compareAndSet(index, current, Double.doubleToRawLongBits(updated)));
+            estimate = Math.min(estimate, updated);
+        }
+        return estimate;
+    }
+
+    /**
+     * Estimates the count of a key.
+     *
+     * @param key The key.
+     * @return The estimated count, never below the true count.
+     */
+    public double estimate(UUID key) {
+        long hash = hash(key);
+        double estimate = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, Double.longBitsToDouble(counters.get(index(hash, row))));
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns a copy of this sketch with every count multiplied by a factor. Adds made to this sketch while it is
+     * copied may be missing from the copy.
+     *
+     * @param factor The factor.
+     * @return The scaled copy.
+     */
+    public CountMinSketch scaled(double factor) {
+        CountMinSketch copy = new CountMinSketch(depth, width);
+        for (int i = 0; i < counters.length(); i++) {
+            copy.counters.set(i, Double.doubleToRawLongBits(Double.longBitsToDouble(counters.get(i)) * factor));
+        }
+        return copy;
+    }
+
+    /**
+     * Mixes the two halves of a UUID into a 64-bit hash, with the finalizer of SplitMix64.
+     */
+    private static long hash(UUID key) {
+        long hash = key.getMostSignificantBits() * 0x9E3779B97F4A7C15L ^ key.getLeastSignificantBits();
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    /**
+     * Derives the counter of a row from the two halves of the hash (Kirsch-Mitzenmacher double hashing).
+     */
+    private int index(long hash, int row) {
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return row * width + Math.floorMod(combined, width);
+    }
+}
@@ -0,0 +1,210 @@
+package com.shop.microservices.product.Popularity;
+
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.shop.microservices.product.Event.ChangeType;
+import com.shop.microservices.product.Event.ProductChangeEvent;
+import com.shop.microservices.product.Repository.ProductViewRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts the product views in memory and flushes the counts to the {@code product_views} collection periodically.
+ * <p>
+ * A view increments the {@link LongAdder} of its product, whose cells are striped across the threads, so concurrent
+ * views of the same product do not contend and no view waits for the database. Every
+ * {@code shop.view-counter.flush-interval-ms}, and on shutdown, the accumulated counts are drained and written as a
+ * single unordered bulk of {@code $inc} upserts. Counts that could not be written are put back and retried with the
+ * next flush; the views lost if the instance crashes are those of one flush interval at most.
+ * </p>
+ * <p>
+ * The duration and the size of the flushes are published as the {@code shop.view-counter.*} metrics.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ProductViewCounter {
+
+    private final ProductViewRepository productViewRepository;
+    private final boolean enabled;
+    private final ConcurrentHashMap<UUID, LongAdder> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchSize;
+    private final Counter flushedViews;
+    private final Counter failedFlushes;
+
+    /**
+     * Constructs the counter.
+     *
+     * @param productViewRepository The repository the counts are flushed to.
+     * @param meterRegistry         The registry the flush metrics are published to.
+     * @param enabled               Whether the views are counted.
+     */
+    public ProductViewCounter(ProductViewRepository productViewRepository, MeterRegistry meterRegistry,
+                              @Value("${shop.view-counter.enabled:true}") boolean enabled) {
+        this.productViewRepository = productViewRepository;
+        this.enabled = enabled;
+        this.flushTimer = Timer.builder("shop.view-counter.flush")
+                .description("Duration of the bulk writes of the view counts")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("shop.view-counter.batch-size")
+                .description("Number of products whose views are written by one flush")
+                .register(meterRegistry);
+        this.flushedViews = Counter.builder("shop.view-counter.flushed")
+                .description("Views written to the database")
+                .register(meterRegistry);
+        this.failedFlushes = Counter.builder("shop.view-counter.failures")
+                .description("Flushes that failed, in full or in part, and are retried")
+                .register(meterRegistry);
+        Gauge.builder("shop.view-counter.products", pending, Map::size)
+                .description("Products whose views are counted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts a view of a product.
+     *
+     * @param productId The identifier of the viewed product.
+     */
+    public void record(UUID productId) {
+        if (!enabled) {
+            return;
+        }
+        LongAdder views = pending.get(productId);
+        if (views == null) {
+            views = pending.computeIfAbsent(productId, id -> new LongAdder());
+        }
+        views.increment();
+    }
+
+    /**
+     * Returns the number of views of a product counted since the last flush.
+     *
+     * @param productId The identifier of the product.
+     * @return The number of views not yet flushed.
+     */
+    public long pendingViews(UUID productId) {
+        LongAdder views = pending.get(productId);
+        return views == null ? 0 : views.sum();
+    }
+
+    /**
+     * Writes the views counted since the last flush. Flushes do not overlap.
+     */
+    @Scheduled(fixedDelayString = "${shop.view-counter.flush-interval-ms:10000}",
+            initialDelayString = "${shop.view-counter.flush-interval-ms:10000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<UUID, Long> batch = drain();
+            if (batch.isEmpty()) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                productViewRepository.incrementViews(batch, Instant.now());
+                flushedViews.increment(sum(batch.values()));
+            } catch (BulkOperationException ex) {
+                // The increments that failed are retried, the others were applied
+                List<UUID> productIds = new ArrayList<>(batch.keySet());
+                long failed = 0;
+                for (BulkWriteError error : ex.getErrors()) {
+                    UUID productId = productIds.get(error.getIndex());
+                    long views = batch.get(productId);
+                    restore(productId, views);
+                    failed += views;
+                }
+                flushedViews.increment(sum(batch.values()) - failed);
+                failedFlushes.increment();
+                log.warn("{} of {} view counts could not be written and are retried: {}", ex.getErrors().size(),
+                        batch.size(), ex.getMessage());
+            } catch (DataAccessException | MongoException ex) {
+                batch.forEach(this::restore);
+                failedFlushes.increment();
+                log.warn("View counts of {} products could not be written and are retried: {}", batch.size(), ex.getMessage());
+            } finally {
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                batchSize.record(batch.size());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the views of a deleted product, counted or written.
+     *
+     * @param event The product change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (event.type() != ChangeType.DELETED) {
+            return;
+        }
+        pending.remove(event.productId());
+        try {
+            productViewRepository.deleteById(event.productId());
+        } catch (DataAccessException | MongoException ex) {
+            log.warn("View count of deleted product {} could not be removed: {}", event.productId(), ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        flush();
+    }
+
+    /**
+     * Takes the counts accumulated since the last flush, resetting them. Each cell of a counter is reset atomically,
+     * so a view recorded meanwhile is either taken or left for the next flush. The counters are kept rather than
+     * removed once drained, as a view could otherwise be recorded on a counter just removed and be lost; there is
+     * one per product viewed, until the product is deleted.
+     */
+    private Map<UUID, Long> drain() {
+        Map<UUID, Long> batch = new LinkedHashMap<>();
+        pending.forEach((productId, views) -> {
+            long count = views.sumThenReset();
+            if (count > 0) {
+                batch.put(productId, count);
+            }
+        });
+        return batch;
+    }
+
+    private void restore(UUID productId, long views) {
+        pending.computeIfAbsent(productId, id -> new LongAdder()).add(views);
+    }
+
+    private static long sum(Iterable<Long> counts) {
+        long sum = 0;
+        for (long count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,70 @@
+package com.shop.microservices.product.Popularity;
+
+import com.mongodb.MongoException;
+import com.shop.microservices.product.Model.ProductViews;
+import com.shop.microservices.product.Repository.ProductViewRepository;
+import com.shop.microservices.product.Typeahead.Popularity;
+import com.shop.microservices.product.Typeahead.SuggestionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Popularity of the products by their views, as counted by the {@link ProductViewCounter} and flushed to the
+ * {@code product_views} collection, weighing the typeahead suggestions.
+ * <p>
+ * The counts of the {@code shop.popularity.size} most viewed products are read through the views index every
+ * {@code shop.popularity.refresh-interval-ms} into an immutable map, so the typeahead reads them without touching the
+ * database; the products not read, and the categories and materials, weigh nothing. The typeahead takes the weights
+ * when a name is indexed, so a new count ranks its product from the next rebuild of the index on.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ProductViewPopularity implements Popularity {
+
+    private final ProductViewRepository productViewRepository;
+    private final int size;
+
+    private volatile Map<UUID, Long> views = Map.of();
+
+    /**
+     * Constructs the popularity, empty until its first refresh.
+     *
+     * @param productViewRepository The repository the counts are read from.
+     * @param size                  The number of most viewed products read.
+     */
+    public ProductViewPopularity(ProductViewRepository productViewRepository,
+                                 @Value("${shop.popularity.size:10000}") int size) {
+        this.productViewRepository = productViewRepository;
+        this.size = size;
+    }
+
+    @Override
+    public long popularityOf(SuggestionType type, UUID id) {
+        return type == SuggestionType.PRODUCT ? views.getOrDefault(id, 0L) : 0;
+    }
+
+    /**
+     * Reads the counts of the most viewed products. On failure the previous counts are kept.
+     */
+    @Scheduled(fixedDelayString = "${shop.popularity.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            Map<UUID, Long> refreshed = new HashMap<>();
+            for (ProductViews productViews : productViewRepository.findAllByOrderByViewsDesc(Limit.of(size))) {
+                refreshed.put(productViews.getProductId(), productViews.getViews());
+            }
+            views = Map.copyOf(refreshed);
+        } catch (DataAccessException | MongoException ex) {
+            log.warn("Product views could not be read, the popularity of the products may be stale: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.shop.microservices.product.Popularity;
+
+import com.shop.microservices.product.Event.ChangeType;
+import com.shop.microservices.product.Event.ProductChangeEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Heavy-hitter tracker of the product views: the products viewed most in the recent past, in fixed memory.
+ * <p>
+ * Views are counted by a {@link CountMinSketch} rather than exactly, and the {@code shop.trending.size} products with
+ * the highest estimates are kept in a ranking ordered by score. Counts decay exponentially, halving every
+ * {@code shop.trending.half-life}, with forward decay: a view is added with a weight of {@code 2^(t / half-life)},
+ * growing with its time {@code t} since a landmark, so no counter is ever decayed in place and a score divided by the
+ * current weight is the decayed count. Once the weights grow large the sketch and the ranking are rescaled to a new
+ * landmark.
+ * </p>
+ * <p>
+ * Recording a view adds to the sketch without locking. The ranking, guarded by a lock, is only touched when the
+ * estimate reaches the lowest score ranked, and not at all when another thread holds the lock: that view is still
+ * counted by the sketch and the product's next view updates its score, so readers never wait on each other.
+ * </p>
+ */
+@Component
+public class TrendingProducts {
+
+    // Rescaled once views weigh 2^64 times more than at the landmark, far from the range of a double
+    private static final double RESCALE_HALF_LIVES = 64;
+
+    private static final Comparator<Candidate> RANKING_ORDER = Comparator.comparingDouble(Candidate::score)
+            .thenComparing(Candidate::productId);
+
+    private final int size;
+    private final double halfLifeNanos;
+    private final LongSupplier clock;
+
+    private volatile Epoch epoch;
+    // The lowest score ranked once the ranking is full, which a product's estimate must reach to be ranked
+    private volatile double threshold;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by the lock
+    private final Map<UUID, Double> scores = new HashMap<>();
+    private final TreeSet<Candidate> ranking = new TreeSet<>(RANKING_ORDER);
+
+    /**
+     * Constructs the tracker.
+     *
+     * @param size        The number of products tracked.
+     * @param halfLife    The time after which a view counts for half.
+     * @param sketchDepth The number of rows of the sketch.
+     * @param sketchWidth The number of counters per row of the sketch.
+     */
+    @Autowired
+    public TrendingProducts(@Value("${shop.trending.size:20}") int size,
+                            @Value("${shop.trending.half-life:10m}") Duration halfLife,
+                            @Value("${shop.trending.sketch-depth:4}") int sketchDepth,
+                            @Value("${shop.trending.sketch-width:4096}") int sketchWidth) {
+        this(size, halfLife, sketchDepth, sketchWidth, System::nanoTime);
+    }
+
+    TrendingProducts(int size, Duration halfLife, int sketchDepth, int sketchWidth, LongSupplier clock) {
+        this.size = size;
+        this.halfLifeNanos = halfLife.toNanos();
+        this.clock = clock;
+        this.epoch = new Epoch(new CountMinSketch(sketchDepth, sketchWidth), clock.getAsLong());
+    }
+
+    /**
+     * Counts a view of a product.
+     *
+     * @param productId The identifier of the viewed product.
+     */
+    public void record(UUID productId) {
+        Epoch current = epoch;
+        double score = current.sketch().add(productId, weight(current, clock.getAsLong()));
+        if (score < threshold || !lock.tryLock()) {
+            return;
+        }
+        try {
+            // A score of the previous epoch is not comparable with the ranked ones
+            if (current == epoch) {
+                offer(productId, score);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the tracked products, most viewed first, rescaling the scores first when due.
+     *
+     * @return The products and their decayed view counts.
+     */
+    public List<Trend> top() {
+        lock.lock();
+        try {
+            long now = clock.getAsLong();
+            if (now - epoch.landmark() > RESCALE_HALF_LIVES * halfLifeNanos) {
+                rescale(now);
+            }
+            double weight = weight(epoch, now);
+            List<Trend> trends = new ArrayList<>(ranking.size());
+            for (Candidate candidate : ranking.descendingSet()) {
+                trends.add(new Trend(candidate.productId(), candidate.score() / weight));
+            }
+            return trends;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of products tracked.
+     *
+     * @return The size of the ranking once full.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Stops ranking a deleted product.
+     *
+     * @param event The product change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (event.type() != ChangeType.DELETED) {
+            return;
+        }
+        lock.lock();
+        try {
+            Double score = scores.remove(event.productId());
+            if (score != null) {
+                ranking.remove(new Candidate(event.productId(), score));
+                updateThreshold();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ranks a product with its new score, in place of the lowest ranked one if the ranking is full.
+     */
+    private void offer(UUID productId, double score) {
+        Double previous = scores.get(productId);
+        if (previous != null) {
+            if (score <= previous) {
+                return;
+            }
+            ranking.remove(new Candidate(productId, previous));
+        } else if (scores.size() >= size) {
+            Candidate lowest = ranking.first();
+            if (score <= lowest.score()) {
+                return;
+            }
+            ranking.pollFirst();
+            scores.remove(lowest.productId());
+        }
+        scores.put(productId, score);
+        ranking.add(new Candidate(productId, score));
+        updateThreshold();
+    }
+
+    /**
+     * Moves the landmark to the present, dividing every count by the weight of a view made now.
+     */
+    private void rescale(long now) {
+        double factor = 1 / weight(epoch, now);
+        epoch = new Epoch(epoch.sketch().scaled(factor), now);
+        List<Candidate> rescaled = ranking.stream()
+                .map(candidate -> new Candidate(candidate.productId(), candidate.score() * factor))
+                .toList();
+        ranking.clear();
+        ranking.addAll(rescaled);
+        rescaled.forEach(candidate -> scores.put(candidate.productId(), candidate.score()));
+        updateThreshold();
+    }
+
+    private void updateThreshold() {
+        threshold = scores.size() < size ? 0 : ranking.first().score();
+    }
+
+    private double weight(Epoch epoch, long now) {
+        return Math.pow(2, (now - epoch.landmark()) / halfLifeNanos);
+    }
+
+    /**
+     * A tracked product and its decayed view count.
+     *
+     * @param productId The identifier of the product.
+     * @param views     The estimated number of views, each counted for half after every half-life.
+     */
+    public record Trend(UUID productId, double views) {
+    }
+
+    /**
+     * The sketch and the time its weights are relative to.
+     */
+    private record Epoch(CountMinSketch sketch, long landmark) {
+    }
+
+    private record Candidate(UUID productId, double score) {
+    }
+}
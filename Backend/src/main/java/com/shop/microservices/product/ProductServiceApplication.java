@@ -1,9 +1,14 @@
 package com.shop.microservices.product;
 
+import com.shop.microservices.product.Configuration.ProductServiceRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(ProductServiceRuntimeHints.class)
 public class ProductServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,322 @@
+package com.shop.microservices.product.ReadModel;
+
+import com.mongodb.MongoException;
+import com.shop.microservices.product.Dto.ProductResponseDTO;
+import com.shop.microservices.product.Event.ChangeType;
+import com.shop.microservices.product.Event.ProductChangeEvent;
+import com.shop.microservices.product.Mapper.ProductMapper;
+import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Materialized read model holding the first pages of the default product listing, already mapped to
+ * {@link ProductResponseDTO}.
+ * <p>
+ * The view keeps the first {@code pages * page-size} products in the {@link #DEFAULT_ORDER default order}, together
+ * with the pre-built pages of the configured size, in one immutable snapshot. A listing request falling inside the
+ * snapshot is served with a single volatile read and no query or mapping; other requests fall back to the database.
+ * </p>
+ * <p>
+ * The snapshot is maintained incrementally from {@link ProductChangeEvent}s: a created product is inserted at its
+ * position when it belongs to the first pages, an updated product replaces its row, and a deleted product is removed,
+ * after which the shortened view is refilled in the background. Bulk changes discard the snapshot and rebuild it.
+ * Events applied while a rebuild is reading the collection are replayed onto its rows, so none are lost; their writes
+ * are already included in the count the rebuild read, so they do not adjust its total a second time. Writes
+ * made by other instances are not published here; a periodic rebuild bounds how long they stay invisible.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ProductListingView {
+
+    /**
+     * The default listing order: by {@code _id}, which is the insertion order for time-ordered identifiers.
+     */
+    public static final Sort DEFAULT_ORDER = Sort.by("id");
+
+    // Order of UUIDs stored as standard binaries: unsigned, most significant bits first
+    private static final Comparator<UUID> ID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final boolean enabled;
+    private final int pageSize;
+    private final int capacity;
+
+    // Current snapshot, null while it is unavailable (before the first build and after a bulk change)
+    private volatile Snapshot snapshot;
+    // Guarded by this: events received while a rebuild reads the collection, and the number of bulk changes
+    private List<ProductChangeEvent> pendingEvents;
+    private long bulkChanges;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    /**
+     * Constructs the view.
+     *
+     * @param productRepository The repository the view is built from.
+     * @param productMapper     The mapper rendering the products.
+     * @param enabled           Whether listings are served from the view.
+     * @param pages             The number of leading pages held.
+     * @param pageSize          The page size the pages are pre-built for.
+     */
+    public ProductListingView(ProductRepository productRepository, ProductMapper productMapper,
+                              @Value("${shop.product-listing-view.enabled:true}") boolean enabled,
+                              @Value("${shop.product-listing-view.pages:10}") int pages,
+                              @Value("${shop.product-listing-view.page-size:10}") int pageSize) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.enabled = enabled && pages > 0 && pageSize > 0;
+        this.pageSize = pageSize;
+        this.capacity = pages * pageSize;
+    }
+
+    /**
+     * Returns the requested page of the default listing if the view holds it.
+     *
+     * @param page The page number (0-based index).
+     * @param size The page size.
+     * @return The page, or an empty optional if it has to be read from the database.
+     */
+    public Optional<Page<ProductResponseDTO>> page(int page, int size) {
+        Snapshot current = snapshot;
+        if (current == null || page < 0 || size < 1) {
+            return Optional.empty();
+        }
+        if (size == pageSize && page < current.pages().size()) {
+            return Optional.of(current.pages().get(page));
+        }
+        long from = (long) page * size;
+        long to = from + size;
+        // Served only when the rows are held, or when the view holds the whole collection
+        if (to <= current.rows().size() || current.rows().size() == current.total()) {
+            List<ProductResponseDTO> content = from >= current.rows().size()
+                    ? List.of()
+                    : current.rows().subList((int) from, (int) Math.min(to, current.rows().size()));
+            return Optional.of(new PageImpl<>(content, PageRequest.of(page, size, DEFAULT_ORDER), current.total()));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the number of products held by the view.
+     *
+     * @return The number of rows of the current snapshot, {@code 0} while there is none.
+     */
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.rows().size();
+    }
+
+    /**
+     * Applies a product change to the view.
+     * <p>
+     * Never throws: the change is already written, so a failure only drops the snapshot until the next rebuild.
+     * </p>
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        boolean refill;
+        synchronized (this) {
+            if (event.type() == ChangeType.BULK_CHANGED) {
+                bulkChanges++;
+                snapshot = null;
+                refill = true;
+            } else {
+                if (pendingEvents != null) {
+                    pendingEvents.add(event);
+                }
+                try {
+                    snapshot = snapshot == null ? null : apply(snapshot, event, true);
+                } catch (RuntimeException ex) {
+                    log.warn("Product listing view dropped after a failed {} update: {}", event.type(), ex.getMessage());
+                    snapshot = null;
+                }
+                Snapshot current = snapshot;
+                refill = current != null && current.rows().size() < capacity && current.rows().size() < current.total();
+            }
+        }
+        if (refill) {
+            requestRebuild();
+        }
+    }
+
+    /**
+     * Rebuilds the view from the collection, periodically so that writes made by other instances show up.
+     */
+    @Scheduled(fixedDelayString = "${shop.product-listing-view.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            rebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Schedules a rebuild on a virtual thread, unless one is already waiting to run.
+     */
+    private void requestRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("product-listing-view-rebuild").start(() -> {
+                rebuildLock.lock();
+                try {
+                    rebuildQueued.set(false);
+                    rebuild();
+                } finally {
+                    rebuildLock.unlock();
+                }
+            });
+        }
+    }
+
+    /**
+     * Reads the first rows of the default listing and installs them as the new snapshot. Runs under the rebuild lock.
+     */
+    private void rebuild() {
+        long bulkChangesAtStart;
+        synchronized (this) {
+            bulkChangesAtStart = bulkChanges;
+            pendingEvents = new ArrayList<>();
+        }
+        Snapshot rebuilt = null;
+        int countedEvents = 0;
+        try {
+            Page<Product> first = productRepository.findAll(PageRequest.of(0, capacity, DEFAULT_ORDER));
+            // The count runs after the rows are read: the writes of the events received so far are included in it
+            synchronized (this) {
+                countedEvents = pendingEvents.size();
+            }
+            List<ProductResponseDTO> rows = first.getContent().stream()
+                    .map(productMapper::productToProductResponseDTO)
+                    .toList();
+            rebuilt = snapshotOf(rows, first.getTotalElements());
+        } catch (DataAccessException | MongoException ex) {
+            log.warn("Product listing view could not be rebuilt, listings are read from the database: {}", ex.getMessage());
+        } finally {
+            synchronized (this) {
+                if (rebuilt != null && bulkChanges == bulkChangesAtStart) {
+                    for (int i = 0; i < pendingEvents.size(); i++) {
+                        rebuilt = apply(rebuilt, pendingEvents.get(i), i >= countedEvents);
+                    }
+                    snapshot = rebuilt;
+                    log.debug("Product listing view rebuilt with {} of {} products", rebuilt.rows().size(), rebuilt.total());
+                }
+                // Otherwise a bulk change raced the read and has queued another rebuild
+                pendingEvents = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the snapshot resulting from applying a single-product change.
+     *
+     * @param adjustTotal Whether the change is missing from the total of the snapshot.
+     */
+    private Snapshot apply(Snapshot current, ProductChangeEvent event, boolean adjustTotal) {
+        List<ProductResponseDTO> rows = new ArrayList<>(current.rows());
+        int index = indexOf(rows, event.productId());
+        long total = current.total();
+        switch (event.type()) {
+            case CREATED -> {
+                if (index >= 0) {
+                    // Already held, e.g. replayed after a rebuild that read it
+                    rows.set(index, productMapper.productToProductResponseDTO(event.product()));
+                } else {
+                    int insertion = -index - 1;
+                    long totalBefore = adjustTotal ? total : total - 1;
+                    // The rows are the first products in order: a product after the last row only belongs to the
+                    // view when the view holds the whole collection
+                    if (insertion < rows.size() || rows.size() == totalBefore) {
+                        rows.add(insertion, productMapper.productToProductResponseDTO(event.product()));
+                    }
+                    total = totalBefore + 1;
+                }
+            }
+            case UPDATED -> {
+                if (index >= 0) {
+                    rows.set(index, productMapper.productToProductResponseDTO(event.product()));
+                }
+            }
+            case DELETED -> {
+                if (index >= 0) {
+                    rows.remove(index);
+                    if (adjustTotal) {
+                        total--;
+                    }
+                } else if (rows.size() < total && adjustTotal) {
+                    // Not held, but the view does not hold the whole collection either
+                    total--;
+                }
+            }
+            default -> throw new IllegalArgumentException("Unexpected product change " + event.type());
+        }
+        if (rows.size() > capacity) {
+            rows.subList(capacity, rows.size()).clear();
+        }
+        return snapshotOf(rows, total);
+    }
+
+    private static int indexOf(List<ProductResponseDTO> rows, UUID id) {
+        return Collections.binarySearch(rows.stream().map(ProductResponseDTO::id).toList(), id, ID_ORDER);
+    }
+
+    /**
+     * Creates a snapshot, pre-building the complete pages of the configured size.
+     */
+    private Snapshot snapshotOf(List<ProductResponseDTO> rows, long total) {
+        List<ProductResponseDTO> held = List.copyOf(rows);
+        List<Page<ProductResponseDTO>> pages = new ArrayList<>();
+        for (int from = 0; from < held.size(); from += pageSize) {
+            int to = Math.min(from + pageSize, held.size());
+            // A trailing partial page is only complete when it is the last page of the collection
+            if (to - from < pageSize && held.size() != total) {
+                break;
+            }
+            pages.add(new PageImpl<>(held.subList(from, to), PageRequest.of(from / pageSize, pageSize, DEFAULT_ORDER), total));
+        }
+        return new Snapshot(held, List.copyOf(pages), total);
+    }
+
+    /**
+     * Immutable state of the view.
+     *
+     * @param rows  The first products of the default listing, in order.
+     * @param pages The complete pages of the configured size built from the rows.
+     * @param total The number of products in the collection.
+     */
+    private record Snapshot(List<ProductResponseDTO> rows, List<Page<ProductResponseDTO>> pages, long total) {
+    }
+}
@@ -3,8 +3,11 @@ package com.shop.microservices.product.Repository;
 import com.shop.microservices.product.Model.Category;
 import com.shop.microservices.product.Model.Product;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 /**
  * Repository interface for managing {@link Category} entities in MongoDB.
@@ -32,4 +35,20 @@ public interface CategoryRepository extends MongoRepository<Category, UUID> {
      *         The object may be empty if no category match the name.
      */
     Category findByName(String categoryName);
+
+    /**
+     * Finds the categories written at or after the given time.
+     *
+     * @param since The earliest modification time.
+     * @return The categories modified since then.
+     */
+    List<Category> findByLastModifiedGreaterThanEqual(Instant since);
+
+    /**
+     * Finds the identifiers of every category, reading the {@code _id} index only.
+     *
+     * @return The categories, holding only their identifier.
+     */
+    @Query(value = "{}", fields = "{ '_id' : 1 }")
+    List<Category> findIdsBy();
 }
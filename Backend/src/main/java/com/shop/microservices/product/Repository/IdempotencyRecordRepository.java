@@ -0,0 +1,24 @@
+package com.shop.microservices.product.Repository;
+
+import com.shop.microservices.product.Model.IdempotencyRecord;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+/**
+ * Repository interface for managing {@link IdempotencyRecord} entities in MongoDB.
+ */
+@Repository
+public interface IdempotencyRecordRepository extends MongoRepository<IdempotencyRecord, String> {
+
+    /**
+     * Deletes a record if it expired before the given time, as a single remove filtered on both, so that a record
+     * renewed or replaced in the meantime is kept.
+     *
+     * @param id   The identifier of the record.
+     * @param time The time the record must have expired before.
+     * @return The number of records deleted, 0 or 1.
+     */
+    long deleteByIdAndExpiresAtBefore(String id, Instant time);
+}
@@ -0,0 +1,73 @@
+package com.shop.microservices.product.Repository.InMemory;
+
+import com.shop.microservices.product.Model.Category;
+import com.shop.microservices.product.Repository.CategoryRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-memory {@link CategoryRepository}, used in place of the MongoDB one with the {@code in-memory} profile.
+ * <p>
+ * Names are held in a hash index, not unique as the collection has no unique index on them, and modification times
+ * in a sorted index answering {@link #findByLastModifiedGreaterThanEqual}.
+ * </p>
+ */
+@Repository
+@Primary
+@Profile("in-memory")
+public class InMemoryCategoryRepository extends InMemoryMongoRepository<Category> implements CategoryRepository {
+
+    private final HashIndex<Category, String> names = hashIndex(Category::getName, false);
+    private final SortedIndex<Category, Instant> modificationTimes = sortedIndex(Category::getLastModified);
+
+    /**
+     * Constructs an empty repository.
+     *
+     * @param eventPublisher The publisher of the events preceding each write.
+     */
+    public InMemoryCategoryRepository(ApplicationEventPublisher eventPublisher) {
+        super("category", "categoryId", eventPublisher);
+    }
+
+    @Override
+    protected UUID idOf(Category category) {
+        return category.getCategoryId();
+    }
+
+    @Override
+    protected Category copy(Category category) {
+        return Category.builder()
+                .categoryId(category.getCategoryId())
+                .name(category.getName())
+                .description(category.getDescription())
+                .lastModified(category.getLastModified())
+                .build();
+    }
+
+    @Override
+    public boolean existsByName(String name) {
+        return findByName(name) != null;
+    }
+
+    @Override
+    public Category findByName(String categoryName) {
+        return lookUp(names.get(categoryName), category -> categoryName.equals(category.getName())).findFirst().orElse(null);
+    }
+
+    @Override
+    public List<Category> findByLastModifiedGreaterThanEqual(Instant since) {
+        return lookUp(modificationTimes.atLeast(since),
+                category -> category.getLastModified() != null && !category.getLastModified().isBefore(since)).toList();
+    }
+
+    @Override
+    public List<Category> findIdsBy() {
+        return ids().map(id -> Category.builder().categoryId(id).build()).toList();
+    }
+}
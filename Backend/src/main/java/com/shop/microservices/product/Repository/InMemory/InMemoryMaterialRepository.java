@@ -0,0 +1,85 @@
+package com.shop.microservices.product.Repository.InMemory;
+
+import com.shop.microservices.product.Model.Material;
+import com.shop.microservices.product.Repository.MaterialRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-memory {@link MaterialRepository}, used in place of the MongoDB one with the {@code in-memory} profile.
+ * <p>
+ * Materials are indexed by name and type together, the pair {@link #findByMaterialNameAndMaterialType} looks up, and
+ * by modification time in a sorted index answering {@link #findByLastModifiedGreaterThanEqual}.
+ * </p>
+ */
+@Repository
+@Primary
+@Profile("in-memory")
+public class InMemoryMaterialRepository extends InMemoryMongoRepository<Material> implements MaterialRepository {
+
+    private final HashIndex<Material, NameAndType> namesAndTypes = hashIndex(NameAndType::of, false);
+    private final SortedIndex<Material, Instant> modificationTimes = sortedIndex(Material::getLastModified);
+
+    /**
+     * Constructs an empty repository.
+     *
+     * @param eventPublisher The publisher of the events preceding each write.
+     */
+    public InMemoryMaterialRepository(ApplicationEventPublisher eventPublisher) {
+        super("material", "materialId", eventPublisher);
+    }
+
+    @Override
+    protected UUID idOf(Material material) {
+        return material.getMaterialId();
+    }
+
+    @Override
+    protected Material copy(Material material) {
+        return Material.builder()
+                .materialId(material.getMaterialId())
+                .materialName(material.getMaterialName())
+                .materialType(material.getMaterialType())
+                .description(material.getDescription())
+                .lastModified(material.getLastModified())
+                .build();
+    }
+
+    @Override
+    public boolean existsByMaterialNameAndMaterialType(String materialName, String materialType) {
+        return findByMaterialNameAndMaterialType(materialName, materialType) != null;
+    }
+
+    @Override
+    public Material findByMaterialNameAndMaterialType(String materialName, String materialType) {
+        NameAndType key = new NameAndType(materialName, materialType);
+        return lookUp(namesAndTypes.get(key), material -> key.equals(NameAndType.of(material))).findFirst().orElse(null);
+    }
+
+    @Override
+    public List<Material> findByLastModifiedGreaterThanEqual(Instant since) {
+        return lookUp(modificationTimes.atLeast(since),
+                material -> material.getLastModified() != null && !material.getLastModified().isBefore(since)).toList();
+    }
+
+    @Override
+    public List<Material> findIdsBy() {
+        return ids().map(id -> Material.builder().materialId(id).build()).toList();
+    }
+
+    /**
+     * The key of the name and type index.
+     */
+    private record NameAndType(String materialName, String materialType) {
+
+        private static NameAndType of(Material material) {
+            return new NameAndType(material.getMaterialName(), material.getMaterialType());
+        }
+    }
+}
@@ -0,0 +1,652 @@
+package com.shop.microservices.product.Repository.InMemory;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Base of the in-memory repositories, holding the documents of one collection in a concurrent skip list sorted by
+ * identifier, in the order MongoDB sorts UUIDs stored as standard binaries.
+ * <p>
+ * Reads take no lock: they go through the skip list, or through the secondary indexes declared by the subclass with
+ * {@link #hashIndex} and {@link #sortedIndex}, and return copies of the stored documents, so callers may modify what
+ * they read as they would a document loaded from MongoDB. Writes store copies too, and are serialized per identifier
+ * by striped locks, so concurrent writes of different documents proceed in parallel. A write adds the new index
+ * entries, stores the document, then removes the stale entries: a concurrent read may see a document through both
+ * its old and new entries, which is why index lookups re-check the stored document, but never misses it.
+ * </p>
+ * <p>
+ * Writes publish the {@link BeforeConvertEvent} MongoDB publishes, so identifiers are assigned and modification times
+ * stamped by the same listener. A unique index rejects a conflicting write with the {@link DuplicateKeyException} the
+ * MongoDB template raises. Query by example is not supported.
+ * </p>
+ *
+ * @param <T> The document type.
+ */
+public abstract class InMemoryMongoRepository<T> implements MongoRepository<T, UUID> {
+
+    /**
+     * The order of UUIDs stored as standard binaries: unsigned, most significant bits first.
+     */
+    static final Comparator<UUID> ID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private static final int LOCK_STRIPES = 256;
+
+    private final String collectionName;
+    private final String idProperty;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConcurrentSkipListMap<UUID, T> documents = new ConcurrentSkipListMap<>(ID_ORDER);
+    // Maintained under the locks, as the size of a skip list is computed by walking it
+    private final AtomicLong count = new AtomicLong();
+    private final List<Index<T>> indexes = new ArrayList<>();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    /**
+     * Constructs an empty repository.
+     *
+     * @param collectionName The collection the documents would be stored in, for the published events.
+     * @param idProperty     The name of the identifier property, for sorting.
+     * @param eventPublisher The publisher of the {@link BeforeConvertEvent}s.
+     */
+    protected InMemoryMongoRepository(String collectionName, String idProperty, ApplicationEventPublisher eventPublisher) {
+        this.collectionName = collectionName;
+        this.idProperty = idProperty;
+        this.eventPublisher = eventPublisher;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the identifier of a document.
+     *
+     * @param document The document.
+     * @return The identifier, {@code null} if not assigned yet.
+     */
+    protected abstract UUID idOf(T document);
+
+    /**
+     * Returns a copy of a document, sharing no mutable state with it.
+     *
+     * @param document The document.
+     * @return The copy.
+     */
+    protected abstract T copy(T document);
+
+    /**
+     * Declares a hash index, for equality lookups. Called from the field initializers of the subclass, before any
+     * document is stored.
+     *
+     * @param keyOf  The indexed key of a document; documents with a {@code null} key are not indexed.
+     * @param unique Whether two documents may not have the same key.
+     * @param <K>    The key type.
+     * @return The index.
+     */
+    protected <K> HashIndex<T, K> hashIndex(Function<T, K> keyOf, boolean unique) {
+        HashIndex<T, K> index = new HashIndex<>(keyOf, unique, collectionName);
+        indexes.add(index);
+        return index;
+    }
+
+    /**
+     * Declares a sorted index, for range lookups. Called from the field initializers of the subclass, before any
+     * document is stored.
+     *
+     * @param keyOf The indexed key of a document; documents with a {@code null} key are not indexed.
+     * @param <K>   The key type.
+     * @return The index.
+     */
+    protected <K extends Comparable<? super K>> SortedIndex<T, K> sortedIndex(Function<T, K> keyOf) {
+        SortedIndex<T, K> index = new SortedIndex<>(keyOf);
+        indexes.add(index);
+        return index;
+    }
+
+    /**
+     * Returns copies of the stored documents of the given identifiers, e.g. found through an index, that still match
+     * the given condition.
+     *
+     * @param ids       The identifiers.
+     * @param condition The condition the stored document must match.
+     * @return The matching documents.
+     */
+    protected Stream<T> lookUp(Stream<UUID> ids, Predicate<T> condition) {
+        return ids.distinct()
+                .map(documents::get)
+                .filter(document -> document != null && condition.test(document))
+                .map(this::copy);
+    }
+
+    /**
+     * Returns copies of every stored document, in identifier order.
+     *
+     * @return The documents.
+     */
+    protected Stream<T> scan() {
+        return documents.values().stream().map(this::copy);
+    }
+
+    /**
+     * Returns copies of the stored documents whose identifier follows the given one, in identifier order.
+     *
+     * @param id The identifier to start after.
+     * @return The documents.
+     */
+    protected Stream<T> scanAfter(UUID id) {
+        return documents.tailMap(id, false).values().stream().map(this::copy);
+    }
+
+    /**
+     * Returns the identifiers of every stored document, in identifier order.
+     *
+     * @return The identifiers.
+     */
+    protected Stream<UUID> ids() {
+        return documents.keySet().stream();
+    }
+
+    /**
+     * Atomically replaces a stored document by a modified copy.
+     *
+     * @param id     The identifier of the document.
+     * @param change Modifies the given copy and returns it, or returns {@code null} to leave the document unchanged.
+     * @return Whether the document was replaced; {@code false} if it does not exist or was left unchanged.
+     * @throws DuplicateKeyException If the modified document conflicts with another one on a unique index.
+     */
+    protected boolean update(UUID id, UnaryOperator<T> change) {
+        ReentrantLock lock = lockOf(id);
+        lock.lock();
+        try {
+            T previous = documents.get(id);
+            if (previous == null) {
+                return false;
+            }
+            T updated = change.apply(copy(previous));
+            if (updated == null) {
+                return false;
+            }
+            store(id, updated, previous);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores a new document, unless one with the same identifier exists.
+     *
+     * @param document The document, whose identifier is assigned.
+     * @return Whether the document was stored.
+     * @throws DuplicateKeyException If the document conflicts with another one on a unique index.
+     */
+    protected boolean insertIfAbsent(T document) {
+        UUID id = idOf(document);
+        ReentrantLock lock = lockOf(id);
+        lock.lock();
+        try {
+            if (documents.containsKey(id)) {
+                return false;
+            }
+            store(id, copy(document), null);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        Assert.notNull(entity, "Entity must not be null");
+        UUID id = assignId(entity);
+        ReentrantLock lock = lockOf(id);
+        lock.lock();
+        try {
+            store(id, copy(entity), documents.get(id));
+        } finally {
+            lock.unlock();
+        }
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        Assert.notNull(entities, "Entities must not be null");
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public <S extends T> S insert(S entity) {
+        Assert.notNull(entity, "Entity must not be null");
+        UUID id = assignId(entity);
+        if (!insertIfAbsent(entity)) {
+            throw new DuplicateKeyException("E11000 duplicate key error collection: " + collectionName + " index: _id_ dup key: " + id);
+        }
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> insert(Iterable<S> entities) {
+        Assert.notNull(entities, "Entities must not be null");
+        List<S> inserted = new ArrayList<>();
+        entities.forEach(entity -> inserted.add(insert(entity)));
+        return inserted;
+    }
+
+    @Override
+    public Optional<T> findById(UUID id) {
+        Assert.notNull(id, "The given id must not be null");
+        return Optional.ofNullable(documents.get(id)).map(this::copy);
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        Assert.notNull(id, "The given id must not be null");
+        return documents.containsKey(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return scan().toList();
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<UUID> ids) {
+        Assert.notNull(ids, "The given Iterable of Id's must not be null");
+        Set<UUID> sorted = new TreeSet<>(ID_ORDER);
+        ids.forEach(sorted::add);
+        return lookUp(sorted.stream(), document -> true).toList();
+    }
+
+    @Override
+    public long count() {
+        return count.get();
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        Assert.notNull(sort, "Sort must not be null");
+        return sorted(sort).map(this::copy).toList();
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        Assert.notNull(pageable, "Pageable must not be null");
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findAll(pageable.getSort()));
+        }
+        List<T> content = sorted(pageable.getSort())
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(this::copy)
+                .toList();
+        return PageableExecutionUtils.getPage(content, pageable, count::get);
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        Assert.notNull(id, "The given id must not be null");
+        ReentrantLock lock = lockOf(id);
+        lock.lock();
+        try {
+            T previous = documents.remove(id);
+            if (previous != null) {
+                count.decrementAndGet();
+                for (Index<T> index : indexes) {
+                    index.remove(id, previous, null);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void delete(T entity) {
+        Assert.notNull(entity, "The given entity must not be null");
+        UUID id = idOf(entity);
+        if (id != null) {
+            deleteById(id);
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends UUID> ids) {
+        Assert.notNull(ids, "The given Iterable of ids must not be null");
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        Assert.notNull(entities, "The given Iterable of entities must not be null");
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        documents.keySet().forEach(this::deleteById);
+    }
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        throw queryByExampleNotSupported();
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw queryByExampleNotSupported();
+    }
+
+    /**
+     * Publishes the {@link BeforeConvertEvent} of a document, which assigns its identifier if it has none and stamps
+     * its modification time.
+     *
+     * @param entity The document about to be written.
+     * @return Its identifier.
+     */
+    protected UUID assignId(T entity) {
+        eventPublisher.publishEvent(new BeforeConvertEvent<>(entity, collectionName));
+        UUID id = idOf(entity);
+        Assert.state(id != null, () -> "No identifier was assigned to the " + collectionName + " document");
+        return id;
+    }
+
+    /**
+     * Stores a document in place of the previous one, with the lock of its identifier held.
+     */
+    private void store(UUID id, T document, T previous) {
+        // Adds the new entries first, undoing them if a unique index rejects the document
+        List<Index<T>> added = new ArrayList<>(indexes.size());
+        try {
+            for (Index<T> index : indexes) {
+                index.add(id, document);
+                added.add(index);
+            }
+        } catch (RuntimeException ex) {
+            for (Index<T> index : added) {
+                index.remove(id, document, previous);
+            }
+            throw ex;
+        }
+        documents.put(id, document);
+        if (previous == null) {
+            count.incrementAndGet();
+        } else {
+            for (Index<T> index : indexes) {
+                index.remove(id, previous, document);
+            }
+        }
+    }
+
+    /**
+     * Returns the stored documents in the given order: the identifier order walks the skip list, any other order
+     * sorts every document, comparing properties as MongoDB does for the usual types, missing values first.
+     */
+    private Stream<T> sorted(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.isEmpty() || (orders.size() == 1 && isIdProperty(orders.get(0).getProperty()))) {
+            NavigableMap<UUID, T> view = orders.isEmpty() || orders.get(0).isAscending() ? documents : documents.descendingMap();
+            return view.values().stream();
+        }
+        Comparator<T> comparator = null;
+        for (Sort.Order order : orders) {
+            String property = isIdProperty(order.getProperty()) ? idProperty : order.getProperty();
+            Comparator<T> byProperty = (left, right) -> compareValues(
+                    new BeanWrapperImpl(left).getPropertyValue(property),
+                    new BeanWrapperImpl(right).getPropertyValue(property),
+                    order.isIgnoreCase());
+            byProperty = order.isAscending() ? byProperty : byProperty.reversed();
+            comparator = comparator == null ? byProperty : comparator.thenComparing(byProperty);
+        }
+        // Ties are broken by identifier, so pages do not overlap
+        Comparator<T> stable = comparator.thenComparing(this::idOf, ID_ORDER);
+        return documents.values().stream().sorted(stable);
+    }
+
+    private boolean isIdProperty(String property) {
+        return property.equals(idProperty) || property.equals("id") || property.equals("_id");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object left, Object right, boolean ignoreCase) {
+        if (left == null || right == null) {
+            return left == null ? (right == null ? 0 : -1) : 1;
+        }
+        if (left instanceof UUID leftId && right instanceof UUID rightId) {
+            return ID_ORDER.compare(leftId, rightId);
+        }
+        if (ignoreCase && left instanceof String leftText && right instanceof String rightText) {
+            return leftText.compareToIgnoreCase(rightText);
+        }
+        return ((Comparable) left).compareTo(right);
+    }
+
+    private ReentrantLock lockOf(UUID id) {
+        int hash = id.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    private static UnsupportedOperationException queryByExampleNotSupported() {
+        return new UnsupportedOperationException("Query by example is not supported by the in-memory repositories");
+    }
+
+    /**
+     * A secondary index, updated with the lock of the identifier of the document held.
+     *
+     * @param <T> The document type.
+     */
+    abstract static sealed class Index<T> permits HashIndex, SortedIndex {
+
+        /**
+         * Adds the entry of a document, if not already there.
+         *
+         * @throws DuplicateKeyException If the index is unique and another document has the same key.
+         */
+        abstract void add(UUID id, T document);
+
+        /**
+         * Removes the entry of a document, unless the kept document of the same identifier has the same key.
+         */
+        abstract void remove(UUID id, T removed, T kept);
+    }
+
+    /**
+     * Index of the documents by a key, for equality lookups.
+     *
+     * @param <T> The document type.
+     * @param <K> The key type.
+     */
+    protected static final class HashIndex<T, K> extends Index<T> {
+
+        private final Function<T, K> keyOf;
+        private final boolean unique;
+        private final String collectionName;
+        // Immutable sets, replaced atomically by compute
+        private final ConcurrentHashMap<K, Set<UUID>> entries = new ConcurrentHashMap<>();
+
+        private HashIndex(Function<T, K> keyOf, boolean unique, String collectionName) {
+            this.keyOf = keyOf;
+            this.unique = unique;
+            this.collectionName = collectionName;
+        }
+
+        /**
+         * Returns the identifiers of the documents with the given key.
+         *
+         * @param key The key.
+         * @return The identifiers, possibly of documents whose key has just changed.
+         */
+        public Stream<UUID> get(K key) {
+            return key == null ? Stream.empty() : entries.getOrDefault(key, Set.of()).stream();
+        }
+
+        /**
+         * Returns the identifier of the document holding the given key of a unique index.
+         *
+         * @param key The key.
+         * @return The identifier, or {@code null} if no document holds the key.
+         */
+        public UUID holder(K key) {
+            return get(key).findFirst().orElse(null);
+        }
+
+        @Override
+        void add(UUID id, T document) {
+            K key = keyOf.apply(document);
+            if (key == null) {
+                return;
+            }
+            entries.compute(key, (k, ids) -> {
+                if (ids == null) {
+                    return Set.of(id);
+                }
+                if (ids.contains(id)) {
+                    return ids;
+                }
+                if (unique) {
+                    throw new DuplicateKeyException("E11000 duplicate key error collection: " + collectionName + " dup key: " + key);
+                }
+                Set<UUID> updated = new HashSet<>(ids);
+                updated.add(id);
+                return Set.copyOf(updated);
+            });
+        }
+
+        @Override
+        void remove(UUID id, T removed, T kept) {
+            K key = keyOf.apply(removed);
+            if (key == null || (kept != null && Objects.equals(key, keyOf.apply(kept)))) {
+                return;
+            }
+            entries.computeIfPresent(key, (k, ids) -> {
+                if (!ids.contains(id)) {
+                    return ids;
+                }
+                Set<UUID> updated = new HashSet<>(ids);
+                updated.remove(id);
+                return updated.isEmpty() ? null : Set.copyOf(updated);
+            });
+        }
+    }
+
+    /**
+     * Index of the documents sorted by a key, for range lookups.
+     *
+     * @param <T> The document type.
+     * @param <K> The key type.
+     */
+    protected static final class SortedIndex<T, K extends Comparable<? super K>> extends Index<T> {
+
+        private final Function<T, K> keyOf;
+        private final ConcurrentSkipListSet<Entry<K>> entries;
+
+        private SortedIndex(Function<T, K> keyOf) {
+            this.keyOf = keyOf;
+            Comparator<Entry<K>> byKey = Comparator.comparing(Entry::key);
+            this.entries = new ConcurrentSkipListSet<>(byKey.thenComparing(Entry::id, ID_ORDER));
+        }
+
+        /**
+         * Returns the identifiers of the documents whose key is at least the given one, in key order.
+         *
+         * @param from The lowest key, inclusive.
+         * @return The identifiers, possibly of documents whose key has just changed.
+         */
+        public Stream<UUID> atLeast(K from) {
+            return entries.tailSet(new Entry<>(from, new UUID(0, 0)), true).stream().map(Entry::id);
+        }
+
+        /**
+         * Returns the identifiers of the documents whose key is within the given bounds, in key order.
+         *
+         * @param from The lowest key, inclusive, or {@code null} for no lower bound.
+         * @param to   The highest key, inclusive, or {@code null} for no upper bound.
+         * @return The identifiers, possibly of documents whose key has just changed.
+         */
+        public Stream<UUID> between(K from, K to) {
+            Stream<Entry<K>> range = from == null ? entries.stream() : entries.tailSet(new Entry<>(from, new UUID(0, 0)), true).stream();
+            return (to == null ? range : range.takeWhile(entry -> entry.key().compareTo(to) <= 0)).map(Entry::id);
+        }
+
+        @Override
+        void add(UUID id, T document) {
+            K key = keyOf.apply(document);
+            if (key != null) {
+                entries.add(new Entry<>(key, id));
+            }
+        }
+
+        @Override
+        void remove(UUID id, T removed, T kept) {
+            K key = keyOf.apply(removed);
+            if (key == null) {
+                return;
+            }
+            K keptKey = kept == null ? null : keyOf.apply(kept);
+            if (keptKey == null || key.compareTo(keptKey) != 0) {
+                entries.remove(new Entry<>(key, id));
+            }
+        }
+
+        private record Entry<K>(K key, UUID id) {
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.shop.microservices.product.Repository.InMemory;
+
+import com.shop.microservices.product.Model.OutboxEvent;
+import com.shop.microservices.product.Repository.OutboxEventRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-memory {@link OutboxEventRepository}, used in place of the MongoDB one with the {@code in-memory} profile.
+ * <p>
+ * Events are held in the order of their identifiers, so the pending ones are read without a sort. Published events
+ * are removed at once instead of being kept until they expire, as there is no TTL index to remove them later. The
+ * lease of the relay is held in the repository, and only contended by the relays of this instance.
+ * </p>
+ */
+@Repository
+@Primary
+@Profile("in-memory")
+public class InMemoryOutboxEventRepository extends InMemoryMongoRepository<OutboxEvent> implements OutboxEventRepository {
+
+    // Guarded by the repository
+    private String leaseOwner;
+    private Instant leaseLockedUntil = Instant.MIN;
+
+    /**
+     * Constructs an empty repository.
+     *
+     * @param eventPublisher The publisher of the events preceding each write.
+     */
+    public InMemoryOutboxEventRepository(ApplicationEventPublisher eventPublisher) {
+        super("outbox_events", "eventId", eventPublisher);
+    }
+
+    @Override
+    protected UUID idOf(OutboxEvent event) {
+        return event.getEventId();
+    }
+
+    @Override
+    protected OutboxEvent copy(OutboxEvent event) {
+        return OutboxEvent.builder()
+                .eventId(event.getEventId())
+                .entityType(event.getEntityType())
+                .entityId(event.getEntityId())
+                .changeType(event.getChangeType())
+                .payload(event.getPayload())
+                .occurredAt(event.getOccurredAt())
+                .publishedAt(event.getPublishedAt())
+                .expiresAt(event.getExpiresAt())
+                .build();
+    }
+
+    @Override
+    public List<OutboxEvent> findPending(Instant occurredBefore, int limit) {
+        return scan()
+                .filter(event -> event.getPublishedAt() == null && event.getOccurredAt().isBefore(occurredBefore))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public long markPublished(Collection<UUID> eventIds, Instant publishedAt, Instant expiresAt) {
+        long marked = eventIds.stream().filter(this::existsById).count();
+        deleteAllById(eventIds);
+        return marked;
+    }
+
+    @Override
+    public synchronized boolean acquireRelayLease(String owner, Instant now, Instant lockedUntil) {
+        if (!owner.equals(leaseOwner) && !leaseLockedUntil.isBefore(now)) {
+            return false;
+        }
+        leaseOwner = owner;
+        leaseLockedUntil = lockedUntil;
+        return true;
+    }
+
+    @Override
+    public synchronized void releaseRelayLease(String owner, Instant now) {
+        if (owner.equals(leaseOwner)) {
+            leaseLockedUntil = now;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.shop.microservices.product.Repository.InMemory;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.result.UpdateResult;
+import com.shop.microservices.product.Model.PriceAdjustmentType;
+import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Repository.ProductRepository;
+import org.bson.BsonBinary;
+import org.bson.UuidRepresentation;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * In-memory {@link ProductRepository}, used in place of the MongoDB one with the {@code in-memory} profile.
+ * <p>
+ * Names are held in a unique index, as in MongoDB, and prices and modification times in sorted indexes, which
+ * answer {@link #findByPriceGreaterThanEqual} and {@link #streamByLastModifiedGreaterThanEqual} without a scan.
+ * {@link #findByNameContaining} scans the products, as the unanchored regular expression does in MongoDB.
+ * </p>
+ */
+@Repository
+@Primary
+@Profile("in-memory")
+public class InMemoryProductRepository extends InMemoryMongoRepository<Product> implements ProductRepository {
+
+    private static final int PRICE_SCALE = 2;
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+
+    private final HashIndex<Product, String> names = hashIndex(Product::getName, true);
+    private final SortedIndex<Product, BigDecimal> prices = sortedIndex(Product::getPrice);
+    private final SortedIndex<Product, Instant> modificationTimes = sortedIndex(Product::getLastModified);
+
+    /**
+     * Constructs an empty repository.
+     *
+     * @param eventPublisher The publisher of the events preceding each write.
+     */
+    public InMemoryProductRepository(ApplicationEventPublisher eventPublisher) {
+        super("product", "id", eventPublisher);
+    }
+
+    @Override
+    protected UUID idOf(Product product) {
+        return product.getId();
+    }
+
+    @Override
+    protected Product copy(Product product) {
+        return Product.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .lastModified(product.getLastModified())
+                .build();
+    }
+
+    @Override
+    public List<Product> findByNameContaining(String name) {
+        return scan().filter(product -> product.getName() != null && product.getName().contains(name)).toList();
+    }
+
+    @Override
+    public List<Product> findByPriceGreaterThanEqual(BigDecimal price) {
+        return lookUp(prices.atLeast(price), product -> product.getPrice() != null && product.getPrice().compareTo(price) >= 0).toList();
+    }
+
+    @Override
+    public boolean existsByName(String name) {
+        return findByName(name) != null;
+    }
+
+    @Override
+    public Product findByName(String productName) {
+        return lookUp(names.get(productName), product -> productName.equals(product.getName())).findFirst().orElse(null);
+    }
+
+    @Override
+    public Stream<Product> streamAllBy() {
+        return scan();
+    }
+
+    @Override
+    public List<Product> findAllByOrderByIdAsc(Limit limit) {
+        return limited(scan(), limit);
+    }
+
+    @Override
+    public List<Product> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit) {
+        return limited(scanAfter(id), limit);
+    }
+
+    @Override
+    public Stream<Product> streamByLastModifiedGreaterThanEqual(Instant since) {
+        return lookUp(modificationTimes.atLeast(since),
+                product -> product.getLastModified() != null && !product.getLastModified().isBefore(since));
+    }
+
+    @Override
+    public Stream<Product> streamIdsBy() {
+        return ids().map(id -> Product.builder().id(id).build());
+    }
+
+    @Override
+    public Optional<Product> findLastModifiedById(UUID id) {
+        return findById(id).map(product -> Product.builder().id(product.getId()).lastModified(product.getLastModified()).build());
+    }
+
+    private static List<Product> limited(Stream<Product> products, Limit limit) {
+        return (limit.isLimited() ? products.limit(limit.max()) : products).toList();
+    }
+
+    /**
+     * Adjusts the prices of the matching products one by one, each atomically, with the rounding of the MongoDB
+     * pipeline: half up, to two decimals.
+     */
+    @Override
+    public UpdateResult adjustPrices(Collection<UUID> productIds, BigDecimal minPrice, BigDecimal maxPrice, String namePrefix,
+                                     PriceAdjustmentType adjustmentType, BigDecimal value) {
+        Stream<UUID> candidates = productIds != null && !productIds.isEmpty()
+                ? productIds.stream()
+                : prices.between(minPrice, maxPrice);
+        Instant now = Instant.now();
+        long matched = candidates.distinct()
+                .filter(id -> update(id, product -> {
+                    BigDecimal price = product.getPrice();
+                    if (price == null
+                            || (minPrice != null && price.compareTo(minPrice) < 0)
+                            || (maxPrice != null && price.compareTo(maxPrice) > 0)
+                            || (namePrefix != null && !namePrefix.isEmpty()
+                                && (product.getName() == null || !product.getName().startsWith(namePrefix)))) {
+                        return null;
+                    }
+                    BigDecimal adjusted = switch (adjustmentType) {
+                        case PERCENTAGE -> price.multiply(BigDecimal.ONE.add(value.divide(ONE_HUNDRED)));
+                        case ABSOLUTE -> price.add(value);
+                    };
+                    adjusted = adjusted.setScale(PRICE_SCALE, RoundingMode.HALF_UP);
+                    if (adjusted.signum() <= 0) {
+                        return null;
+                    }
+                    product.setPrice(adjusted);
+                    product.setLastModified(now);
+                    return product;
+                }))
+                .count();
+        // Every matched product is modified, its modification time at least changing
+        return UpdateResult.acknowledged(matched, matched, null);
+    }
+
+    /**
+     * Upserts the products by name, each atomically: a product whose name exists updates the existing one, keeping
+     * its identifier, any other is inserted. Two concurrent upserts of the same new name never both insert it.
+     */
+    @Override
+    public BulkWriteResult upsertAllByName(List<Product> products) {
+        Instant now = Instant.now();
+        int matched = 0;
+        List<BulkWriteUpsert> upserts = new ArrayList<>();
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            while (true) {
+                UUID existing = names.holder(product.getName());
+                if (existing != null) {
+                    boolean updated = update(existing, stored -> {
+                        if (!product.getName().equals(stored.getName())) {
+                            return null;
+                        }
+                        stored.setDescription(product.getDescription());
+                        stored.setPrice(product.getPrice());
+                        stored.setLastModified(now);
+                        return stored;
+                    });
+                    if (updated) {
+                        matched++;
+                        break;
+                    }
+                    // Renamed or deleted meanwhile
+                    continue;
+                }
+                Product inserted = copy(product);
+                assignId(inserted);
+                inserted.setLastModified(now);
+                try {
+                    if (!insertIfAbsent(inserted)) {
+                        throw new DuplicateKeyException("E11000 duplicate key error collection: product index: _id_ dup key: " + inserted.getId());
+                    }
+                    upserts.add(new BulkWriteUpsert(i, new BsonBinary(inserted.getId(), UuidRepresentation.STANDARD)));
+                    break;
+                } catch (DuplicateKeyException ex) {
+                    // Unless the name was inserted by a concurrent upsert meanwhile, which is now updated
+                    if (names.holder(product.getName()) == null) {
+                        throw ex;
+                    }
+                }
+            }
+        }
+        return BulkWriteResult.acknowledged(upserts.size(), matched, 0, matched, upserts, List.of());
+    }
+}
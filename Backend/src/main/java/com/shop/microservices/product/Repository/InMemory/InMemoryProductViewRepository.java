@@ -0,0 +1,91 @@
+package com.shop.microservices.product.Repository.InMemory;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.shop.microservices.product.Model.ProductViews;
+import com.shop.microservices.product.Repository.ProductViewRepository;
+import org.bson.BsonBinary;
+import org.bson.UuidRepresentation;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Limit;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * In-memory {@link ProductViewRepository}, used in place of the MongoDB one with the {@code in-memory} profile.
+ */
+@Repository
+@Primary
+@Profile("in-memory")
+public class InMemoryProductViewRepository extends InMemoryMongoRepository<ProductViews> implements ProductViewRepository {
+
+    /**
+     * Constructs an empty repository.
+     *
+     * @param eventPublisher The publisher of the events preceding each write.
+     */
+    public InMemoryProductViewRepository(ApplicationEventPublisher eventPublisher) {
+        super("product_views", "productId", eventPublisher);
+    }
+
+    @Override
+    protected UUID idOf(ProductViews productViews) {
+        return productViews.getProductId();
+    }
+
+    @Override
+    protected ProductViews copy(ProductViews productViews) {
+        return ProductViews.builder()
+                .productId(productViews.getProductId())
+                .views(productViews.getViews())
+                .lastViewed(productViews.getLastViewed())
+                .build();
+    }
+
+    @Override
+    public List<ProductViews> findAllByOrderByViewsDesc(Limit limit) {
+        Stream<ProductViews> counts = scan().sorted(Comparator.comparingLong(ProductViews::getViews).reversed());
+        return (limit.isLimited() ? counts.limit(limit.max()) : counts).toList();
+    }
+
+    /**
+     * Increments the counts one by one, each atomically.
+     */
+    @Override
+    public BulkWriteResult incrementViews(Map<UUID, Long> views, Instant lastViewed) {
+        int matched = 0;
+        int index = 0;
+        List<BulkWriteUpsert> upserts = new ArrayList<>();
+        for (Map.Entry<UUID, Long> entry : views.entrySet()) {
+            UUID productId = entry.getKey();
+            long count = entry.getValue();
+            while (true) {
+                boolean incremented = update(productId, stored -> {
+                    stored.setViews(stored.getViews() + count);
+                    stored.setLastViewed(lastViewed);
+                    return stored;
+                });
+                if (incremented) {
+                    matched++;
+                    break;
+                }
+                if (insertIfAbsent(new ProductViews(productId, count, lastViewed))) {
+                    upserts.add(new BulkWriteUpsert(index, new BsonBinary(productId, UuidRepresentation.STANDARD)));
+                    break;
+                }
+                // Inserted by a concurrent increment meanwhile, which is now added to
+            }
+            index++;
+        }
+        return BulkWriteResult.acknowledged(upserts.size(), matched, 0, matched, upserts, List.of());
+    }
+}
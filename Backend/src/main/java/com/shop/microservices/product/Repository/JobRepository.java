@@ -0,0 +1,16 @@
+package com.shop.microservices.product.Repository;
+
+import com.shop.microservices.product.Model.Job;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Repository interface for managing {@link Job} entities in MongoDB.
+ * This interface extends {@link MongoRepository} to provide basic CRUD operations; the partial updates made while
+ * a job runs are declared in {@link JobRepositoryCustom}.
+ */
+@Repository
+public interface JobRepository extends MongoRepository<Job, UUID>, JobRepositoryCustom {
+}
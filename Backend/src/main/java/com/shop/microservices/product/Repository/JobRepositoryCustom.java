@@ -0,0 +1,76 @@
+package com.shop.microservices.product.Repository;
+
+import com.shop.microservices.product.Model.Job;
+import com.shop.microservices.product.Model.JobStatus;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Custom repository fragment for the partial {@link Job} updates made while a job runs.
+ * Each method only touches the fields it owns, so a cancellation request recorded by another thread or instance
+ * is never overwritten.
+ */
+public interface JobRepositoryCustom {
+
+    /**
+     * Marks a queued job as running.
+     *
+     * @param jobId     The ID of the job.
+     * @param startedAt The time the job started.
+     */
+    void markRunning(UUID jobId, Instant startedAt);
+
+    /**
+     * Records the progress of a running job.
+     *
+     * @param jobId     The ID of the job.
+     * @param processed The number of items processed so far.
+     * @param total     The total number of items, or {@code null} if unknown.
+     * @return {@code true} if a cancellation of the job has been requested.
+     */
+    boolean updateProgress(UUID jobId, long processed, Long total);
+
+    /**
+     * Records the final state of a job that has not finished yet, leaving a job already finished, e.g. failed as
+     * abandoned by another instance, as it is.
+     *
+     * @param jobId      The ID of the job.
+     * @param status     The final status.
+     * @param processed  The number of items processed.
+     * @param result     The result of a successful job, otherwise {@code null}.
+     * @param error      The error message of a failed job, otherwise {@code null}.
+     * @param finishedAt The time the job finished.
+     * @return {@code true} if the job was still queued or running.
+     */
+    boolean markFinished(UUID jobId, JobStatus status, long processed, Map<String, Object> result, String error, Instant finishedAt);
+
+    /**
+     * Requests the cancellation of a job that has not finished yet.
+     *
+     * @param jobId The ID of the job.
+     * @return {@code true} if the job was still queued or running.
+     */
+    boolean requestCancellation(UUID jobId);
+
+    /**
+     * Records that the given jobs are still queued or running on this instance.
+     *
+     * @param jobIds The IDs of the jobs.
+     * @param at     The time of the heartbeat.
+     */
+    void heartbeat(Collection<UUID> jobIds, Instant at);
+
+    /**
+     * Fails the queued and running jobs whose heartbeat is older than the given time, left behind by an instance
+     * that crashed or was stopped before they finished.
+     *
+     * @param heartbeatBefore The time before which a heartbeat is considered lost.
+     * @param error           The error message recorded on the failed jobs.
+     * @param finishedAt      The time recorded as the end of the failed jobs.
+     * @return The number of jobs failed.
+     */
+    long failAbandoned(Instant heartbeatBefore, String error, Instant finishedAt);
+}
@@ -0,0 +1,93 @@
+package com.shop.microservices.product.Repository;
+
+import com.shop.microservices.product.Model.Job;
+import com.shop.microservices.product.Model.JobStatus;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * MongoDB implementation of {@link JobRepositoryCustom}.
+ */
+public class JobRepositoryCustomImpl implements JobRepositoryCustom {
+
+    private static final List<JobStatus> ACTIVE_STATUSES = List.of(JobStatus.QUEUED, JobStatus.RUNNING);
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Constructs the repository fragment.
+     *
+     * @param mongoTemplate The template used to run the partial updates.
+     */
+    public JobRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void markRunning(UUID jobId, Instant startedAt) {
+        mongoTemplate.updateFirst(byId(jobId),
+                new Update().set("status", JobStatus.RUNNING).set("startedAt", startedAt), Job.class);
+    }
+
+    @Override
+    public boolean updateProgress(UUID jobId, long processed, Long total) {
+        Update update = new Update().set("processed", processed);
+        if (total != null) {
+            update.set("total", total);
+        }
+        Job job = mongoTemplate.findAndModify(byId(jobId), update, FindAndModifyOptions.options().returnNew(true), Job.class);
+        return job != null && job.isCancelRequested();
+    }
+
+    @Override
+    public boolean markFinished(UUID jobId, JobStatus status, long processed, Map<String, Object> result, String error, Instant finishedAt) {
+        Query query = new Query(Criteria.where("jobId").is(jobId).and("status").in(ACTIVE_STATUSES));
+        return mongoTemplate.updateFirst(query,
+                new Update()
+                        .set("status", status)
+                        .set("processed", processed)
+                        .set("result", result)
+                        .set("error", error)
+                        .set("finishedAt", finishedAt),
+                Job.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean requestCancellation(UUID jobId) {
+        Query query = new Query(Criteria.where("jobId").is(jobId).and("status").in(ACTIVE_STATUSES));
+        return mongoTemplate.updateFirst(query, new Update().set("cancelRequested", true), Job.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public void heartbeat(Collection<UUID> jobIds, Instant at) {
+        Query query = new Query(Criteria.where("jobId").in(jobIds).and("status").in(ACTIVE_STATUSES));
+        mongoTemplate.updateMulti(query, new Update().set("heartbeatAt", at), Job.class);
+    }
+
+    @Override
+    public long failAbandoned(Instant heartbeatBefore, String error, Instant finishedAt) {
+        Criteria abandoned = new Criteria().orOperator(
+                Criteria.where("heartbeatAt").lt(heartbeatBefore),
+                // Jobs submitted before heartbeats were recorded
+                Criteria.where("heartbeatAt").exists(false).and("createdAt").lt(heartbeatBefore));
+        Query query = new Query(Criteria.where("status").in(ACTIVE_STATUSES).andOperator(abandoned));
+        Update update = new Update()
+                .set("status", JobStatus.FAILED)
+                .set("error", error)
+                .set("finishedAt", finishedAt);
+        return mongoTemplate.updateMulti(query, update, Job.class).getModifiedCount();
+    }
+
+    private static Query byId(UUID jobId) {
+        return new Query(Criteria.where("jobId").is(jobId));
+    }
+}
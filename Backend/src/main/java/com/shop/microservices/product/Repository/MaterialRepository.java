@@ -2,8 +2,11 @@ package com.shop.microservices.product.Repository;
 
 import com.shop.microservices.product.Model.Material;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -39,4 +42,19 @@ public interface MaterialRepository extends MongoRepository<Material, UUID> {
      */
     Material findByMaterialNameAndMaterialType(String materialName, String materialType);
 
+    /**
+     * Finds the materials written at or after the given time.
+     *
+     * @param since The earliest modification time.
+     * @return The materials modified since then.
+     */
+    List<Material> findByLastModifiedGreaterThanEqual(Instant since);
+
+    /**
+     * Finds the identifiers of every material, reading the {@code _id} index only.
+     *
+     * @return The materials, holding only their identifier.
+     */
+    @Query(value = "{}", fields = "{ '_id' : 1 }")
+    List<Material> findIdsBy();
 }
@@ -0,0 +1,15 @@
+package com.shop.microservices.product.Repository;
+
+import com.shop.microservices.product.Model.OutboxEvent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Repository interface for managing {@link OutboxEvent} entities in MongoDB.
+ * The events are read and marked as published by the outbox relay through {@link OutboxEventRepositoryCustom}.
+ */
+@Repository
+public interface OutboxEventRepository extends MongoRepository<OutboxEvent, UUID>, OutboxEventRepositoryCustom {
+}
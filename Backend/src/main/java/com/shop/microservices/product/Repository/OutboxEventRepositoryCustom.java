@@ -0,0 +1,52 @@
+package com.shop.microservices.product.Repository;
+
+import com.shop.microservices.product.Model.OutboxEvent;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Custom repository fragment for {@link OutboxEvent} operations that cannot be expressed as derived queries.
+ * It is implemented by {@link OutboxEventRepositoryCustomImpl} and exposed through {@link OutboxEventRepository}.
+ */
+public interface OutboxEventRepositoryCustom {
+
+    /**
+     * Finds the oldest events not yet published, in the order of their identifiers.
+     *
+     * @param occurredBefore Only the events recorded before this time are returned.
+     * @param limit          The largest number of events returned.
+     * @return The pending events, oldest first.
+     */
+    List<OutboxEvent> findPending(Instant occurredBefore, int limit);
+
+    /**
+     * Marks events as published, to be removed once they expire.
+     *
+     * @param eventIds    The identifiers of the published events.
+     * @param publishedAt The time stamped on the events.
+     * @param expiresAt   The time after which the events are removed.
+     * @return The number of events marked.
+     */
+    long markPublished(Collection<UUID> eventIds, Instant publishedAt, Instant expiresAt);
+
+    /**
+     * Takes or renews the lease of the relay, unless another instance holds it.
+     *
+     * @param owner       The instance taking the lease.
+     * @param now         The current time; a lease locked until before it has expired.
+     * @param lockedUntil The time until which the lease is held.
+     * @return {@code true} if the instance holds the lease.
+     */
+    boolean acquireRelayLease(String owner, Instant now, Instant lockedUntil);
+
+    /**
+     * Gives up the lease of the relay, if the instance holds it, so that another instance can take it over at once.
+     *
+     * @param owner The instance giving up the lease.
+     * @param now   The current time, until which the lease is then locked.
+     */
+    void releaseRelayLease(String owner, Instant now);
+}
@@ -0,0 +1,88 @@
+package com.shop.microservices.product.Repository;
+
+import com.shop.microservices.product.Model.OutboxEvent;
+import com.shop.microservices.product.Model.OutboxRelayLease;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * MongoDB implementation of {@link OutboxEventRepositoryCustom}.
+ */
+public class OutboxEventRepositoryCustomImpl implements OutboxEventRepositoryCustom {
+
+    private static final String ID_FIELD = "_id";
+    private static final String OCCURRED_AT_FIELD = "occurredAt";
+    private static final String PUBLISHED_AT_FIELD = "publishedAt";
+    private static final String EXPIRES_AT_FIELD = "expiresAt";
+    private static final String OWNER_FIELD = "owner";
+    private static final String LOCKED_UNTIL_FIELD = "lockedUntil";
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Constructs the repository fragment.
+     *
+     * @param mongoTemplate The template used to run the custom operations.
+     */
+    public OutboxEventRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Served by the {@code outbox_pending_idx} index, which holds the pending events first, in the order of their
+     * identifiers.
+     * </p>
+     */
+    @Override
+    public List<OutboxEvent> findPending(Instant occurredBefore, int limit) {
+        Query query = new Query(Criteria.where(PUBLISHED_AT_FIELD).is(null).and(OCCURRED_AT_FIELD).lt(occurredBefore))
+                .with(Sort.by(Sort.Direction.ASC, ID_FIELD))
+                .limit(limit);
+        return mongoTemplate.find(query, OutboxEvent.class);
+    }
+
+    @Override
+    public long markPublished(Collection<UUID> eventIds, Instant publishedAt, Instant expiresAt) {
+        Query query = new Query(Criteria.where(ID_FIELD).in(eventIds));
+        Update update = new Update().set(PUBLISHED_AT_FIELD, publishedAt).set(EXPIRES_AT_FIELD, expiresAt);
+        return mongoTemplate.updateMulti(query, update, OutboxEvent.class).getModifiedCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The lease is upserted by a single {@code findAndModify} matching it only if it is held by the same owner or
+     * has expired; when another instance holds it, the upsert fails on the duplicate identifier instead.
+     * </p>
+     */
+    @Override
+    public boolean acquireRelayLease(String owner, Instant now, Instant lockedUntil) {
+        Query query = new Query(Criteria.where(ID_FIELD).is(OutboxRelayLease.RELAY_LEASE_ID)
+                .orOperator(Criteria.where(OWNER_FIELD).is(owner), Criteria.where(LOCKED_UNTIL_FIELD).lt(now)));
+        Update update = new Update().set(OWNER_FIELD, owner).set(LOCKED_UNTIL_FIELD, lockedUntil);
+        try {
+            return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    OutboxRelayLease.class) != null;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public void releaseRelayLease(String owner, Instant now) {
+        Query query = new Query(Criteria.where(ID_FIELD).is(OutboxRelayLease.RELAY_LEASE_ID).and(OWNER_FIELD).is(owner));
+        mongoTemplate.updateFirst(query, new Update().set(LOCKED_UNTIL_FIELD, now), OutboxRelayLease.class);
+    }
+}
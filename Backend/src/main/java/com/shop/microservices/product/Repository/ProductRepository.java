@@ -1,20 +1,26 @@
 package com.shop.microservices.product.Repository;
 
 import com.shop.microservices.product.Model.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing {@link Product} entities in MongoDB.
  * This interface extends {@link MongoRepository} to provide basic CRUD operations.
- * Custom queries can be added as necessary.
+ * Custom queries can be added as necessary; operations that need the {@code MongoTemplate} are declared in
+ * {@link ProductRepositoryCustom}.
  */
 @Repository
-public interface ProductRepository extends MongoRepository<Product, UUID> {
+public interface ProductRepository extends MongoRepository<Product, UUID>, ProductRepositoryCustom {
 
     /**
      * Finds all products that contain the specified name.
@@ -51,4 +57,57 @@ public interface ProductRepository extends MongoRepository<Product, UUID> {
      *         The object may be empty if no product match the name.
      */
     Product findByName(String productName);
+
+    /**
+     * Streams every product through a cursor, without loading the whole collection in memory.
+     * The stream must be closed once consumed.
+     *
+     * @return A {@link Stream} of all products.
+     */
+    Stream<Product> streamAllBy();
+
+    /**
+     * Finds the first products in identifier order, which is the listing order.
+     *
+     * @param limit The maximum number of products.
+     * @return The first products.
+     */
+    List<Product> findAllByOrderByIdAsc(Limit limit);
+
+    /**
+     * Finds the products following the given identifier in identifier order, with a range scan of the {@code _id}
+     * index whatever the position in the collection.
+     *
+     * @param id    The identifier of the last product already read.
+     * @param limit The maximum number of products.
+     * @return The products following it.
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    /**
+     * Streams the products written at or after the given time through a cursor.
+     * The stream must be closed once consumed.
+     *
+     * @param since The earliest modification time.
+     * @return A {@link Stream} of the products modified since then.
+     */
+    Stream<Product> streamByLastModifiedGreaterThanEqual(Instant since);
+
+    /**
+     * Streams the identifiers of every product through a cursor, reading the {@code _id} index only.
+     * The stream must be closed once consumed.
+     *
+     * @return A {@link Stream} of products holding only their identifier.
+     */
+    @Query(value = "{}", fields = "{ '_id' : 1 }")
+    Stream<Product> streamIdsBy();
+
+    /**
+     * Finds the modification time of a product, reading its identifier and {@code lastModified} only.
+     *
+     * @param id The identifier of the product.
+     * @return The product holding only its identifier and modification time, or an empty optional if it does not exist.
+     */
+    @Query(value = "{ '_id' : ?0 }", fields = "{ '_id' : 1, 'lastModified' : 1 }")
+    Optional<Product> findLastModifiedById(UUID id);
 }
@@ -0,0 +1,50 @@
+package com.shop.microservices.product.Repository;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.shop.microservices.product.Model.PriceAdjustmentType;
+import com.shop.microservices.product.Model.Product;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Custom repository fragment for {@link Product} operations that cannot be expressed as derived queries.
+ * It is implemented by {@link ProductRepositoryCustomImpl} and exposed through {@link ProductRepository}.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Adjusts the price of every product matching the given filters with a single server-side update.
+     * <p>
+     * All provided filters are combined with a logical AND; {@code null} or empty filters are ignored.
+     * Products whose adjusted price would not be positive are left unchanged.
+     * </p>
+     *
+     * @param productIds     Restricts the update to these product IDs.
+     * @param minPrice       Restricts the update to products priced at or above this value.
+     * @param maxPrice       Restricts the update to products priced at or below this value.
+     * @param namePrefix     Restricts the update to products whose name starts with this prefix.
+     * @param adjustmentType Whether {@code value} is a percentage or an absolute amount.
+     * @param value          The adjustment value.
+     * @return The {@link UpdateResult} holding the matched and modified counts.
+     */
+    UpdateResult adjustPrices(Collection<UUID> productIds, BigDecimal minPrice, BigDecimal maxPrice, String namePrefix,
+                              PriceAdjustmentType adjustmentType, BigDecimal value);
+
+    /**
+     * Inserts or updates the given products in a single unordered bulk write, keyed on the product name.
+     * <p>
+     * Existing products with the same name get their description and price replaced; products that do not exist
+     * yet are inserted with the identifier set on the given entity.
+     * </p>
+     *
+     * @param products The products to upsert; each must have its identifier assigned.
+     * @return The {@link BulkWriteResult}, whose upserts are the inserted products and whose matched count is the
+     *         number of updated products.
+     * @throws org.springframework.data.mongodb.BulkOperationException If some of the upserts failed.
+     */
+    BulkWriteResult upsertAllByName(List<Product> products);
+}
@@ -0,0 +1,136 @@
+package com.shop.microservices.product.Repository;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.shop.microservices.product.Model.PriceAdjustmentType;
+import com.shop.microservices.product.Model.Product;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * MongoDB implementation of {@link ProductRepositoryCustom}.
+ */
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final String PRICE_FIELD = "price";
+    private static final String LAST_MODIFIED_FIELD = "lastModified";
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+    private static final Decimal128 CENTS_PER_UNIT = new Decimal128(ONE_HUNDRED);
+    private static final Decimal128 HALF_CENT = new Decimal128(new BigDecimal("0.5"));
+    private static final Decimal128 UNITS_PER_CENT = new Decimal128(new BigDecimal("0.01"));
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Constructs the repository fragment.
+     *
+     * @param mongoTemplate The template used to run the custom operations.
+     */
+    public ProductRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The new price is computed by an aggregation pipeline inside a single {@code updateMany}, rounded to two
+     * decimal places half up, so no product is read by the application. The positive-price rule of
+     * {@link Product#setPrice(BigDecimal)} is enforced by an {@code $expr} filter on the computed price. The adjusted
+     * products are stamped with their modification time, as no entity callback runs for server-side updates.
+     * </p>
+     */
+    @Override
+    public UpdateResult adjustPrices(Collection<UUID> productIds, BigDecimal minPrice, BigDecimal maxPrice, String namePrefix,
+                                     PriceAdjustmentType adjustmentType, BigDecimal value) {
+        AggregationExpression newPrice = newPriceExpression(adjustmentType, value);
+
+        List<Criteria> criteria = new ArrayList<>();
+        if (productIds != null && !productIds.isEmpty()) {
+            criteria.add(Criteria.where("id").in(productIds));
+        }
+
+        // Only numeric prices can be adjusted by the pipeline
+        Criteria priceCriteria = Criteria.where(PRICE_FIELD).type(
+                JsonSchemaObject.Type.DOUBLE, JsonSchemaObject.Type.INT_32, JsonSchemaObject.Type.INT_64, JsonSchemaObject.Type.DECIMAL_128);
+        if (minPrice != null) {
+            priceCriteria = priceCriteria.gte(minPrice);
+        }
+        if (maxPrice != null) {
+            priceCriteria = priceCriteria.lte(maxPrice);
+        }
+        criteria.add(priceCriteria);
+
+        if (namePrefix != null && !namePrefix.isEmpty()) {
+            // An anchored, case-sensitive prefix regex can use the name index
+            criteria.add(Criteria.where("name").regex("^" + Pattern.quote(namePrefix)));
+        }
+        criteria.add(Criteria.expr(ComparisonOperators.Gt.valueOf(newPrice).greaterThanValue(0)));
+
+        Query query = new Query(new Criteria().andOperator(criteria));
+        AggregationUpdate update = AggregationUpdate.update()
+                .set(PRICE_FIELD).toValue(newPrice)
+                .set(LAST_MODIFIED_FIELD).toValue(new Date());
+
+        return mongoTemplate.updateMulti(query, update, Product.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The upserted products are stamped with their modification time, as no entity callback runs for bulk writes.
+     * </p>
+     */
+    @Override
+    public BulkWriteResult upsertAllByName(List<Product> products) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        Date now = new Date();
+        for (Product product : products) {
+            bulk.upsert(new Query(Criteria.where("name").is(product.getName())),
+                    new Update()
+                            .set("description", product.getDescription())
+                            .set(PRICE_FIELD, product.getPrice())
+                            .set(LAST_MODIFIED_FIELD, now)
+                            .setOnInsert("id", product.getId()));
+        }
+        return bulk.execute();
+    }
+
+    /**
+     * Builds the aggregation expression computing the adjusted price from the current one.
+     *
+     * @param adjustmentType Whether {@code value} is a percentage or an absolute amount.
+     * @param value          The adjustment value.
+     * @return The expression evaluating to the adjusted, rounded price.
+     */
+    private AggregationExpression newPriceExpression(PriceAdjustmentType adjustmentType, BigDecimal value) {
+        AggregationExpression adjusted = switch (adjustmentType) {
+            case PERCENTAGE -> ArithmeticOperators.Multiply.valueOf(PRICE_FIELD)
+                    .multiplyBy(new Decimal128(BigDecimal.ONE.add(value.divide(ONE_HUNDRED))));
+            case ABSOLUTE -> ArithmeticOperators.Add.valueOf(PRICE_FIELD)
+                    .add(new Decimal128(value));
+        };
+        // $round rounds half to even; for the positive prices kept by the filter, floor(price * 100 + 0.5) / 100 is
+        // half up. Multiplying by 0.01 rather than dividing by 100 keeps two decimal places on whole amounts
+        AggregationExpression cents = ArithmeticOperators.Floor.floorValueOf(
+                ArithmeticOperators.Add.valueOf(ArithmeticOperators.Multiply.valueOf(adjusted).multiplyBy(CENTS_PER_UNIT))
+                        .add(HALF_CENT));
+        return ArithmeticOperators.Multiply.valueOf(cents).multiplyBy(UNITS_PER_CENT);
+    }
+}
@@ -0,0 +1,25 @@
+package com.shop.microservices.product.Repository;
+
+import com.shop.microservices.product.Model.ProductViews;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for managing {@link ProductViews} entities in MongoDB.
+ * The counts are written in bulk by the view counter through {@link ProductViewRepositoryCustom}.
+ */
+@Repository
+public interface ProductViewRepository extends MongoRepository<ProductViews, UUID>, ProductViewRepositoryCustom {
+
+    /**
+     * Finds the counts of the most viewed products, walking the views index.
+     *
+     * @param limit The maximum number of counts.
+     * @return The counts, most viewed first.
+     */
+    List<ProductViews> findAllByOrderByViewsDesc(Limit limit);
+}
@@ -0,0 +1,27 @@
+package com.shop.microservices.product.Repository;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.shop.microservices.product.Model.ProductViews;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Custom repository fragment for {@link ProductViews} operations that cannot be expressed as derived queries.
+ * It is implemented by {@link ProductViewRepositoryCustomImpl} and exposed through {@link ProductViewRepository}.
+ */
+public interface ProductViewRepositoryCustom {
+
+    /**
+     * Adds the given numbers of views to the counts of the products in a single unordered bulk write, creating the
+     * counts of products viewed for the first time.
+     *
+     * @param views      The number of views to add, by product ID; the indexes of the write errors refer to the
+     *                   iteration order of the map.
+     * @param lastViewed The time stamped on the counts.
+     * @return The {@link BulkWriteResult}.
+     * @throws org.springframework.data.mongodb.BulkOperationException If some of the increments failed.
+     */
+    BulkWriteResult incrementViews(Map<UUID, Long> views, Instant lastViewed);
+}
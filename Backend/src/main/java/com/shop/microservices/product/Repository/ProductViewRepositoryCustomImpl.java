@@ -0,0 +1,47 @@
+package com.shop.microservices.product.Repository;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.shop.microservices.product.Model.ProductViews;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * MongoDB implementation of {@link ProductViewRepositoryCustom}.
+ */
+public class ProductViewRepositoryCustomImpl implements ProductViewRepositoryCustom {
+
+    private static final String VIEWS_FIELD = "views";
+    private static final String LAST_VIEWED_FIELD = "lastViewed";
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Constructs the repository fragment.
+     *
+     * @param mongoTemplate The template used to run the custom operations.
+     */
+    public ProductViewRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each count is upserted with an {@code $inc}, so concurrent flushes of several instances add up.
+     * </p>
+     */
+    @Override
+    public BulkWriteResult incrementViews(Map<UUID, Long> views, Instant lastViewed) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProductViews.class);
+        views.forEach((productId, count) -> bulk.upsert(new Query(Criteria.where("_id").is(productId)),
+                new Update().inc(VIEWS_FIELD, count).set(LAST_VIEWED_FIELD, lastViewed)));
+        return bulk.execute();
+    }
+}
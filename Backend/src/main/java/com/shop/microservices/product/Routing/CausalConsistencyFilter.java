@@ -0,0 +1,181 @@
+package com.shop.microservices.product.Routing;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoClient;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.DecoderContext;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Servlet filter giving clients read-your-writes consistency while reads are routed to secondaries.
+ * <p>
+ * Write requests run in a causally consistent session; the session's operation and cluster times are returned in
+ * the {@value #TOKEN_HEADER} response header. A read request sending that token back runs in a new causally
+ * consistent session advanced to those times, so MongoDB makes the secondary wait until it has replicated the
+ * client's write before answering. Reads without a token run without a session and may be served slightly stale
+ * data by a secondary.
+ * </p>
+ * <p>
+ * The session of a read answered asynchronously, such as a streamed export, stays open until the asynchronous
+ * request has completed; {@link CausalSessionCallableInterceptor} binds it to the thread writing the response.
+ * </p>
+ */
+@Slf4j
+public class CausalConsistencyFilter extends OncePerRequestFilter {
+
+    /**
+     * Header carrying the causal consistency token, returned by writes and accepted by reads.
+     */
+    public static final String TOKEN_HEADER = "X-Causal-Consistency-Token";
+
+    private static final int MAX_TOKEN_LENGTH = 1024;
+    private static final ClientSessionOptions CAUSAL = ClientSessionOptions.builder().causallyConsistent(true).build();
+
+    private final MongoClient mongoClient;
+
+    /**
+     * Creates the filter.
+     *
+     * @param mongoClient The client starting the causally consistent sessions.
+     */
+    public CausalConsistencyFilter(MongoClient mongoClient) {
+        this.mongoClient = mongoClient;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isWrite(request)) {
+            filterWrite(request, response, filterChain);
+            return;
+        }
+
+        BsonDocument token = decode(request.getHeader(TOKEN_HEADER));
+        if (token == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ClientSession session = mongoClient.startSession(CAUSAL);
+        boolean async = false;
+        try {
+            session.advanceOperationTime(token.getTimestamp("operationTime"));
+            if (token.containsKey("clusterTime")) {
+                session.advanceClusterTime(token.getDocument("clusterTime"));
+            }
+            runInSession(session, request, response, filterChain);
+            async = request.isAsyncStarted();
+            if (async) {
+                request.getAsyncContext().addListener(new SessionClosingListener(session));
+            }
+        } finally {
+            if (!async) {
+                session.close();
+            }
+        }
+    }
+
+    private void filterWrite(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // The body is buffered so that the token, only known once the write ran, can still be sent as a header
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try (ClientSession session = mongoClient.startSession(CAUSAL)) {
+            runInSession(session, request, wrapper, filterChain);
+            String token = encode(session);
+            if (token != null) {
+                wrapper.setHeader(TOKEN_HEADER, token);
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void runInSession(ClientSession session, HttpServletRequest request, HttpServletResponse response,
+                                     FilterChain filterChain) throws ServletException, IOException {
+        ReadRoutingContext.setSession(session);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadRoutingContext.setSession(null);
+        }
+    }
+
+    /**
+     * Closes the session of an asynchronous read once the response has been written.
+     */
+    private record SessionClosingListener(ClientSession session) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            session.close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // The request still completes afterwards
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // The request still completes afterwards
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !(HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method));
+    }
+
+    private static String encode(ClientSession session) {
+        BsonTimestamp operationTime = session.getOperationTime();
+        if (operationTime == null) {
+            return null;
+        }
+        BsonDocument token = new BsonDocument("operationTime", operationTime);
+        if (session.getClusterTime() != null) {
+            token.put("clusterTime", session.getClusterTime());
+        }
+        RawBsonDocument raw = new RawBsonDocument(token, new BsonDocumentCodec());
+        ByteBuffer buffer = raw.getByteBuffer().asNIO();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static BsonDocument decode(String token) {
+        if (token == null || token.isBlank() || token.length() > MAX_TOKEN_LENGTH) {
+            return null;
+        }
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            BsonDocument document = new BsonDocumentCodec().decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DecoderContext.builder().build());
+            return document.isTimestamp("operationTime") ? document : null;
+        } catch (RuntimeException ex) {
+            // A malformed token only costs the client its read-your-writes guarantee
+            log.debug("Ignoring invalid causal consistency token. Error Message: {}", ex.getMessage());
+            return null;
+        }
+    }
+}
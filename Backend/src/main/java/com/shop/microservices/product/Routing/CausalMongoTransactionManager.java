@@ -0,0 +1,42 @@
+package com.shop.microservices.product.Routing;
+
+import com.mongodb.client.ClientSession;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * {@link MongoTransactionManager} keeping the read-your-writes guarantee of {@link CausalConsistencyFilter} for
+ * transactional writes.
+ * <p>
+ * A transaction runs in a session of its own rather than in the causally consistent session of the request, so the
+ * token the filter returns would not cover the writes it commits. Once a transaction commits, the request's session
+ * is advanced to the operation and cluster times of the commit, and the token covers them.
+ * </p>
+ */
+public class CausalMongoTransactionManager extends MongoTransactionManager {
+
+    /**
+     * Creates the transaction manager.
+     *
+     * @param databaseFactory The factory of the databases the transactions run on.
+     */
+    public CausalMongoTransactionManager(MongoDatabaseFactory databaseFactory) {
+        super(databaseFactory);
+    }
+
+    @Override
+    protected void doCommit(MongoTransactionObject transactionObject) throws Exception {
+        super.doCommit(transactionObject);
+        ClientSession requestSession = ReadRoutingContext.session();
+        ClientSession transactionSession = transactionObject.getSession();
+        if (requestSession == null || transactionSession == null) {
+            return;
+        }
+        if (transactionSession.getOperationTime() != null) {
+            requestSession.advanceOperationTime(transactionSession.getOperationTime());
+        }
+        if (transactionSession.getClusterTime() != null) {
+            requestSession.advanceClusterTime(transactionSession.getClusterTime());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.shop.microservices.product.Routing;
+
+import com.mongodb.client.ClientSession;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Carries the causally consistent session of a request over to its asynchronous processing.
+ * <p>
+ * Streamed responses such as the product export are written by a {@code StreamingResponseBody} on an MVC task
+ * thread, after the request thread has left the {@link CausalConsistencyFilter}. The session bound to the request
+ * thread is captured when the asynchronous processing starts and bound to the task thread while it runs, so the
+ * streamed reads still honour the client's causal consistency token. The filter closes the session once the
+ * asynchronous request has completed.
+ * </p>
+ */
+public class CausalSessionCallableInterceptor implements CallableProcessingInterceptor {
+
+    private static final String SESSION_ATTRIBUTE = CausalSessionCallableInterceptor.class.getName() + ".session";
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        ClientSession session = ReadRoutingContext.session();
+        if (session != null) {
+            request.setAttribute(SESSION_ATTRIBUTE, session, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        ReadRoutingContext.setSession((ClientSession) request.getAttribute(SESSION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        ReadRoutingContext.setSession(null);
+    }
+}
@@ -0,0 +1,23 @@
+package com.shop.microservices.product.Routing;
+
+/**
+ * The kinds of read operations whose read preference is configured with {@code shop.read-routing.<operation>}.
+ * Reads not listed here, such as lookups by ID made before an update, always go to the primary.
+ */
+public enum ReadOperation {
+
+    /**
+     * Paginated listings of products, categories and materials.
+     */
+    LIST,
+
+    /**
+     * Product searches.
+     */
+    SEARCH,
+
+    /**
+     * Full catalog exports.
+     */
+    EXPORT
+}
@@ -0,0 +1,92 @@
+package com.shop.microservices.product.Routing;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.TagSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs read operations with the read preference configured for their {@link ReadOperation}.
+ * <p>
+ * The preference of each operation is set with {@code shop.read-routing.<operation>} (for example
+ * {@code secondaryPreferred}) and defaults to {@code primary}. With {@code shop.read-routing.enabled=false} every
+ * read goes to the primary. A client that just wrote and sends its causal consistency token still reads its own
+ * writes from a secondary, see {@link CausalConsistencyFilter}.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ReadRouter {
+
+    private final Map<ReadOperation, ReadPreference> readPreferences = new EnumMap<>(ReadOperation.class);
+
+    /**
+     * Constructs the router from the configured read preferences.
+     *
+     * @param enabled     Whether reads are routed at all.
+     * @param maxStaleness The maximum replication lag of the secondaries read from, {@code 0} for no limit.
+     * @param environment The environment holding the per-operation read preferences.
+     */
+    public ReadRouter(@Value("${shop.read-routing.enabled:true}") boolean enabled,
+                      @Value("${shop.read-routing.max-staleness:0s}") Duration maxStaleness,
+                      Environment environment) {
+        for (ReadOperation operation : ReadOperation.values()) {
+            String mode = enabled
+                    ? environment.getProperty("shop.read-routing." + operation.name().toLowerCase(), "primary")
+                    : "primary";
+            ReadPreference readPreference = "primary".equals(mode) || maxStaleness.isZero()
+                    ? ReadPreference.valueOf(mode)
+                    : ReadPreference.valueOf(mode, List.<TagSet>of(), maxStaleness.toSeconds(), TimeUnit.SECONDS);
+            readPreferences.put(operation, readPreference);
+            log.info("Read operation {} routed with read preference {}", operation, readPreference);
+        }
+    }
+
+    /**
+     * Runs a read with the read preference of the given operation.
+     *
+     * @param operation The kind of read.
+     * @param read      The read to run; every database access it makes on this thread uses the preference.
+     * @param <T>       The type of the result.
+     * @return The result of the read.
+     */
+    public <T> T route(ReadOperation operation, Supplier<T> read) {
+        ReadPreference previous = ReadRoutingContext.readPreference();
+        ReadRoutingContext.setReadPreference(readPreferences.get(operation));
+        try {
+            return read.get();
+        } finally {
+            ReadRoutingContext.setReadPreference(previous);
+        }
+    }
+
+    /**
+     * Runs a read without result with the read preference of the given operation.
+     *
+     * @param operation The kind of read.
+     * @param read      The read to run.
+     */
+    public void route(ReadOperation operation, Runnable read) {
+        route(operation, () -> {
+            read.run();
+            return null;
+        });
+    }
+
+    /**
+     * @param operation The kind of read.
+     * @return The read preference configured for the operation.
+     */
+    public ReadPreference readPreferenceOf(ReadOperation operation) {
+        return readPreferences.get(operation);
+    }
+}
@@ -0,0 +1,41 @@
+package com.shop.microservices.product.Routing;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+
+/**
+ * Holds the read preference and the causally consistent session bound to the current thread.
+ * Both are read by {@link RoutingMongoDatabaseFactory} whenever a repository or template obtains a database.
+ */
+final class ReadRoutingContext {
+
+    private static final ThreadLocal<ReadPreference> READ_PREFERENCE = new ThreadLocal<>();
+    private static final ThreadLocal<ClientSession> SESSION = new ThreadLocal<>();
+
+    private ReadRoutingContext() {
+    }
+
+    static ReadPreference readPreference() {
+        return READ_PREFERENCE.get();
+    }
+
+    static void setReadPreference(ReadPreference readPreference) {
+        if (readPreference == null) {
+            READ_PREFERENCE.remove();
+        } else {
+            READ_PREFERENCE.set(readPreference);
+        }
+    }
+
+    static ClientSession session() {
+        return SESSION.get();
+    }
+
+    static void setSession(ClientSession session) {
+        if (session == null) {
+            SESSION.remove();
+        } else {
+            SESSION.set(session);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.shop.microservices.product.Routing;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoDatabase;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+
+/**
+ * {@link MongoDatabaseFactory} applying the read routing of the current thread on top of the auto-configured
+ * factory.
+ * <p>
+ * Databases handed out while a {@link ReadRouter#route read is routed} carry the operation's read preference,
+ * and databases handed out while a causally consistent session is bound by {@link CausalConsistencyFilter} run
+ * every operation in that session. Repositories and templates obtain a database for every operation, so both
+ * apply to them without any change. Transactions keep binding their own session through {@link #withSession}.
+ * </p>
+ */
+public class RoutingMongoDatabaseFactory implements MongoDatabaseFactory {
+
+    private final MongoDatabaseFactory delegate;
+
+    /**
+     * Creates the factory.
+     *
+     * @param delegate The factory creating the databases.
+     */
+    public RoutingMongoDatabaseFactory(MongoDatabaseFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public MongoDatabase getMongoDatabase() throws DataAccessException {
+        ClientSession session = ReadRoutingContext.session();
+        return route(session == null ? delegate.getMongoDatabase() : delegate.withSession(session).getMongoDatabase());
+    }
+
+    @Override
+    public MongoDatabase getMongoDatabase(String dbName) throws DataAccessException {
+        ClientSession session = ReadRoutingContext.session();
+        return route(session == null ? delegate.getMongoDatabase(dbName) : delegate.withSession(session).getMongoDatabase(dbName));
+    }
+
+    @Override
+    public PersistenceExceptionTranslator getExceptionTranslator() {
+        return delegate.getExceptionTranslator();
+    }
+
+    @Override
+    public CodecRegistry getCodecRegistry() {
+        return delegate.getCodecRegistry();
+    }
+
+    @Override
+    public ClientSession getSession(ClientSessionOptions options) {
+        return delegate.getSession(options);
+    }
+
+    @Override
+    public MongoDatabaseFactory withSession(ClientSession session) {
+        return delegate.withSession(session);
+    }
+
+    /**
+     * Applies the read preference of the current thread. On a session-bound database the result stays bound to
+     * the session, as the session proxy decorates every database it returns.
+     */
+    private static MongoDatabase route(MongoDatabase database) {
+        ReadPreference readPreference = ReadRoutingContext.readPreference();
+        return readPreference == null ? database : database.withReadPreference(readPreference);
+    }
+}
@@ -0,0 +1,369 @@
+package com.shop.microservices.product.Search;
+
+import com.shop.microservices.product.Dto.ProductResponseDTO;
+import com.shop.microservices.product.Model.Product;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Embedded Lucene index of the products, stored on local disk.
+ * <p>
+ * Each product is indexed with its analyzed name and description, its price as a point for range filters, and all
+ * the fields of its {@link ProductResponseDTO} stored, so searches are answered from the index alone. Results are
+ * ranked with BM25, names weighing twice as much as descriptions.
+ * </p>
+ * <p>
+ * Changes are visible near-real-time: writes go to the shared {@link IndexWriter} and searchers are reopened every
+ * {@code shop.search.refresh-interval-ms}, while commits, which make the changes durable, happen every
+ * {@code shop.search.commit-interval-ms}. A rebuild re-indexes the collection over the live index: every document
+ * carries the generation of the rebuild that wrote it, and documents of older generations are deleted once the
+ * rebuild completes, so searches keep working throughout.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String PRICE = "price";
+    private static final String GENERATION = "generation";
+    private static final float NAME_BOOST = 2f;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    // Generation of the last started rebuild, persisted in the commit data
+    private final AtomicLong generation;
+    // Products deleted while a rebuild is running, which the rebuild may have read before their deletion
+    private volatile Set<UUID> deletedDuringRebuild;
+
+    /**
+     * Opens, or creates, the index in the given directory.
+     *
+     * @param indexPath The directory holding the index.
+     * @throws IOException If the index cannot be opened.
+     */
+    public ProductSearchIndex(@Value("${shop.search.index-path:data/search-index}") Path indexPath) throws IOException {
+        this.directory = FSDirectory.open(indexPath);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setSimilarity(new BM25Similarity());
+        this.writer = new IndexWriter(directory, config);
+        long committedGeneration = 0;
+        if (writer.getLiveCommitData() != null) {
+            for (Map.Entry<String, String> entry : writer.getLiveCommitData()) {
+                if (GENERATION.equals(entry.getKey())) {
+                    committedGeneration = Long.parseLong(entry.getValue());
+                }
+            }
+        }
+        this.generation = new AtomicLong(committedGeneration);
+        this.searcherManager = new SearcherManager(writer, null);
+        log.info("Product search index opened at {} with {} products", indexPath.toAbsolutePath(), writer.getDocStats().numDocs);
+    }
+
+    /**
+     * Returns whether the index holds no product.
+     *
+     * @return {@code true} if the index is empty.
+     */
+    public boolean isEmpty() {
+        return writer.getDocStats().numDocs == 0;
+    }
+
+    /**
+     * Adds a product to the index, or replaces its document.
+     *
+     * @param product The product.
+     * @throws IOException If the index cannot be written.
+     */
+    public void index(Product product) throws IOException {
+        writer.updateDocument(new Term(ID, product.getId().toString()), toDocument(product, generation.get()));
+    }
+
+    /**
+     * Adds the given products to the index, or replaces their documents.
+     *
+     * @param products The products.
+     * @throws IOException If the index cannot be written.
+     */
+    public void indexAll(Collection<Product> products) throws IOException {
+        long current = generation.get();
+        for (Product product : products) {
+            writer.updateDocument(new Term(ID, product.getId().toString()), toDocument(product, current));
+        }
+    }
+
+    /**
+     * Removes a product from the index.
+     *
+     * @param productId The identifier of the product.
+     * @throws IOException If the index cannot be written.
+     */
+    public void delete(UUID productId) throws IOException {
+        Set<UUID> deleted = deletedDuringRebuild;
+        if (deleted != null) {
+            deleted.add(productId);
+        }
+        writer.deleteDocuments(new Term(ID, productId.toString()));
+    }
+
+    /**
+     * Starts a rebuild: products indexed from now on belong to a new generation.
+     */
+    public void beginRebuild() {
+        deletedDuringRebuild = ConcurrentHashMap.newKeySet();
+        long started = generation.incrementAndGet();
+        log.info("Product search index rebuild {} started", started);
+    }
+
+    /**
+     * Completes a rebuild: deletes the products the rebuild did not index and commits the index.
+     *
+     * @return The number of products in the index.
+     * @throws IOException If the index cannot be written.
+     */
+    public long completeRebuild() throws IOException {
+        long current = generation.get();
+        writer.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, current - 1));
+        Set<UUID> deleted = deletedDuringRebuild;
+        deletedDuringRebuild = null;
+        for (UUID productId : deleted) {
+            writer.deleteDocuments(new Term(ID, productId.toString()));
+        }
+        commit();
+        searcherManager.maybeRefresh();
+        long indexed = writer.getDocStats().numDocs;
+        log.info("Product search index rebuild {} completed with {} products", current, indexed);
+        return indexed;
+    }
+
+    /**
+     * Abandons a rebuild. The products it indexed are kept, as are those it did not reach yet.
+     */
+    public void abortRebuild() {
+        deletedDuringRebuild = null;
+    }
+
+    /**
+     * Searches the products.
+     *
+     * @param text     The text to search for.
+     * @param mode     How the terms of the text are matched.
+     * @param minPrice The minimum price, inclusive, or {@code null}.
+     * @param maxPrice The maximum price, inclusive, or {@code null}.
+     * @param page     The page number (0-based index).
+     * @param size     The page size.
+     * @return The requested page of the matching products, best matches first.
+     * @throws IOException If the index cannot be read.
+     */
+    public Page<ProductResponseDTO> search(String text, SearchMode mode, BigDecimal minPrice, BigDecimal maxPrice,
+                                           int page, int size) throws IOException {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return Page.empty(pageRequest);
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder().add(textQuery(terms, mode), BooleanClause.Occur.MUST);
+        if (minPrice != null || maxPrice != null) {
+            query.add(DoublePoint.newRangeQuery(PRICE,
+                    minPrice == null ? Double.NEGATIVE_INFINITY : minPrice.doubleValue(),
+                    maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice.doubleValue()), BooleanClause.Occur.FILTER);
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            Query built = query.build();
+            int offset = page * size;
+            TopDocs topDocs = searcher.search(built, offset + size);
+            StoredFields storedFields = searcher.storedFields();
+            List<ProductResponseDTO> products = new ArrayList<>(size);
+            for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                ScoreDoc hit = topDocs.scoreDocs[i];
+                products.add(toProduct(storedFields.document(hit.doc)));
+            }
+            return new PageImpl<>(products, pageRequest, searcher.count(built));
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Makes the latest changes visible to searches.
+     */
+    @Scheduled(fixedDelayString = "${shop.search.refresh-interval-ms:500}")
+    public void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException ex) {
+            log.warn("Product search index could not be refreshed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Makes the latest changes durable.
+     */
+    @Scheduled(fixedDelayString = "${shop.search.commit-interval-ms:30000}")
+    public void commitChanges() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                commit();
+            }
+        } catch (IOException ex) {
+            log.warn("Product search index could not be committed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Commits the pending changes and closes the index.
+     *
+     * @throws IOException If the index cannot be committed or closed.
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        commit();
+        writer.close();
+        directory.close();
+    }
+
+    private void commit() throws IOException {
+        writer.setLiveCommitData(Map.of(GENERATION, String.valueOf(generation.get())).entrySet());
+        writer.commit();
+    }
+
+    /**
+     * Builds the query matching the analyzed terms in the given mode.
+     */
+    private Query textQuery(List<String> terms, SearchMode mode) {
+        if (mode == SearchMode.PHRASE) {
+            return phrase(terms);
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            boolean last = i == terms.size() - 1;
+            Query clause = switch (mode) {
+                case FUZZY -> acrossFields(field -> fuzzy(field, term));
+                case PREFIX -> acrossFields(field -> last ? new PrefixQuery(new Term(field, term)) : new TermQuery(new Term(field, term)));
+                default -> new BooleanQuery.Builder()
+                        .add(new BoostQuery(acrossFields(field -> new TermQuery(new Term(field, term))), 3f), BooleanClause.Occur.SHOULD)
+                        .add(new BoostQuery(acrossFields(field -> new PrefixQuery(new Term(field, term))), 1.5f), BooleanClause.Occur.SHOULD)
+                        .add(acrossFields(field -> fuzzy(field, term)), BooleanClause.Occur.SHOULD)
+                        .build();
+            };
+            query.add(clause, BooleanClause.Occur.MUST);
+        }
+        if (mode == SearchMode.AUTO && terms.size() > 1) {
+            // Rank products containing the whole phrase first
+            query.add(new BoostQuery(phrase(terms), 2f), BooleanClause.Occur.SHOULD);
+        }
+        return query.build();
+    }
+
+    private static Query phrase(List<String> terms) {
+        return acrossFields(field -> new PhraseQuery(field, terms.toArray(String[]::new)));
+    }
+
+    private static Query fuzzy(String field, String term) {
+        int maxEdits = term.length() <= 2 ? 0 : term.length() <= 5 ? 1 : 2;
+        return new FuzzyQuery(new Term(field, term), maxEdits);
+    }
+
+    /**
+     * Matches the query built for each field in the name or in the description, names weighing more.
+     */
+    private static Query acrossFields(Function<String, Query> perField) {
+        return new BooleanQuery.Builder()
+                .add(new BoostQuery(perField.apply(NAME), NAME_BOOST), BooleanClause.Occur.SHOULD)
+                .add(perField.apply(DESCRIPTION), BooleanClause.Occur.SHOULD)
+                .build();
+    }
+
+    private List<String> analyze(String text) throws IOException {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        }
+        return terms;
+    }
+
+    private static Document toDocument(Product product, long generation) {
+        Document document = new Document();
+        document.add(new StringField(ID, product.getId().toString(), Field.Store.YES));
+        document.add(new TextField(NAME, product.getName(), Field.Store.YES));
+        if (product.getDescription() != null) {
+            document.add(new TextField(DESCRIPTION, product.getDescription(), Field.Store.YES));
+        }
+        if (product.getPrice() != null) {
+            document.add(new DoublePoint(PRICE, product.getPrice().doubleValue()));
+            document.add(new StoredField(PRICE, product.getPrice().toPlainString()));
+        }
+        document.add(new LongPoint(GENERATION, generation));
+        return document;
+    }
+
+    private static ProductResponseDTO toProduct(Document document) {
+        String price = document.get(PRICE);
+        return new ProductResponseDTO(UUID.fromString(document.get(ID)), document.get(NAME), document.get(DESCRIPTION),
+                price == null ? null : new BigDecimal(price));
+    }
+}
@@ -0,0 +1,49 @@
+package com.shop.microservices.product.Search;
+
+import com.shop.microservices.product.Exception.InvalidInputException;
+
+import java.util.Locale;
+
+/**
+ * The ways the terms of a product search are matched against the names and descriptions.
+ */
+public enum SearchMode {
+
+    /**
+     * Every term must match exactly, by prefix or with a typo; exact matches and the whole phrase rank highest.
+     */
+    AUTO,
+
+    /**
+     * Every term must match within an edit distance of one (terms up to five characters) or two.
+     */
+    FUZZY,
+
+    /**
+     * Every term must match exactly, except the last one which may be the prefix of a word (search as you type).
+     */
+    PREFIX,
+
+    /**
+     * The terms must appear next to each other, in order.
+     */
+    PHRASE;
+
+    /**
+     * Resolves the search mode from a request parameter, ignoring case.
+     *
+     * @param value The requested mode, {@link #AUTO} if {@code null} or blank.
+     * @return The matching {@link SearchMode}.
+     * @throws InvalidInputException If the mode is not supported.
+     */
+    public static SearchMode fromParameter(String value) {
+        if (value == null || value.isBlank()) {
+            return AUTO;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidInputException("prod.error.4005");
+        }
+    }
+}
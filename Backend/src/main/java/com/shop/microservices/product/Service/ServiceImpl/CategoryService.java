@@ -1,21 +1,29 @@
 package com.shop.microservices.product.Service.ServiceImpl;
 
+import com.shop.microservices.product.Catalog.CatalogCache;
 import com.shop.microservices.product.Dto.CategoryRequestDTO;
 import com.shop.microservices.product.Dto.CategoryResponseDTO;
+import com.shop.microservices.product.Dto.PageResponseDTO;
+import com.shop.microservices.product.Event.CategoryChangeEvent;
 import com.shop.microservices.product.Exception.InvalidInputException;
 import com.shop.microservices.product.Exception.ResourceNotFoundException;
 import com.shop.microservices.product.Exception.UniqueConstraintViolationException;
 import com.shop.microservices.product.Mapper.CategoryMapper;
 import com.shop.microservices.product.Model.Category;
 import com.shop.microservices.product.Repository.CategoryRepository;
+import com.shop.microservices.product.Routing.ReadOperation;
+import com.shop.microservices.product.Routing.ReadRouter;
 import com.shop.microservices.product.Service.ServiceInterface.ICategoryService;
 import com.shop.microservices.product.Utils.CategoryValidationUtil;
+import com.shop.microservices.product.Utils.SingleFlight;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -30,6 +38,12 @@ public class CategoryService implements ICategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
     private final CategoryValidationUtil categoryValidationUtil;
+    private final ReadRouter readRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogCache catalogCache;
+    // Concurrent lookups of the same category share one database call
+    private final SingleFlight<UUID, Optional<Category>> categoriesById = new SingleFlight<>();
+    private final SingleFlight<String, Category> categoriesByName = new SingleFlight<>();
 
     /**
      * Constructor for CategoryService.
@@ -37,11 +51,18 @@ public class CategoryService implements ICategoryService {
      * @param categoryRepository   the repository for category operations
      * @param categoryMapper       the mapper for converting between entity and DTO
      * @param categoryValidationUtil utility for validating category-related data
+     * @param readRouter           the router applying the read preference of listings
+     * @param eventPublisher       the publisher of the {@link CategoryChangeEvent}s
+     * @param catalogCache         the in-memory catalog the lookups by ID are served from
      */
-    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper, CategoryValidationUtil categoryValidationUtil) {
+    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper, CategoryValidationUtil categoryValidationUtil,
+                           ReadRouter readRouter, ApplicationEventPublisher eventPublisher, CatalogCache catalogCache) {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
         this.categoryValidationUtil = categoryValidationUtil;
+        this.readRouter = readRouter;
+        this.eventPublisher = eventPublisher;
+        this.catalogCache = catalogCache;
     }
 
     /**
@@ -64,6 +85,7 @@ public class CategoryService implements ICategoryService {
         Category savedCategory = categoryRepository.save(category);
 
         log.info("Category created with ID: {}", savedCategory.getCategoryId());
+        eventPublisher.publishEvent(CategoryChangeEvent.created(savedCategory));
         return categoryMapper.categoryToCategoryResponseDTO(savedCategory);
     }
 
@@ -77,6 +99,7 @@ public class CategoryService implements ICategoryService {
      * @throws ResourceNotFoundException if the category with the given ID does not exist
      */
     @Override
+    @Transactional
     public CategoryResponseDTO updateCategory(String categoryIdStr, CategoryRequestDTO categoryRequestDTO) {
         if (categoryRequestDTO == null) {
             throw new InvalidInputException("prod.error.3500");
@@ -100,6 +123,7 @@ public class CategoryService implements ICategoryService {
         }
 
         Category updatedCategory = categoryRepository.save(existingCategory);
+        eventPublisher.publishEvent(CategoryChangeEvent.updated(updatedCategory));
         return categoryMapper.categoryToCategoryResponseDTO(updatedCategory);
     }
 
@@ -108,16 +132,16 @@ public class CategoryService implements ICategoryService {
      *
      * @param page the page number to retrieve
      * @param size the number of items per page
-     * @return a paginated list of category response DTOs
+     * @return a page of category response DTOs, mapped while the response is written
      * @throws ResourceNotFoundException if no categories are found
      */
     @Override
-    public Page<CategoryResponseDTO> getAllCategory(int page, int size) {
-        Page<Category> categories = categoryRepository.findAll(PageRequest.of(page, size));
+    public PageResponseDTO<CategoryResponseDTO> getAllCategory(int page, int size) {
+        Page<Category> categories = readRouter.route(ReadOperation.LIST, () -> categoryRepository.findAll(PageRequest.of(page, size)));
         if (categories.isEmpty()) {
             throw new ResourceNotFoundException("prod.error.3504");
         }
-        return categories.map(categoryMapper::categoryToCategoryResponseDTO);
+        return PageResponseDTO.of(categories, categoryMapper::categoryToCategoryResponseDTO);
     }
 
     /**
@@ -136,7 +160,9 @@ public class CategoryService implements ICategoryService {
         } catch (IllegalArgumentException ex) {
             throw new InvalidInputException("prod.error.3502");
         }
-        Category category = categoryRepository.findById(categoryId)
+        // Served from the catalog cache, the database is only read for categories it does not hold
+        Category category = catalogCache.category(categoryId)
+                .or(() -> categoriesById.execute(categoryId, () -> categoryRepository.findById(categoryId)))
                 .orElseThrow(() -> new ResourceNotFoundException("prod.error.3503", categoryId));
 
         return categoryMapper.categoryToCategoryResponseDTO(category);
@@ -151,7 +177,7 @@ public class CategoryService implements ICategoryService {
      */
     @Override
     public CategoryResponseDTO getCategoryByName(String categoryName) {
-        Category category = categoryRepository.findByName(categoryName);
+        Category category = categoriesByName.execute(categoryName, () -> categoryRepository.findByName(categoryName));
         if (category == null) {
             throw new ResourceNotFoundException("prod.error.3505", categoryName);
         }
@@ -167,6 +193,7 @@ public class CategoryService implements ICategoryService {
      * @throws ResourceNotFoundException if the category with the given ID does not exist
      */
     @Override
+    @Transactional
     public String deleteCategory(String categoryIdStr) {
         UUID categoryId;
         try {
@@ -179,6 +206,7 @@ public class CategoryService implements ICategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("prod.error.3503", categoryId));
 
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(CategoryChangeEvent.deleted(categoryId));
         log.info("Product with ID: {} successfully deleted", categoryId);
         return categoryIdStr;
     }
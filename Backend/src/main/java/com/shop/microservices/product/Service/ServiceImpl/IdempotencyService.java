@@ -0,0 +1,215 @@
+package com.shop.microservices.product.Service.ServiceImpl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.MongoException;
+import com.shop.microservices.product.Exception.EntityCreationException;
+import com.shop.microservices.product.Exception.IdempotencyConflictException;
+import com.shop.microservices.product.Exception.InvalidInputException;
+import com.shop.microservices.product.Model.IdempotencyRecord;
+import com.shop.microservices.product.Repository.IdempotencyRecordRepository;
+import com.shop.microservices.product.Service.ServiceInterface.IIdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Service making create requests idempotent with a client-supplied {@code Idempotency-Key}.
+ * <p>
+ * The first request with a key inserts a placeholder into the "idempotency_keys" collection, whose unique
+ * {@code _id} guarantees that only one request runs the action even across instances; concurrent requests with
+ * the same key are rejected with a conflict until it completes. The placeholder only holds the key for
+ * {@code shop.idempotency.lease}, so a key whose request was lost with its instance can be used again shortly after.
+ * Once the action has completed, its response is stored in the record and kept in an in-memory Caffeine cache, so a
+ * replayed request is answered from memory without any database work, or with a single lookup by {@code _id} on
+ * another instance. Completed records expire after {@code shop.idempotency.ttl} through a TTL index.
+ * </p>
+ */
+@Slf4j
+@Service
+public class IdempotencyService implements IIdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Cache<String, IdempotencyRecord> completedRecords;
+
+    /**
+     * Constructs the idempotency service.
+     *
+     * @param idempotencyRecordRepository The repository storing the idempotency records.
+     * @param objectMapper                The mapper serializing requests and responses.
+     * @param ttl                         How long a key is remembered once its request has completed.
+     * @param lease                       How long a key is held for a request that has not completed yet.
+     * @param cacheSize                   The maximum number of completed records kept in memory.
+     */
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${shop.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${shop.idempotency.lease:30s}") Duration lease,
+                              @Value("${shop.idempotency.cache-size:10000}") long cacheSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.completedRecords = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Runs the action once per idempotency key and returns the stored response for every replay of the key.
+     *
+     * @param scope          The endpoint the key belongs to.
+     * @param idempotencyKey The client key, or {@code null} to run the action without idempotency.
+     * @param request        The request body.
+     * @param responseType   The type of the response.
+     * @param action         The action creating the resource.
+     * @return The response of the action, or the stored response of the first request with the same key.
+     * @throws InvalidInputException        If the key is invalid or was used for a different request.
+     * @throws IdempotencyConflictException If the first request with the key is still being processed.
+     * @throws EntityCreationException      If the key cannot be recorded.
+     */
+    @Override
+    public <T> T execute(String scope, String idempotencyKey, Object request, Class<T> responseType, Supplier<T> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidInputException("prod.error.3800");
+        }
+
+        String id = scope + ":" + idempotencyKey;
+        String requestHash = hash(request);
+
+        // Replays answered from memory never reach the database
+        IdempotencyRecord cached = completedRecords.getIfPresent(id);
+        if (cached != null) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        Instant now = Instant.now();
+        IdempotencyRecord placeholder = IdempotencyRecord.builder()
+                .id(id)
+                .requestHash(requestHash)
+                .createdAt(now)
+                .expiresAt(now.plus(lease))
+                .build();
+        Optional<IdempotencyRecord> existing = reserve(placeholder);
+        if (existing.isPresent()) {
+            return replay(existing.get(), requestHash, responseType);
+        }
+
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException ex) {
+            // The request failed, release the key so that the client can retry it
+            release(id);
+            throw ex;
+        }
+
+        placeholder.setCompleted(true);
+        placeholder.setResponse(toJson(response));
+        placeholder.setExpiresAt(Instant.now().plus(ttl));
+        completedRecords.put(id, placeholder);
+        try {
+            idempotencyRecordRepository.save(placeholder);
+        } catch (DataAccessException | MongoException ex) {
+            // The placeholder is left to expire with its lease, other instances reject the key until then
+            log.error("Error storing the response of idempotency key {}. Error Message: {}", id, ex.getMessage(), ex);
+        }
+        return response;
+    }
+
+    /**
+     * Inserts the placeholder of a new key.
+     *
+     * @return The record already stored for the key, or an empty optional if the placeholder was inserted.
+     */
+    private Optional<IdempotencyRecord> reserve(IdempotencyRecord placeholder) {
+        try {
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    idempotencyRecordRepository.insert(placeholder);
+                    return Optional.empty();
+                } catch (DuplicateKeyException ex) {
+                    Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findById(placeholder.getId());
+                    // The TTL monitor removes expired records lazily, an expired record or lease is replaced
+                    if (existing.isPresent() && existing.get().getExpiresAt().isAfter(placeholder.getCreatedAt())) {
+                        return existing;
+                    }
+                    if (attempt > 0) {
+                        throw new IdempotencyConflictException("prod.error.3801");
+                    }
+                    // Only while it is still expired: of the requests taking over the same record concurrently, the
+                    // others find the placeholder of the first one on their next attempt
+                    if (existing.isPresent()
+                            && idempotencyRecordRepository.deleteByIdAndExpiresAtBefore(placeholder.getId(), placeholder.getCreatedAt()) == 0) {
+                        log.info("Expired idempotency key {} was renewed or removed in the meantime", placeholder.getId());
+                    }
+                }
+            }
+        } catch (DataAccessException | MongoException ex) {
+            log.error("Error recording idempotency key {}. Error Message: {}", placeholder.getId(), ex.getMessage(), ex);
+            throw new EntityCreationException("prod.error.3803", ex);
+        }
+    }
+
+    private void release(String id) {
+        try {
+            idempotencyRecordRepository.deleteById(id);
+        } catch (DataAccessException | MongoException ex) {
+            log.warn("Error releasing idempotency key {}. Error Message: {}", id, ex.getMessage());
+        }
+    }
+
+    private <T> T replay(IdempotencyRecord idempotencyRecord, String requestHash, Class<T> responseType) {
+        if (!idempotencyRecord.getRequestHash().equals(requestHash)) {
+            throw new InvalidInputException("prod.error.3802");
+        }
+        if (!idempotencyRecord.isCompleted()) {
+            throw new IdempotencyConflictException("prod.error.3801");
+        }
+        completedRecords.put(idempotencyRecord.getId(), idempotencyRecord);
+        log.info("Replaying the stored response of idempotency key {}", idempotencyRecord.getId());
+        try {
+            return objectMapper.readValue(idempotencyRecord.getResponse(), responseType);
+        } catch (JsonProcessingException ex) {
+            throw new EntityCreationException("prod.error.3803", ex);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new EntityCreationException("prod.error.3803", ex);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new EntityCreationException("prod.error.3803", ex);
+        }
+    }
+}
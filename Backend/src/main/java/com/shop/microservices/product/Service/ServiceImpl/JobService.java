@@ -0,0 +1,355 @@
+package com.shop.microservices.product.Service.ServiceImpl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoException;
+import com.shop.microservices.product.Dto.JobResponseDTO;
+import com.shop.microservices.product.Exception.ApplicationException;
+import com.shop.microservices.product.Exception.EntityCreationException;
+import com.shop.microservices.product.Exception.InvalidInputException;
+import com.shop.microservices.product.Exception.ResourceNotFoundException;
+import com.shop.microservices.product.Identifier.IdGeneratorRegistry;
+import com.shop.microservices.product.Job.JobContext;
+import com.shop.microservices.product.Job.JobTask;
+import com.shop.microservices.product.Mapper.JobMapper;
+import com.shop.microservices.product.Model.Job;
+import com.shop.microservices.product.Model.JobStatus;
+import com.shop.microservices.product.Model.JobType;
+import com.shop.microservices.product.Repository.JobRepository;
+import com.shop.microservices.product.Service.ServiceInterface.IJobService;
+import com.shop.microservices.product.Utils.ErrorMessageUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Service running long-running catalog operations as background jobs.
+ * <p>
+ * Every submitted task is persisted as a {@link Job} in the "jobs" collection and runs on its own virtual thread,
+ * so the request that submitted it returns immediately and clients poll the job instead of holding a connection
+ * open. The number of jobs running at the same time is limited per {@link JobType} with the
+ * {@code shop.jobs.max-concurrent.<type>} properties; jobs over the limit stay {@link JobStatus#QUEUED} until a
+ * slot is released. Progress is persisted at most once per {@code shop.jobs.progress-interval-ms}.
+ * </p>
+ * <p>
+ * Cancellation is cooperative: the request is recorded on the job document and signalled to the task through its
+ * {@link JobContext}. A job cancelled on another instance notices it the next time it persists its progress.
+ * </p>
+ * <p>
+ * Every instance refreshes the heartbeat of its queued and running jobs every {@code shop.jobs.heartbeat-interval-ms}
+ * and fails the jobs whose heartbeat is older than {@code shop.jobs.abandoned-after-ms}, so a job left behind by an
+ * instance that crashed or was killed does not stay {@link JobStatus#RUNNING} forever. The check also runs on
+ * startup, which recovers the jobs of the previous run of the same instance once their heartbeat is old enough.
+ * </p>
+ */
+@Slf4j
+@Service
+public class JobService implements IJobService {
+
+    private static final TypeReference<Map<String, Object>> RESULT_TYPE = new TypeReference<>() {};
+
+    private final JobRepository jobRepository;
+    private final JobMapper jobMapper;
+    private final IdGeneratorRegistry idGeneratorRegistry;
+    private final ErrorMessageUtil errorMessageUtil;
+    private final ObjectMapper objectMapper;
+    private final long progressIntervalMillis;
+    private final long abandonedAfterMillis;
+    private final boolean heartbeatEnabled;
+    private final Map<JobType, Semaphore> slots = new EnumMap<>(JobType.class);
+    private final Map<UUID, RunningJob> runningJobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Constructs the job service.
+     *
+     * @param jobRepository          The repository persisting the jobs.
+     * @param jobMapper              The mapper converting jobs to DTOs.
+     * @param idGeneratorRegistry    The registry generating the job identifiers.
+     * @param errorMessageUtil       Utility resolving the error messages of failed jobs.
+     * @param objectMapper           The mapper converting job results into documents.
+     * @param environment            The environment holding the per-type concurrency limits.
+     * @param progressIntervalMillis The minimum interval between two progress writes of a job.
+     * @param abandonedAfterMillis   The age of the heartbeat after which a queued or running job is failed.
+     * @param heartbeatEnabled       Whether heartbeats are written and abandoned jobs failed.
+     */
+    public JobService(JobRepository jobRepository,
+                      JobMapper jobMapper,
+                      IdGeneratorRegistry idGeneratorRegistry,
+                      ErrorMessageUtil errorMessageUtil,
+                      ObjectMapper objectMapper,
+                      Environment environment,
+                      @Value("${shop.jobs.progress-interval-ms:1000}") long progressIntervalMillis,
+                      @Value("${shop.jobs.abandoned-after-ms:60000}") long abandonedAfterMillis,
+                      @Value("${shop.jobs.heartbeat-enabled:true}") boolean heartbeatEnabled) {
+        this.jobRepository = jobRepository;
+        this.jobMapper = jobMapper;
+        this.idGeneratorRegistry = idGeneratorRegistry;
+        this.errorMessageUtil = errorMessageUtil;
+        this.objectMapper = objectMapper;
+        this.progressIntervalMillis = progressIntervalMillis;
+        this.abandonedAfterMillis = abandonedAfterMillis;
+        this.heartbeatEnabled = heartbeatEnabled;
+        for (JobType type : JobType.values()) {
+            String property = "shop.jobs.max-concurrent." + type.name().toLowerCase().replace('_', '-');
+            int limit = environment.getProperty(property, Integer.class, 1);
+            slots.put(type, new Semaphore(limit, true));
+            log.info("Job type {} limited to {} concurrent jobs", type, limit);
+        }
+    }
+
+    /**
+     * Persists a new queued job and starts it on a virtual thread.
+     *
+     * @param type The kind of operation, which determines the concurrency limit applied.
+     * @param task The work to run.
+     * @return The queued job as {@link JobResponseDTO}.
+     * @throws EntityCreationException If the job cannot be persisted.
+     */
+    @Override
+    public <T> JobResponseDTO submit(JobType type, JobTask<T> task) {
+        Instant now = Instant.now();
+        Job job = Job.builder()
+                .jobId(idGeneratorRegistry.nextId(Job.class))
+                .type(type)
+                .status(JobStatus.QUEUED)
+                .createdAt(now)
+                .heartbeatAt(now)
+                .build();
+        try {
+            jobRepository.save(job);
+        } catch (DataAccessException | MongoException ex) {
+            log.error("Error while submitting a {} job. Error Message: {}", type, ex.getMessage(), ex);
+            throw new EntityCreationException("prod.error.3704", ex);
+        }
+
+        RunningJob runningJob = new RunningJob(job.getJobId());
+        runningJobs.put(job.getJobId(), runningJob);
+        executor.execute(() -> run(job, task, runningJob));
+
+        log.info("Job {} of type {} submitted", job.getJobId(), type);
+        return jobMapper.jobToJobResponseDTO(job);
+    }
+
+    /**
+     * Retrieves the current state of a job.
+     *
+     * @param jobIdStr The ID of the job, as a string.
+     * @return The job as {@link JobResponseDTO}.
+     * @throws InvalidInputException     If the ID is empty or not a valid UUID.
+     * @throws ResourceNotFoundException If no job exists with the given ID.
+     */
+    @Override
+    public JobResponseDTO getJob(String jobIdStr) {
+        return jobMapper.jobToJobResponseDTO(findJob(parseJobId(jobIdStr)));
+    }
+
+    /**
+     * Requests the cancellation of a queued or running job.
+     *
+     * @param jobIdStr The ID of the job, as a string.
+     * @return The job as {@link JobResponseDTO}, with the cancellation request recorded.
+     * @throws InvalidInputException     If the ID is invalid or the job has already finished.
+     * @throws ResourceNotFoundException If no job exists with the given ID.
+     */
+    @Override
+    public JobResponseDTO cancelJob(String jobIdStr) {
+        UUID jobId = parseJobId(jobIdStr);
+        Job job = findJob(jobId);
+        if (job.getStatus().isFinished() || !jobRepository.requestCancellation(jobId)) {
+            throw new InvalidInputException("prod.error.3703");
+        }
+
+        RunningJob runningJob = runningJobs.get(jobId);
+        if (runningJob != null) {
+            runningJob.cancel();
+        }
+
+        log.info("Cancellation of job {} requested", jobId);
+        job.setCancelRequested(true);
+        return jobMapper.jobToJobResponseDTO(job);
+    }
+
+    /**
+     * Refreshes the heartbeat of the jobs queued or running on this instance, then fails the jobs abandoned by
+     * stopped instances. Runs on startup and every {@code shop.jobs.heartbeat-interval-ms}.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${shop.jobs.heartbeat-interval-ms:10000}")
+    public void heartbeat() {
+        if (!heartbeatEnabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        try {
+            if (!runningJobs.isEmpty()) {
+                jobRepository.heartbeat(List.copyOf(runningJobs.keySet()), now);
+            }
+            long failed = jobRepository.failAbandoned(now.minusMillis(abandonedAfterMillis),
+                    errorMessageUtil.getErrorMessage("prod.error.3706"), now);
+            if (failed > 0) {
+                log.warn("Failed {} jobs abandoned by a stopped instance", failed);
+            }
+        } catch (DataAccessException | MongoException ex) {
+            // Retried on the next interval, well before the heartbeats of this instance are considered lost
+            log.warn("Error while recording the job heartbeats. Error Message: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Runs a job once a slot of its type is free and records its outcome.
+     */
+    private <T> void run(Job job, JobTask<T> task, RunningJob runningJob) {
+        UUID jobId = job.getJobId();
+        Semaphore slot = slots.get(job.getType());
+        try {
+            if (!runningJob.awaitSlot(slot)) {
+                finish(runningJob, JobStatus.CANCELLED, null, null);
+                return;
+            }
+            try {
+                if (runningJob.isCancelled()) {
+                    finish(runningJob, JobStatus.CANCELLED, null, null);
+                    return;
+                }
+                jobRepository.markRunning(jobId, Instant.now());
+                T result = task.run(runningJob);
+                finish(runningJob, JobStatus.SUCCEEDED, result == null ? null : objectMapper.convertValue(result, RESULT_TYPE), null);
+            } catch (CancellationException ex) {
+                finish(runningJob, JobStatus.CANCELLED, null, null);
+            } catch (ApplicationException ex) {
+                finish(runningJob, JobStatus.FAILED, null, errorMessageUtil.getErrorMessage(ex.getErrorCode(), ex.getMessageArgs()));
+            } catch (RuntimeException ex) {
+                log.error("Job {} failed. Error Message: {}", jobId, ex.getMessage(), ex);
+                finish(runningJob, JobStatus.FAILED, null, errorMessageUtil.getErrorMessage("prod.error.3705", new Object[]{ex.getMessage()}));
+            } finally {
+                slot.release();
+            }
+        } finally {
+            runningJobs.remove(jobId);
+        }
+    }
+
+    private void finish(RunningJob runningJob, JobStatus status, Map<String, Object> result, String error) {
+        try {
+            if (jobRepository.markFinished(runningJob.jobId, status, runningJob.processed, result, error, Instant.now())) {
+                log.info("Job {} finished with status {}", runningJob.jobId, status);
+            } else {
+                log.warn("Job {} finished with status {} after it had already been finished, e.g. failed as abandoned; "
+                        + "its outcome is not recorded", runningJob.jobId, status);
+            }
+        } catch (DataAccessException | MongoException ex) {
+            log.error("Error while recording the outcome {} of job {}. Error Message: {}", status, runningJob.jobId, ex.getMessage(), ex);
+        }
+    }
+
+    private Job findJob(UUID jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("prod.error.3702", jobId));
+    }
+
+    private static UUID parseJobId(String jobIdStr) {
+        if (jobIdStr == null || jobIdStr.trim().isEmpty()) {
+            throw new InvalidInputException("prod.error.3700");
+        }
+        try {
+            return UUID.fromString(jobIdStr);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidInputException("prod.error.3701");
+        }
+    }
+
+    /**
+     * Stops the jobs still running on this instance.
+     */
+    @PreDestroy
+    public void shutdown() {
+        runningJobs.values().forEach(RunningJob::cancel);
+        executor.shutdown();
+    }
+
+    /**
+     * The {@link JobContext} of a job running on this instance.
+     */
+    private class RunningJob implements JobContext {
+        private final UUID jobId;
+        private volatile boolean cancelled;
+        private volatile long processed;
+        private long lastProgressWrite;
+        // Thread waiting for a slot of the job type, interrupted on cancellation
+        private Thread waitingThread;
+
+        RunningJob(UUID jobId) {
+            this.jobId = jobId;
+        }
+
+        /**
+         * Waits for a free slot of the job type.
+         *
+         * @return {@code true} if a slot was acquired, {@code false} if the job was cancelled while queued.
+         */
+        boolean awaitSlot(Semaphore slot) {
+            synchronized (this) {
+                if (cancelled) {
+                    return false;
+                }
+                waitingThread = Thread.currentThread();
+            }
+            try {
+                slot.acquire();
+            } catch (InterruptedException ex) {
+                return false;
+            } finally {
+                synchronized (this) {
+                    waitingThread = null;
+                    // Clear an interrupt that raced with the acquisition, it must not reach the task
+                    Thread.interrupted();
+                }
+            }
+            return true;
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (waitingThread != null) {
+                waitingThread.interrupt();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void reportProgress(long processed, Long total) {
+            this.processed = processed;
+            long now = System.currentTimeMillis();
+            if (now - lastProgressWrite < progressIntervalMillis) {
+                return;
+            }
+            lastProgressWrite = now;
+            try {
+                if (jobRepository.updateProgress(jobId, processed, total)) {
+                    cancelled = true;
+                }
+            } catch (DataAccessException | MongoException ex) {
+                log.warn("Error while recording the progress of job {}. Error Message: {}", jobId, ex.getMessage());
+            }
+        }
+    }
+}
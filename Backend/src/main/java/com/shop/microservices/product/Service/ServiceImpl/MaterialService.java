@@ -1,21 +1,29 @@
 package com.shop.microservices.product.Service.ServiceImpl;
 
+import com.shop.microservices.product.Catalog.CatalogCache;
 import com.shop.microservices.product.Dto.MaterialRequestDTO;
 import com.shop.microservices.product.Dto.MaterialResponseDTO;
+import com.shop.microservices.product.Dto.PageResponseDTO;
+import com.shop.microservices.product.Event.MaterialChangeEvent;
 import com.shop.microservices.product.Exception.InvalidInputException;
 import com.shop.microservices.product.Exception.ResourceNotFoundException;
 import com.shop.microservices.product.Exception.UniqueConstraintViolationException;
 import com.shop.microservices.product.Mapper.MaterialMapper;
 import com.shop.microservices.product.Model.Material;
 import com.shop.microservices.product.Repository.MaterialRepository;
+import com.shop.microservices.product.Routing.ReadOperation;
+import com.shop.microservices.product.Routing.ReadRouter;
 import com.shop.microservices.product.Service.ServiceInterface.IMaterialService;
 import com.shop.microservices.product.Utils.MaterialValidationUtil;
+import com.shop.microservices.product.Utils.SingleFlight;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -30,6 +38,12 @@ public class MaterialService implements IMaterialService {
     private final MaterialRepository materialRepository;
     private final MaterialMapper materialMapper;
     private final MaterialValidationUtil materialValidationUtil;
+    private final ReadRouter readRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogCache catalogCache;
+    // Concurrent lookups of the same material share one database call
+    private final SingleFlight<UUID, Optional<Material>> materialsById = new SingleFlight<>();
+    private final SingleFlight<NameAndType, Material> materialsByNameAndType = new SingleFlight<>();
 
     /**
      * Constructor for MaterialService.
@@ -37,11 +51,18 @@ public class MaterialService implements IMaterialService {
      * @param materialRepository   the repository for material operations
      * @param materialMapper       the mapper for converting between entity and DTO
      * @param materialValidationUtil utility for validating material-related data
+     * @param readRouter           the router applying the read preference of listings
+     * @param eventPublisher       the publisher of the {@link MaterialChangeEvent}s
+     * @param catalogCache         the in-memory catalog the lookups by ID are served from
      */
-    public MaterialService(MaterialRepository materialRepository, MaterialMapper materialMapper, MaterialValidationUtil materialValidationUtil) {
+    public MaterialService(MaterialRepository materialRepository, MaterialMapper materialMapper, MaterialValidationUtil materialValidationUtil,
+                           ReadRouter readRouter, ApplicationEventPublisher eventPublisher, CatalogCache catalogCache) {
         this.materialRepository = materialRepository;
         this.materialMapper = materialMapper;
         this.materialValidationUtil = materialValidationUtil;
+        this.readRouter = readRouter;
+        this.eventPublisher = eventPublisher;
+        this.catalogCache = catalogCache;
     }
 
     /**
@@ -64,6 +85,7 @@ public class MaterialService implements IMaterialService {
         Material savedMaterial = materialRepository.save(material);
 
         log.info("Material created with ID: {}", savedMaterial.getMaterialId());
+        eventPublisher.publishEvent(MaterialChangeEvent.created(savedMaterial));
         return materialMapper.materialToMaterialResponseDTO(savedMaterial);
     }
 
@@ -77,6 +99,7 @@ public class MaterialService implements IMaterialService {
      * @throws ResourceNotFoundException if the material with the given ID does not exist
      */
     @Override
+    @Transactional
     public MaterialResponseDTO updateMaterial(String materialIdStr, MaterialRequestDTO materialRequestDTO) {
         if (materialRequestDTO == null) {
             throw new InvalidInputException("prod.error.3600");
@@ -103,6 +126,7 @@ public class MaterialService implements IMaterialService {
         }
 
         Material updatedMaterial = materialRepository.save(existingMaterial);
+        eventPublisher.publishEvent(MaterialChangeEvent.updated(updatedMaterial));
         return materialMapper.materialToMaterialResponseDTO(updatedMaterial);
     }
 
@@ -111,16 +135,16 @@ public class MaterialService implements IMaterialService {
      *
      * @param page the page number to retrieve
      * @param size the number of items per page
-     * @return a paginated list of material response DTOs
+     * @return a page of material response DTOs, mapped while the response is written
      * @throws ResourceNotFoundException if no materials are found
      */
     @Override
-    public Page<MaterialResponseDTO> getAllMaterials(int page, int size) {
-        Page<Material> materials = materialRepository.findAll(PageRequest.of(page, size));
+    public PageResponseDTO<MaterialResponseDTO> getAllMaterials(int page, int size) {
+        Page<Material> materials = readRouter.route(ReadOperation.LIST, () -> materialRepository.findAll(PageRequest.of(page, size)));
         if (materials.isEmpty()) {
             throw new ResourceNotFoundException("prod.error.3604");
         }
-        return materials.map(materialMapper::materialToMaterialResponseDTO);
+        return PageResponseDTO.of(materials, materialMapper::materialToMaterialResponseDTO);
     }
 
     /**
@@ -139,7 +163,9 @@ public class MaterialService implements IMaterialService {
         } catch (IllegalArgumentException ex) {
             throw new InvalidInputException("prod.error.3602");
         }
-        Material material = materialRepository.findById(materialId)
+        // Served from the catalog cache, the database is only read for materials it does not hold
+        Material material = catalogCache.material(materialId)
+                .or(() -> materialsById.execute(materialId, () -> materialRepository.findById(materialId)))
                 .orElseThrow(() -> new ResourceNotFoundException("prod.error.3603", materialId));
 
         return materialMapper.materialToMaterialResponseDTO(material);
@@ -157,7 +183,8 @@ public class MaterialService implements IMaterialService {
      */
     @Override
     public MaterialResponseDTO getMaterialByNameAndType(String materialName, String materialType) {
-        Material material = materialRepository.findByMaterialNameAndMaterialType(materialName, materialType);
+        Material material = materialsByNameAndType.execute(new NameAndType(materialName, materialType),
+                () -> materialRepository.findByMaterialNameAndMaterialType(materialName, materialType));
         if (material == null) {
             throw new ResourceNotFoundException("prod.error.3605", materialName);
         }
@@ -174,6 +201,7 @@ public class MaterialService implements IMaterialService {
      * @throws ResourceNotFoundException if the material with the given ID does not exist
      */
     @Override
+    @Transactional
     public String deleteMaterial(String materialIdStr) {
         UUID materialId;
         try {
@@ -186,6 +214,7 @@ public class MaterialService implements IMaterialService {
                 .orElseThrow(() -> new ResourceNotFoundException("prod.error.3603", materialId));
 
         materialRepository.delete(material);
+        eventPublisher.publishEvent(MaterialChangeEvent.deleted(materialId));
         log.info("Material with ID: {} successfully deleted", materialId);
         return materialIdStr;
     }
@@ -203,4 +232,10 @@ public class MaterialService implements IMaterialService {
 
         }
     }
+
+    /**
+     * Lookup key of {@link #getMaterialByNameAndType(String, String)}.
+     */
+    private record NameAndType(String materialName, String materialType) {
+    }
 }
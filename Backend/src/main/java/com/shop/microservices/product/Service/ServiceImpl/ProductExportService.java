@@ -0,0 +1,90 @@
+package com.shop.microservices.product.Service.ServiceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.shop.microservices.product.Mapper.ProductMapper;
+import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Repository.ProductRepository;
+import com.shop.microservices.product.Routing.ReadOperation;
+import com.shop.microservices.product.Routing.ReadRouter;
+import com.shop.microservices.product.Service.ServiceInterface.IProductExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Service streaming the whole product catalog as newline-delimited JSON.
+ * <p>
+ * Products are read through a cursor and written one per line as they arrive, so memory use does not depend on
+ * the size of the catalog. The export is a {@link ReadOperation#EXPORT} read and is served by a secondary when
+ * exports are routed there. The export runs on the thread writing the streamed response, which is bound to the
+ * causally consistent session of the request, so a client sending its causal consistency token exports its own writes.
+ * </p>
+ */
+@Slf4j
+@Service
+public class ProductExportService implements IProductExportService {
+
+    private static final byte NEWLINE = '\n';
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ReadRouter readRouter;
+    private final ObjectWriter writer;
+
+    /**
+     * Constructs the export service.
+     *
+     * @param productRepository The repository the products are streamed from.
+     * @param productMapper     The mapper converting products to their API representation.
+     * @param readRouter        The router applying the read preference of exports.
+     * @param objectMapper      The mapper writing each product.
+     */
+    public ProductExportService(ProductRepository productRepository, ProductMapper productMapper,
+                                ReadRouter readRouter, ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.readRouter = readRouter;
+        this.writer = objectMapper.writer();
+    }
+
+    /**
+     * Writes every product to the given stream, one JSON object per line.
+     *
+     * @param output The stream the catalog is written to.
+     * @throws IOException If the stream cannot be written.
+     */
+    @Override
+    public void exportProducts(OutputStream output) throws IOException {
+        AtomicLong exported = new AtomicLong();
+        try {
+            readRouter.route(ReadOperation.EXPORT, () -> {
+                try (Stream<Product> products = productRepository.streamAllBy()) {
+                    products.forEach(product -> {
+                        write(output, product);
+                        exported.incrementAndGet();
+                    });
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            log.warn("Product export interrupted after {} products. Error Message: {}", exported.get(), ex.getMessage());
+            throw ex.getCause();
+        }
+        output.flush();
+        log.info("Exported {} products", exported.get());
+    }
+
+    private void write(OutputStream output, Product product) {
+        try {
+            output.write(writer.writeValueAsBytes(productMapper.productToProductResponseDTO(product)));
+            output.write(NEWLINE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.shop.microservices.product.Service.ServiceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.shop.microservices.product.Dto.JobResponseDTO;
+import com.shop.microservices.product.Dto.ProductImportErrorDTO;
+import com.shop.microservices.product.Dto.ProductImportReportDTO;
+import com.shop.microservices.product.Event.ProductChangeEvent;
+import com.shop.microservices.product.Exception.EntityCreationException;
+import com.shop.microservices.product.Exception.FieldValidationException;
+import com.shop.microservices.product.Identifier.IdGeneratorRegistry;
+import com.shop.microservices.product.Import.ProductImportFormat;
+import com.shop.microservices.product.Import.ProductImportRecord;
+import com.shop.microservices.product.Import.ProductRecordReader;
+import com.shop.microservices.product.Job.JobContext;
+import com.shop.microservices.product.Model.JobType;
+import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Repository.ProductRepository;
+import com.shop.microservices.product.Service.ServiceInterface.IJobService;
+import com.shop.microservices.product.Service.ServiceInterface.IProductImportService;
+import com.shop.microservices.product.Utils.ErrorMessageUtil;
+import com.shop.microservices.product.Utils.ProductValidationUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service streaming product catalogs (CSV or NDJSON) into the product collection.
+ * <p>
+ * The upload is parsed one record at a time, each record is validated with the same rules as
+ * {@link com.shop.microservices.product.Dto.ProductRequestDTO}, and valid products are collected into batches that
+ * are upserted by name with one unordered bulk write each. Batches are written on virtual threads while parsing
+ * continues, but at most {@code max-in-flight-batches} batches may be pending: once that limit is reached the
+ * parser blocks, which applies backpressure to the upload. Memory use is therefore bounded by the batch size and
+ * the in-flight limit, whatever the size of the file.
+ * </p>
+ * <p>
+ * Large catalogs can also be imported as a background job: the upload is first spooled to a temporary file, so the
+ * request completes as soon as the body is received, and the import then reports its progress and stops between
+ * two batches when the job is cancelled.
+ * </p>
+ */
+@Slf4j
+@Service
+public class ProductImportService implements IProductImportService {
+
+    // Duplicate key error, raised when two concurrent batches insert the same new name
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final ProductRepository productRepository;
+    private final ProductValidationUtil productValidationUtil;
+    private final ErrorMessageUtil errorMessageUtil;
+    private final IdGeneratorRegistry idGeneratorRegistry;
+    private final ObjectMapper objectMapper;
+    private final IJobService jobService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxInFlightBatches;
+    private final int maxReportedErrors;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Constructs the import service.
+     *
+     * @param productRepository     The repository used to upsert the imported products.
+     * @param productValidationUtil Utility validating the product fields.
+     * @param errorMessageUtil      Utility resolving the messages of rejected rows.
+     * @param idGeneratorRegistry   The registry generating the identifiers of inserted products.
+     * @param objectMapper          The mapper used to parse NDJSON records.
+     * @param jobService            The service running asynchronous imports.
+     * @param eventPublisher        The publisher of the {@link ProductChangeEvent} of each import.
+     * @param batchSize             The number of products per bulk upsert.
+     * @param maxInFlightBatches    The maximum number of batches written concurrently.
+     * @param maxReportedErrors     The maximum number of rejected rows listed in the report.
+     */
+    public ProductImportService(ProductRepository productRepository,
+                                ProductValidationUtil productValidationUtil,
+                                ErrorMessageUtil errorMessageUtil,
+                                IdGeneratorRegistry idGeneratorRegistry,
+                                ObjectMapper objectMapper,
+                                IJobService jobService,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${shop.import.batch-size:500}") int batchSize,
+                                @Value("${shop.import.max-in-flight-batches:4}") int maxInFlightBatches,
+                                @Value("${shop.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.productRepository = productRepository;
+        this.productValidationUtil = productValidationUtil;
+        this.errorMessageUtil = errorMessageUtil;
+        this.idGeneratorRegistry = idGeneratorRegistry;
+        this.objectMapper = objectMapper;
+        this.jobService = jobService;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxInFlightBatches = maxInFlightBatches;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Imports the products contained in the given content.
+     *
+     * @param content The uploaded catalog, read as a stream.
+     * @param format  The format of the content.
+     * @return A {@link ProductImportReportDTO} with the inserted, updated and rejected counts.
+     * @throws com.shop.microservices.product.Exception.InvalidInputException If the CSV header is invalid.
+     * @throws EntityCreationException If the upload cannot be read or the import is interrupted.
+     */
+    @Override
+    public ProductImportReportDTO importProducts(InputStream content, ProductImportFormat format) {
+        return importProducts(content, format, JobContext.NONE);
+    }
+
+    /**
+     * Imports the products contained in the given content, reporting progress to the given job context.
+     *
+     * @param content The uploaded catalog, read as a stream.
+     * @param format  The format of the content.
+     * @param context The context of the job running the import.
+     * @return A {@link ProductImportReportDTO} with the inserted, updated and rejected counts.
+     * @throws CancellationException If the job is cancelled; the batches already submitted are still written.
+     */
+    @Override
+    public ProductImportReportDTO importProducts(InputStream content, ProductImportFormat format, JobContext context) {
+        ImportRun run = new ImportRun();
+        Semaphore inFlight = new Semaphore(maxInFlightBatches);
+        long read = 0;
+
+        try (ProductRecordReader reader = format.open(content, objectMapper)) {
+            List<ImportRow> batch = new ArrayList<>(batchSize);
+            ProductImportRecord record;
+            while ((record = reader.next()) != null) {
+                read++;
+                Product product = toProduct(record, run);
+                if (product != null) {
+                    batch.add(new ImportRow(record.line(), product));
+                }
+                if (batch.size() == batchSize) {
+                    if (context.isCancelled()) {
+                        throw new CancellationException();
+                    }
+                    submit(batch, run, inFlight);
+                    batch = new ArrayList<>(batchSize);
+                    context.reportProgress(read, null);
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(batch, run, inFlight);
+            }
+            context.reportProgress(read, null);
+        } catch (IOException ex) {
+            log.error("Error reading the product import. Error Message: {}", ex.getMessage(), ex);
+            throw new EntityCreationException("prod.error.3121", ex);
+        } finally {
+            awaitBatches(inFlight);
+            if (run.inserted.get() > 0 || run.updated.get() > 0) {
+                eventPublisher.publishEvent(ProductChangeEvent.bulkChanged());
+            }
+        }
+
+        log.info("Product import finished: {} inserted, {} updated, {} rejected",
+                run.inserted.get(), run.updated.get(), run.rejected.get());
+        return run.toReport();
+    }
+
+    /**
+     * Spools the upload to a temporary file and imports it as a background job.
+     *
+     * @param content The uploaded catalog, read as a stream.
+     * @param format  The format of the content.
+     * @return The queued import job as {@link JobResponseDTO}; its result is the {@link ProductImportReportDTO}.
+     * @throws EntityCreationException If the upload cannot be stored.
+     */
+    @Override
+    public JobResponseDTO submitImport(InputStream content, ProductImportFormat format) {
+        Path upload = null;
+        try {
+            upload = Files.createTempFile("product-import-", ".upload");
+            Files.copy(content, upload, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            deleteUpload(upload);
+            log.error("Error storing the product import upload. Error Message: {}", ex.getMessage(), ex);
+            throw new EntityCreationException("prod.error.3121", ex);
+        }
+
+        Path spooled = upload;
+        try {
+            return jobService.submit(JobType.PRODUCT_IMPORT, context -> {
+                try (InputStream in = Files.newInputStream(spooled)) {
+                    return importProducts(in, format, context);
+                } catch (IOException ex) {
+                    throw new EntityCreationException("prod.error.3121", ex);
+                } finally {
+                    deleteUpload(spooled);
+                }
+            });
+        } catch (RuntimeException ex) {
+            deleteUpload(spooled);
+            throw ex;
+        }
+    }
+
+    private static void deleteUpload(Path upload) {
+        if (upload == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(upload);
+        } catch (IOException ex) {
+            log.warn("Could not delete the import upload {}. Error Message: {}", upload, ex.getMessage());
+        }
+    }
+
+    /**
+     * Converts a parsed record into a validated product, or rejects it.
+     *
+     * @return The product to upsert, or {@code null} if the record was rejected.
+     */
+    private Product toProduct(ProductImportRecord record, ImportRun run) {
+        if (record.isFailed()) {
+            run.reject(record.line(), errorMessageUtil.getErrorMessage(record.errorCode(), record.errorArgs()));
+            return null;
+        }
+        try {
+            BigDecimal price = parsePrice(record.price());
+            String name = record.name() == null ? null : record.name().trim();
+            productValidationUtil.validateProductFields(name, price);
+            return Product.builder()
+                    .id(idGeneratorRegistry.nextId(Product.class))
+                    .name(name)
+                    .description(record.description())
+                    .price(price)
+                    .build();
+        } catch (FieldValidationException ex) {
+            run.reject(record.line(), errorMessageUtil.getErrorMessage(ex.getErrorCode(), ex.getMessageArgs()));
+            return null;
+        }
+    }
+
+    private static BigDecimal parsePrice(String price) {
+        if (price == null || price.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(price.trim());
+        } catch (NumberFormatException ex) {
+            throw new FieldValidationException("prod.error.3122", new Object[]{price});
+        }
+    }
+
+    /**
+     * Hands a full batch to a virtual thread, blocking while the maximum number of batches is in flight.
+     */
+    private void submit(List<ImportRow> batch, ImportRun run, Semaphore inFlight) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new EntityCreationException("prod.error.3121", ex);
+        }
+        executor.execute(() -> {
+            try {
+                write(batch, run, true);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Waits until every submitted batch has been written.
+     */
+    private void awaitBatches(Semaphore inFlight) {
+        inFlight.acquireUninterruptibly(maxInFlightBatches);
+        inFlight.release(maxInFlightBatches);
+    }
+
+    /**
+     * Upserts a batch and records its outcome. Rows failing on a duplicate name, which happens when two
+     * concurrent batches insert the same new product, are retried once; by then the product exists and is updated.
+     */
+    private void write(List<ImportRow> batch, ImportRun run, boolean retryDuplicates) {
+        List<Product> products = batch.stream().map(ImportRow::product).toList();
+        try {
+            run.record(productRepository.upsertAllByName(products));
+        } catch (BulkOperationException ex) {
+            run.record(ex.getResult());
+            List<ImportRow> retries = new ArrayList<>();
+            for (BulkWriteError error : ex.getErrors()) {
+                ImportRow row = batch.get(error.getIndex());
+                if (retryDuplicates && error.getCode() == DUPLICATE_KEY_ERROR) {
+                    retries.add(row);
+                } else {
+                    run.reject(row.line(), errorMessageUtil.getErrorMessage("prod.error.3123", new Object[]{error.getMessage()}));
+                }
+            }
+            if (!retries.isEmpty()) {
+                write(retries, run, false);
+            }
+        } catch (DataAccessException ex) {
+            log.error("Error upserting an import batch of {} products. Error Message: {}", batch.size(), ex.getMessage(), ex);
+            String message = errorMessageUtil.getErrorMessage("prod.error.3123", new Object[]{ex.getMessage()});
+            batch.forEach(row -> run.reject(row.line(), message));
+        }
+    }
+
+    /**
+     * Shuts down the executor running the batch writes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * A validated product and the line it was read from.
+     */
+    private record ImportRow(long line, Product product) {
+    }
+
+    /**
+     * Thread-safe counters of a single import run.
+     */
+    private class ImportRun {
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final List<ProductImportErrorDTO> errors = new ArrayList<>();
+
+        void record(BulkWriteResult result) {
+            inserted.addAndGet(result.getUpserts().size());
+            updated.addAndGet(result.getMatchedCount());
+        }
+
+        void reject(long line, String message) {
+            rejected.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxReportedErrors) {
+                    errors.add(new ProductImportErrorDTO(line, message));
+                }
+            }
+        }
+
+        ProductImportReportDTO toReport() {
+            synchronized (errors) {
+                List<ProductImportErrorDTO> sorted = errors.stream()
+                        .sorted((a, b) -> Long.compare(a.line(), b.line()))
+                        .toList();
+                return new ProductImportReportDTO(inserted.get(), updated.get(), rejected.get(), sorted);
+            }
+        }
+    }
+}
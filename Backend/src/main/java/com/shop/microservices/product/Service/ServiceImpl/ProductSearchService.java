@@ -0,0 +1,252 @@
+package com.shop.microservices.product.Service.ServiceImpl;
+
+import com.shop.microservices.product.Dto.JobResponseDTO;
+import com.shop.microservices.product.Dto.PageResponseDTO;
+import com.shop.microservices.product.Dto.ProductResponseDTO;
+import com.shop.microservices.product.Dto.SearchReindexResponseDTO;
+import com.shop.microservices.product.Event.ProductChangeEvent;
+import com.shop.microservices.product.Exception.EntityCreationException;
+import com.shop.microservices.product.Exception.InvalidInputException;
+import com.shop.microservices.product.Job.JobContext;
+import com.shop.microservices.product.Model.JobType;
+import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Repository.ProductRepository;
+import com.shop.microservices.product.Routing.ReadOperation;
+import com.shop.microservices.product.Routing.ReadRouter;
+import com.shop.microservices.product.Search.ProductSearchIndex;
+import com.shop.microservices.product.Search.SearchMode;
+import com.shop.microservices.product.Service.ServiceInterface.IJobService;
+import com.shop.microservices.product.Service.ServiceInterface.IProductSearchService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Service searching the products through the embedded {@link ProductSearchIndex}, so searches never query MongoDB.
+ * <p>
+ * The index follows the product writes near-real-time: every {@link ProductChangeEvent} is applied to it as soon as
+ * it is published. Bulk changes, and an empty index on startup, trigger a rebuild, which runs as a
+ * {@link JobType#SEARCH_REINDEX} job: the collection is read through a cursor, as a {@link ReadOperation#SEARCH}
+ * read, and batches of products are indexed in parallel on virtual threads, at most {@code reindex.threads} at a time.
+ * </p>
+ */
+@Slf4j
+@Service
+public class ProductSearchService implements IProductSearchService {
+
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductRepository productRepository;
+    private final IJobService jobService;
+    private final ReadRouter readRouter;
+    private final int maxPageSize;
+    private final int reindexBatchSize;
+    private final int reindexThreads;
+    // Set while a rebuild is submitted but not started, so bursts of bulk changes queue a single rebuild
+    private final AtomicBoolean reindexQueued = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Constructs the search service.
+     *
+     * @param productSearchIndex The index the searches are answered from.
+     * @param productRepository  The repository the index is rebuilt from.
+     * @param jobService         The service running the rebuilds.
+     * @param readRouter         The router applying the read preference of the rebuilds.
+     * @param maxPageSize        The maximum number of products per page.
+     * @param reindexBatchSize   The number of products indexed per batch during a rebuild.
+     * @param reindexThreads     The maximum number of batches indexed concurrently during a rebuild.
+     */
+    public ProductSearchService(ProductSearchIndex productSearchIndex,
+                                ProductRepository productRepository,
+                                IJobService jobService,
+                                ReadRouter readRouter,
+                                @Value("${shop.search.max-page-size:100}") int maxPageSize,
+                                @Value("${shop.search.reindex.batch-size:1000}") int reindexBatchSize,
+                                @Value("${shop.search.reindex.threads:4}") int reindexThreads) {
+        this.productSearchIndex = productSearchIndex;
+        this.productRepository = productRepository;
+        this.jobService = jobService;
+        this.readRouter = readRouter;
+        this.maxPageSize = maxPageSize;
+        this.reindexBatchSize = reindexBatchSize;
+        this.reindexThreads = reindexThreads;
+    }
+
+    /**
+     * Searches the products by name and description.
+     *
+     * @param query    The text to search for.
+     * @param mode     How the terms of the text are matched, {@link SearchMode#AUTO} if {@code null}.
+     * @param minPrice The minimum price, inclusive, or {@code null}.
+     * @param maxPrice The maximum price, inclusive, or {@code null}.
+     * @param page     The page number (0-based index).
+     * @param size     The page size.
+     * @return The requested page of the matching products, best matches first.
+     * @throws InvalidInputException   If the query is blank, the price range or the pagination invalid.
+     * @throws EntityCreationException If the index cannot be read.
+     */
+    @Override
+    public PageResponseDTO<ProductResponseDTO> searchProducts(String query, SearchMode mode, BigDecimal minPrice,
+                                                              BigDecimal maxPrice, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidInputException("prod.error.4000");
+        }
+        if ((minPrice != null && minPrice.signum() < 0) || (maxPrice != null && maxPrice.signum() < 0)
+                || (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0)) {
+            throw new InvalidInputException("prod.error.4001");
+        }
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new InvalidInputException("prod.error.4002");
+        }
+
+        try {
+            return PageResponseDTO.of(productSearchIndex.search(query, mode == null ? SearchMode.AUTO : mode, minPrice, maxPrice, page, size));
+        } catch (IOException ex) {
+            log.error("Error while searching products. Error Message: {}, Query: {}", ex.getMessage(), query, ex);
+            throw new EntityCreationException("prod.error.4003", ex);
+        }
+    }
+
+    /**
+     * Rebuilds the search index from the product collection as a background job.
+     *
+     * @return The queued job as {@link JobResponseDTO}; its result is the {@link SearchReindexResponseDTO}.
+     */
+    @Override
+    public JobResponseDTO submitReindex() {
+        reindexQueued.set(true);
+        return jobService.submit(JobType.SEARCH_REINDEX, this::reindex);
+    }
+
+    /**
+     * Applies a product change to the index.
+     * <p>
+     * The change is already written, so a failure is only logged; the product is corrected by the next rebuild.
+     * </p>
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        try {
+            switch (event.type()) {
+                case CREATED, UPDATED -> productSearchIndex.index(event.product());
+                case DELETED -> productSearchIndex.delete(event.productId());
+                case BULK_CHANGED -> requestReindex();
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Product search index not updated after a {} change of {}: {}", event.type(), event.productId(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Builds the index on startup when it is empty, e.g. on a fresh instance.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildEmptyIndex() {
+        if (productSearchIndex.isEmpty()) {
+            log.info("Product search index is empty, rebuilding it from the collection");
+            requestReindex();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Submits a rebuild unless one is already waiting to start. Submitted off the calling thread, as the job is
+     * persisted in MongoDB.
+     */
+    private void requestReindex() {
+        if (reindexQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    jobService.submit(JobType.SEARCH_REINDEX, this::reindex);
+                } catch (RuntimeException ex) {
+                    reindexQueued.set(false);
+                    log.warn("Product search index rebuild could not be submitted: {}", ex.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Re-indexes every product of the collection, indexing batches in parallel.
+     */
+    private SearchReindexResponseDTO reindex(JobContext context) {
+        reindexQueued.set(false);
+        productSearchIndex.beginRebuild();
+        AtomicLong indexed = new AtomicLong();
+        AtomicReference<IOException> failure = new AtomicReference<>();
+        Semaphore inFlight = new Semaphore(reindexThreads);
+        boolean completed = false;
+        try {
+            readRouter.route(ReadOperation.SEARCH, () -> {
+                long total = productRepository.count();
+                try (Stream<Product> products = productRepository.streamAllBy()) {
+                    Iterator<Product> iterator = products.iterator();
+                    while (iterator.hasNext() && failure.get() == null) {
+                        if (context.isCancelled()) {
+                            throw new CancellationException();
+                        }
+                        List<Product> batch = new ArrayList<>(reindexBatchSize);
+                        while (iterator.hasNext() && batch.size() < reindexBatchSize) {
+                            batch.add(iterator.next());
+                        }
+                        inFlight.acquireUninterruptibly();
+                        executor.execute(() -> {
+                            try {
+                                productSearchIndex.indexAll(batch);
+                                indexed.addAndGet(batch.size());
+                            } catch (IOException ex) {
+                                failure.compareAndSet(null, ex);
+                            } finally {
+                                inFlight.release();
+                            }
+                        });
+                        // Reported from the job thread, the context is not shared between threads
+                        context.reportProgress(indexed.get(), total);
+                    }
+                } finally {
+                    inFlight.acquireUninterruptibly(reindexThreads);
+                    inFlight.release(reindexThreads);
+                }
+            });
+            if (failure.get() != null) {
+                throw new UncheckedIOException(failure.get());
+            }
+            long documents = productSearchIndex.completeRebuild();
+            completed = true;
+            return new SearchReindexResponseDTO(indexed.get(), documents);
+        } catch (IOException | UncheckedIOException ex) {
+            log.error("Error while rebuilding the product search index. Error Message: {}", ex.getMessage(), ex);
+            throw new EntityCreationException("prod.error.4004", ex);
+        } finally {
+            if (!completed) {
+                productSearchIndex.abortRebuild();
+            }
+        }
+    }
+}
@@ -1,19 +1,38 @@
 package com.shop.microservices.product.Service.ServiceImpl;
 
 import com.mongodb.MongoException;
+import com.mongodb.client.result.UpdateResult;
+import com.shop.microservices.product.Catalog.CatalogCache;
+import com.shop.microservices.product.Dto.BulkPriceAdjustmentRequestDTO;
+import com.shop.microservices.product.Dto.BulkPriceAdjustmentResponseDTO;
+import com.shop.microservices.product.Dto.JobResponseDTO;
+import com.shop.microservices.product.Dto.PageResponseDTO;
 import com.shop.microservices.product.Dto.ProductRequestDTO;
 import com.shop.microservices.product.Dto.ProductResponseDTO;
+import com.shop.microservices.product.Event.ProductChangeEvent;
 import com.shop.microservices.product.Exception.EntityCreationException;
 import com.shop.microservices.product.Exception.InvalidInputException;
 import com.shop.microservices.product.Exception.ResourceNotFoundException;
 import com.shop.microservices.product.Exception.UniqueConstraintViolationException;
 import com.shop.microservices.product.Mapper.ProductMapper;
+import com.shop.microservices.product.Model.JobType;
+import com.shop.microservices.product.Service.ServiceInterface.IJobService;
 import com.shop.microservices.product.Service.ServiceInterface.IProductService;
+import com.shop.microservices.product.Model.PriceAdjustmentType;
 import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Popularity.ProductViewCounter;
+import com.shop.microservices.product.Popularity.TrendingProducts;
+import com.shop.microservices.product.ReadModel.ProductListingView;
 import com.shop.microservices.product.Repository.ProductRepository;
+import com.shop.microservices.product.Routing.ReadOperation;
+import com.shop.microservices.product.Routing.ReadRouter;
+import com.shop.microservices.product.Utils.BatchLoader;
 import com.shop.microservices.product.Utils.ProductValidationUtil;
+import com.shop.microservices.product.Utils.SingleFlight;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -21,6 +40,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.validation.Valid;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 
@@ -36,6 +57,17 @@ public class ProductService implements IProductService {
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final ProductValidationUtil productValidationUtil;
+    private final IJobService jobService;
+    private final BatchLoader<UUID, Product> productBatchLoader;
+    private final ReadRouter readRouter;
+    private final ProductListingView productListingView;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogCache catalogCache;
+    private final ProductViewCounter productViewCounter;
+    private final TrendingProducts trendingProducts;
+    // Concurrent lookups of the same product share one database call
+    private final SingleFlight<UUID, Optional<Product>> productsById = new SingleFlight<>();
+    private final SingleFlight<String, Product> productsByName = new SingleFlight<>();
 
     /**
      * Constructs the {@link ProductService} class with the necessary dependencies.
@@ -46,12 +78,32 @@ public class ProductService implements IProductService {
      * @param productRepository     The repository to interact with the MongoDB database for product data.
      * @param productMapper         The mapper to convert product entities to DTOs and vice versa.
      * @param productValidationUtil Utility class for validating product data, including name uniqueness.
+     * @param jobService            The service running long operations as background jobs.
+     * @param productBatchLoader    The loader merging concurrent lookups by ID into batched queries.
+     * @param readRouter            The router applying the read preference of listings.
+     * @param productListingView    The materialized first pages of the default listing.
+     * @param eventPublisher        The publisher of the {@link ProductChangeEvent}s.
+     * @param catalogCache          The in-memory catalog the lookups by ID are served from.
+     * @param productViewCounter    The counter of the product views.
+     * @param trendingProducts      The tracker of the products viewed most recently.
      */
     @Autowired
-    public ProductService(ProductRepository productRepository, ProductMapper productMapper, ProductValidationUtil productValidationUtil) {
+    public ProductService(ProductRepository productRepository, ProductMapper productMapper, ProductValidationUtil productValidationUtil,
+                          IJobService jobService, BatchLoader<UUID, Product> productBatchLoader, ReadRouter readRouter,
+                          ProductListingView productListingView, ApplicationEventPublisher eventPublisher,
+                          CatalogCache catalogCache, ProductViewCounter productViewCounter,
+                          TrendingProducts trendingProducts) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
         this.productValidationUtil = productValidationUtil;
+        this.jobService = jobService;
+        this.productBatchLoader = productBatchLoader;
+        this.readRouter = readRouter;
+        this.productListingView = productListingView;
+        this.eventPublisher = eventPublisher;
+        this.catalogCache = catalogCache;
+        this.productViewCounter = productViewCounter;
+        this.trendingProducts = trendingProducts;
     }
 
     /**
@@ -80,6 +132,7 @@ public class ProductService implements IProductService {
             Product savedProduct = productRepository.save(product);
 
             log.info("Product created with ID: {}", savedProduct.getId());
+            eventPublisher.publishEvent(ProductChangeEvent.created(savedProduct));
 
             // Map the saved product back to a DTO and return it
             return productMapper.productToProductResponseDTO(savedProduct);
@@ -99,24 +152,39 @@ public class ProductService implements IProductService {
      * Retrieves a paginated list of products from the database. Each product is transformed
      * into a ProductResponseDTO for the response. If no products are found, a
      * {@link ResourceNotFoundException} is thrown.
+     * <p>
+     * Products are listed in the {@link ProductListingView#DEFAULT_ORDER default order}. The first pages are
+     * served from the {@link ProductListingView} without querying the database.
+     * </p>
      *
      * @param page The page number to retrieve (0-based index).
      * @param size The number of products to include per page.
-     * @return A Page object containing a list of {@link ProductResponseDTO} objects and pagination metadata.
+     * @return A {@link PageResponseDTO} of {@link ProductResponseDTO} objects and pagination metadata; products read from
+     *         the database are mapped while the response is written.
      * @throws ResourceNotFoundException If no products are found in the database.
      * @throws EntityCreationException If an error occurs during product retrieval, such as a database issue.
      */
-    public Page<ProductResponseDTO> getAllProducts(int page, int size) {
+    public PageResponseDTO<ProductResponseDTO> getAllProducts(int page, int size) {
         try {
-            // Fetch paginated products
-            Page<Product> productPage = productRepository.findAll(PageRequest.of(page, size));
+            // Serve the first pages from the materialized view, already mapped
+            Page<ProductResponseDTO> materializedPage = productListingView.page(page, size).orElse(null);
+            if (materializedPage != null) {
+                if (materializedPage.isEmpty()) {
+                    throw new ResourceNotFoundException("prod.error.3104");
+                }
+                return PageResponseDTO.of(materializedPage);
+            }
+
+            // Fetch paginated products, from a secondary if listings are routed there
+            Page<Product> productPage = readRouter.route(ReadOperation.LIST,
+                    () -> productRepository.findAll(PageRequest.of(page, size, ProductListingView.DEFAULT_ORDER)));
 
             if (productPage.isEmpty()) {
                 throw new ResourceNotFoundException("prod.error.3104");
             }
 
-            // Convert each Product to a ProductResponseDTO and return the page
-            return productPage.map(productMapper::productToProductResponseDTO);
+            // Each Product is converted to a ProductResponseDTO when the page is written
+            return PageResponseDTO.of(productPage, productMapper::productToProductResponseDTO);
 
         } catch (MongoException ex) {
             log.error("MongoDB error occurred while retrieving products. Error Message: {}", ex.getMessage(), ex);
@@ -127,6 +195,42 @@ public class ProductService implements IProductService {
         }
     }
 
+    /**
+     * Retrieves the products following the given one in the listing order.
+     * <p>
+     * The page is read with a range scan of the {@code _id} index starting after the given ID, so every page costs the
+     * same however deep into the catalog it is, unlike an offset that skips all the preceding products.
+     * </p>
+     *
+     * @param afterIdStr The ID of the last product already received, or {@code null} or empty to start with the first one.
+     * @param size       The maximum number of products to return, at least 1.
+     * @return The next products in the listing order.
+     * @throws InvalidInputException   If the ID is not a valid UUID.
+     * @throws EntityCreationException If an error occurs during product retrieval, such as a database issue.
+     */
+    @Override
+    public List<ProductResponseDTO> getProductsAfter(String afterIdStr, int size) {
+        UUID afterId = null;
+        if (afterIdStr != null && !afterIdStr.isEmpty()) {
+            try {
+                afterId = UUID.fromString(afterIdStr);
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidInputException("prod.error.3110");
+            }
+        }
+
+        UUID after = afterId;
+        try {
+            List<Product> products = readRouter.route(ReadOperation.LIST, () -> after == null
+                    ? productRepository.findAllByOrderByIdAsc(Limit.of(size))
+                    : productRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size)));
+            return products.stream().map(productMapper::productToProductResponseDTO).toList();
+        } catch (MongoException ex) {
+            log.error("MongoDB error occurred while retrieving products. Error Message: {}", ex.getMessage(), ex);
+            throw new EntityCreationException("prod.error.3106", ex);
+        }
+    }
+
     /**
      * Retrieves a product by its ID.
      * <p>
@@ -154,9 +258,15 @@ public class ProductService implements IProductService {
             throw new InvalidInputException("prod.error.3110");
         }
 
-        // Fetch product by ID or throw a custom exception
-        Product retrievedProduct = productRepository.findById(productId)
+        // Serve the product from the catalog cache if the database still holds the cached version, or fetch it by ID,
+        // sharing the call with concurrent lookups of the same ID and batching it with concurrent lookups of other IDs,
+        // or throw a custom exception
+        Product retrievedProduct = catalogCache.product(productId)
+                .filter(this::isCurrent)
+                .or(() -> productsById.execute(productId, () -> Optional.ofNullable(productBatchLoader.load(productId))))
                 .orElseThrow(() -> new ResourceNotFoundException("prod.error.3105", productId));
+        productViewCounter.record(productId);
+        trendingProducts.record(productId);
 
         // Map the product entity to DTO
         return productMapper.productToProductResponseDTO(retrievedProduct);
@@ -182,7 +292,11 @@ public class ProductService implements IProductService {
         }
 
         // Fetch product by name or throw a custom exception if not found
-        Product retrievedProduct = productRepository.findByName(productName);
+        Product retrievedProduct = productsByName.execute(productName, () -> productRepository.findByName(productName));
+        if (retrievedProduct != null) {
+            productViewCounter.record(retrievedProduct.getId());
+            trendingProducts.record(retrievedProduct.getId());
+        }
 
         // Map the product entity to DTO
         return productMapper.productToProductResponseDTO(retrievedProduct);
@@ -203,6 +317,7 @@ public class ProductService implements IProductService {
      * @throws ResourceNotFoundException If the product with the given ID does not exist.
      */
     @Override
+    @Transactional
     public ProductResponseDTO updateProduct(String productIdStr, ProductRequestDTO productRequest) {
         // Validate string input
         if (productIdStr == null || productIdStr.trim().isEmpty()) {
@@ -238,6 +353,7 @@ public class ProductService implements IProductService {
         }
         // Save the updated product to the database
         Product updatedProduct = productRepository.save(existingProduct);
+        eventPublisher.publishEvent(ProductChangeEvent.updated(updatedProduct));
 
         // Map the updated product entity to a response DTO
         return productMapper.productToProductResponseDTO(updatedProduct);
@@ -259,6 +375,7 @@ public class ProductService implements IProductService {
      * @throws MongoException             If an error occurs during the deletion process, it will be handled globally.
      */
     @Override
+    @Transactional
     public void deleteProduct(String productIdStr) {
 
         // Validate string input
@@ -280,12 +397,114 @@ public class ProductService implements IProductService {
 
         // Delete the product from the database.
         productRepository.delete(existingProduct);
+        eventPublisher.publishEvent(ProductChangeEvent.deleted(productId));
 
         // Log the successful deletion of the product for audit and tracking purposes.
         log.info("Product with ID: {} successfully deleted", productId);
     }
 
 
+    /**
+     * Adjusts the price of every product matching the request filters.
+     * <p>
+     * The adjustment is applied server-side by a single {@code updateMany}, so no product is read or written
+     * individually. Products whose adjusted price would not be positive are left unchanged, in line with the rule
+     * enforced by {@link Product#setPrice(BigDecimal)}.
+     * </p>
+     *
+     * @param adjustmentRequest The DTO containing the filters and the adjustment to apply.
+     * @return A {@link BulkPriceAdjustmentResponseDTO} with the matched and modified counts.
+     * @throws InvalidInputException If the request is null, incomplete, has no filter or an invalid adjustment.
+     */
+    @Override
+    public BulkPriceAdjustmentResponseDTO adjustPrices(BulkPriceAdjustmentRequestDTO adjustmentRequest) {
+        validatePriceAdjustmentRequest(adjustmentRequest);
+
+        UpdateResult result = productRepository.adjustPrices(
+                adjustmentRequest.getProductIds(),
+                adjustmentRequest.getMinPrice(),
+                adjustmentRequest.getMaxPrice(),
+                adjustmentRequest.getNamePrefix(),
+                adjustmentRequest.getAdjustmentType(),
+                adjustmentRequest.getValue());
+
+        log.info("Bulk price adjustment {} {} matched {} products and modified {}",
+                adjustmentRequest.getAdjustmentType(), adjustmentRequest.getValue(),
+                result.getMatchedCount(), result.getModifiedCount());
+        if (result.getModifiedCount() > 0) {
+            eventPublisher.publishEvent(ProductChangeEvent.bulkChanged());
+        }
+
+        return new BulkPriceAdjustmentResponseDTO(result.getMatchedCount(), result.getModifiedCount());
+    }
+
+    /**
+     * Validates a bulk price adjustment and runs it as a background job.
+     * <p>
+     * The request is validated before the job is submitted, so invalid requests are still rejected immediately.
+     * The adjustment itself is a single {@code updateMany}: a cancellation only takes effect while the job is queued.
+     * </p>
+     *
+     * @param adjustmentRequest The DTO containing the filters and the adjustment to apply.
+     * @return The queued job as {@link JobResponseDTO}; its result is the {@link BulkPriceAdjustmentResponseDTO}.
+     * @throws InvalidInputException If the request is null, incomplete, has no filter or an invalid adjustment.
+     */
+    @Override
+    public JobResponseDTO submitPriceAdjustment(BulkPriceAdjustmentRequestDTO adjustmentRequest) {
+        validatePriceAdjustmentRequest(adjustmentRequest);
+
+        return jobService.submit(JobType.PRICE_ADJUSTMENT, context -> {
+            BulkPriceAdjustmentResponseDTO response = adjustPrices(adjustmentRequest);
+            context.reportProgress(response.modifiedCount(), response.matchedCount());
+            return response;
+        });
+    }
+
+    /**
+     * Checks that the database still holds the cached version of a product, reading its modification time only: the
+     * product may have been modified or deleted by another instance since the catalog cache last synchronized.
+     *
+     * @param cached The cached product.
+     * @return {@code true} if the product exists and was not modified since it was cached.
+     */
+    private boolean isCurrent(Product cached) {
+        // The database holds the modification time to the millisecond, a product cached from a local write to the
+        // microsecond
+        return cached.getLastModified() != null && productRepository.findLastModifiedById(cached.getId())
+                .map(current -> current.getLastModified() != null
+                        && current.getLastModified().toEpochMilli() == cached.getLastModified().toEpochMilli())
+                .orElse(false);
+    }
+
+    /**
+     * Validates a bulk price adjustment request.
+     *
+     * @param adjustmentRequest The request to validate.
+     * @throws InvalidInputException If the request is null, incomplete, has no filter or an invalid adjustment.
+     */
+    private void validatePriceAdjustmentRequest(BulkPriceAdjustmentRequestDTO adjustmentRequest) {
+        if (adjustmentRequest == null) {
+            throw new InvalidInputException("prod.error.3111");
+        }
+        if (adjustmentRequest.getAdjustmentType() == null || adjustmentRequest.getValue() == null) {
+            throw new InvalidInputException("prod.error.3112");
+        }
+        if (adjustmentRequest.getAdjustmentType() == PriceAdjustmentType.PERCENTAGE
+                && adjustmentRequest.getValue().compareTo(BigDecimal.valueOf(-100)) <= 0) {
+            throw new InvalidInputException("prod.error.3113");
+        }
+
+        boolean hasIds = adjustmentRequest.getProductIds() != null && !adjustmentRequest.getProductIds().isEmpty();
+        boolean hasPrefix = adjustmentRequest.getNamePrefix() != null && !adjustmentRequest.getNamePrefix().isEmpty();
+        if (!hasIds && !hasPrefix && adjustmentRequest.getMinPrice() == null && adjustmentRequest.getMaxPrice() == null) {
+            throw new InvalidInputException("prod.error.3114");
+        }
+        if (adjustmentRequest.getMinPrice() != null && adjustmentRequest.getMaxPrice() != null
+                && adjustmentRequest.getMinPrice().compareTo(adjustmentRequest.getMaxPrice()) > 0) {
+            throw new InvalidInputException("prod.error.3115");
+        }
+    }
+
     /**
      * Validates the product request to ensure the product name is unique.
      * If the name already exists in the database, a {@link UniqueConstraintViolationException} is thrown.
@@ -0,0 +1,103 @@
+package com.shop.microservices.product.Service.ServiceImpl;
+
+import com.mongodb.MongoException;
+import com.shop.microservices.product.Catalog.CatalogCache;
+import com.shop.microservices.product.Dto.TrendingProductDTO;
+import com.shop.microservices.product.Exception.InvalidInputException;
+import com.shop.microservices.product.Mapper.ProductMapper;
+import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Popularity.TrendingProducts;
+import com.shop.microservices.product.Repository.ProductRepository;
+import com.shop.microservices.product.Service.ServiceInterface.ITrendingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Service listing the products trending now, from the {@link TrendingProducts} tracker fed by the product lookups.
+ * <p>
+ * The list is rebuilt every {@code shop.trending.refresh-interval-ms}: the ranking is read, and the ranked products
+ * are resolved from the {@link CatalogCache}, or with one query for those it misses. Requests are served from the
+ * last list built, so their cost does not depend on the traffic counted nor on the database.
+ * </p>
+ */
+@Slf4j
+@Service
+public class TrendingService implements ITrendingService {
+
+    private final TrendingProducts trendingProducts;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final CatalogCache catalogCache;
+    // Immutable, replaced by each refresh
+    private volatile List<TrendingProductDTO> trending = List.of();
+
+    /**
+     * Constructs the trending service.
+     *
+     * @param trendingProducts  The tracker ranking the viewed products.
+     * @param productRepository The repository the products missing from the cache are read from.
+     * @param productMapper     The mapper converting the products to DTOs.
+     * @param catalogCache      The in-memory catalog the products are resolved from.
+     */
+    public TrendingService(TrendingProducts trendingProducts, ProductRepository productRepository,
+                           ProductMapper productMapper, CatalogCache catalogCache) {
+        this.trendingProducts = trendingProducts;
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.catalogCache = catalogCache;
+    }
+
+    /**
+     * Returns the products trending now, as of the last refresh.
+     *
+     * @param limit The maximum number of products.
+     * @return The products, most viewed first.
+     * @throws InvalidInputException If the limit is not between 1 and the number of products tracked.
+     */
+    @Override
+    public List<TrendingProductDTO> getTrendingProducts(int limit) {
+        if (limit < 1 || limit > trendingProducts.size()) {
+            throw new InvalidInputException("prod.error.4200");
+        }
+        List<TrendingProductDTO> current = trending;
+        return current.subList(0, Math.min(limit, current.size()));
+    }
+
+    /**
+     * Rebuilds the list from the ranking. Products that cannot be resolved, e.g. just deleted, are left out.
+     */
+    @Scheduled(fixedDelayString = "${shop.trending.refresh-interval-ms:1000}")
+    public void refresh() {
+        List<TrendingProducts.Trend> trends = trendingProducts.top();
+        Map<UUID, Product> products = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (TrendingProducts.Trend trend : trends) {
+            catalogCache.product(trend.productId()).ifPresentOrElse(
+                    product -> products.put(product.getId(), product), () -> missing.add(trend.productId()));
+        }
+        try {
+            if (!missing.isEmpty()) {
+                productRepository.findAllById(missing).forEach(product -> products.put(product.getId(), product));
+            }
+        } catch (DataAccessException | MongoException ex) {
+            log.warn("Trending products could not be read, the list may be stale: {}", ex.getMessage());
+            return;
+        }
+        List<TrendingProductDTO> refreshed = new ArrayList<>(trends.size());
+        for (TrendingProducts.Trend trend : trends) {
+            Product product = products.get(trend.productId());
+            if (product != null) {
+                refreshed.add(new TrendingProductDTO(productMapper.productToProductResponseDTO(product), Math.round(trend.views())));
+            }
+        }
+        trending = List.copyOf(refreshed);
+    }
+}
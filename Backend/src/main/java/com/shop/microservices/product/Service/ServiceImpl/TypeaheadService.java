@@ -0,0 +1,245 @@
+package com.shop.microservices.product.Service.ServiceImpl;
+
+import com.mongodb.MongoException;
+import com.shop.microservices.product.Catalog.CatalogCache;
+import com.shop.microservices.product.Dto.TypeaheadSuggestionDTO;
+import com.shop.microservices.product.Event.CatalogLoadedEvent;
+import com.shop.microservices.product.Event.CategoryChangeEvent;
+import com.shop.microservices.product.Event.ChangeType;
+import com.shop.microservices.product.Event.MaterialChangeEvent;
+import com.shop.microservices.product.Event.ProductChangeEvent;
+import com.shop.microservices.product.Exception.InvalidInputException;
+import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Repository.CategoryRepository;
+import com.shop.microservices.product.Repository.MaterialRepository;
+import com.shop.microservices.product.Repository.ProductRepository;
+import com.shop.microservices.product.Routing.ReadOperation;
+import com.shop.microservices.product.Routing.ReadRouter;
+import com.shop.microservices.product.Service.ServiceInterface.ITypeaheadService;
+import com.shop.microservices.product.Typeahead.Popularity;
+import com.shop.microservices.product.Typeahead.Suggestion;
+import com.shop.microservices.product.Typeahead.SuggestionType;
+import com.shop.microservices.product.Typeahead.TypeaheadIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Service suggesting catalog names from the in-memory {@link TypeaheadIndex}.
+ * <p>
+ * The index is rebuilt in the background from the product, category and material repositories every
+ * {@code shop.typeahead.refresh-interval-ms}, which also refreshes the popularity weights, and updated incrementally
+ * from the change events of the three entities in between. The weights are the view counts of the products, as last
+ * read by the {@code ProductViewPopularity}. Once more than {@code shop.typeahead.max-pending-changes}
+ * changes are pending they are folded into the prefix index in the background, which keeps lookups fast.
+ * </p>
+ * <p>
+ * When the {@link CatalogCache} is enabled the names are read from it rather than from the repositories: rebuilds
+ * wait for it to be loaded, and the first one runs on the thread that loaded it, so the index is built when the
+ * startup warm-up of the catalog completes.
+ * </p>
+ */
+@Slf4j
+@Service
+public class TypeaheadService implements ITypeaheadService {
+
+    private final TypeaheadIndex typeaheadIndex;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final MaterialRepository materialRepository;
+    private final ReadRouter readRouter;
+    private final CatalogCache catalogCache;
+    private final Popularity popularity;
+    private final int maxLimit;
+    private final int maxPendingChanges;
+    // Set while a rebuild or a compaction is waiting to run, so bursts of changes start a single one
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final AtomicBoolean compactionQueued = new AtomicBoolean();
+
+    /**
+     * Constructs the typeahead service.
+     *
+     * @param typeaheadIndex     The index the suggestions are served from.
+     * @param productRepository  The repository the product names are read from.
+     * @param categoryRepository The repository the category names are read from.
+     * @param materialRepository The repository the material names are read from.
+     * @param readRouter         The router applying the read preference of the rebuilds.
+     * @param catalogCache       The in-memory catalog the names are read from once loaded.
+     * @param popularity         The source of the popularity weights, the product views.
+     * @param maxLimit           The maximum number of suggestions per request.
+     * @param maxPendingChanges  The number of incremental changes above which they are folded into the index.
+     */
+    public TypeaheadService(TypeaheadIndex typeaheadIndex,
+                            ProductRepository productRepository,
+                            CategoryRepository categoryRepository,
+                            MaterialRepository materialRepository,
+                            ReadRouter readRouter,
+                            CatalogCache catalogCache,
+                            Popularity popularity,
+                            @Value("${shop.typeahead.max-limit:20}") int maxLimit,
+                            @Value("${shop.typeahead.max-pending-changes:1000}") int maxPendingChanges) {
+        this.typeaheadIndex = typeaheadIndex;
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.materialRepository = materialRepository;
+        this.readRouter = readRouter;
+        this.catalogCache = catalogCache;
+        this.popularity = popularity;
+        this.maxLimit = maxLimit;
+        this.maxPendingChanges = maxPendingChanges;
+    }
+
+    /**
+     * Suggests the most popular names whose name, or one of its words, starts with a prefix.
+     *
+     * @param prefix The typed prefix.
+     * @param limit  The maximum number of suggestions.
+     * @param types  The kinds of entities to suggest.
+     * @return The suggestions, most popular first.
+     * @throws InvalidInputException If the prefix is blank or the limit invalid.
+     */
+    @Override
+    public List<TypeaheadSuggestionDTO> suggest(String prefix, int limit, Set<SuggestionType> types) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new InvalidInputException("prod.error.4100");
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new InvalidInputException("prod.error.4101");
+        }
+        return typeaheadIndex.suggest(prefix, limit, types).stream()
+                .map(suggestion -> new TypeaheadSuggestionDTO(suggestion.name(), suggestion.type(), suggestion.id()))
+                .toList();
+    }
+
+    /**
+     * Rebuilds the index from the repositories.
+     */
+    @Scheduled(fixedDelayString = "${shop.typeahead.refresh-interval-ms:300000}")
+    public void rebuild() {
+        rebuildQueued.set(false);
+        if (catalogCache.isEnabled() && !catalogCache.isWarm()) {
+            // Built once the catalog is loaded, rather than by reading the whole collections
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            typeaheadIndex.rebuild(() -> readRouter.route(ReadOperation.SEARCH, this::readSuggestions));
+            log.info("Typeahead index rebuilt in {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (DataAccessException | MongoException ex) {
+            log.warn("Typeahead index could not be rebuilt, suggestions may be stale: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Builds the index once the catalog cache is loaded.
+     *
+     * @param event The loading of the catalog.
+     */
+    @EventListener
+    public void onCatalogLoaded(CatalogLoadedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Applies a product change to the index.
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (event.type() == ChangeType.BULK_CHANGED) {
+            requestRebuild();
+        } else {
+            apply(event.type(), SuggestionType.PRODUCT, event.productId(), event.product() == null ? null : event.product().getName());
+        }
+    }
+
+    /**
+     * Applies a category change to the index.
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChange(CategoryChangeEvent event) {
+        apply(event.type(), SuggestionType.CATEGORY, event.categoryId(), event.category() == null ? null : event.category().getName());
+    }
+
+    /**
+     * Applies a material change to the index.
+     *
+     * @param event The change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMaterialChange(MaterialChangeEvent event) {
+        apply(event.type(), SuggestionType.MATERIAL, event.materialId(), event.material() == null ? null : event.material().getMaterialName());
+    }
+
+    /**
+     * Records a change in the index. The change is already written, so a failure is only logged; the entity is
+     * corrected by the next rebuild.
+     */
+    private void apply(ChangeType type, SuggestionType suggestionType, UUID id, String name) {
+        try {
+            if (type == ChangeType.DELETED) {
+                typeaheadIndex.remove(suggestionType, id);
+            } else {
+                typeaheadIndex.put(suggestion(suggestionType, id, name));
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Typeahead index not updated after a {} change of {} {}: {}", type, suggestionType, id, ex.getMessage());
+            return;
+        }
+        if (typeaheadIndex.pendingChanges() > maxPendingChanges && compactionQueued.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("typeahead-compaction").start(() -> {
+                compactionQueued.set(false);
+                typeaheadIndex.compact();
+            });
+        }
+    }
+
+    private void requestRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("typeahead-rebuild").start(this::rebuild);
+        }
+    }
+
+    /**
+     * Reads the names of every product, category and material, from the catalog cache when it is loaded.
+     */
+    private List<Suggestion> readSuggestions() {
+        List<Suggestion> suggestions = new ArrayList<>();
+        if (catalogCache.isWarm()) {
+            catalogCache.products().forEach(product ->
+                    suggestions.add(suggestion(SuggestionType.PRODUCT, product.getId(), product.getName())));
+            catalogCache.categories().forEach(category ->
+                    suggestions.add(suggestion(SuggestionType.CATEGORY, category.getCategoryId(), category.getName())));
+            catalogCache.materials().forEach(material ->
+                    suggestions.add(suggestion(SuggestionType.MATERIAL, material.getMaterialId(), material.getMaterialName())));
+            return suggestions;
+        }
+        try (Stream<Product> products = productRepository.streamAllBy()) {
+            products.forEach(product -> suggestions.add(suggestion(SuggestionType.PRODUCT, product.getId(), product.getName())));
+        }
+        categoryRepository.findAll().forEach(category ->
+                suggestions.add(suggestion(SuggestionType.CATEGORY, category.getCategoryId(), category.getName())));
+        materialRepository.findAll().forEach(material ->
+                suggestions.add(suggestion(SuggestionType.MATERIAL, material.getMaterialId(), material.getMaterialName())));
+        return suggestions;
+    }
+
+    private Suggestion suggestion(SuggestionType type, UUID id, String name) {
+        return new Suggestion(type, id, name, popularity.popularityOf(type, id));
+    }
+}
@@ -2,7 +2,7 @@ package com.shop.microservices.product.Service.ServiceInterface;
 
 import com.shop.microservices.product.Dto.CategoryRequestDTO;
 import com.shop.microservices.product.Dto.CategoryResponseDTO;
-import org.springframework.data.domain.Page;
+import com.shop.microservices.product.Dto.PageResponseDTO;
 
 /**
  * ICategoryService interface defines the contract for the CategoryService class.
@@ -32,10 +32,10 @@ public interface ICategoryService {
      *
      * @param page The page number to retrieve (0-based index).
      * @param size The number of categories to include per page.
-     * @return A {@link Page} object containing a list of {@link CategoryResponseDTO} objects for the requested page,
+     * @return A {@link PageResponseDTO} containing the {@link CategoryResponseDTO} objects of the requested page,
      *         along with pagination metadata such as total pages and total elements.
      */
-    Page<CategoryResponseDTO> getAllCategory(int page, int size);
+    PageResponseDTO<CategoryResponseDTO> getAllCategory(int page, int size);
 
     /**
      * Retrieves a category by its ID.
@@ -0,0 +1,23 @@
+package com.shop.microservices.product.Service.ServiceInterface;
+
+import java.util.function.Supplier;
+
+/**
+ * IIdempotencyService interface defines the contract for making create requests idempotent with a client-supplied
+ * {@code Idempotency-Key}.
+ */
+public interface IIdempotencyService {
+
+    /**
+     * Runs the action once per idempotency key and returns the stored response for every replay of the key.
+     *
+     * @param scope          The endpoint the key belongs to, so the same key can be used on different endpoints.
+     * @param idempotencyKey The client key, or {@code null} to run the action without idempotency.
+     * @param request        The request body, hashed to detect a key reused for a different request.
+     * @param responseType   The type of the response.
+     * @param action         The action creating the resource.
+     * @param <T>            The type of the response.
+     * @return The response of the action, or the stored response of the first request with the same key.
+     */
+    <T> T execute(String scope, String idempotencyKey, Object request, Class<T> responseType, Supplier<T> action);
+}
@@ -0,0 +1,37 @@
+package com.shop.microservices.product.Service.ServiceInterface;
+
+import com.shop.microservices.product.Dto.JobResponseDTO;
+import com.shop.microservices.product.Job.JobTask;
+import com.shop.microservices.product.Model.JobType;
+
+/**
+ * IJobService interface defines the contract for running long-running catalog operations as background jobs.
+ */
+public interface IJobService {
+
+    /**
+     * Submits a task to run in the background.
+     *
+     * @param type The kind of operation, which determines the concurrency limit applied.
+     * @param task The work to run.
+     * @param <T>  The type of the result.
+     * @return The queued job as {@link JobResponseDTO}.
+     */
+    <T> JobResponseDTO submit(JobType type, JobTask<T> task);
+
+    /**
+     * Retrieves the current state of a job.
+     *
+     * @param jobId The ID of the job.
+     * @return The job as {@link JobResponseDTO}.
+     */
+    JobResponseDTO getJob(String jobId);
+
+    /**
+     * Requests the cancellation of a queued or running job.
+     *
+     * @param jobId The ID of the job.
+     * @return The job as {@link JobResponseDTO}.
+     */
+    JobResponseDTO cancelJob(String jobId);
+}
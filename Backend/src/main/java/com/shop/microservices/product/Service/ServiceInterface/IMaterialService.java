@@ -2,7 +2,7 @@ package com.shop.microservices.product.Service.ServiceInterface;
 
 import com.shop.microservices.product.Dto.MaterialRequestDTO;
 import com.shop.microservices.product.Dto.MaterialResponseDTO;
-import org.springframework.data.domain.Page;
+import com.shop.microservices.product.Dto.PageResponseDTO;
 
 /**
  * IMaterialService interface defines the contract for the MaterialService class.
@@ -32,10 +32,10 @@ public interface IMaterialService {
      *
      * @param page The page number to retrieve (0-based index).
      * @param size The number of materials to include per page.
-     * @return A {@link Page} object containing a list of {@link MaterialResponseDTO} objects for the requested page,
+     * @return A {@link PageResponseDTO} containing the {@link MaterialResponseDTO} objects of the requested page,
      *         along with pagination metadata such as total pages and total elements.
      */
-    Page<MaterialResponseDTO> getAllMaterials(int page, int size);
+    PageResponseDTO<MaterialResponseDTO> getAllMaterials(int page, int size);
 
     /**
      * Retrieves a material by its ID.
@@ -0,0 +1,18 @@
+package com.shop.microservices.product.Service.ServiceInterface;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * IProductExportService interface defines the contract for exporting the product catalog in bulk.
+ */
+public interface IProductExportService {
+
+    /**
+     * Writes every product to the given stream as newline-delimited JSON, in the format accepted by the import.
+     *
+     * @param output The stream the catalog is written to.
+     * @throws IOException If the stream cannot be written.
+     */
+    void exportProducts(OutputStream output) throws IOException;
+}
@@ -0,0 +1,43 @@
+package com.shop.microservices.product.Service.ServiceInterface;
+
+import com.shop.microservices.product.Dto.JobResponseDTO;
+import com.shop.microservices.product.Dto.ProductImportReportDTO;
+import com.shop.microservices.product.Import.ProductImportFormat;
+import com.shop.microservices.product.Job.JobContext;
+
+import java.io.InputStream;
+
+/**
+ * IProductImportService interface defines the contract for importing product catalogs in bulk.
+ */
+public interface IProductImportService {
+
+    /**
+     * Imports the products contained in the given content, inserting new products and updating existing
+     * products with the same name.
+     *
+     * @param content The uploaded catalog, read as a stream.
+     * @param format  The format of the content.
+     * @return A {@link ProductImportReportDTO} with the inserted, updated and rejected counts.
+     */
+    ProductImportReportDTO importProducts(InputStream content, ProductImportFormat format);
+
+    /**
+     * Imports the products contained in the given content as part of a background job.
+     *
+     * @param content The uploaded catalog, read as a stream.
+     * @param format  The format of the content.
+     * @param context The context used to report progress and detect cancellation.
+     * @return A {@link ProductImportReportDTO} with the inserted, updated and rejected counts.
+     */
+    ProductImportReportDTO importProducts(InputStream content, ProductImportFormat format, JobContext context);
+
+    /**
+     * Submits the import of the given content as a background job.
+     *
+     * @param content The uploaded catalog, read as a stream.
+     * @param format  The format of the content.
+     * @return The queued job as {@link JobResponseDTO}.
+     */
+    JobResponseDTO submitImport(InputStream content, ProductImportFormat format);
+}
@@ -0,0 +1,34 @@
+package com.shop.microservices.product.Service.ServiceInterface;
+
+import com.shop.microservices.product.Dto.JobResponseDTO;
+import com.shop.microservices.product.Dto.PageResponseDTO;
+import com.shop.microservices.product.Dto.ProductResponseDTO;
+import com.shop.microservices.product.Search.SearchMode;
+
+import java.math.BigDecimal;
+
+/**
+ * IProductSearchService interface defines the contract for the full-text search of products.
+ */
+public interface IProductSearchService {
+
+    /**
+     * Searches the products by name and description.
+     *
+     * @param query    The text to search for.
+     * @param mode     How the terms of the text are matched.
+     * @param minPrice The minimum price, inclusive, or {@code null}.
+     * @param maxPrice The maximum price, inclusive, or {@code null}.
+     * @param page     The page number (0-based index).
+     * @param size     The page size.
+     * @return The requested page of the matching products, best matches first.
+     */
+    PageResponseDTO<ProductResponseDTO> searchProducts(String query, SearchMode mode, BigDecimal minPrice, BigDecimal maxPrice, int page, int size);
+
+    /**
+     * Rebuilds the search index from the product collection as a background job.
+     *
+     * @return The queued job as {@link JobResponseDTO}.
+     */
+    JobResponseDTO submitReindex();
+}
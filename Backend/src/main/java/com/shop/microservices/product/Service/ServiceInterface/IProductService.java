@@ -1,8 +1,13 @@
 package com.shop.microservices.product.Service.ServiceInterface;
 
+import com.shop.microservices.product.Dto.BulkPriceAdjustmentRequestDTO;
+import com.shop.microservices.product.Dto.BulkPriceAdjustmentResponseDTO;
+import com.shop.microservices.product.Dto.JobResponseDTO;
+import com.shop.microservices.product.Dto.PageResponseDTO;
 import com.shop.microservices.product.Dto.ProductRequestDTO;
 import com.shop.microservices.product.Dto.ProductResponseDTO;
-import org.springframework.data.domain.Page;
+
+import java.util.List;
 
 /**
  * IProductService interface defines the contract for the ProductService class.
@@ -23,10 +28,20 @@ public interface IProductService {
      *
      * @param page The page number to retrieve (0-based index).
      * @param size The number of products to include per page.
-     * @return A Page object containing a list of {@link ProductResponseDTO} objects for the requested page,
+     * @return A {@link PageResponseDTO} containing the {@link ProductResponseDTO} objects of the requested page,
      *         along with pagination metadata such as total pages and total elements.
      */
-    Page<ProductResponseDTO> getAllProducts(int page, int size);
+    PageResponseDTO<ProductResponseDTO> getAllProducts(int page, int size);
+
+    /**
+     * Retrieves the products following the given one in the listing order, to walk the whole catalog page by page
+     * without offsets.
+     *
+     * @param afterIdStr The ID of the last product already received, or {@code null} or empty to start with the first one.
+     * @param size       The maximum number of products to return, at least 1.
+     * @return The next products in the listing order; fewer than {@code size} once the end of the catalog is reached.
+     */
+    List<ProductResponseDTO> getProductsAfter(String afterIdStr, int size);
 
 
     /**
@@ -60,4 +75,20 @@ public interface IProductService {
      * @param productIdStr The ID of the product in String format to delete.
      */
     void deleteProduct(String productIdStr);
+
+    /**
+     * Adjusts the price of all products matching the request filters in a single bulk operation.
+     *
+     * @param adjustmentRequest The DTO containing the filters and the adjustment to apply.
+     * @return A {@link BulkPriceAdjustmentResponseDTO} with the matched and modified counts.
+     */
+    BulkPriceAdjustmentResponseDTO adjustPrices(BulkPriceAdjustmentRequestDTO adjustmentRequest);
+
+    /**
+     * Validates a bulk price adjustment and submits it as a background job.
+     *
+     * @param adjustmentRequest The DTO containing the filters and the adjustment to apply.
+     * @return The queued job as {@link JobResponseDTO}.
+     */
+    JobResponseDTO submitPriceAdjustment(BulkPriceAdjustmentRequestDTO adjustmentRequest);
 }
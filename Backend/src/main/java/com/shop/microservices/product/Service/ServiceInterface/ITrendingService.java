@@ -0,0 +1,19 @@
+package com.shop.microservices.product.Service.ServiceInterface;
+
+import com.shop.microservices.product.Dto.TrendingProductDTO;
+
+import java.util.List;
+
+/**
+ * ITrendingService interface defines the contract for listing the products viewed most in the recent past.
+ */
+public interface ITrendingService {
+
+    /**
+     * Returns the products trending now.
+     *
+     * @param limit The maximum number of products.
+     * @return The products, most viewed first.
+     */
+    List<TrendingProductDTO> getTrendingProducts(int limit);
+}
@@ -0,0 +1,23 @@
+package com.shop.microservices.product.Service.ServiceInterface;
+
+import com.shop.microservices.product.Dto.TypeaheadSuggestionDTO;
+import com.shop.microservices.product.Typeahead.SuggestionType;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ITypeaheadService interface defines the contract for suggesting catalog names while the user types.
+ */
+public interface ITypeaheadService {
+
+    /**
+     * Suggests the most popular names starting with a prefix.
+     *
+     * @param prefix The typed prefix.
+     * @param limit  The maximum number of suggestions.
+     * @param types  The kinds of entities to suggest.
+     * @return The suggestions, most popular first.
+     */
+    List<TypeaheadSuggestionDTO> suggest(String prefix, int limit, Set<SuggestionType> types);
+}
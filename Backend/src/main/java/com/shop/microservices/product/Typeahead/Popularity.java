@@ -0,0 +1,24 @@
+package com.shop.microservices.product.Typeahead;
+
+import java.util.UUID;
+
+/**
+ * Source of the popularity weighing the typeahead suggestions: among the names matching a prefix, the most popular
+ * entities are suggested first.
+ */
+public interface Popularity {
+
+    /**
+     * Popularity giving every entity the same weight, used when no other source is configured.
+     */
+    Popularity NONE = (type, id) -> 0;
+
+    /**
+     * Returns the popularity of an entity.
+     *
+     * @param type The kind of entity.
+     * @param id   The identifier of the entity.
+     * @return A non-negative weight, higher for more popular entities.
+     */
+    long popularityOf(SuggestionType type, UUID id);
+}
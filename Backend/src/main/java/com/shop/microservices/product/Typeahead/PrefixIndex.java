@@ -0,0 +1,205 @@
+package com.shop.microservices.product.Typeahead;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable prefix index answering top-k queries over weighted suggestions.
+ * <p>
+ * Every suggestion is indexed under its normalized name and under each word of the name, so "wireless mouse" is
+ * found by "wir" and by "mou". The keys are kept in one sorted array: the keys starting with a prefix form a
+ * contiguous range, found with two binary searches. A tree over the ranks of the suggestions then yields the best
+ * suggestion of any range in {@code O(log n)}, and the top k of a range are extracted best-first by splitting the
+ * range around each result, so a query costs {@code O(log n + k log k)} whatever the number of matching names.
+ * </p>
+ * <p>
+ * The index holds flat arrays only, which keeps it compact and cheap to traverse; it is rebuilt rather than
+ * modified, changes being layered on top of it by the {@link TypeaheadIndex}.
+ * </p>
+ */
+final class PrefixIndex {
+
+    static final PrefixIndex EMPTY = build(List.of());
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Sorted keys, the suggestion indexed under each key and its rank (0 is the best suggestion)
+    private final String[] keys;
+    private final Suggestion[] suggestions;
+    private final int[] ranks;
+    // Segment tree over the key positions: each node holds the position with the best rank in its range
+    private final int[] tree;
+    private final List<Suggestion> distinct;
+
+    private PrefixIndex(String[] keys, Suggestion[] suggestions, int[] ranks, List<Suggestion> distinct) {
+        this.keys = keys;
+        this.suggestions = suggestions;
+        this.ranks = ranks;
+        this.distinct = distinct;
+        int size = keys.length;
+        this.tree = new int[2 * size];
+        for (int i = 0; i < size; i++) {
+            tree[size + i] = i;
+        }
+        for (int node = size - 1; node > 0; node--) {
+            tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Builds the index of the given suggestions.
+     *
+     * @param suggestions The suggestions, at most one per entity.
+     * @return The index.
+     */
+    static PrefixIndex build(Collection<Suggestion> suggestions) {
+        List<Suggestion> ranked = new ArrayList<>(suggestions);
+        ranked.sort(Suggestion.RANKING);
+
+        record Entry(String key, int rank) {
+        }
+        List<Entry> entries = new ArrayList<>(ranked.size() * 2);
+        for (int rank = 0; rank < ranked.size(); rank++) {
+            for (String key : keysOf(ranked.get(rank).name())) {
+                entries.add(new Entry(key, rank));
+            }
+        }
+        entries.sort(Comparator.comparing(Entry::key).thenComparingInt(Entry::rank));
+
+        String[] keys = new String[entries.size()];
+        Suggestion[] indexed = new Suggestion[entries.size()];
+        int[] ranks = new int[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            keys[i] = entry.key();
+            indexed[i] = ranked.get(entry.rank());
+            ranks[i] = entry.rank();
+        }
+        return new PrefixIndex(keys, indexed, ranks, List.copyOf(ranked));
+    }
+
+    /**
+     * Returns the keys a name is indexed under: the whole normalized name and its suffix starting at each word.
+     *
+     * @param name The name.
+     * @return The distinct keys, none of them empty.
+     */
+    static Set<String> keysOf(String name) {
+        String normalized = normalize(name);
+        Set<String> keys = new LinkedHashSet<>();
+        if (!normalized.isEmpty()) {
+            keys.add(normalized);
+        }
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+
+    /**
+     * Normalizes a name or a prefix: accents removed, lower case, words separated by single spaces.
+     *
+     * @param text The text.
+     * @return The normalized text, empty if it holds no letter or digit.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(decomposed.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+
+    /**
+     * Collects the best accepted suggestions indexed under a key starting with the given prefix.
+     *
+     * @param prefix The normalized prefix.
+     * @param limit  The number of suggestions wanted in {@code out}.
+     * @param accept The filter of the suggestions.
+     * @param seen   The entities already collected, updated with the collected ones.
+     * @param out    The list the suggestions are added to, best first.
+     */
+    void collect(String prefix, int limit, Predicate<Suggestion> accept, Set<Suggestion.Key> seen, List<Suggestion> out) {
+        int from = lowerBound(prefix);
+        int to = lowerBound(prefix + Character.MAX_VALUE) - 1;
+        if (from > to) {
+            return;
+        }
+        // Ranges still to explore, the one holding the best remaining suggestion first
+        PriorityQueue<int[]> ranges = new PriorityQueue<>(Comparator.comparingInt(range -> ranks[range[2]]));
+        ranges.add(new int[]{from, to, best(from, to)});
+        while (!ranges.isEmpty() && out.size() < limit) {
+            int[] range = ranges.poll();
+            int position = range[2];
+            Suggestion suggestion = suggestions[position];
+            if (accept.test(suggestion) && seen.add(suggestion.key())) {
+                out.add(suggestion);
+            }
+            if (range[0] < position) {
+                ranges.add(new int[]{range[0], position - 1, best(range[0], position - 1)});
+            }
+            if (position < range[1]) {
+                ranges.add(new int[]{position + 1, range[1], best(position + 1, range[1])});
+            }
+        }
+    }
+
+    /**
+     * Returns every suggestion of the index.
+     *
+     * @return The suggestions, best first.
+     */
+    List<Suggestion> suggestions() {
+        return distinct;
+    }
+
+    /**
+     * Returns the position of the first key greater than or equal to the given one.
+     */
+    private int lowerBound(String key) {
+        int position = Arrays.binarySearch(keys, key);
+        if (position < 0) {
+            return -position - 1;
+        }
+        // Equal keys are adjacent; binarySearch may return any of them
+        while (position > 0 && keys[position - 1].equals(key)) {
+            position--;
+        }
+        return position;
+    }
+
+    /**
+     * Returns the position with the best rank between two positions, inclusive.
+     */
+    private int best(int from, int to) {
+        int size = keys.length;
+        int best = -1;
+        for (int left = from + size, right = to + size + 1; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                best = better(best, tree[left++]);
+            }
+            if ((right & 1) == 1) {
+                best = better(best, tree[--right]);
+            }
+        }
+        return best;
+    }
+
+    private int better(int position, int other) {
+        if (position < 0) {
+            return other;
+        }
+        return ranks[position] <= ranks[other] ? position : other;
+    }
+}
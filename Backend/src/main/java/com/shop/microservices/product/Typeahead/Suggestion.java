@@ -0,0 +1,42 @@
+package com.shop.microservices.product.Typeahead;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * A name suggested by the typeahead, with the entity it belongs to and its weight.
+ *
+ * @param type   The kind of entity.
+ * @param id     The identifier of the entity.
+ * @param name   The name of the entity.
+ * @param weight The popularity of the entity.
+ */
+public record Suggestion(SuggestionType type, UUID id, String name, long weight) {
+
+    /**
+     * The order suggestions are returned in: most popular first, then shortest and alphabetical.
+     */
+    public static final Comparator<Suggestion> RANKING = Comparator.comparingLong(Suggestion::weight).reversed()
+            .thenComparingInt(suggestion -> suggestion.name().length())
+            .thenComparing(Suggestion::name)
+            .thenComparing(Suggestion::type)
+            .thenComparing(Suggestion::id);
+
+    /**
+     * Returns the key identifying the entity of this suggestion.
+     *
+     * @return The key.
+     */
+    public Key key() {
+        return new Key(type, id);
+    }
+
+    /**
+     * Identifies the entity of a suggestion.
+     *
+     * @param type The kind of entity.
+     * @param id   The identifier of the entity.
+     */
+    public record Key(SuggestionType type, UUID id) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.shop.microservices.product.Typeahead;
+
+import com.shop.microservices.product.Exception.InvalidInputException;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The kinds of catalog entities whose names are suggested by the typeahead.
+ */
+public enum SuggestionType {
+
+    PRODUCT,
+    CATEGORY,
+    MATERIAL;
+
+    /**
+     * Resolves the suggestion types from a comma-separated request parameter, ignoring case.
+     *
+     * @param value The requested types, all types if {@code null} or blank.
+     * @return The matching types.
+     * @throws InvalidInputException If a type is not supported.
+     */
+    public static Set<SuggestionType> fromParameter(String value) {
+        if (value == null || value.isBlank()) {
+            return EnumSet.allOf(SuggestionType.class);
+        }
+        Set<SuggestionType> types = EnumSet.noneOf(SuggestionType.class);
+        for (String type : value.split(",")) {
+            try {
+                types.add(valueOf(type.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidInputException("prod.error.4102");
+            }
+        }
+        return types;
+    }
+}
@@ -0,0 +1,205 @@
+package com.shop.microservices.product.Typeahead;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory typeahead index of the product, category and material names.
+ * <p>
+ * Suggestions are served from an immutable {@link PrefixIndex} and from the changes written since it was built,
+ * which are kept in a sorted map so the changed names matching a prefix are found without a scan. Changed and
+ * deleted entities shadow their entry in the prefix index. Lookups take no lock.
+ * </p>
+ * <p>
+ * The prefix index is replaced either by a full rebuild, from a supplier reading the repositories, or by a
+ * compaction folding the pending changes into a new prefix index. Every change carries a sequence number: a
+ * replacement only drops the changes it has seen, so changes written while it was built are kept.
+ * </p>
+ */
+@Component
+public class TypeaheadIndex {
+
+    private volatile PrefixIndex prefixIndex = PrefixIndex.EMPTY;
+    // Latest change of each entity since the prefix index was built
+    private final Map<Suggestion.Key, Change> changes = new ConcurrentHashMap<>();
+    // The same changes by indexed key ("<key>\0<type>:<id>"), deletions excluded
+    private final ConcurrentSkipListMap<String, Suggestion> changedKeys = new ConcurrentSkipListMap<>();
+    // Guarded by this
+    private long sequence;
+    private final ReentrantLock replaceLock = new ReentrantLock();
+
+    /**
+     * Adds the suggestion of an entity, replacing its previous one.
+     *
+     * @param suggestion The suggestion.
+     */
+    public synchronized void put(Suggestion suggestion) {
+        record(suggestion.key(), suggestion);
+    }
+
+    /**
+     * Removes the suggestion of an entity.
+     *
+     * @param type The kind of entity.
+     * @param id   The identifier of the entity.
+     */
+    public synchronized void remove(SuggestionType type, UUID id) {
+        record(new Suggestion.Key(type, id), null);
+    }
+
+    /**
+     * Returns the best suggestions whose name, or one of its words, starts with the given prefix.
+     *
+     * @param prefix The prefix, normalized like the names.
+     * @param limit  The maximum number of suggestions.
+     * @param types  The kinds of entities to suggest.
+     * @return The suggestions, best first.
+     */
+    public List<Suggestion> suggest(String prefix, int limit, Set<SuggestionType> types) {
+        String normalized = PrefixIndex.normalize(prefix);
+        if (normalized.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        Set<Suggestion.Key> seen = new HashSet<>();
+        List<Suggestion> candidates = new ArrayList<>(limit);
+        for (Suggestion changed : changedKeys.subMap(normalized, normalized + Character.MAX_VALUE).values()) {
+            if (types.contains(changed.type()) && seen.add(changed.key())) {
+                candidates.add(changed);
+            }
+        }
+        int changedCount = candidates.size();
+        prefixIndex.collect(normalized, changedCount + limit,
+                suggestion -> types.contains(suggestion.type()) && !changes.containsKey(suggestion.key()),
+                seen, candidates);
+
+        if (changedCount > 0) {
+            candidates.sort(Suggestion.RANKING);
+        }
+        return candidates.size() > limit ? List.copyOf(candidates.subList(0, limit)) : candidates;
+    }
+
+    /**
+     * Replaces the index with the suggestions read by the given supplier.
+     * <p>
+     * Changes recorded while the supplier runs are kept on top of the new prefix index, as the supplier may have
+     * read the entities before they were written.
+     * </p>
+     *
+     * @param loader Supplier reading every suggestion.
+     */
+    public void rebuild(Supplier<Collection<Suggestion>> loader) {
+        replaceLock.lock();
+        try {
+            long upTo = currentSequence();
+            replace(PrefixIndex.build(loader.get()), upTo);
+        } finally {
+            replaceLock.unlock();
+        }
+    }
+
+    /**
+     * Folds the pending changes into a new prefix index, unless a rebuild is running.
+     */
+    public void compact() {
+        if (!replaceLock.tryLock()) {
+            return;
+        }
+        try {
+            long upTo;
+            List<Change> folded;
+            synchronized (this) {
+                upTo = sequence;
+                folded = List.copyOf(changes.values());
+            }
+            Set<Suggestion.Key> changedEntities = new HashSet<>();
+            List<Suggestion> suggestions = new ArrayList<>();
+            for (Change change : folded) {
+                changedEntities.add(change.key());
+                if (change.suggestion() != null) {
+                    suggestions.add(change.suggestion());
+                }
+            }
+            for (Suggestion suggestion : prefixIndex.suggestions()) {
+                if (!changedEntities.contains(suggestion.key())) {
+                    suggestions.add(suggestion);
+                }
+            }
+            replace(PrefixIndex.build(suggestions), upTo);
+        } finally {
+            replaceLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of changes not yet folded into the prefix index.
+     *
+     * @return The number of pending changes.
+     */
+    public int pendingChanges() {
+        return changes.size();
+    }
+
+    private synchronized long currentSequence() {
+        return sequence;
+    }
+
+    /**
+     * Installs a new prefix index and drops the changes up to the given sequence number, which it contains.
+     */
+    private synchronized void replace(PrefixIndex replacement, long upTo) {
+        prefixIndex = replacement;
+        changes.values().removeIf(change -> {
+            if (change.sequence() > upTo) {
+                return false;
+            }
+            unindex(change);
+            return true;
+        });
+    }
+
+    /**
+     * Records the latest change of an entity. Runs while holding the monitor.
+     */
+    private void record(Suggestion.Key key, Suggestion suggestion) {
+        Change change = new Change(key, suggestion, ++sequence);
+        Change previous = changes.put(key, change);
+        if (previous != null) {
+            unindex(previous);
+        }
+        if (suggestion != null) {
+            for (String indexedKey : PrefixIndex.keysOf(suggestion.name())) {
+                changedKeys.put(changedKey(indexedKey, key), suggestion);
+            }
+        }
+    }
+
+    private void unindex(Change change) {
+        if (change.suggestion() != null) {
+            for (String indexedKey : PrefixIndex.keysOf(change.suggestion().name())) {
+                changedKeys.remove(changedKey(indexedKey, change.key()));
+            }
+        }
+    }
+
+    private static String changedKey(String indexedKey, Suggestion.Key key) {
+        return indexedKey + '\0' + key.type() + ':' + key.id();
+    }
+
+    /**
+     * A change of an entity, {@code suggestion} being {@code null} for a deletion.
+     */
+    private record Change(Suggestion.Key key, Suggestion suggestion, long sequence) {
+    }
+}
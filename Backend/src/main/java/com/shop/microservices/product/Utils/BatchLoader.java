@@ -0,0 +1,164 @@
+package com.shop.microservices.product.Utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Merges concurrent single-key lookups into batched lookups, in the style of a DataLoader.
+ * <p>
+ * The first key of a batch opens a collection window; every key requested until the window closes, or until
+ * {@code maxBatchSize} distinct keys have been collected, is loaded with one call of the batch function, typically
+ * a {@code findAllById} issued as a single {@code $in} query. Each caller then receives its own value from the
+ * returned map. The number of database round trips therefore depends on the number of windows rather than the
+ * number of callers, at the cost of at most one window of extra latency per lookup.
+ * </p>
+ * <p>
+ * Callers asking for the same key in the same window share one slot of the batch. Batches are loaded on virtual
+ * threads, so several batches can be in flight at the same time.
+ * </p>
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+@Slf4j
+public class BatchLoader<K, V> implements AutoCloseable {
+
+    private final Function<Set<K>, Map<K, V>> batchFunction;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService loaders = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Keys collected for the current window and the timer closing it, guarded by this
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> windowTimer;
+
+    /**
+     * Creates a batch loader.
+     *
+     * @param name          The name of the loader, used for its timer thread.
+     * @param batchFunction Loads the values of a set of keys; keys without a value are left out of the returned map.
+     * @param window        How long the first key of a batch waits for other keys.
+     * @param maxBatchSize  The number of distinct keys after which a batch is loaded without waiting for the window.
+     */
+    public BatchLoader(String name, Function<Set<K>, Map<K, V>> batchFunction, Duration window, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("The maximum batch size of " + name + " must be at least 1");
+        }
+        this.batchFunction = batchFunction;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name(name + "-batch-window").daemon().factory());
+    }
+
+    /**
+     * Requests the value of a key as part of the next batch.
+     *
+     * @param key The key to load.
+     * @return A future completed with the value, or with {@code null} if the key has no value.
+     */
+    public CompletableFuture<V> loadAsync(K key) {
+        Map<K, CompletableFuture<V>> batch = null;
+        CompletableFuture<V> future;
+        synchronized (this) {
+            future = pending.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize || windowNanos <= 0) {
+                batch = takeBatch();
+            } else if (windowTimer == null) {
+                windowTimer = scheduler.schedule(this::closeWindow, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (batch != null) {
+            dispatch(batch);
+        }
+        return future;
+    }
+
+    /**
+     * Loads the value of a key as part of the next batch, blocking until the batch has been loaded.
+     *
+     * @param key The key to load.
+     * @return The value, or {@code null} if the key has no value.
+     */
+    public V load(K key) {
+        try {
+            return loadAsync(key).join();
+        } catch (CompletionException ex) {
+            // Rethrow the batch function's own exception, as a direct repository call would
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    private void closeWindow() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (this) {
+            batch = takeBatch();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    /**
+     * Detaches the keys collected so far. Must be called while holding the lock.
+     */
+    private Map<K, CompletableFuture<V>> takeBatch() {
+        Map<K, CompletableFuture<V>> batch = pending;
+        pending = new LinkedHashMap<>();
+        if (windowTimer != null) {
+            windowTimer.cancel(false);
+            windowTimer = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        try {
+            loaders.execute(() -> {
+                try {
+                    Map<K, V> values = batchFunction.apply(batch.keySet());
+                    batch.forEach((key, future) -> future.complete(values.get(key)));
+                } catch (Throwable ex) {
+                    // Every caller is blocked on its future, none may be left waiting whatever the failure
+                    log.warn("Batch load of {} keys failed. Error Message: {}", batch.size(), ex.getMessage());
+                    batch.values().forEach(future -> future.completeExceptionally(ex));
+                    if (ex instanceof Error error) {
+                        throw error;
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // The loader has been closed
+            batch.values().forEach(future -> future.completeExceptionally(ex));
+        }
+    }
+
+    /**
+     * Loads the keys still collected and stops the loader.
+     */
+    @Override
+    public void close() {
+        closeWindow();
+        scheduler.shutdownNow();
+        loaders.shutdown();
+    }
+}
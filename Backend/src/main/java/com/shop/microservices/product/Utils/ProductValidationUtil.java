@@ -1,8 +1,12 @@
 package com.shop.microservices.product.Utils;
 
+import com.shop.microservices.product.Dto.ProductRequestDTO;
+import com.shop.microservices.product.Exception.FieldValidationException;
 import com.shop.microservices.product.Repository.ProductRepository;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+
 /**
  * Utility class for validating product-related data, particularly focusing on ensuring
  * This class provides utility methods used during product creation or modification.
@@ -10,6 +14,9 @@ import org.springframework.stereotype.Component;
 @Component
 public class ProductValidationUtil {
 
+    // Smallest accepted price, as declared by @DecimalMin on ProductRequestDTO
+    private static final BigDecimal MIN_PRICE = new BigDecimal("0.01");
+
     // Repository for querying product data from the database
     private final ProductRepository productRepository;
 
@@ -34,4 +41,25 @@ public class ProductValidationUtil {
         // If the product name already exists, return false
         return !productRepository.existsByName(productName);
     }
+
+    /**
+     * Validates product fields against the rules declared on {@link ProductRequestDTO}: the name must not be blank
+     * and the price must not be null and at least 0.01.
+     * This is used where products do not arrive as a request body, such as catalog imports.
+     *
+     * @param name  The product name to validate.
+     * @param price The product price to validate.
+     * @throws FieldValidationException If a field violates one of the rules.
+     */
+    public void validateProductFields(String name, BigDecimal price) {
+        if (name == null || name.isBlank()) {
+            throw new FieldValidationException("prod.error.3119", null);
+        }
+        if (price == null) {
+            throw new FieldValidationException("prod.error.3120", null);
+        }
+        if (price.compareTo(MIN_PRICE) < 0) {
+            throw new FieldValidationException("prod.error.3103", new Object[]{price});
+        }
+    }
 }
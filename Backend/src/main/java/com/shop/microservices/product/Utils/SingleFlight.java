@@ -0,0 +1,85 @@
+package com.shop.microservices.product.Utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical lookups into a single call.
+ * <p>
+ * The first caller for a key runs the loader; callers arriving with the same key while it is in flight wait for it
+ * and receive the same result, or the same exception. Once the call has completed the key is forgotten, so this is
+ * not a cache: a later caller runs the loader again and always sees fresh data. Shared results must therefore be
+ * treated as read-only by the callers.
+ * </p>
+ *
+ * @param <K> The type of the lookup key.
+ * @param <V> The type of the result.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the loader for the key, or joins the call already in flight for the same key.
+     *
+     * @param key    The lookup key; a {@code null} key runs the loader without coalescing.
+     * @param loader The lookup to run.
+     * @return The result of the loader.
+     */
+    public V execute(K key, Supplier<V> loader) {
+        if (key == null) {
+            return loader.get();
+        }
+
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            call.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * @return The number of keys with a call in flight.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * @param key The lookup key.
+     * @return The number of callers blocked on the call in flight for the key, or 0 if there is none.
+     */
+    public int waiterCount(K key) {
+        CompletableFuture<V> call = inFlight.get(key);
+        return call == null ? 0 : call.getNumberOfDependents();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException ex) {
+            // Rethrow the loader's own exception so that callers handle it exactly like the leader
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+}
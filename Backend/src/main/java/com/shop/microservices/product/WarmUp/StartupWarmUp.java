@@ -0,0 +1,204 @@
+package com.shop.microservices.product.WarmUp;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Startup warm-up filling the in-memory caches before the instance takes traffic.
+ * <p>
+ * Once the application is started, every {@link WarmUpTask} bean runs in parallel on its own virtual thread. The
+ * {@link WarmUpHealthIndicator}, part of the readiness group, stays {@code DOWN} until every task has completed,
+ * successfully or not, or until {@code shop.warm-up.deadline} has passed, in which case the remaining tasks carry
+ * on in the background. The duration and the number of entries loaded by each task are logged, reported in the
+ * health details and published as the {@code shop.warm-up.*} metrics.
+ * </p>
+ */
+@Slf4j
+@Component
+public class StartupWarmUp implements MeterBinder {
+
+    private final List<WarmUpTask> tasks;
+    private final boolean enabled;
+    private final Duration deadline;
+    private final Map<String, TaskResult> results = new ConcurrentHashMap<>();
+    // System.nanoTime() at the start and at the end of the warm-up, 0 until then
+    private volatile long startedAt;
+    private volatile long completedAt;
+
+    /**
+     * Constructs the warm-up.
+     *
+     * @param tasks    The caches to fill.
+     * @param enabled  Whether the caches are filled before the instance reports itself ready.
+     * @param deadline How long the instance may stay unready while the caches are filled.
+     */
+    public StartupWarmUp(List<WarmUpTask> tasks,
+                         @Value("${shop.warm-up.enabled:true}") boolean enabled,
+                         @Value("${shop.warm-up.deadline:30s}") Duration deadline) {
+        this.tasks = List.copyOf(tasks);
+        this.enabled = enabled;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Starts the warm-up in the background once the application is started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || startedAt != 0) {
+            return;
+        }
+        startedAt = System.nanoTime();
+        log.info("Warming up {} caches, for at most {}", tasks.size(), deadline);
+        Thread.ofVirtual().name("warm-up").start(this::run);
+    }
+
+    /**
+     * Returns the state of the warm-up.
+     *
+     * @return The state.
+     */
+    public State state() {
+        if (!enabled) {
+            return State.DISABLED;
+        }
+        if (startedAt == 0) {
+            return State.PENDING;
+        }
+        if (completedAt != 0) {
+            return State.COMPLETED;
+        }
+        return System.nanoTime() - startedAt > deadline.toNanos() ? State.DEADLINE_EXCEEDED : State.RUNNING;
+    }
+
+    /**
+     * Returns how long the warm-up took, or has been running.
+     *
+     * @return The duration, zero if the warm-up has not started.
+     */
+    public Duration duration() {
+        long start = startedAt;
+        if (start == 0) {
+            return Duration.ZERO;
+        }
+        long end = completedAt;
+        return Duration.ofNanos((end == 0 ? System.nanoTime() : end) - start);
+    }
+
+    /**
+     * Returns the results of the completed tasks.
+     *
+     * @return The results by task name.
+     */
+    public Map<String, TaskResult> results() {
+        return Map.copyOf(results);
+    }
+
+    /**
+     * Publishes the duration of the warm-up and the number of entries loaded by each task.
+     *
+     * @param registry The registry to publish the metrics to.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TimeGauge.builder("shop.warm-up.duration", this, TimeUnit.MILLISECONDS, warmUp -> warmUp.duration().toMillis())
+                .description("Duration of the startup warm-up")
+                .register(registry);
+        for (WarmUpTask task : tasks) {
+            Gauge.builder("shop.warm-up.entries", this, warmUp -> {
+                        TaskResult result = warmUp.results.get(task.name());
+                        return result == null ? 0 : result.entries();
+                    })
+                    .description("Number of entries loaded by the startup warm-up")
+                    .tag("task", task.name())
+                    .register(registry);
+        }
+    }
+
+    private void run() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            tasks.forEach(task -> executor.execute(() -> run(task)));
+        }
+        completedAt = System.nanoTime();
+        log.info("Warm-up completed in {} ms: {}", duration().toMillis(), results.entrySet().stream()
+                .map(result -> result.getKey() + " " + result.getValue().entries() + " entries in " + result.getValue().durationMillis() + " ms")
+                .collect(Collectors.joining(", ")));
+    }
+
+    private void run(WarmUpTask task) {
+        long start = System.nanoTime();
+        try {
+            long entries = task.loader().call();
+            results.put(task.name(), new TaskResult(entries, (System.nanoTime() - start) / 1_000_000, null));
+        } catch (Exception ex) {
+            log.warn("Warm-up of {} failed, it is filled on demand: {}", task.name(), ex.getMessage());
+            results.put(task.name(), new TaskResult(0, (System.nanoTime() - start) / 1_000_000, ex.getMessage()));
+        }
+    }
+
+    /**
+     * The states of the warm-up.
+     */
+    public enum State {
+
+        /**
+         * Disabled, the instance is ready as soon as it is started.
+         */
+        DISABLED,
+
+        /**
+         * Waiting for the application to be started.
+         */
+        PENDING,
+
+        /**
+         * Filling the caches.
+         */
+        RUNNING,
+
+        /**
+         * Still filling the caches after the deadline, the instance is ready nonetheless.
+         */
+        DEADLINE_EXCEEDED,
+
+        /**
+         * Every task has completed.
+         */
+        COMPLETED;
+
+        /**
+         * Returns whether the instance can take traffic in this state.
+         *
+         * @return {@code true} unless the caches are being filled within the deadline.
+         */
+        public boolean isReady() {
+            return this != PENDING && this != RUNNING;
+        }
+    }
+
+    /**
+     * The outcome of a task.
+     *
+     * @param entries        The number of entries loaded.
+     * @param durationMillis How long the task took, in milliseconds.
+     * @param error          Why the task failed, {@code null} if it succeeded.
+     */
+    public record TaskResult(long entries, long durationMillis, String error) {
+    }
+}
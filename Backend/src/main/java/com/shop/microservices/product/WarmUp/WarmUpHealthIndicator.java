@@ -0,0 +1,39 @@
+package com.shop.microservices.product.WarmUp;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health indicator reporting the {@link StartupWarmUp}, {@code DOWN} while the caches are being filled within the
+ * deadline. Included in the readiness group, so load balancers only route traffic to warm instances.
+ */
+@Component
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    private final StartupWarmUp startupWarmUp;
+
+    /**
+     * Constructs the indicator.
+     *
+     * @param startupWarmUp The warm-up to report.
+     */
+    public WarmUpHealthIndicator(StartupWarmUp startupWarmUp) {
+        this.startupWarmUp = startupWarmUp;
+    }
+
+    /**
+     * Reports the state of the warm-up, its duration and the results of its tasks.
+     *
+     * @return {@code UP} once the instance can take traffic, {@code DOWN} before.
+     */
+    @Override
+    public Health health() {
+        StartupWarmUp.State state = startupWarmUp.state();
+        return (state.isReady() ? Health.up() : Health.down())
+                .withDetail("state", state)
+                .withDetail("durationMs", startupWarmUp.duration().toMillis())
+                .withDetail("tasks", startupWarmUp.results())
+                .build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.shop.microservices.product.WarmUp;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A cache filled by the {@link StartupWarmUp} before the instance reports itself ready.
+ * <p>
+ * Tasks are declared as beans and run in parallel, each on its own virtual thread.
+ * </p>
+ *
+ * @param name   The name the task is reported under.
+ * @param loader Fills the cache and returns the number of entries it holds; throws if the cache could not be filled.
+ */
+public record WarmUpTask(String name, Callable<Long> loader) {
+}
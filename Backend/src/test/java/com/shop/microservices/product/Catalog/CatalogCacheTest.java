@@ -0,0 +1,141 @@
+package com.shop.microservices.product.Catalog;
+
+import com.shop.microservices.product.Event.CatalogLoadedEvent;
+import com.shop.microservices.product.Event.ProductChangeEvent;
+import com.shop.microservices.product.Model.Category;
+import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Repository.CategoryRepository;
+import com.shop.microservices.product.Repository.MaterialRepository;
+import com.shop.microservices.product.Repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogCacheTest {
+
+	private static final Duration OVERLAP = Duration.ofSeconds(5);
+
+	@TempDir
+	Path directory;
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+	private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+	private final MaterialRepository materialRepository = mock(MaterialRepository.class);
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+	@Test
+	void coldStartReadsTheCatalogOnceAndWritesASnapshot() throws IOException {
+		Product mouse = product("Wireless Mouse", Instant.now());
+		Category accessories = Category.builder().categoryId(UUID.randomUUID()).name("Accessories").build();
+		when(productRepository.streamAllBy()).thenAnswer(invocation -> Stream.of(mouse));
+		when(categoryRepository.findAll()).thenReturn(List.of(accessories));
+		CatalogCache cache = cache();
+
+		cache.loadSnapshot();
+		assertThat(cache.product(mouse.getId())).isEmpty();
+		cache.synchronize();
+
+		assertThat(cache.isWarm()).isTrue();
+		assertThat(cache.product(mouse.getId())).containsSame(mouse);
+		assertThat(cache.category(accessories.getCategoryId())).containsSame(accessories);
+		verify(eventPublisher).publishEvent(new CatalogLoadedEvent(1, 1, 0));
+
+		cache.writeSnapshot();
+		CatalogSnapshot snapshot = CatalogSnapshot.readFrom(directory.resolve("catalog.bin"));
+		assertThat(snapshot.products()).extracting(Product::getId).containsExactly(mouse.getId());
+		assertThat(snapshot.categories()).extracting(Category::getCategoryId).containsExactly(accessories.getCategoryId());
+	}
+
+	@Test
+	void restartFetchesOnlyTheChangesSinceTheSnapshot() throws IOException {
+		Instant resumePoint = Instant.now().minus(Duration.ofHours(1));
+		Product kept = product("Wireless Keyboard", resumePoint.minus(Duration.ofDays(1)));
+		Product updated = product("Wireless Mouse", resumePoint.minus(Duration.ofDays(1)));
+		Product deleted = product("Mouse Pad", resumePoint.minus(Duration.ofDays(1)));
+		new CatalogSnapshot(resumePoint, List.of(kept, updated, deleted), List.of(), List.of())
+				.writeTo(directory.resolve("catalog.bin"));
+
+		Product updatedElsewhere = product("Wireless Mouse 2", Instant.now());
+		updatedElsewhere.setId(updated.getId());
+		when(productRepository.streamByLastModifiedGreaterThanEqual(resumePoint.minus(OVERLAP)))
+				.thenAnswer(invocation -> Stream.of(updatedElsewhere));
+		when(productRepository.streamIdsBy()).thenAnswer(invocation -> Stream.of(idOnly(kept), idOnly(updated)));
+		CatalogCache cache = cache();
+
+		cache.loadSnapshot();
+		cache.synchronize();
+
+		assertThat(cache.isWarm()).isTrue();
+		assertThat(cache.product(kept.getId()).orElseThrow().getName()).isEqualTo("Wireless Keyboard");
+		assertThat(cache.product(updated.getId()).orElseThrow().getName()).isEqualTo("Wireless Mouse 2");
+		assertThat(cache.product(deleted.getId())).isEmpty();
+		verify(productRepository, never()).streamAllBy();
+		verify(categoryRepository, never()).findAll();
+		verify(eventPublisher).publishEvent(isA(CatalogLoadedEvent.class));
+	}
+
+	@Test
+	void changesPublishedWhileTheCatalogIsReadWin() {
+		Product mouse = product("Wireless Mouse", Instant.now().minusSeconds(1));
+		Product renamed = product("Wireless Trackball", Instant.now());
+		renamed.setId(mouse.getId());
+		Product pad = product("Mouse Pad", Instant.now());
+		CatalogCache cache = cache();
+		when(productRepository.streamAllBy()).thenAnswer(invocation -> {
+			// Written after the cursor read the products
+			cache.onProductChange(ProductChangeEvent.updated(renamed));
+			cache.onProductChange(ProductChangeEvent.deleted(pad.getId()));
+			return Stream.of(mouse, pad);
+		});
+
+		cache.synchronize();
+
+		assertThat(cache.product(mouse.getId())).containsSame(renamed);
+		assertThat(cache.product(pad.getId())).isEmpty();
+	}
+
+	@Test
+	void lookupsAreNotServedBeforeTheCatalogIsLoaded() {
+		when(productRepository.streamAllBy()).thenThrow(new DataAccessResourceFailureException("down"));
+		CatalogCache cache = cache();
+		Product mouse = product("Wireless Mouse", Instant.now());
+		cache.onProductChange(ProductChangeEvent.created(mouse));
+
+		cache.synchronize();
+
+		assertThat(cache.isWarm()).isFalse();
+		assertThat(cache.product(mouse.getId())).isEmpty();
+		verify(eventPublisher, never()).publishEvent(any(Object.class));
+	}
+
+	private CatalogCache cache() {
+		return new CatalogCache(productRepository, categoryRepository, materialRepository, eventPublisher, true,
+				directory.resolve("catalog.bin"), OVERLAP, 60_000);
+	}
+
+	private static Product product(String name, Instant lastModified) {
+		return Product.builder().id(UUID.randomUUID()).name(name).price(BigDecimal.TEN).lastModified(lastModified).build();
+	}
+
+	private static Product idOnly(Product product) {
+		return Product.builder().id(product.getId()).build();
+	}
+}
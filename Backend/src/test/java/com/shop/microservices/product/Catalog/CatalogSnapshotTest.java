@@ -0,0 +1,62 @@
+package com.shop.microservices.product.Catalog;
+
+import com.shop.microservices.product.Model.Category;
+import com.shop.microservices.product.Model.Material;
+import com.shop.microservices.product.Model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogSnapshotTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void snapshotIsReadBackAsWritten() throws IOException {
+		Instant resumePoint = Instant.parse("2026-01-02T03:04:05.123456789Z");
+		Product product = Product.builder().id(UUID.randomUUID()).name("Wireless Mouse").description("Ergonomic, 2.4 GHz")
+				.price(new BigDecimal("1234567890.99")).lastModified(resumePoint.minusSeconds(60)).build();
+		Product legacy = Product.builder().id(UUID.randomUUID()).name("Câble USB-C").price(new BigDecimal("7.5")).build();
+		Category category = Category.builder().categoryId(UUID.randomUUID()).name("Accessories").lastModified(resumePoint).build();
+		Material material = Material.builder().materialId(UUID.randomUUID()).materialName("Steel").materialType("Metal")
+				.description("Brushed").lastModified(resumePoint).build();
+		Path file = directory.resolve("snapshots/catalog.bin");
+
+		new CatalogSnapshot(resumePoint, List.of(product, legacy), List.of(category), List.of(material)).writeTo(file);
+		CatalogSnapshot read = CatalogSnapshot.readFrom(file);
+
+		assertThat(read.resumePoint()).isEqualTo(resumePoint);
+		assertThat(read.products()).usingRecursiveFieldByFieldElementComparator().containsExactly(product, legacy);
+		assertThat(read.categories()).usingRecursiveFieldByFieldElementComparator().containsExactly(category);
+		assertThat(read.materials()).usingRecursiveFieldByFieldElementComparator().containsExactly(material);
+		assertThat(read.products().get(0).getPrice().scale()).isEqualTo(2);
+		assertThat(Files.list(file.getParent())).containsExactly(file);
+	}
+
+	@Test
+	void corruptedOrTruncatedSnapshotsAreRejected() throws IOException {
+		Path file = directory.resolve("catalog.bin");
+		Product product = Product.builder().id(UUID.randomUUID()).name("Wireless Mouse").price(BigDecimal.TEN).build();
+		new CatalogSnapshot(Instant.now(), List.of(product), List.of(), List.of()).writeTo(file);
+		byte[] bytes = Files.readAllBytes(file);
+
+		bytes[30] ^= 1;
+		Files.write(file, bytes);
+		assertThatThrownBy(() -> CatalogSnapshot.readFrom(file)).isInstanceOf(IOException.class).hasMessageContaining("Corrupted");
+
+		Files.write(file, Arrays.copyOf(bytes, 10));
+		assertThatThrownBy(() -> CatalogSnapshot.readFrom(file)).isInstanceOf(IOException.class);
+	}
+}
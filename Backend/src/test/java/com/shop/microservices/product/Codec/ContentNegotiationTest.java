@@ -0,0 +1,140 @@
+package com.shop.microservices.product.Codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.shop.microservices.product.Configuration.BinaryFormatConfig;
+import com.shop.microservices.product.Controller.MaterialController;
+import com.shop.microservices.product.Controller.ProductController;
+import com.shop.microservices.product.Dto.MaterialResponseDTO;
+import com.shop.microservices.product.Dto.PageResponseDTO;
+import com.shop.microservices.product.Dto.ProductResponseDTO;
+import com.shop.microservices.product.Mapper.ProductProtobufMapper;
+import com.shop.microservices.product.Proto.ProductProtos;
+import com.shop.microservices.product.Search.SearchMode;
+import com.shop.microservices.product.Service.ServiceInterface.IIdempotencyService;
+import com.shop.microservices.product.Service.ServiceInterface.IMaterialService;
+import com.shop.microservices.product.Service.ServiceInterface.IProductExportService;
+import com.shop.microservices.product.Service.ServiceInterface.IProductImportService;
+import com.shop.microservices.product.Service.ServiceInterface.IProductSearchService;
+import com.shop.microservices.product.Service.ServiceInterface.IProductService;
+import com.shop.microservices.product.Service.ServiceInterface.ITrendingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ContentNegotiationTest {
+
+	private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+	private static final ProductResponseDTO PRODUCT =
+			new ProductResponseDTO(UUID.randomUUID(), "Wireless Mouse", "Ergonomic", new BigDecimal("29.99"));
+	private static final MaterialResponseDTO MATERIAL =
+			new MaterialResponseDTO(UUID.randomUUID(), "Cotton", "Fabric", null);
+
+	private final IProductService productService = mock(IProductService.class);
+	private final IMaterialService materialService = mock(IMaterialService.class);
+	private final IProductSearchService productSearchService = mock(IProductSearchService.class);
+	private final ProductProtobufMapper protobufMapper = new ProductProtobufMapper();
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		when(productService.getProductById(PRODUCT.id().toString())).thenReturn(PRODUCT);
+		when(productService.getAllProducts(0, 10)).thenReturn(new PageResponseDTO<>(List.of(PRODUCT), 0, 10, 1, 1));
+		when(productSearchService.searchProducts("mouse", SearchMode.AUTO, null, null, 0, 10))
+				.thenReturn(new PageResponseDTO<>(List.of(PRODUCT), 0, 10, 1, 1));
+		when(materialService.getMaterialById(MATERIAL.materialId().toString())).thenReturn(MATERIAL);
+
+		List<HttpMessageConverter<?>> converters = new ArrayList<>(List.of(new MappingJackson2HttpMessageConverter()));
+		new BinaryFormatConfig(Jackson2ObjectMapperBuilder.json(), protobufMapper)
+				.extendMessageConverters(converters);
+		mockMvc = MockMvcBuilders.standaloneSetup(
+						new ProductController(productService, mock(IIdempotencyService.class), mock(IProductImportService.class),
+								mock(IProductExportService.class), productSearchService, mock(ITrendingService.class)),
+						new MaterialController(materialService, mock(IIdempotencyService.class)))
+				.setMessageConverters(converters.toArray(HttpMessageConverter[]::new))
+				.build();
+	}
+
+	@Test
+	void jsonStaysTheDefault() throws Exception {
+		mockMvc.perform(get("/api/v1/product/{id}", PRODUCT.id()).accept(MediaType.ALL))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	void smileAndCborHoldTheJsonFields() throws Exception {
+		byte[] json = mockMvc.perform(get("/api/v1/product").accept(MediaType.APPLICATION_JSON))
+				.andReturn().getResponse().getContentAsByteArray();
+		byte[] smile = mockMvc.perform(get("/api/v1/product").accept(SMILE))
+				.andExpect(content().contentType(SMILE))
+				.andReturn().getResponse().getContentAsByteArray();
+		byte[] cbor = mockMvc.perform(get("/api/v1/material/{id}", MATERIAL.materialId()).accept(MediaType.APPLICATION_CBOR))
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		// The identifiers are written as 16 raw bytes in the binary formats
+		assertThat(new SmileMapper().readValue(smile, new TypeReference<PageResponseDTO<ProductResponseDTO>>() {
+		})).isEqualTo(new PageResponseDTO<>(List.of(PRODUCT), 0, 10, 1, 1));
+		assertThat(smile.length).isLessThan(json.length);
+		assertThat(new CBORMapper().readValue(cbor, MaterialResponseDTO.class)).isEqualTo(MATERIAL);
+	}
+
+	@Test
+	void productsAreAvailableInProtobuf() throws Exception {
+		byte[] product = mockMvc.perform(get("/api/v1/product/{id}", PRODUCT.id()).accept(ProductProtobufHttpMessageConverter.PROTOBUF))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(ProductProtobufHttpMessageConverter.PROTOBUF))
+				.andExpect(header().string(ProductProtobufHttpMessageConverter.MESSAGE_HEADER, "shop.product.v1.Product"))
+				.andReturn().getResponse().getContentAsByteArray();
+		byte[] page = mockMvc.perform(get("/api/v1/product").accept(ProductProtobufHttpMessageConverter.PROTOBUF))
+				.andExpect(status().isOk())
+				.andExpect(header().string(ProductProtobufHttpMessageConverter.MESSAGE_HEADER, "shop.product.v1.ProductPage"))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		assertThat(protobufMapper.fromMessage(ProductProtos.Product.parseFrom(product))).isEqualTo(PRODUCT);
+		assertThat(protobufMapper.fromMessage(ProductProtos.ProductPage.parseFrom(page)))
+				.isEqualTo(new PageResponseDTO<>(List.of(PRODUCT), 0, 10, 1, 1));
+	}
+
+	@Test
+	void searchResultsAreWrittenInTheListingEnvelope() throws Exception {
+		mockMvc.perform(get("/api/v1/product/search").param("q", "mouse").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items[0].name").value("Wireless Mouse"))
+				.andExpect(jsonPath("$.page").value(0))
+				.andExpect(jsonPath("$.totalElements").value(1))
+				.andExpect(jsonPath("$.content").doesNotExist())
+				.andExpect(jsonPath("$.pageable").doesNotExist());
+	}
+
+	@Test
+	void otherResponsesAreNotWrittenInProtobuf() throws Exception {
+		mockMvc.perform(get("/api/v1/material/{id}", MATERIAL.materialId()).accept(ProductProtobufHttpMessageConverter.PROTOBUF))
+				.andExpect(status().isNotAcceptable());
+		mockMvc.perform(get("/api/v1/material/{id}", MATERIAL.materialId())
+						.accept(ProductProtobufHttpMessageConverter.PROTOBUF, MediaType.parseMediaType("application/json;q=0.5")))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+}
@@ -0,0 +1,113 @@
+package com.shop.microservices.product.Codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.shop.microservices.product.Dto.PageResponseDTO;
+import com.shop.microservices.product.Dto.ProductResponseDTO;
+import com.shop.microservices.product.Mapper.ProductProtobufMapper;
+import com.shop.microservices.product.Proto.ProductProtos;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the payload size and the encoding and decoding throughput of a page of products in JSON, Smile, CBOR
+ * and Protobuf, as written by the product endpoints and read by a calling service.
+ * Run with {@code mvn test -Pbenchmark -Dtest=ResponseFormatBenchmark [-Dbenchmark.page-size=N]}.
+ */
+@Tag("benchmark")
+class ResponseFormatBenchmark {
+
+	private static final int PAGE_SIZE = Integer.getInteger("benchmark.page-size", 100);
+	private static final int WARM_UP = 20_000;
+	private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 50_000);
+	private static final TypeReference<PageResponseDTO<ProductResponseDTO>> PAGE_TYPE = new TypeReference<>() {
+	};
+
+	private final ProductProtobufMapper protobufMapper = new ProductProtobufMapper();
+
+	@Test
+	void compareFormats() throws Exception {
+		List<ProductResponseDTO> products = new ArrayList<>(PAGE_SIZE);
+		for (int i = 0; i < PAGE_SIZE; i++) {
+			products.add(new ProductResponseDTO(UUID.randomUUID(), "Product " + i, "Description of product " + i,
+					new BigDecimal("19.99").add(BigDecimal.valueOf(i))));
+		}
+		PageResponseDTO<ProductResponseDTO> page = new PageResponseDTO<>(products, 3, PAGE_SIZE, 10_000, 10_000 / PAGE_SIZE);
+
+		List<Result> results = List.of(
+				measure("JSON", page, new JacksonFormat(new ObjectMapper())),
+				measure("Smile", page, new JacksonFormat(new SmileMapper())),
+				measure("CBOR", page, new JacksonFormat(new CBORMapper())),
+				measure("Protobuf", page, new Format() {
+					@Override
+					public byte[] encode(PageResponseDTO<ProductResponseDTO> value) {
+						return protobufMapper.toMessage(value).toByteArray();
+					}
+
+					@Override
+					public PageResponseDTO<ProductResponseDTO> decode(byte[] bytes) throws Exception {
+						return protobufMapper.fromMessage(ProductProtos.ProductPage.parseFrom(bytes));
+					}
+				}));
+
+		Result json = results.get(0);
+		System.out.printf("Pages of %d products, %,d iterations%n", PAGE_SIZE, ITERATIONS);
+		for (Result result : results) {
+			System.out.printf("%-8s: %,7d bytes (%3.0f%%), encode %,8.0f pages/s (%.2fx), decode %,8.0f pages/s (%.2fx)%n",
+					result.format(), result.bytes(), 100.0 * result.bytes() / json.bytes(),
+					result.encodesPerSecond(), result.encodesPerSecond() / json.encodesPerSecond(),
+					result.decodesPerSecond(), result.decodesPerSecond() / json.decodesPerSecond());
+		}
+	}
+
+	private static Result measure(String name, PageResponseDTO<ProductResponseDTO> page, Format format) throws Exception {
+		byte[] bytes = format.encode(page);
+		assertThat(format.decode(bytes)).isEqualTo(page);
+		for (int i = 0; i < WARM_UP; i++) {
+			format.decode(format.encode(page));
+		}
+
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			format.encode(page);
+		}
+		double encodes = ITERATIONS * 1e9 / (System.nanoTime() - start);
+		start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			format.decode(bytes);
+		}
+		double decodes = ITERATIONS * 1e9 / (System.nanoTime() - start);
+		return new Result(name, bytes.length, encodes, decodes);
+	}
+
+	private interface Format {
+		byte[] encode(PageResponseDTO<ProductResponseDTO> page) throws Exception;
+
+		PageResponseDTO<ProductResponseDTO> decode(byte[] bytes) throws Exception;
+	}
+
+	private record JacksonFormat(ObjectMapper mapper) implements Format {
+
+		@Override
+		public byte[] encode(PageResponseDTO<ProductResponseDTO> page) throws Exception {
+			return mapper.writeValueAsBytes(page);
+		}
+
+		@Override
+		public PageResponseDTO<ProductResponseDTO> decode(byte[] bytes) throws Exception {
+			return mapper.readValue(bytes, PAGE_TYPE);
+		}
+	}
+
+	private record Result(String format, int bytes, double encodesPerSecond, double decodesPerSecond) {
+	}
+}
@@ -0,0 +1,74 @@
+package com.shop.microservices.product.Configuration;
+
+import com.shop.microservices.product.Model.Product;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoConversionConfigTest {
+
+	private MappingMongoConverter converter;
+
+	@BeforeEach
+	void createConverter() {
+		MongoCustomConversions conversions = new MongoConversionConfig().mongoCustomConversions();
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		mappingContext.afterPropertiesSet();
+		converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+	}
+
+	@Test
+	void convertersRoundTripKeepingTheScale() {
+		for (String value : new String[]{"12.50", "0.01", "1234567890.123456789", "-3.1E+5", "0"}) {
+			BigDecimal price = new BigDecimal(value);
+
+			Decimal128 written = new MongoConversionConfig.BigDecimalToDecimal128Converter().convert(price);
+			BigDecimal read = new MongoConversionConfig.Decimal128ToBigDecimalConverter().convert(written);
+
+			assertThat(read).isEqualTo(price);
+			assertThat(read.scale()).isEqualTo(price.scale());
+		}
+	}
+
+	@Test
+	void productPriceIsStoredAsDecimal128() {
+		Product product = Product.builder().id(UUID.randomUUID()).name("Desk").description("Oak desk")
+				.price(new BigDecimal("249.90")).build();
+
+		Document document = new Document();
+		converter.write(product, document);
+
+		assertThat(document.get("price")).isEqualTo(new Decimal128(new BigDecimal("249.90")));
+		Product read = converter.read(Product.class, document);
+		assertThat(read.getPrice()).isEqualTo(new BigDecimal("249.90"));
+	}
+
+	@Test
+	void queryParametersAreWrittenAsDecimal128() {
+		QueryMapper queryMapper = new QueryMapper(converter);
+		Query query = new Query(Criteria.where("price").gte(new BigDecimal("10.00")).lte(new BigDecimal("99.99")));
+
+		Document mapped = queryMapper.getMappedObject(query.getQueryObject(),
+				converter.getMappingContext().getPersistentEntity(Product.class));
+
+		Document range = mapped.get("price", Document.class);
+		assertThat(range.get("$gte")).isEqualTo(new Decimal128(new BigDecimal("10.00")));
+		assertThat(range.get("$lte")).isEqualTo(new Decimal128(new BigDecimal("99.99")));
+	}
+}
@@ -0,0 +1,37 @@
+package com.shop.microservices.product.Configuration;
+
+import com.shop.microservices.product.Dto.ProductRequestDTO;
+import com.shop.microservices.product.Dto.ProductResponseDTO;
+import com.shop.microservices.product.Model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductServiceRuntimeHintsTest {
+
+	private final RuntimeHints hints = new RuntimeHints();
+
+	ProductServiceRuntimeHintsTest() {
+		new ProductServiceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+	}
+
+	@Test
+	void documentsAndDtosCanBeBoundByReflection() {
+		for (Class<?> type : ProductServiceRuntimeHints.DOCUMENTS) {
+			assertThat(RuntimeHintsPredicates.reflection().onType(type)).accepts(hints);
+		}
+		for (Class<?> type : ProductServiceRuntimeHints.DTOS) {
+			assertThat(RuntimeHintsPredicates.reflection().onType(type)).accepts(hints);
+		}
+		assertThat(RuntimeHintsPredicates.reflection().onMethod(Product.class, "setPrice")).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onMethod(ProductRequestDTO.class, "setPrice")).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onMethod(ProductResponseDTO.class, "price")).accepts(hints);
+	}
+
+	@Test
+	void errorMessagesAreIncluded() {
+		assertThat(RuntimeHintsPredicates.resource().forResource("error_message_en.properties")).accepts(hints);
+	}
+}
@@ -0,0 +1,50 @@
+package com.shop.microservices.product.Dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageResponseDTOTest {
+
+	private static final UUID FIRST = UUID.fromString("00000000-0000-0000-0000-000000000001");
+	private static final UUID SECOND = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void writesTheItemsAndThePositionOnly() throws Exception {
+		PageResponseDTO<ProductResponseDTO> page = PageResponseDTO.of(new PageImpl<>(List.of(
+				new ProductResponseDTO(FIRST, "Mouse", "Wireless", new BigDecimal("29.99")),
+				new ProductResponseDTO(SECOND, "Keyboard", null, new BigDecimal("49.90"))), PageRequest.of(1, 2), 5));
+
+		assertThat(objectMapper.writeValueAsString(page)).isEqualTo("{\"items\":["
+				+ "{\"id\":\"" + FIRST + "\",\"name\":\"Mouse\",\"description\":\"Wireless\",\"price\":29.99},"
+				+ "{\"id\":\"" + SECOND + "\",\"name\":\"Keyboard\",\"description\":null,\"price\":49.90}],"
+				+ "\"page\":1,\"size\":2,\"totalElements\":5,\"totalPages\":3,\"hasNext\":true}");
+	}
+
+	@Test
+	void mapsTheItemsWhileWritingThem() throws Exception {
+		AtomicInteger mapped = new AtomicInteger();
+		PageResponseDTO<ProductResponseDTO> page = PageResponseDTO.of(new PageImpl<>(List.of(FIRST, SECOND), PageRequest.of(0, 10), 2),
+				id -> {
+					mapped.incrementAndGet();
+					return new ProductResponseDTO(id, "Product " + id, null, BigDecimal.ONE);
+				});
+		assertThat(mapped).hasValue(0);
+
+		String json = objectMapper.writeValueAsString(page);
+
+		assertThat(mapped).hasValue(2);
+		assertThat(json).contains(FIRST.toString(), SECOND.toString()).endsWith("\"totalPages\":1,\"hasNext\":false}");
+		assertThat(objectMapper.readValue(json, PageResponseDTO.class).totalElements()).isEqualTo(2);
+	}
+}
@@ -0,0 +1,106 @@
+package com.shop.microservices.product.Dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.shop.microservices.product.Mapper.ProductMapper;
+import com.shop.microservices.product.Model.Product;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compares writing a page of products as a serialized {@link Page} of mapped DTOs, as the list endpoints used to,
+ * with the {@link PageResponseDTO} mapping the items while they are written: throughput, response size and
+ * allocations per page.
+ * Run with {@code mvn test -Pbenchmark -Dtest=PageSerializationBenchmark [-Dbenchmark.page-size=N]}.
+ */
+@Tag("benchmark")
+class PageSerializationBenchmark {
+
+	private static final int PAGE_SIZE = Integer.getInteger("benchmark.page-size", 100);
+	private static final int WARM_UP = 20_000;
+	private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 100_000);
+
+	private final ObjectWriter writer = new ObjectMapper().writer();
+	private final ProductMapper mapper = new ProductMapper();
+
+	@Test
+	void compareSerialization() throws IOException {
+		List<Product> products = new ArrayList<>(PAGE_SIZE);
+		for (int i = 0; i < PAGE_SIZE; i++) {
+			products.add(Product.builder()
+					.id(UUID.randomUUID())
+					.name("Product " + i)
+					.description("Description of product " + i)
+					.price(new BigDecimal("19.99").add(BigDecimal.valueOf(i)))
+					.build());
+		}
+		Page<Product> page = new PageImpl<>(products, PageRequest.of(3, PAGE_SIZE, Sort.by("name")), 10_000);
+
+		Result springPage = measure(output -> writer.writeValue(output, page.map(mapper::productToProductResponseDTO)));
+		Result envelope = measure(output -> writer.writeValue(output, PageResponseDTO.of(page, mapper::productToProductResponseDTO)));
+
+		System.out.printf("Pages of %d products, %,d iterations%n", PAGE_SIZE, ITERATIONS);
+		System.out.printf("Page            : %,8.0f pages/s, %,6d bytes, %,8d bytes allocated per page%n",
+				springPage.pagesPerSecond(), springPage.bytes(), springPage.allocatedPerPage());
+		System.out.printf("PageResponseDTO : %,8.0f pages/s, %,6d bytes, %,8d bytes allocated per page (%.2fx)%n",
+				envelope.pagesPerSecond(), envelope.bytes(), envelope.allocatedPerPage(),
+				envelope.pagesPerSecond() / springPage.pagesPerSecond());
+	}
+
+	private static Result measure(Write write) throws IOException {
+		CountingOutputStream output = new CountingOutputStream();
+		for (int i = 0; i < WARM_UP; i++) {
+			write.to(output);
+		}
+		output.count = 0;
+		write.to(output);
+		long bytes = output.count;
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			write.to(output);
+		}
+		long elapsed = System.nanoTime() - start;
+		long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+		return new Result(ITERATIONS * 1e9 / elapsed, bytes, allocated / ITERATIONS);
+	}
+
+	private interface Write {
+		void to(OutputStream output) throws IOException;
+	}
+
+	private record Result(double pagesPerSecond, long bytes, long allocatedPerPage) {
+	}
+
+	/**
+	 * Discards the written bytes, counting them.
+	 */
+	private static final class CountingOutputStream extends OutputStream {
+
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+}
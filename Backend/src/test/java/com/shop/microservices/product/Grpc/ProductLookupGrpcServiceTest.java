@@ -0,0 +1,224 @@
+package com.shop.microservices.product.Grpc;
+
+import com.shop.microservices.product.Dto.ProductResponseDTO;
+import com.shop.microservices.product.Exception.InvalidInputException;
+import com.shop.microservices.product.Exception.ResourceNotFoundException;
+import com.shop.microservices.product.Mapper.ProductProtobufMapper;
+import com.shop.microservices.product.Proto.ProductLookupGrpc;
+import com.shop.microservices.product.Proto.ProductLookupProtos.GetProductRequest;
+import com.shop.microservices.product.Proto.ProductLookupProtos.ListProductsRequest;
+import com.shop.microservices.product.Proto.ProductLookupProtos.ProductResult;
+import com.shop.microservices.product.Proto.ProductProtos;
+import com.shop.microservices.product.Service.ServiceInterface.IProductService;
+import com.shop.microservices.product.Utils.ErrorMessageUtil;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductLookupGrpcServiceTest {
+
+	private static final List<ProductResponseDTO> PRODUCTS = List.of(
+			new ProductResponseDTO(UUID.randomUUID(), "Wireless Mouse", "Ergonomic", new BigDecimal("29.99")),
+			new ProductResponseDTO(UUID.randomUUID(), "Keyboard", null, new BigDecimal("49.00")),
+			new ProductResponseDTO(UUID.randomUUID(), "Monitor", "27 inches", new BigDecimal("199.90")));
+
+	private final IProductService productService = mock(IProductService.class);
+	private final ProductProtobufMapper protobufMapper = new ProductProtobufMapper();
+	private Server server;
+	private ManagedChannel channel;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		for (ProductResponseDTO product : PRODUCTS) {
+			when(productService.getProductById(product.id().toString())).thenReturn(product);
+		}
+		ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+		messageSource.setBasename("error_message_en");
+		ProductLookupGrpcService service = new ProductLookupGrpcService(
+				productService, protobufMapper, new ErrorMessageUtil(messageSource), 500, 2);
+
+		String name = InProcessServerBuilder.generateName();
+		server = InProcessServerBuilder.forName(name).directExecutor().addService(service).build().start();
+		channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+		server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void getProductReturnsTheProductOrTheStatusOfTheRestEndpoint() {
+		ProductLookupGrpc.ProductLookupBlockingStub stub = ProductLookupGrpc.newBlockingStub(channel);
+		ProductResponseDTO product = PRODUCTS.get(0);
+
+		ProductProtos.Product message = stub.getProduct(GetProductRequest.newBuilder().setId(product.id().toString()).build());
+		assertThat(protobufMapper.fromMessage(message)).isEqualTo(product);
+
+		UUID missing = UUID.randomUUID();
+		when(productService.getProductById(missing.toString())).thenThrow(new ResourceNotFoundException("prod.error.3105", missing));
+		assertThatThrownBy(() -> stub.getProduct(GetProductRequest.newBuilder().setId(missing.toString()).build()))
+				.isInstanceOfSatisfying(StatusRuntimeException.class, ex -> {
+					assertThat(ex.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND);
+					assertThat(ex.getStatus().getDescription()).startsWith("prod.error.3105: ").contains(missing.toString());
+					assertThat(ex.getTrailers().get(ProductLookupGrpcService.ERROR_CODE)).isEqualTo("prod.error.3105");
+				});
+	}
+
+	@Test
+	void batchGetAnswersEveryRequestInOrder() throws Exception {
+		when(productService.getProductById("not-a-uuid")).thenThrow(new InvalidInputException("prod.error.3110"));
+		UUID missing = UUID.randomUUID();
+		when(productService.getProductById(missing.toString())).thenThrow(new ResourceNotFoundException("prod.error.3105", missing));
+		List<String> ids = List.of(PRODUCTS.get(0).id().toString(), "not-a-uuid", missing.toString(), PRODUCTS.get(2).id().toString());
+
+		List<ProductResult> results = new CopyOnWriteArrayList<>();
+		CompletableFuture<Void> completed = new CompletableFuture<>();
+		StreamObserver<GetProductRequest> requests = ProductLookupGrpc.newStub(channel).batchGetProducts(new StreamObserver<>() {
+			@Override
+			public void onNext(ProductResult result) {
+				results.add(result);
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				completed.completeExceptionally(t);
+			}
+
+			@Override
+			public void onCompleted() {
+				completed.complete(null);
+			}
+		});
+		for (String id : ids) {
+			requests.onNext(GetProductRequest.newBuilder().setId(id).build());
+		}
+		requests.onCompleted();
+		completed.get(5, TimeUnit.SECONDS);
+
+		assertThat(results).extracting(ProductResult::getId).containsExactlyElementsOf(ids);
+		assertThat(protobufMapper.fromMessage(results.get(0).getProduct())).isEqualTo(PRODUCTS.get(0));
+		assertThat(results.get(1).getError().getStatus()).isEqualTo(Status.Code.INVALID_ARGUMENT.value());
+		assertThat(results.get(1).getError().getCode()).isEqualTo("prod.error.3110");
+		assertThat(results.get(2).getError().getStatus()).isEqualTo(Status.Code.NOT_FOUND.value());
+		assertThat(protobufMapper.fromMessage(results.get(3).getProduct())).isEqualTo(PRODUCTS.get(2));
+	}
+
+	@Test
+	void listProductsStreamsEveryPageAfterTheLastProductSent() {
+		stubPages();
+
+		// The requested page size is capped to the maximum of 2
+		Iterator<ProductProtos.Product> products = ProductLookupGrpc.newBlockingStub(channel)
+				.listProducts(ListProductsRequest.newBuilder().setPageSize(100).build());
+		List<ProductResponseDTO> listed = new ArrayList<>();
+		products.forEachRemaining(product -> listed.add(protobufMapper.fromMessage(product)));
+
+		assertThat(listed).containsExactlyElementsOf(PRODUCTS);
+		// The short second page ends the listing without another query
+		verify(productService).getProductsAfter(null, 2);
+		verify(productService).getProductsAfter(PRODUCTS.get(1).id().toString(), 2);
+		verify(productService, never()).getProductsAfter(PRODUCTS.get(2).id().toString(), 2);
+	}
+
+	@Test
+	void listProductsResumesAfterTheGivenProduct() {
+		stubPages();
+
+		Iterator<ProductProtos.Product> products = ProductLookupGrpc.newBlockingStub(channel)
+				.listProducts(ListProductsRequest.newBuilder().setAfterId(PRODUCTS.get(1).id().toString()).build());
+		List<ProductResponseDTO> listed = new ArrayList<>();
+		products.forEachRemaining(product -> listed.add(protobufMapper.fromMessage(product)));
+
+		assertThat(listed).containsExactly(PRODUCTS.get(2));
+	}
+
+	@Test
+	void listProductsEndsOnAnEmptyCatalogAndRejectsAnInvalidResumeId() {
+		when(productService.getProductsAfter(null, 500)).thenReturn(List.of());
+		when(productService.getProductsAfter("not-a-uuid", 500)).thenThrow(new InvalidInputException("prod.error.3110"));
+
+		Iterator<ProductProtos.Product> products = ProductLookupGrpc.newBlockingStub(channel)
+				.listProducts(ListProductsRequest.getDefaultInstance());
+		assertThat(products.hasNext()).isFalse();
+
+		Iterator<ProductProtos.Product> invalid = ProductLookupGrpc.newBlockingStub(channel)
+				.listProducts(ListProductsRequest.newBuilder().setAfterId("not-a-uuid").build());
+		assertThatThrownBy(invalid::hasNext)
+				.isInstanceOfSatisfying(StatusRuntimeException.class,
+						ex -> assertThat(ex.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT));
+	}
+
+	@Test
+	void listProductsOnlyFetchesThePagesTheClientConsumes() throws Exception {
+		stubPages();
+
+		List<ProductProtos.Product> received = new CopyOnWriteArrayList<>();
+		CompletableFuture<Void> completed = new CompletableFuture<>();
+		List<ClientCallStreamObserver<ListProductsRequest>> call = new CopyOnWriteArrayList<>();
+		ProductLookupGrpc.newStub(channel).listProducts(ListProductsRequest.newBuilder().setPageSize(2).build(),
+				new ClientResponseObserver<ListProductsRequest, ProductProtos.Product>() {
+					@Override
+					public void beforeStart(ClientCallStreamObserver<ListProductsRequest> requestStream) {
+						// Reads a single product until asked for more
+						requestStream.disableAutoRequestWithInitial(1);
+						call.add(requestStream);
+					}
+
+					@Override
+					public void onNext(ProductProtos.Product product) {
+						received.add(product);
+					}
+
+					@Override
+					public void onError(Throwable t) {
+						completed.completeExceptionally(t);
+					}
+
+					@Override
+					public void onCompleted() {
+						completed.complete(null);
+					}
+				});
+
+		assertThat(received).hasSize(1);
+		verify(productService, never()).getProductsAfter(PRODUCTS.get(1).id().toString(), 2);
+
+		call.get(0).request(Integer.MAX_VALUE);
+		completed.get(5, TimeUnit.SECONDS);
+		assertThat(received).extracting(protobufMapper::fromMessage).containsExactlyElementsOf(PRODUCTS);
+	}
+
+	private void stubPages() {
+		when(productService.getProductsAfter(null, 2)).thenReturn(PRODUCTS.subList(0, 2));
+		when(productService.getProductsAfter(PRODUCTS.get(1).id().toString(), 2)).thenReturn(PRODUCTS.subList(2, 3));
+		when(productService.getProductsAfter(PRODUCTS.get(1).id().toString(), 500)).thenReturn(PRODUCTS.subList(2, 3));
+	}
+}
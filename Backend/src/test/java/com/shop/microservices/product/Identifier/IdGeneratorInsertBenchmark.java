@@ -0,0 +1,72 @@
+package com.shop.microservices.product.Identifier;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.ConnectionString;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the insert throughput of random and time-ordered identifiers against a real MongoDB.
+ * Run with {@code mvn test -Pbenchmark -Dtest=IdGeneratorInsertBenchmark [-Dbenchmark.documents=N]}.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class IdGeneratorInsertBenchmark {
+
+	private static final int DOCUMENTS = Integer.getInteger("benchmark.documents", 500_000);
+	private static final int BATCH_SIZE = 1_000;
+
+	@Container
+	static final MongoDBContainer MONGO = new MongoDBContainer(DockerImageName.parse("mongo:latest"));
+
+	@Test
+	void compareInsertThroughput() {
+		MongoClientSettings settings = MongoClientSettings.builder()
+				.applyConnectionString(new ConnectionString(MONGO.getReplicaSetUrl("benchmark")))
+				.uuidRepresentation(UuidRepresentation.STANDARD)
+				.build();
+
+		try (MongoClient client = MongoClients.create(settings)) {
+			// Warm up the server and JIT with a small run of each strategy
+			insert(client.getDatabase("benchmark").getCollection("warmup_random"), new RandomUuidGenerator(), 20_000);
+			insert(client.getDatabase("benchmark").getCollection("warmup_v7"), new UuidV7Generator(), 20_000);
+
+			double random = insert(client.getDatabase("benchmark").getCollection("random"), new RandomUuidGenerator(), DOCUMENTS);
+			double v7 = insert(client.getDatabase("benchmark").getCollection("uuid_v7"), new UuidV7Generator(), DOCUMENTS);
+
+			System.out.printf("Inserted %,d documents per strategy%n", DOCUMENTS);
+			System.out.printf("RANDOM  : %,.0f inserts/s%n", random);
+			System.out.printf("UUID_V7 : %,.0f inserts/s (%.2fx)%n", v7, v7 / random);
+		}
+	}
+
+	private static double insert(MongoCollection<Document> collection, IdGenerator generator, int documents) {
+		long start = System.nanoTime();
+		List<Document> batch = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < documents; i++) {
+			batch.add(new Document("_id", generator.generate())
+					.append("name", "product-" + i)
+					.append("description", "Benchmark product " + i));
+			if (batch.size() == BATCH_SIZE) {
+				collection.insertMany(batch);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			collection.insertMany(batch);
+		}
+		return documents / ((System.nanoTime() - start) / 1e9);
+	}
+}
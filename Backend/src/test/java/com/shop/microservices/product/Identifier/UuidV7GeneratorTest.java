@@ -0,0 +1,71 @@
+package com.shop.microservices.product.Identifier;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+	@Test
+	void generatesVersion7WithEmbeddedTimestamp() {
+		UuidV7Generator generator = new UuidV7Generator(() -> 1_700_000_000_000L);
+
+		UUID uuid = generator.generate();
+
+		assertThat(uuid.version()).isEqualTo(7);
+		assertThat(uuid.variant()).isEqualTo(2);
+		assertThat(UuidV7Generator.timestampOf(uuid)).isEqualTo(1_700_000_000_000L);
+	}
+
+	@Test
+	void staysMonotonicWithinMillisecondAndWhenClockGoesBackwards() {
+		long[] now = {1_700_000_000_000L};
+		UuidV7Generator generator = new UuidV7Generator(() -> now[0]);
+
+		UUID previous = generator.generate();
+		for (int i = 0; i < 10_000; i++) {
+			if (i == 5_000) {
+				now[0] -= 10;
+			}
+			UUID next = generator.generate();
+			assertThat(compareUnsigned(next, previous)).isPositive();
+			previous = next;
+		}
+	}
+
+	@Test
+	void generatesUniqueIdsAcrossThreads() throws Exception {
+		UuidV7Generator generator = new UuidV7Generator();
+		Set<UUID> ids = ConcurrentHashMap.newKeySet();
+
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 20_000; i++) {
+						ids.add(generator.generate());
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+
+		assertThat(ids).hasSize(8 * 20_000);
+	}
+
+	private static int compareUnsigned(UUID a, UUID b) {
+		int result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+		return result != 0 ? result : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+	}
+}
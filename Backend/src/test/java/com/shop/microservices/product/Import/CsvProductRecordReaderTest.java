@@ -0,0 +1,127 @@
+package com.shop.microservices.product.Import;
+
+import com.shop.microservices.product.Exception.ApplicationException;
+import com.shop.microservices.product.Exception.InvalidInputException;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvProductRecordReaderTest {
+
+	@Test
+	void quotedFieldsMayHoldCommasQuotesAndLineBreaks() throws IOException {
+		List<ProductImportRecord> records = read("""
+				name,description,price
+				"Desk, oak","The ""classic"" model
+				with two drawers",249.90
+				Lamp,,19.99
+				""");
+
+		assertThat(records).hasSize(2);
+		assertThat(records.get(0).name()).isEqualTo("Desk, oak");
+		assertThat(records.get(0).description()).isEqualTo("The \"classic\" model\nwith two drawers");
+		assertThat(records.get(0).price()).isEqualTo("249.90");
+		assertThat(records.get(0).line()).isEqualTo(2);
+		assertThat(records.get(1).name()).isEqualTo("Lamp");
+		assertThat(records.get(1).description()).isEmpty();
+		// The quoted line break moves the next record to line 4
+		assertThat(records.get(1).line()).isEqualTo(4);
+	}
+
+	@Test
+	void crlfLineEndingsAreNotPartOfTheValues() throws IOException {
+		List<ProductImportRecord> records = read("name,price\r\nLamp,19.99\r\n\"Desk\",249.90\r\n");
+
+		assertThat(records).extracting(ProductImportRecord::name).containsExactly("Lamp", "Desk");
+		assertThat(records).extracting(ProductImportRecord::price).containsExactly("19.99", "249.90");
+		assertThat(records).extracting(ProductImportRecord::line).containsExactly(2L, 3L);
+	}
+
+	@Test
+	void byteOrderMarkBeforeTheHeaderIsSkipped() throws IOException {
+		List<ProductImportRecord> records = read("\uFEFFname,price\nLamp,19.99");
+
+		assertThat(records).singleElement().satisfies(record -> {
+			assertThat(record.name()).isEqualTo("Lamp");
+			assertThat(record.price()).isEqualTo("19.99");
+		});
+	}
+
+	@Test
+	void columnsAreFoundByNameAndUnknownOrExtraColumnsIgnored() throws IOException {
+		List<ProductImportRecord> records = read("""
+				SKU, Price ,Name
+				A-1,19.99,Lamp,unexpected
+				B-2,5.00
+				""");
+
+		assertThat(records.get(0).name()).isEqualTo("Lamp");
+		assertThat(records.get(0).price()).isEqualTo("19.99");
+		assertThat(records.get(0).description()).isNull();
+		// A short row leaves its missing columns null, for the validation to reject
+		assertThat(records.get(1).name()).isNull();
+		assertThat(records.get(1).price()).isEqualTo("5.00");
+	}
+
+	@Test
+	void blankLinesAreSkippedAndPricesKeptAsText() throws IOException {
+		List<ProductImportRecord> records = read("name,price\n\nLamp,abc\n\n");
+
+		assertThat(records).singleElement().satisfies(record -> {
+			assertThat(record.isFailed()).isFalse();
+			assertThat(record.price()).isEqualTo("abc");
+			assertThat(record.line()).isEqualTo(3);
+		});
+	}
+
+	@Test
+	void unterminatedQuoteFailsTheLastRecord() throws IOException {
+		List<ProductImportRecord> records = read("name,price\nLamp,19.99\n\"Desk,249.90\n");
+
+		assertThat(records).hasSize(2);
+		assertThat(records.get(1).isFailed()).isTrue();
+		assertThat(records.get(1).errorCode()).isEqualTo("prod.error.3118");
+		assertThat(records.get(1).errorArgs()).containsExactly("unterminated quoted field");
+	}
+
+	@Test
+	void oversizedRecordIsFailedAndReadingContinues() throws IOException {
+		String huge = "x".repeat(ProductRecordReader.MAX_RECORD_LENGTH + 1);
+		List<ProductImportRecord> records = read("name,price\n" + huge + ",1\nLamp,19.99\n");
+
+		assertThat(records).hasSize(2);
+		assertThat(records.get(0).errorArgs()).containsExactly("record too long");
+		assertThat(records.get(1).name()).isEqualTo("Lamp");
+		assertThat(records.get(1).line()).isEqualTo(3);
+	}
+
+	@Test
+	void headerWithoutTheRequiredColumnsIsRejected() {
+		assertThatThrownBy(() -> read("name,description\nLamp,Desk lamp\n"))
+				.isInstanceOf(InvalidInputException.class)
+				.extracting(ex -> ((ApplicationException) ex).getErrorCode())
+				.isEqualTo("prod.error.3117");
+		assertThatThrownBy(() -> read(""))
+				.isInstanceOf(InvalidInputException.class)
+				.extracting(ex -> ((ApplicationException) ex).getErrorCode())
+				.isEqualTo("prod.error.3117");
+	}
+
+	private static List<ProductImportRecord> read(String content) throws IOException {
+		List<ProductImportRecord> records = new ArrayList<>();
+		try (CsvProductRecordReader reader = new CsvProductRecordReader(new BufferedReader(new StringReader(content)))) {
+			ProductImportRecord record;
+			while ((record = reader.next()) != null) {
+				records.add(record);
+			}
+		}
+		return records;
+	}
+}
@@ -0,0 +1,90 @@
+package com.shop.microservices.product.Import;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NdjsonProductRecordReaderTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void eachLineIsOneProduct() throws IOException {
+		List<ProductImportRecord> records = read("""
+				{"name":"Lamp","description":"Desk lamp, \\"LED\\"\\nwarm white","price":19.99}
+				{"name":"Desk","price":"249.90"}
+				""");
+
+		assertThat(records).hasSize(2);
+		assertThat(records.get(0).description()).isEqualTo("Desk lamp, \"LED\"\nwarm white");
+		assertThat(records.get(0).price()).isEqualTo("19.99");
+		assertThat(records.get(1).description()).isNull();
+		assertThat(records.get(1).price()).isEqualTo("249.90");
+		assertThat(records).extracting(ProductImportRecord::line).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void crlfBlankLinesAndByteOrderMarkAreTolerated() throws IOException {
+		List<ProductImportRecord> records = read("\uFEFF{\"name\":\"Lamp\",\"price\":1}\r\n\r\n  \n{\"name\":\"Desk\",\"price\":2}");
+
+		assertThat(records).extracting(ProductImportRecord::name).containsExactly("Lamp", "Desk");
+		assertThat(records).extracting(ProductImportRecord::line).containsExactly(1L, 4L);
+	}
+
+	@Test
+	void malformedLinesAreFailedAndReadingContinues() throws IOException {
+		List<ProductImportRecord> records = read("""
+				{"name":"Lamp","price":
+				["Desk",249.90]
+				{"name":"Chair","price":"abc","color":"red"}
+				""");
+
+		assertThat(records).hasSize(3);
+		assertThat(records.get(0).isFailed()).isTrue();
+		assertThat(records.get(0).errorCode()).isEqualTo("prod.error.3118");
+		assertThat(records.get(1).errorArgs()).containsExactly("expected a JSON object");
+		// Unknown fields are ignored and the price is validated by the import
+		assertThat(records.get(2).isFailed()).isFalse();
+		assertThat(records.get(2).price()).isEqualTo("abc");
+	}
+
+	@Test
+	void missingFieldsAreNull() throws IOException {
+		List<ProductImportRecord> records = read("{\"description\":\"No name\",\"price\":null}\n");
+
+		assertThat(records).singleElement().satisfies(record -> {
+			assertThat(record.name()).isNull();
+			assertThat(record.price()).isNull();
+		});
+	}
+
+	@Test
+	void oversizedLineIsFailed() throws IOException {
+		String huge = "{\"name\":\"" + "x".repeat(ProductRecordReader.MAX_RECORD_LENGTH) + "\"}";
+
+		List<ProductImportRecord> records = read(huge + "\n{\"name\":\"Lamp\",\"price\":1}\n");
+
+		assertThat(records).hasSize(2);
+		assertThat(records.get(0).errorArgs()).containsExactly("record too long");
+		assertThat(records.get(1).name()).isEqualTo("Lamp");
+		assertThat(records.get(1).line()).isEqualTo(2);
+	}
+
+	private List<ProductImportRecord> read(String content) throws IOException {
+		List<ProductImportRecord> records = new ArrayList<>();
+		try (NdjsonProductRecordReader reader = new NdjsonProductRecordReader(new BufferedReader(new StringReader(content)), objectMapper)) {
+			ProductImportRecord record;
+			while ((record = reader.next()) != null) {
+				records.add(record);
+			}
+		}
+		return records;
+	}
+}
@@ -0,0 +1,111 @@
+package com.shop.microservices.product.Limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shop.microservices.product.Utils.ErrorMessageUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.FilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+	// Every request is over the latency threshold, so each measured request shrinks the limit
+	private final AdaptiveConcurrencyLimiter readLimiter = new AdaptiveConcurrencyLimiter("read", 10, 1, 20, Duration.ZERO, 0.5);
+	private final AdaptiveConcurrencyLimiter writeLimiter = new AdaptiveConcurrencyLimiter("write", 10, 1, 20, Duration.ZERO, 0.5);
+
+	@Test
+	void streamedEndpointsDoNotAdaptTheLimit() throws Exception {
+		ConcurrencyLimitFilter filter = filter();
+
+		filter.doFilter(request("POST", "/api/v1/product/import"), new MockHttpServletResponse(), new MockFilterChain());
+		filter.doFilter(request("POST", "/api/v1/product/import/async"), new MockHttpServletResponse(), new MockFilterChain());
+		filter.doFilter(request("GET", "/api/v1/product/export"), new MockHttpServletResponse(), new MockFilterChain());
+
+		assertThat(writeLimiter.getLimit()).isEqualTo(10);
+		assertThat(readLimiter.getLimit()).isEqualTo(10);
+		assertThat(writeLimiter.getInFlight()).isZero();
+		assertThat(readLimiter.getInFlight()).isZero();
+	}
+
+	@Test
+	void otherEndpointsAdaptTheLimitOfTheirKind() throws Exception {
+		ConcurrencyLimitFilter filter = filter();
+
+		filter.doFilter(request("POST", "/api/v1/product/price-adjustments"), new MockHttpServletResponse(), new MockFilterChain());
+		// Only the exact streamed endpoints are excluded
+		filter.doFilter(request("GET", "/api/v1/product/import"), new MockHttpServletResponse(), new MockFilterChain());
+
+		assertThat(writeLimiter.getLimit()).isEqualTo(5);
+		assertThat(readLimiter.getLimit()).isEqualTo(5);
+	}
+
+	@Test
+	void streamedExportHoldsItsSlotUntilTheResponseIsWritten() throws Exception {
+		MockHttpServletRequest request = request("GET", "/api/v1/product/export");
+		request.setAsyncSupported(true);
+
+		filter().doFilter(request, new MockHttpServletResponse(), startAsync());
+
+		assertThat(readLimiter.getInFlight()).isEqualTo(1);
+		((MockAsyncContext) request.getAsyncContext()).complete();
+		assertThat(readLimiter.getInFlight()).isZero();
+		assertThat(readLimiter.getLimit()).isEqualTo(10);
+	}
+
+	@Test
+	void asyncRequestIsReleasedOnceWhenItTimesOutAndCompletes() throws Exception {
+		MockHttpServletRequest request = request("GET", "/api/v1/product/list");
+		request.setAsyncSupported(true);
+
+		filter().doFilter(request, new MockHttpServletResponse(), startAsync());
+
+		MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+		asyncContext.getListeners().get(0).onTimeout(new AsyncEvent(asyncContext));
+		asyncContext.complete();
+		assertThat(readLimiter.getInFlight()).isZero();
+		assertThat(readLimiter.getLimit()).isEqualTo(5);
+	}
+
+	@Test
+	void requestOverTheLimitIsRejected() throws Exception {
+		AdaptiveConcurrencyLimiter full = new AdaptiveConcurrencyLimiter("write", 1, 1, 1, Duration.ofSeconds(1), 0.5);
+		assertThat(full.tryAcquire()).isTrue();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter(readLimiter, full).doFilter(request("POST", "/api/v1/product/import"), response, new MockFilterChain());
+
+		assertThat(response.getStatus()).isEqualTo(503);
+		assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+		assertThat(response.getContentAsString()).contains("prod.error.3900");
+	}
+
+	private ConcurrencyLimitFilter filter() {
+		return filter(readLimiter, writeLimiter);
+	}
+
+	private static ConcurrencyLimitFilter filter(AdaptiveConcurrencyLimiter read, AdaptiveConcurrencyLimiter write) {
+		ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+		messageSource.setBasename("error_message_en");
+		return new ConcurrencyLimitFilter(read, write, new ErrorMessageUtil(messageSource), new ObjectMapper().findAndRegisterModules(),
+				Duration.ofSeconds(2));
+	}
+
+	private static FilterChain startAsync() {
+		return (request, response) -> request.startAsync();
+	}
+
+	private static MockHttpServletRequest request(String method, String path) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+		request.setContextPath("");
+		return request;
+	}
+}
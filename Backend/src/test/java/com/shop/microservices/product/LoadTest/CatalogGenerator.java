@@ -0,0 +1,127 @@
+package com.shop.microservices.product.LoadTest;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of a synthetic clothing catalog.
+ * <p>
+ * Every entry is derived from the seed and its index alone, so entries can be generated in any order, or in
+ * parallel, and the same seed always gives the same catalog. Names end with the index, which keeps them unique as
+ * the service requires. Descriptions vary in length and prices follow a skewed distribution, most products being
+ * cheap and a few expensive.
+ * </p>
+ */
+final class CatalogGenerator {
+
+	private static final String[] STYLES = {"Classic", "Slim", "Relaxed", "Vintage", "Sport", "Urban", "Essential",
+			"Premium", "Oversized", "Cropped", "Tailored", "Casual", "Heritage", "Performance", "Lightweight"};
+	private static final String[] COLORS = {"Black", "White", "Navy", "Grey", "Olive", "Beige", "Burgundy", "Sky",
+			"Charcoal", "Sand", "Forest", "Rust", "Cream", "Indigo", "Coral"};
+	private static final String[] GARMENTS = {"T-Shirt", "Shirt", "Hoodie", "Sweater", "Jacket", "Coat", "Jeans",
+			"Chinos", "Shorts", "Dress", "Skirt", "Blazer", "Cardigan", "Vest", "Parka", "Polo", "Leggings", "Scarf"};
+	private static final String[] FIBERS = {"Cotton", "Linen", "Wool", "Silk", "Cashmere", "Denim", "Leather",
+			"Polyester", "Nylon", "Viscose", "Hemp", "Bamboo", "Alpaca", "Modal", "Elastane"};
+	private static final String[] FINISHES = {"Organic", "Recycled", "Brushed", "Washed", "Waxed", "Combed",
+			"Mercerized", "Stretch", "Ripstop", "Twill", "Jersey", "Fleece"};
+	private static final String[] MATERIAL_TYPES = {"Fabric", "Leather", "Synthetic", "Knit", "Blend"};
+	private static final String[] WORDS = {"soft", "durable", "breathable", "comfortable", "warm", "light",
+			"stretchy", "water-resistant", "everyday", "timeless", "fitted", "layered", "seasonal", "easy-care",
+			"responsibly", "sourced", "crafted", "with", "a", "the", "for", "and", "in", "finish", "fit", "cut",
+			"pockets", "collar", "hem", "stitching", "detail", "wear", "weekend", "office", "travel", "outdoor"};
+
+	// Distinguishes the kinds of entries generated for a same index
+	private static final long PRODUCT = 0x50524f44L;
+	private static final long CATEGORY = 0x43415447L;
+	private static final long MATERIAL = 0x4d415452L;
+
+	private final long seed;
+
+	/**
+	 * Constructs a generator.
+	 *
+	 * @param seed The seed of the catalog.
+	 */
+	CatalogGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Generates the product of the given index.
+	 *
+	 * @param index The index of the product, from 0.
+	 * @return The product, as sent to the service.
+	 */
+	GeneratedProduct product(long index) {
+		SplittableRandom random = random(PRODUCT, index);
+		String name = pick(random, STYLES) + " " + pick(random, COLORS) + " " + pick(random, GARMENTS) + " " + index;
+		String description = random.nextInt(10) == 0 ? null : sentence(random, 6 + random.nextInt(40));
+		// Log-uniform between 1 and 1000, in cents
+		long cents = Math.round(100 * Math.pow(1000, random.nextDouble()));
+		return new GeneratedProduct(name, description, BigDecimal.valueOf(Math.max(cents, 1), 2));
+	}
+
+	/**
+	 * Generates the category of the given index.
+	 *
+	 * @param index The index of the category, from 0.
+	 * @return The category, as sent to the service.
+	 */
+	GeneratedCategory category(long index) {
+		SplittableRandom random = random(CATEGORY, index);
+		String name = pick(random, STYLES) + " " + pick(random, GARMENTS) + " " + index;
+		return new GeneratedCategory(name, sentence(random, 4 + random.nextInt(12)));
+	}
+
+	/**
+	 * Generates the material of the given index.
+	 *
+	 * @param index The index of the material, from 0.
+	 * @return The material, as sent to the service.
+	 */
+	GeneratedMaterial material(long index) {
+		SplittableRandom random = random(MATERIAL, index);
+		String name = pick(random, FINISHES) + " " + pick(random, FIBERS) + " " + index;
+		return new GeneratedMaterial(name, pick(random, MATERIAL_TYPES), sentence(random, 4 + random.nextInt(12)));
+	}
+
+	private SplittableRandom random(long kind, long index) {
+		// SplittableRandom scrambles its seed, so consecutive indexes give unrelated sequences
+		return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + kind * 0xC2B2AE3D27D4EB4FL + index);
+	}
+
+	private static String pick(SplittableRandom random, String[] values) {
+		return values[random.nextInt(values.length)];
+	}
+
+	private static String sentence(SplittableRandom random, int words) {
+		StringBuilder sentence = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			String word = pick(random, WORDS);
+			if (i == 0) {
+				sentence.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+			} else {
+				sentence.append(' ').append(word);
+			}
+		}
+		return sentence.append('.').toString();
+	}
+
+	/**
+	 * A generated product, serialized as the body of the product endpoints and as a line of an NDJSON import.
+	 */
+	record GeneratedProduct(String name, String description, BigDecimal price) {
+	}
+
+	/**
+	 * A generated category, serialized as the body of the category endpoints.
+	 */
+	record GeneratedCategory(String name, String description) {
+	}
+
+	/**
+	 * A generated material, serialized as the body of the material endpoints.
+	 */
+	record GeneratedMaterial(String materialName, String materialType, String description) {
+	}
+}
@@ -0,0 +1,40 @@
+package com.shop.microservices.product.LoadTest;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogGeneratorTest {
+
+	@Test
+	void theSameSeedGivesTheSameCatalogInAnyOrder() {
+		CatalogGenerator generator = new CatalogGenerator(42);
+		CatalogGenerator sameSeed = new CatalogGenerator(42);
+
+		for (long index = 999; index >= 0; index--) {
+			assertThat(sameSeed.product(index)).isEqualTo(generator.product(index));
+			assertThat(sameSeed.category(index)).isEqualTo(generator.category(index));
+			assertThat(sameSeed.material(index)).isEqualTo(generator.material(index));
+		}
+		assertThat(new CatalogGenerator(43).product(0)).isNotEqualTo(generator.product(0));
+	}
+
+	@Test
+	void generatedEntriesAreValidAndUniquelyNamed() {
+		CatalogGenerator generator = new CatalogGenerator(7);
+		Set<String> names = new HashSet<>();
+
+		LongStream.range(0, 10_000).mapToObj(generator::product).forEach(product -> {
+			assertThat(names.add(product.name())).isTrue();
+			assertThat(product.price()).isGreaterThanOrEqualTo(new BigDecimal("0.01")).isLessThanOrEqualTo(new BigDecimal("1000.00"));
+			assertThat(product.price().scale()).isEqualTo(2);
+		});
+		assertThat(generator.material(3).materialType()).isNotBlank();
+		assertThat(generator.category(3).name()).endsWith(" 3");
+	}
+}
@@ -0,0 +1,76 @@
+package com.shop.microservices.product.LoadTest;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.SplittableRandom;
+
+/**
+ * The identifiers of the entries of one resource known to exist, to address the get, update and delete requests.
+ * <p>
+ * Held in an array, so an identifier is drawn in constant time, and removed by moving the last one into its slot.
+ * Access is guarded by the pool's lock, which is held for a few instructions only.
+ * </p>
+ */
+final class IdPool {
+
+	private String[] ids;
+	private int size;
+
+	/**
+	 * Constructs a pool holding the given identifiers.
+	 *
+	 * @param ids The initial identifiers.
+	 */
+	IdPool(Collection<String> ids) {
+		this.ids = ids.toArray(new String[Math.max(ids.size(), 16)]);
+		this.size = ids.size();
+	}
+
+	/**
+	 * Adds an identifier, e.g. of an entry just created.
+	 *
+	 * @param id The identifier.
+	 */
+	synchronized void add(String id) {
+		if (size == ids.length) {
+			ids = Arrays.copyOf(ids, size * 2);
+		}
+		ids[size++] = id;
+	}
+
+	/**
+	 * Draws an identifier, uniformly.
+	 *
+	 * @param random The random source.
+	 * @return The identifier, or {@code null} if the pool is empty.
+	 */
+	synchronized String random(SplittableRandom random) {
+		return size == 0 ? null : ids[random.nextInt(size)];
+	}
+
+	/**
+	 * Draws an identifier, uniformly, and removes it from the pool, e.g. before deleting its entry.
+	 *
+	 * @param random The random source.
+	 * @return The identifier, or {@code null} if the pool is empty.
+	 */
+	synchronized String take(SplittableRandom random) {
+		if (size == 0) {
+			return null;
+		}
+		int index = random.nextInt(size);
+		String id = ids[index];
+		ids[index] = ids[--size];
+		ids[size] = null;
+		return id;
+	}
+
+	/**
+	 * Returns the number of identifiers in the pool.
+	 *
+	 * @return The size.
+	 */
+	synchronized int size() {
+		return size;
+	}
+}
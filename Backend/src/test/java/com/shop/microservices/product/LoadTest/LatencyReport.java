@@ -0,0 +1,165 @@
+package com.shop.microservices.product.LoadTest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of the requests of a load test, per endpoint.
+ * <p>
+ * Latencies are recorded in HdrHistograms, from the time each request was scheduled to start to the time its
+ * response was read: with the open model, a request delayed because the client or the service is saturated counts
+ * its waiting time, rather than hiding it (coordinated omission).
+ * </p>
+ */
+final class LatencyReport {
+
+	// Latencies from 1 microsecond to 1 minute, with 3 significant digits
+	private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+	private final Map<TrafficMix.Endpoint, EndpointStats> stats = new LinkedHashMap<>();
+
+	/**
+	 * Constructs an empty report.
+	 *
+	 * @param endpoints The endpoints reported on, in the order of the report.
+	 */
+	LatencyReport(List<TrafficMix.Endpoint> endpoints) {
+		endpoints.forEach(endpoint -> stats.put(endpoint, new EndpointStats()));
+	}
+
+	/**
+	 * Records a completed request.
+	 *
+	 * @param endpoint     The endpoint requested.
+	 * @param status       The HTTP status of the response, 0 if the request failed without one.
+	 * @param latencyNanos The time from the scheduled start of the request to its response.
+	 */
+	void record(TrafficMix.Endpoint endpoint, int status, long latencyNanos) {
+		EndpointStats endpointStats = stats.get(endpoint);
+		endpointStats.latencies.recordValue(Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(latencyNanos), 1), MAX_LATENCY_MICROS));
+		if (status < 200 || status >= 300) {
+			endpointStats.errors.increment();
+		}
+	}
+
+	/**
+	 * Records a request that was not sent, as the client already had the maximum number of requests in flight.
+	 *
+	 * @param endpoint The endpoint that would have been requested.
+	 */
+	void recordDropped(TrafficMix.Endpoint endpoint) {
+		stats.get(endpoint).dropped.increment();
+	}
+
+	/**
+	 * Records a request that was not sent, as there was no entry to address it to, e.g. nothing left to delete.
+	 *
+	 * @param endpoint The endpoint that would have been requested.
+	 */
+	void recordSkipped(TrafficMix.Endpoint endpoint) {
+		stats.get(endpoint).skipped.increment();
+	}
+
+	/**
+	 * Returns the summary of each endpoint, followed by the total over all endpoints.
+	 *
+	 * @param elapsed The duration the requests were sent over, for the throughput.
+	 * @return The rows of the report.
+	 */
+	List<Row> rows(Duration elapsed) {
+		List<Row> rows = new ArrayList<>();
+		Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+		long errors = 0;
+		long dropped = 0;
+		long skipped = 0;
+		for (Map.Entry<TrafficMix.Endpoint, EndpointStats> entry : stats.entrySet()) {
+			EndpointStats endpointStats = entry.getValue();
+			rows.add(Row.of(entry.getKey().toString(), endpointStats.latencies, endpointStats.errors.sum(),
+					endpointStats.dropped.sum(), endpointStats.skipped.sum(), elapsed));
+			total.add(endpointStats.latencies);
+			errors += endpointStats.errors.sum();
+			dropped += endpointStats.dropped.sum();
+			skipped += endpointStats.skipped.sum();
+		}
+		rows.add(Row.of("total", total, errors, dropped, skipped, elapsed));
+		return rows;
+	}
+
+	/**
+	 * Prints the report as a table.
+	 *
+	 * @param out     The stream to print to.
+	 * @param elapsed The duration the requests were sent over.
+	 */
+	void print(PrintStream out, Duration elapsed) {
+		out.printf("%-18s %10s %8s %8s %8s %10s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "dropped",
+				"skipped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+		for (Row row : rows(elapsed)) {
+			out.printf(Locale.ROOT, "%-18s %,10d %,8d %,8d %,8d %,10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", row.endpoint(),
+					row.requests(), row.errors(), row.dropped(), row.skipped(), row.throughput(),
+					row.p50(), row.p90(), row.p99(), row.p999(), row.max());
+		}
+	}
+
+	/**
+	 * Writes the report as CSV, latencies in milliseconds.
+	 *
+	 * @param file    The file to write.
+	 * @param elapsed The duration the requests were sent over.
+	 * @throws IOException If the file cannot be written.
+	 */
+	void writeCsv(Path file, Duration elapsed) throws IOException {
+		List<String> lines = new ArrayList<>();
+		lines.add("endpoint,requests,errors,dropped,skipped,throughput,p50,p90,p99,p999,max");
+		for (Row row : rows(elapsed)) {
+			lines.add(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f", row.endpoint(),
+					row.requests(), row.errors(), row.dropped(), row.skipped(), row.throughput(),
+					row.p50(), row.p90(), row.p99(), row.p999(), row.max()));
+		}
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		Files.write(file, lines);
+	}
+
+	/**
+	 * The summary of an endpoint: counts, throughput in requests per second and latencies in milliseconds.
+	 */
+	record Row(String endpoint, long requests, long errors, long dropped, long skipped, double throughput,
+			   double p50, double p90, double p99, double p999, double max) {
+
+		private static Row of(String endpoint, Histogram latencies, long errors, long dropped, long skipped, Duration elapsed) {
+			long requests = latencies.getTotalCount();
+			return new Row(endpoint, requests, errors, dropped, skipped,
+					requests / Math.max(elapsed.toNanos() / 1e9, 1e-9),
+					millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+					millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+					millis(latencies.getMaxValue()));
+		}
+
+		private static double millis(long micros) {
+			return micros / 1000.0;
+		}
+	}
+
+	private static final class EndpointStats {
+
+		private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+		private final LongAdder errors = new LongAdder();
+		private final LongAdder dropped = new LongAdder();
+		private final LongAdder skipped = new LongAdder();
+	}
+}
@@ -0,0 +1,373 @@
+package com.shop.microservices.product.LoadTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Load test of a running product service, entirely local: it needs nothing but the service and its MongoDB.
+ * <p>
+ * The run has three steps:
+ * <ol>
+ *     <li>Seeds the catalog produced by the {@link CatalogGenerator}: categories and materials are created one by one,
+ *     products are imported in NDJSON chunks. Seeding again with the same seed finds the catalog already there, so
+ *     it can be skipped with {@code -Dload-test.seed-catalog=false}.</li>
+ *     <li>Reads back the identifiers of every product (through the export), category and material.</li>
+ *     <li>Drives the {@link TrafficMix} in an open model: requests arrive as a Poisson process of the given rate,
+ *     each sent on its own virtual thread without waiting for the previous ones, as independent clients would. A
+ *     warm-up period is run first and left out of the report. The {@link LatencyReport} is printed at the end and
+ *     written as CSV.</li>
+ * </ol>
+ * </p>
+ * <p>
+ * Start the service, e.g. with {@code mvn spring-boot:run}, which starts the MongoDB of {@code docker-compose.yml},
+ * then run {@code mvn -Pload-test test-compile exec:java [-Dload-test.<setting>=<value>...]}; the settings and their
+ * defaults are listed in {@link Settings}.
+ * </p>
+ * <p>
+ * To measure the service apart from MongoDB, start it with the in-memory repositories instead, with
+ * {@code mvn spring-boot:run -Dspring-boot.run.profiles=in-memory}.
+ * </p>
+ */
+public final class LoadTestRunner {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private final Settings settings;
+	private final CatalogGenerator generator;
+	private final HttpClient client;
+	private final Map<TrafficMix.Resource, IdPool> pools = new EnumMap<>(TrafficMix.Resource.class);
+	// Index of the next generated entry sent by a create or update, beyond the seeded catalog
+	private final AtomicLong nextIndex;
+
+	private LoadTestRunner(Settings settings) {
+		this.settings = settings;
+		this.generator = new CatalogGenerator(settings.seed());
+		this.client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+		this.nextIndex = new AtomicLong(Math.max(settings.products(), Math.max(settings.categories(), settings.materials())));
+	}
+
+	public static void main(String[] args) throws Exception {
+		Settings settings = Settings.fromSystemProperties();
+		System.out.println("Load test settings: " + settings);
+		new LoadTestRunner(settings).run();
+	}
+
+	private void run() throws Exception {
+		if (settings.seedCatalog()) {
+			long start = System.nanoTime();
+			seed(TrafficMix.Resource.CATEGORY, settings.categories(), generator::category);
+			seed(TrafficMix.Resource.MATERIAL, settings.materials(), generator::material);
+			importProducts();
+			System.out.printf("Catalog seeded in %s%n", Duration.ofNanos(System.nanoTime() - start));
+		}
+		pools.put(TrafficMix.Resource.PRODUCT, new IdPool(exportedProductIds()));
+		pools.put(TrafficMix.Resource.CATEGORY, new IdPool(listedIds(TrafficMix.Resource.CATEGORY, "id")));
+		pools.put(TrafficMix.Resource.MATERIAL, new IdPool(listedIds(TrafficMix.Resource.MATERIAL, "materialId")));
+		pools.forEach((resource, pool) -> System.out.printf("%,d %s identifiers loaded%n", pool.size(), resource));
+
+		TrafficMix mix = TrafficMix.parse(settings.mix());
+		System.out.printf("Driving %.1f requests/s for %s after a %s warm-up: %s%n",
+				settings.rate(), settings.duration(), settings.warmUp(), mix);
+		LatencyReport report = drive(mix);
+		report.print(System.out, settings.duration());
+		report.writeCsv(settings.report(), settings.duration());
+		System.out.println("Report written to " + settings.report().toAbsolutePath());
+	}
+
+	/**
+	 * Creates the generated entries of a resource, {@code seed-concurrency} at a time. Entries that already exist are
+	 * rejected by the service and left as they are.
+	 */
+	private void seed(TrafficMix.Resource resource, long count, LongFunction<Object> entry) throws InterruptedException {
+		Semaphore permits = new Semaphore(settings.seedConcurrency());
+		AtomicLong created = new AtomicLong();
+		AtomicLong rejected = new AtomicLong();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (long index = 0; index < count; index++) {
+				permits.acquire();
+				long entryIndex = index;
+				executor.execute(() -> {
+					try {
+						HttpResponse<byte[]> response = client.send(request(resource.path(), "POST", entry.apply(entryIndex)),
+								HttpResponse.BodyHandlers.ofByteArray());
+						(response.statusCode() == 200 ? created : rejected).incrementAndGet();
+					} catch (IOException ex) {
+						rejected.incrementAndGet();
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					} finally {
+						permits.release();
+					}
+				});
+			}
+		}
+		System.out.printf("%s: %,d created, %,d rejected or already present%n", resource, created.get(), rejected.get());
+	}
+
+	/**
+	 * Imports the generated products in NDJSON chunks of {@code import-chunk} products, upserted by name.
+	 */
+	private void importProducts() throws IOException, InterruptedException {
+		long inserted = 0;
+		long updated = 0;
+		long rejected = 0;
+		for (long from = 0; from < settings.products(); from += settings.importChunk()) {
+			ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+			for (long index = from; index < Math.min(from + settings.importChunk(), settings.products()); index++) {
+				OBJECT_MAPPER.writeValue(chunk, generator.product(index));
+				chunk.write('\n');
+			}
+			HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri(TrafficMix.Resource.PRODUCT.path() + "/import"))
+					.header("Content-Type", "application/x-ndjson")
+					.POST(HttpRequest.BodyPublishers.ofByteArray(chunk.toByteArray()))
+					.build(), HttpResponse.BodyHandlers.ofByteArray());
+			if (response.statusCode() != 200) {
+				throw new IllegalStateException("The import answered " + response.statusCode() + ": " + new String(response.body()));
+			}
+			JsonNode importReport = OBJECT_MAPPER.readTree(response.body());
+			inserted += importReport.path("inserted").asLong();
+			updated += importReport.path("updated").asLong();
+			rejected += importReport.path("rejected").asLong();
+		}
+		System.out.printf("PRODUCT: %,d inserted, %,d updated, %,d rejected%n", inserted, updated, rejected);
+	}
+
+	private List<String> exportedProductIds() throws IOException, InterruptedException {
+		HttpResponse<Stream<String>> response = client.send(HttpRequest.newBuilder(uri(TrafficMix.Resource.PRODUCT.path() + "/export")).build(),
+				HttpResponse.BodyHandlers.ofLines());
+		List<String> ids = new ArrayList<>();
+		try (Stream<String> lines = response.body()) {
+			for (String line : (Iterable<String>) lines::iterator) {
+				if (!line.isBlank()) {
+					ids.add(OBJECT_MAPPER.readTree(line).path("id").asText());
+				}
+			}
+		}
+		return ids;
+	}
+
+	private List<String> listedIds(TrafficMix.Resource resource, String idField) throws IOException, InterruptedException {
+		List<String> ids = new ArrayList<>();
+		for (int page = 0; ; page++) {
+			HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri(resource.path() + "?size=1000&page=" + page)).build(),
+					HttpResponse.BodyHandlers.ofByteArray());
+			if (response.statusCode() != 200) {
+				// Past the last page, or an empty collection
+				return ids;
+			}
+			JsonNode listed = OBJECT_MAPPER.readTree(response.body());
+			listed.path("items").forEach(item -> ids.add(item.path(idField).asText()));
+			if (!listed.path("hasNext").asBoolean()) {
+				return ids;
+			}
+		}
+	}
+
+	/**
+	 * Sends the requests of the mix at their scheduled times until the end of the run, then waits for the last
+	 * responses.
+	 */
+	private LatencyReport drive(TrafficMix mix) {
+		LatencyReport report = new LatencyReport(mix.endpoints());
+		// The warm-up requests are recorded apart and discarded
+		LatencyReport warmUpReport = new LatencyReport(mix.endpoints());
+		SplittableRandom random = new SplittableRandom(settings.seed());
+		Semaphore inFlight = new Semaphore(settings.maxInFlight());
+		long start = System.nanoTime();
+		long measuredFrom = start + settings.warmUp().toNanos();
+		long end = measuredFrom + settings.duration().toNanos();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (long scheduled = start; scheduled < end; scheduled += nextInterval(random)) {
+				long wait = scheduled - System.nanoTime();
+				if (wait > 0) {
+					LockSupport.parkNanos(wait);
+				}
+				LatencyReport target = scheduled >= measuredFrom ? report : warmUpReport;
+				TrafficMix.Endpoint endpoint = mix.next(random);
+				Call call = prepare(endpoint, random);
+				if (call == null) {
+					target.recordSkipped(endpoint);
+				} else if (!inFlight.tryAcquire()) {
+					target.recordDropped(endpoint);
+				} else {
+					long scheduledAt = scheduled;
+					executor.execute(() -> {
+						try {
+							send(call, scheduledAt, target);
+						} finally {
+							inFlight.release();
+						}
+					});
+				}
+			}
+		}
+		return report;
+	}
+
+	/**
+	 * Returns the time to the next arrival, exponentially distributed with a mean of 1 / rate.
+	 */
+	private long nextInterval(SplittableRandom random) {
+		return Math.max(1, (long) (-Math.log(1 - random.nextDouble()) / settings.rate() * 1e9));
+	}
+
+	/**
+	 * Builds the request of an endpoint, addressed to an entry drawn from the pool of its resource.
+	 *
+	 * @return The request, or {@code null} if there is no entry to address it to.
+	 */
+	private Call prepare(TrafficMix.Endpoint endpoint, SplittableRandom random) {
+		TrafficMix.Resource resource = endpoint.resource();
+		IdPool pool = pools.get(resource);
+		return switch (endpoint.operation()) {
+			case CREATE -> new Call(endpoint, request(resource.path(), "POST", generated(resource, nextIndex.getAndIncrement())));
+			case LIST -> {
+				int pages = (int) Math.max(1, Math.min(settings.listPages(), pool.size() / settings.listPageSize()));
+				yield new Call(endpoint, HttpRequest.newBuilder(
+								uri(resource.path() + "?size=" + settings.listPageSize() + "&page=" + random.nextInt(pages)))
+						.timeout(settings.requestTimeout())
+						.build());
+			}
+			case GET -> {
+				String id = pool.random(random);
+				yield id == null ? null : new Call(endpoint, HttpRequest.newBuilder(uri(resource.path() + "/" + id))
+						.timeout(settings.requestTimeout())
+						.build());
+			}
+			case UPDATE -> {
+				String id = pool.random(random);
+				yield id == null ? null
+						: new Call(endpoint, request(resource.path() + "/" + id, "PUT", generated(resource, nextIndex.getAndIncrement())));
+			}
+			case DELETE -> {
+				// Taken out of the pool first, so that no later request addresses the deleted entry
+				String id = pool.take(random);
+				yield id == null ? null : new Call(endpoint, HttpRequest.newBuilder(uri(resource.path() + "/" + id))
+						.timeout(settings.requestTimeout())
+						.DELETE()
+						.build());
+			}
+		};
+	}
+
+	private void send(Call call, long scheduledAt, LatencyReport report) {
+		int status = 0;
+		try {
+			HttpResponse<byte[]> response = client.send(call.request(), HttpResponse.BodyHandlers.ofByteArray());
+			status = response.statusCode();
+			if (call.endpoint().operation() == TrafficMix.Operation.CREATE && status == 200) {
+				TrafficMix.Resource resource = call.endpoint().resource();
+				JsonNode created = OBJECT_MAPPER.readTree(response.body());
+				pools.get(resource).add(created.path(resource == TrafficMix.Resource.MATERIAL ? "materialId" : "id").asText());
+			}
+		} catch (IOException ex) {
+			// Recorded as a failed request, without status
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		report.record(call.endpoint(), status, System.nanoTime() - scheduledAt);
+	}
+
+	private Object generated(TrafficMix.Resource resource, long index) {
+		return switch (resource) {
+			case PRODUCT -> generator.product(index);
+			case CATEGORY -> generator.category(index);
+			case MATERIAL -> generator.material(index);
+		};
+	}
+
+	private HttpRequest request(String path, String method, Object body) {
+		try {
+			return HttpRequest.newBuilder(uri(path))
+					.timeout(settings.requestTimeout())
+					.header("Content-Type", "application/json")
+					.method(method, HttpRequest.BodyPublishers.ofByteArray(OBJECT_MAPPER.writeValueAsBytes(body)))
+					.build();
+		} catch (IOException ex) {
+			throw new IllegalStateException("Cannot serialize " + body, ex);
+		}
+	}
+
+	private URI uri(String path) {
+		return URI.create(settings.baseUrl() + path);
+	}
+
+	private record Call(TrafficMix.Endpoint endpoint, HttpRequest request) {
+	}
+
+	/**
+	 * The settings of a run, read from the {@code load-test.*} system properties.
+	 *
+	 * @param baseUrl         {@code base-url}: the service, {@code http://localhost:8080} by default.
+	 * @param seed            {@code seed}: the seed of the catalog and of the traffic, 42 by default.
+	 * @param products        {@code products}: the products of the catalog, 100,000 by default.
+	 * @param categories      {@code categories}: the categories of the catalog, 1,000 by default.
+	 * @param materials       {@code materials}: the materials of the catalog, 5,000 by default.
+	 * @param seedCatalog     {@code seed-catalog}: whether the catalog is seeded before the run, true by default.
+	 * @param importChunk     {@code import-chunk}: the products per import request, 50,000 by default.
+	 * @param seedConcurrency {@code seed-concurrency}: the categories and materials created concurrently, 32 by default.
+	 * @param rate            {@code rate}: the mean arrival rate, in requests per second, 200 by default.
+	 * @param warmUp          {@code warm-up}: the duration of the unreported warm-up, 10s by default.
+	 * @param duration        {@code duration}: the duration of the reported run, 60s by default.
+	 * @param mix             {@code mix}: the {@link TrafficMix}, {@link TrafficMix#DEFAULT} by default.
+	 * @param maxInFlight     {@code max-in-flight}: the requests in flight beyond which arrivals are dropped, 1,000 by default.
+	 * @param requestTimeout  {@code request-timeout}: the timeout of each request, 10s by default.
+	 * @param listPageSize    {@code list-page-size}: the page size of the list requests, 10 by default.
+	 * @param listPages       {@code list-pages}: the first pages the list requests are spread over, 100 by default.
+	 * @param report          {@code report}: the CSV report, {@code target/load-test/report.csv} by default.
+	 */
+	record Settings(String baseUrl, long seed, long products, long categories, long materials, boolean seedCatalog,
+					int importChunk, int seedConcurrency, double rate, Duration warmUp, Duration duration, String mix,
+					int maxInFlight, Duration requestTimeout, int listPageSize, int listPages, Path report) {
+
+		static Settings fromSystemProperties() {
+			return new Settings(
+					property("base-url", "http://localhost:8080").replaceAll("/+$", ""),
+					Long.parseLong(property("seed", "42")),
+					Long.parseLong(property("products", "100000")),
+					Long.parseLong(property("categories", "1000")),
+					Long.parseLong(property("materials", "5000")),
+					Boolean.parseBoolean(property("seed-catalog", "true")),
+					Integer.parseInt(property("import-chunk", "50000")),
+					Integer.parseInt(property("seed-concurrency", "32")),
+					Double.parseDouble(property("rate", "200")),
+					DurationStyle.detectAndParse(property("warm-up", "10s")),
+					DurationStyle.detectAndParse(property("duration", "60s")),
+					property("mix", TrafficMix.DEFAULT),
+					Integer.parseInt(property("max-in-flight", "1000")),
+					DurationStyle.detectAndParse(property("request-timeout", "10s")),
+					Integer.parseInt(property("list-page-size", "10")),
+					Integer.parseInt(property("list-pages", "100")),
+					Path.of(property("report", "target/load-test/report.csv")));
+		}
+
+		private static String property(String name, String defaultValue) {
+			return System.getProperty("load-test." + name, defaultValue);
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package com.shop.microservices.product.LoadTest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Weighted mix of the endpoints driven by the load test, e.g.
+ * {@code product.get=50,product.list=15,product.create=10,category.get=5}.
+ * <p>
+ * Each endpoint is an operation on one of the catalog resources; the share of the traffic it receives is its weight
+ * divided by the sum of the weights.
+ * </p>
+ */
+final class TrafficMix {
+
+	/**
+	 * The default mix: mostly product reads, with the writes of a catalog being edited.
+	 */
+	static final String DEFAULT = "product.get=50,product.list=15,product.create=8,product.update=8,product.delete=4,"
+			+ "category.get=5,category.list=2,material.get=6,material.list=2";
+
+	private final List<Endpoint> endpoints;
+	// Cumulative weights, in the order of the endpoints
+	private final long[] thresholds;
+
+	private TrafficMix(Map<Endpoint, Long> weights) {
+		this.endpoints = List.copyOf(weights.keySet());
+		this.thresholds = new long[endpoints.size()];
+		long total = 0;
+		for (int i = 0; i < endpoints.size(); i++) {
+			total += weights.get(endpoints.get(i));
+			thresholds[i] = total;
+		}
+	}
+
+	/**
+	 * Parses a mix.
+	 *
+	 * @param mix Comma-separated {@code resource.operation=weight} entries.
+	 * @return The mix.
+	 * @throws IllegalArgumentException If an entry is malformed, or no endpoint has a positive weight.
+	 */
+	static TrafficMix parse(String mix) {
+		Map<Endpoint, Long> weights = new LinkedHashMap<>();
+		for (String entry : mix.split(",")) {
+			if (entry.isBlank()) {
+				continue;
+			}
+			String[] parts = entry.trim().split("=");
+			String[] endpoint = parts[0].trim().split("\\.");
+			if (parts.length != 2 || endpoint.length != 2) {
+				throw new IllegalArgumentException("Expected resource.operation=weight, got " + entry);
+			}
+			long weight = Long.parseLong(parts[1].trim());
+			if (weight < 0) {
+				throw new IllegalArgumentException("Negative weight in " + entry);
+			}
+			if (weight > 0) {
+				weights.merge(new Endpoint(Resource.valueOf(endpoint[0].trim().toUpperCase(Locale.ROOT)),
+						Operation.valueOf(endpoint[1].trim().toUpperCase(Locale.ROOT))), weight, Long::sum);
+			}
+		}
+		if (weights.isEmpty()) {
+			throw new IllegalArgumentException("The mix has no endpoint: " + mix);
+		}
+		return new TrafficMix(weights);
+	}
+
+	/**
+	 * Draws the endpoint of the next request.
+	 *
+	 * @param random The random source of the traffic.
+	 * @return An endpoint, with the probability of its share of the mix.
+	 */
+	Endpoint next(SplittableRandom random) {
+		long drawn = random.nextLong(thresholds[thresholds.length - 1]);
+		for (int i = 0; i < thresholds.length; i++) {
+			if (drawn < thresholds[i]) {
+				return endpoints.get(i);
+			}
+		}
+		throw new IllegalStateException("Unreachable");
+	}
+
+	/**
+	 * Returns the endpoints of the mix, in the order they were given.
+	 *
+	 * @return The endpoints.
+	 */
+	List<Endpoint> endpoints() {
+		return endpoints;
+	}
+
+	/**
+	 * Returns the share of the traffic each endpoint receives.
+	 *
+	 * @return The shares, between 0 and 1, by endpoint.
+	 */
+	Map<Endpoint, Double> shares() {
+		Map<Endpoint, Double> shares = new LinkedHashMap<>();
+		long total = thresholds[thresholds.length - 1];
+		long previous = 0;
+		for (int i = 0; i < endpoints.size(); i++) {
+			shares.put(endpoints.get(i), (double) (thresholds[i] - previous) / total);
+			previous = thresholds[i];
+		}
+		return shares;
+	}
+
+	@Override
+	public String toString() {
+		List<String> entries = new ArrayList<>();
+		shares().forEach((endpoint, share) -> entries.add(String.format(Locale.ROOT, "%s=%.1f%%", endpoint, 100 * share)));
+		return String.join(", ", entries);
+	}
+
+	/**
+	 * The catalog resources, with the path of their endpoints.
+	 */
+	enum Resource {
+		PRODUCT("/api/v1/product"),
+		CATEGORY("/api/v1/category"),
+		MATERIAL("/api/v1/material");
+
+		private final String path;
+
+		Resource(String path) {
+			this.path = path;
+		}
+
+		String path() {
+			return path;
+		}
+	}
+
+	/**
+	 * The operations on a resource.
+	 */
+	enum Operation {
+		CREATE, GET, LIST, UPDATE, DELETE
+	}
+
+	/**
+	 * An operation on a resource, named {@code resource.operation} in the mix and the report.
+	 */
+	record Endpoint(Resource resource, Operation operation) {
+
+		@Override
+		public String toString() {
+			return resource.name().toLowerCase(Locale.ROOT) + "." + operation.name().toLowerCase(Locale.ROOT);
+		}
+	}
+}
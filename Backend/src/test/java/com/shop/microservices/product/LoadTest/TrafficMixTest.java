@@ -0,0 +1,39 @@
+package com.shop.microservices.product.LoadTest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.within;
+
+class TrafficMixTest {
+
+	@Test
+	void endpointsAreDrawnInProportionToTheirWeights() {
+		TrafficMix mix = TrafficMix.parse("product.get=70, product.list=20,product.delete=10,category.get=0");
+		assertThat(mix.endpoints()).extracting(TrafficMix.Endpoint::toString)
+				.containsExactly("product.get", "product.list", "product.delete");
+
+		Map<TrafficMix.Operation, Integer> drawn = new EnumMap<>(TrafficMix.Operation.class);
+		SplittableRandom random = new SplittableRandom(1);
+		for (int i = 0; i < 100_000; i++) {
+			drawn.merge(mix.next(random).operation(), 1, Integer::sum);
+		}
+		assertThat(drawn.get(TrafficMix.Operation.GET) / 100_000.0).isCloseTo(0.7, within(0.01));
+		assertThat(drawn.get(TrafficMix.Operation.LIST) / 100_000.0).isCloseTo(0.2, within(0.01));
+		assertThat(drawn.get(TrafficMix.Operation.DELETE) / 100_000.0).isCloseTo(0.1, within(0.01));
+	}
+
+	@Test
+	void malformedMixesAreRejected() {
+		assertThat(TrafficMix.parse(TrafficMix.DEFAULT).shares().values().stream().mapToDouble(Double::doubleValue).sum())
+				.isCloseTo(1.0, within(1e-9));
+		assertThatIllegalArgumentException().isThrownBy(() -> TrafficMix.parse("product.get"));
+		assertThatIllegalArgumentException().isThrownBy(() -> TrafficMix.parse("order.get=1"));
+		assertThatIllegalArgumentException().isThrownBy(() -> TrafficMix.parse("product.get=0"));
+	}
+}
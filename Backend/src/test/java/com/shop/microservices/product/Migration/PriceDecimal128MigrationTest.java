@@ -0,0 +1,110 @@
+package com.shop.microservices.product.Migration;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class PriceDecimal128MigrationTest {
+
+	@Container
+	static final MongoDBContainer MONGO = new MongoDBContainer(DockerImageName.parse("mongo:latest"));
+
+	private MongoClient client;
+	private MongoTemplate mongoTemplate;
+
+	@BeforeEach
+	void connect() {
+		client = MongoClients.create(MONGO.getReplicaSetUrl("migration"));
+		mongoTemplate = new MongoTemplate(client, "migration");
+		mongoTemplate.getDb().drop();
+	}
+
+	@AfterEach
+	void close() {
+		client.close();
+	}
+
+	@Test
+	void stringPricesAreConvertedAndNonNumericOnesSkipped() {
+		for (int i = 0; i < 25; i++) {
+			products().insertOne(product("Product " + i, (10 + i) + ".50"));
+		}
+		products().insertOne(product("Padded", " 7.25 "));
+		products().insertOne(product("Unpriced", "call us"));
+		products().insertOne(new Document("_id", UUID.randomUUID().toString()).append("name", "Numeric")
+				.append("price", new Decimal128(new BigDecimal("3.99"))));
+
+		long converted = new PriceDecimal128Migration(mongoTemplate, 10).migrate();
+
+		assertThat(converted).isEqualTo(26);
+		assertThat(price("Product 0")).isEqualTo(new Decimal128(new BigDecimal("10.50")));
+		assertThat(price("Product 24")).isEqualTo(new Decimal128(new BigDecimal("34.50")));
+		assertThat(price("Padded")).isEqualTo(new Decimal128(new BigDecimal("7.25")));
+		assertThat(price("Unpriced")).isEqualTo("call us");
+		assertThat(price("Numeric")).isEqualTo(new Decimal128(new BigDecimal("3.99")));
+	}
+
+	@Test
+	void runningTwiceConvertsNothingMore() {
+		products().insertOne(product("Lamp", "19.99"));
+
+		assertThat(new PriceDecimal128Migration(mongoTemplate, 10).migrate()).isEqualTo(1);
+		assertThat(new PriceDecimal128Migration(mongoTemplate, 10).migrate()).isZero();
+		assertThat(price("Lamp")).isEqualTo(new Decimal128(new BigDecimal("19.99")));
+	}
+
+	@Test
+	void priceChangedAfterItWasReadIsLeftAlone() {
+		products().insertOne(product("Chair", "49.00"));
+		products().insertOne(product("Table", "120.00"));
+		AtomicBoolean changed = new AtomicBoolean();
+		MongoTemplate racingTemplate = new MongoTemplate(client, "migration") {
+			@Override
+			public <T> List<T> find(Query query, Class<T> entityClass, String collectionName) {
+				List<T> batch = super.find(query, entityClass, collectionName);
+				if (changed.compareAndSet(false, true)) {
+					// A write landing between the read and the bulk update of the batch
+					products().updateOne(new Document("name", "Chair"), new Document("$set", new Document("price", "45.00")));
+				}
+				return batch;
+			}
+		};
+
+		long converted = new PriceDecimal128Migration(racingTemplate, 10).migrate();
+
+		assertThat(converted).isEqualTo(1);
+		assertThat(price("Chair")).isEqualTo("45.00");
+		assertThat(price("Table")).isEqualTo(new Decimal128(new BigDecimal("120.00")));
+	}
+
+	private MongoCollection<Document> products() {
+		return mongoTemplate.getCollection("product");
+	}
+
+	private Object price(String name) {
+		return products().find(new Document("name", name)).first().get("price");
+	}
+
+	private static Document product(String name, String price) {
+		return new Document("_id", UUID.randomUUID().toString()).append("name", name).append("price", price);
+	}
+}
@@ -0,0 +1,142 @@
+package com.shop.microservices.product.Migration;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.shop.microservices.product.Model.Category;
+import com.shop.microservices.product.Model.Product;
+import org.bson.BsonBinary;
+import org.bson.BsonBinarySubType;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.types.Binary;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class UuidRepresentationMigrationTest {
+
+	@Container
+	static final MongoDBContainer MONGO = new MongoDBContainer(DockerImageName.parse("mongo:latest"));
+
+	private MongoClient client;
+	private MongoTemplate mongoTemplate;
+
+	@BeforeEach
+	void connect() {
+		client = MongoClients.create(MongoClientSettings.builder()
+				.applyConnectionString(new ConnectionString(MONGO.getReplicaSetUrl("migration")))
+				.uuidRepresentation(UuidRepresentation.STANDARD)
+				.build());
+		mongoTemplate = new MongoTemplate(client, "migration");
+		mongoTemplate.getDb().drop();
+		mongoTemplate.getCollection("product").createIndex(Indexes.ascending("name"), new IndexOptions().unique(true));
+	}
+
+	@AfterEach
+	void close() {
+		client.close();
+	}
+
+	@Test
+	void legacyIdsAreMovedToTheStandardRepresentation() {
+		List<UUID> legacy = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			UUID id = UUID.randomUUID();
+			legacy.add(id);
+			products().insertOne(product(legacyId(id), "Legacy " + i));
+		}
+		UUID standard = UUID.randomUUID();
+		products().insertOne(product(standard, "Standard"));
+		UUID categoryId = UUID.randomUUID();
+		mongoTemplate.getCollection("category").insertOne(new Document("_id", legacyId(categoryId)).append("name", "Legacy category"));
+
+		long migrated = new UuidRepresentationMigration(mongoTemplate, 10).migrate();
+
+		assertThat(migrated).isEqualTo(26);
+		assertThat(products().countDocuments()).isEqualTo(26);
+		assertThat(products().countDocuments(new Document("_id", legacyId(legacy.get(0))))).isZero();
+		for (int i = 0; i < legacy.size(); i++) {
+			Product product = mongoTemplate.findById(legacy.get(i), Product.class);
+			assertThat(product).isNotNull();
+			assertThat(product.getName()).isEqualTo("Legacy " + i);
+			assertThat(product.getPrice()).isEqualByComparingTo("9.99");
+		}
+		assertThat(mongoTemplate.findById(standard, Product.class).getName()).isEqualTo("Standard");
+		assertThat(mongoTemplate.findById(categoryId, Category.class).getName()).isEqualTo("Legacy category");
+		assertThat(mongoTemplate.collectionExists("product" + UuidRepresentationMigration.BACKUP_SUFFIX)).isFalse();
+		assertThat(new UuidRepresentationMigration(mongoTemplate, 10).migrate()).isZero();
+	}
+
+	@Test
+	void documentRemovedByAnInterruptedRunIsRestoredFromTheBackup() {
+		UUID lost = UUID.randomUUID();
+		UUID moved = UUID.randomUUID();
+		mongoTemplate.getCollection("product" + UuidRepresentationMigration.BACKUP_SUFFIX)
+				.insertMany(List.of(product(legacyId(lost), "Lost"), product(legacyId(moved), "Moved")));
+		products().insertOne(product(moved, "Moved"));
+
+		long migrated = new UuidRepresentationMigration(mongoTemplate, 10).migrate();
+
+		assertThat(migrated).isEqualTo(1);
+		assertThat(mongoTemplate.findById(lost, Product.class).getName()).isEqualTo("Lost");
+		assertThat(products().countDocuments()).isEqualTo(2);
+		assertThat(mongoTemplate.collectionExists("product" + UuidRepresentationMigration.BACKUP_SUFFIX)).isFalse();
+	}
+
+	@Test
+	void documentWhoseNameWasTakenIsKeptInTheBackup() {
+		UUID legacy = UUID.randomUUID();
+		mongoTemplate.getCollection("product" + UuidRepresentationMigration.BACKUP_SUFFIX)
+				.insertOne(product(legacyId(legacy), "Taken"));
+		products().insertOne(product(UUID.randomUUID(), "Taken"));
+
+		assertThat(new UuidRepresentationMigration(mongoTemplate, 10).migrate()).isZero();
+
+		assertThat(mongoTemplate.getCollection("product" + UuidRepresentationMigration.BACKUP_SUFFIX).countDocuments()).isEqualTo(1);
+		assertThat(mongoTemplate.findById(legacy, Product.class)).isNull();
+	}
+
+	@Test
+	void legacyBinaryIsDecodedWithItsHalvesReversed() {
+		UUID id = UUID.fromString("01920e6c-4b7e-7c3a-9f1e-2d4b8a6c0e11");
+
+		Binary legacy = legacyId(id);
+
+		assertThat(legacy.getData()[0]).isEqualTo((byte) 0x3a);
+		assertThat(UuidRepresentationMigration.toUuid(legacy)).isEqualTo(id);
+	}
+
+	private MongoCollection<Document> products() {
+		return mongoTemplate.getCollection("product");
+	}
+
+	private static Document product(Object id, String name) {
+		return new Document("_id", id).append("name", name).append("description", "Description of " + name)
+				.append("price", new Decimal128(new BigDecimal("9.99")));
+	}
+
+	private static Binary legacyId(UUID id) {
+		BsonBinary binary = new BsonBinary(id, UuidRepresentation.JAVA_LEGACY);
+		assertThat(binary.getType()).isEqualTo(BsonBinarySubType.UUID_LEGACY.getValue());
+		return new Binary(binary.getType(), binary.getData());
+	}
+}
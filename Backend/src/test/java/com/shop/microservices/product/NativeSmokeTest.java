@@ -0,0 +1,121 @@
+package com.shop.microservices.product;
+
+import com.shop.microservices.product.Dto.CategoryResponseDTO;
+import com.shop.microservices.product.Dto.MaterialResponseDTO;
+import com.shop.microservices.product.Dto.PageResponseDTO;
+import com.shop.microservices.product.Dto.ProductResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Smoke test of the three catalog controllers over HTTP, against the MongoDB started by
+ * {@link TestcontainersConfiguration}: creates, reads, lists and deletes a product, a category and a material, which
+ * goes through the document mapping, the mappers and the JSON binding of the DTOs.
+ * <p>
+ * Runs on the JVM with the other tests, and inside a native image with {@code mvn -PnativeTest test}, where it checks
+ * the reachability metadata is complete.
+ * </p>
+ */
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "shop.grpc.port=0")
+@Testcontainers(disabledWithoutDocker = true)
+class NativeSmokeTest {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	void productLifecycle() {
+		String name = "smoke-" + UUID.randomUUID();
+		ResponseEntity<ProductResponseDTO> created = restTemplate.postForEntity("/api/v1/product",
+				Map.of("name", name, "description", "Smoke test", "price", new BigDecimal("12.50")), ProductResponseDTO.class);
+		assertThat(created.getStatusCode()).isEqualTo(HttpStatus.OK);
+		ProductResponseDTO product = created.getBody();
+		assertThat(product).isNotNull();
+		assertThat(product.name()).isEqualTo(name);
+		assertThat(product.price()).isEqualByComparingTo("12.50");
+
+		ResponseEntity<ProductResponseDTO> read = restTemplate.getForEntity("/api/v1/product/{id}", ProductResponseDTO.class, product.id());
+		assertThat(read.getBody()).isEqualTo(product);
+		PageResponseDTO<ProductResponseDTO> listed = list("/api/v1/product?size=1000", new ParameterizedTypeReference<>() {
+		});
+		assertThat(listed.items()).extracting(ProductResponseDTO::id).contains(product.id());
+
+		delete("/api/v1/product/{id}", product.id());
+		assertThat(restTemplate.getForEntity("/api/v1/product/{id}", String.class, product.id()).getStatusCode())
+				.isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
+	@Test
+	void categoryLifecycle() {
+		String name = "smoke-" + UUID.randomUUID();
+		ResponseEntity<CategoryResponseDTO> created = restTemplate.postForEntity("/api/v1/category",
+				Map.of("name", name, "description", "Smoke test"), CategoryResponseDTO.class);
+		assertThat(created.getStatusCode()).isEqualTo(HttpStatus.OK);
+		CategoryResponseDTO category = created.getBody();
+		assertThat(category).isNotNull();
+		assertThat(category.name()).isEqualTo(name);
+
+		ResponseEntity<CategoryResponseDTO> read = restTemplate.getForEntity("/api/v1/category/{id}", CategoryResponseDTO.class, category.id());
+		assertThat(read.getBody()).isEqualTo(category);
+		PageResponseDTO<CategoryResponseDTO> listed = list("/api/v1/category?size=1000", new ParameterizedTypeReference<>() {
+		});
+		assertThat(listed.items()).extracting(CategoryResponseDTO::id).contains(category.id());
+
+		delete("/api/v1/category/{id}", category.id());
+		assertThat(restTemplate.getForEntity("/api/v1/category/{id}", String.class, category.id()).getStatusCode())
+				.isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
+	@Test
+	void materialLifecycle() {
+		String name = "smoke-" + UUID.randomUUID();
+		ResponseEntity<MaterialResponseDTO> created = restTemplate.postForEntity("/api/v1/material",
+				Map.of("materialName", name, "materialType", "Fabric", "description", "Smoke test"), MaterialResponseDTO.class);
+		assertThat(created.getStatusCode()).isEqualTo(HttpStatus.OK);
+		MaterialResponseDTO material = created.getBody();
+		assertThat(material).isNotNull();
+		assertThat(material.materialName()).isEqualTo(name);
+
+		ResponseEntity<MaterialResponseDTO> read = restTemplate.getForEntity("/api/v1/material/{id}", MaterialResponseDTO.class, material.materialId());
+		assertThat(read.getBody()).isEqualTo(material);
+		PageResponseDTO<MaterialResponseDTO> listed = list("/api/v1/material?size=1000", new ParameterizedTypeReference<>() {
+		});
+		assertThat(listed.items()).extracting(MaterialResponseDTO::materialId).contains(material.materialId());
+
+		delete("/api/v1/material/{id}", material.materialId());
+		assertThat(restTemplate.getForEntity("/api/v1/material/{id}", String.class, material.materialId()).getStatusCode())
+				.isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
+	private <T> PageResponseDTO<T> list(String uri, ParameterizedTypeReference<PageResponseDTO<T>> type) {
+		ResponseEntity<PageResponseDTO<T>> listed = restTemplate.exchange(uri, HttpMethod.GET, null, type);
+		assertThat(listed.getStatusCode()).isEqualTo(HttpStatus.OK);
+		// The listings return the page envelope, not a bare array of items
+		PageResponseDTO<T> page = listed.getBody();
+		assertThat(page).isNotNull();
+		assertThat(page.page()).isZero();
+		assertThat(page.size()).isEqualTo(1000);
+		assertThat(page.totalElements()).isGreaterThanOrEqualTo(page.items().size());
+		return page;
+	}
+
+	private void delete(String uri, UUID id) {
+		ResponseEntity<Void> deleted = restTemplate.exchange(uri, HttpMethod.DELETE, null, Void.class, id);
+		assertThat(deleted.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+	}
+}
@@ -0,0 +1,76 @@
+package com.shop.microservices.product.Outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shop.microservices.product.Dto.CatalogChangeEventDTO;
+import com.shop.microservices.product.Event.ChangeType;
+import com.shop.microservices.product.Model.CatalogEntityType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileOutboxSinkTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	@Test
+	void batchesAreAppendedAsLinesInOrderAcrossRestarts(@TempDir Path directory) throws IOException {
+		Path file = directory.resolve("outbox/catalog-changes.ndjson");
+		List<CatalogChangeEventDTO> first = events(3);
+		List<CatalogChangeEventDTO> second = events(2);
+
+		FileOutboxSink sink = new FileOutboxSink(file, objectMapper);
+		sink.publish(first);
+		sink.close();
+		FileOutboxSink restarted = new FileOutboxSink(file, objectMapper);
+		restarted.publish(second);
+		restarted.close();
+
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		assertThat(lines).hasSize(5);
+		assertThat(lines.stream().map(this::read).map(CatalogChangeEventDTO::eventId))
+				.containsExactlyElementsOf(Stream.concat(first.stream(), second.stream()).map(CatalogChangeEventDTO::eventId).toList());
+		assertThat(read(lines.get(0)).payload().get("name").asText()).isEqualTo("Product 0");
+	}
+
+	@Test
+	void partialLineLeftByAnInterruptedBatchIsEnded(@TempDir Path directory) throws IOException {
+		Path file = directory.resolve("catalog-changes.ndjson");
+		Files.writeString(file, "{\"eventId\":\"0192", StandardCharsets.UTF_8);
+		List<CatalogChangeEventDTO> events = events(2);
+
+		FileOutboxSink sink = new FileOutboxSink(file, objectMapper);
+		sink.publish(events);
+		sink.close();
+
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		assertThat(lines).hasSize(3);
+		assertThat(read(lines.get(1)).eventId()).isEqualTo(events.get(0).eventId());
+		assertThat(read(lines.get(2)).eventId()).isEqualTo(events.get(1).eventId());
+	}
+
+	private CatalogChangeEventDTO read(String line) {
+		try {
+			return objectMapper.readValue(line, CatalogChangeEventDTO.class);
+		} catch (IOException ex) {
+			throw new AssertionError(line, ex);
+		}
+	}
+
+	private List<CatalogChangeEventDTO> events(int count) {
+		return IntStream.range(0, count)
+				.mapToObj(i -> new CatalogChangeEventDTO(UUID.randomUUID(), CatalogEntityType.PRODUCT, UUID.randomUUID(),
+						ChangeType.CREATED, Instant.now(), objectMapper.createObjectNode().put("name", "Product " + i)))
+				.toList();
+	}
+}
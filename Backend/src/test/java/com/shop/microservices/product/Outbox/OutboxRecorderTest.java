@@ -0,0 +1,52 @@
+package com.shop.microservices.product.Outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shop.microservices.product.Event.ProductChangeEvent;
+import com.shop.microservices.product.Identifier.IdGenerationStrategy;
+import com.shop.microservices.product.Identifier.IdGeneratorRegistry;
+import com.shop.microservices.product.Mapper.CategoryMapper;
+import com.shop.microservices.product.Mapper.MaterialMapper;
+import com.shop.microservices.product.Mapper.ProductMapper;
+import com.shop.microservices.product.Model.OutboxEvent;
+import com.shop.microservices.product.Repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboxRecorderTest {
+
+	private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+	private final OutboxRecorder recorder = new OutboxRecorder(repository,
+			new IdGeneratorRegistry(IdGenerationStrategy.RANDOM, IdGenerationStrategy.RANDOM, IdGenerationStrategy.RANDOM, IdGenerationStrategy.RANDOM),
+			new ProductMapper(), new CategoryMapper(), new MaterialMapper(), new ObjectMapper().findAndRegisterModules(), true);
+
+	@AfterEach
+	void leaveTheTransaction() {
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+	}
+
+	@Test
+	void eventThatCannotBeRecordedAfterAWriteOutsideOfATransactionFailsTheRequest() {
+		when(repository.insert(any(OutboxEvent.class))).thenThrow(new DataAccessResourceFailureException("down"));
+
+		assertThatThrownBy(() -> recorder.onProductChange(ProductChangeEvent.deleted(UUID.randomUUID())))
+				.isInstanceOf(DataAccessResourceFailureException.class);
+	}
+
+	@Test
+	void eventThatCannotBeRecordedInATransactionFailsTheChange() {
+		when(repository.insert(any(OutboxEvent.class))).thenThrow(new DataAccessResourceFailureException("down"));
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+
+		assertThatThrownBy(() -> recorder.onProductChange(ProductChangeEvent.deleted(UUID.randomUUID())))
+				.isInstanceOf(DataAccessResourceFailureException.class);
+	}
+}
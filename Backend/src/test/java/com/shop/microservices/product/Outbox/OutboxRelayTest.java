@@ -0,0 +1,227 @@
+package com.shop.microservices.product.Outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shop.microservices.product.Dto.CatalogChangeEventDTO;
+import com.shop.microservices.product.Event.CategoryChangeEvent;
+import com.shop.microservices.product.Event.ChangeType;
+import com.shop.microservices.product.Event.MaterialChangeEvent;
+import com.shop.microservices.product.Event.ProductChangeEvent;
+import com.shop.microservices.product.Identifier.IdGenerationStrategy;
+import com.shop.microservices.product.Identifier.IdGeneratorRegistry;
+import com.shop.microservices.product.Mapper.CategoryMapper;
+import com.shop.microservices.product.Mapper.MaterialMapper;
+import com.shop.microservices.product.Mapper.ProductMapper;
+import com.shop.microservices.product.Model.CatalogEntityType;
+import com.shop.microservices.product.Model.Category;
+import com.shop.microservices.product.Model.Material;
+import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Repository.InMemory.InMemoryOutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxRelayTest {
+
+	private static final Duration SETTLE_TIME = Duration.ofSeconds(1);
+	private static final Duration LEASE = Duration.ofSeconds(30);
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final InMemoryOutboxEventRepository repository = new InMemoryOutboxEventRepository(event -> { });
+	private final InMemoryOutboxSink sink = new InMemoryOutboxSink(100_000);
+	private final OutboxRecorder recorder = new OutboxRecorder(repository,
+			new IdGeneratorRegistry(IdGenerationStrategy.RANDOM, IdGenerationStrategy.RANDOM, IdGenerationStrategy.RANDOM, IdGenerationStrategy.RANDOM),
+			new ProductMapper(), new CategoryMapper(), new MaterialMapper(), objectMapper, true);
+
+	@Test
+	void changesArePublishedInBatchesInTheOrderTheyWereRecorded() {
+		List<UUID> recorded = new ArrayList<>();
+		for (int i = 0; i < 1234; i++) {
+			UUID id = UUID.randomUUID();
+			switch (i % 3) {
+				case 0 -> recorder.onProductChange(ProductChangeEvent.created(product(id, "Product " + i)));
+				case 1 -> recorder.onCategoryChange(CategoryChangeEvent.updated(Category.builder().categoryId(id).name("Category " + i).build()));
+				default -> recorder.onMaterialChange(MaterialChangeEvent.deleted(id));
+			}
+			recorded.add(id);
+		}
+
+		long published = relay(100, settled()).relay();
+
+		assertThat(published).isEqualTo(1234);
+		assertThat(sink.events()).extracting(CatalogChangeEventDTO::entityId).containsExactlyElementsOf(recorded);
+		assertThat(sink.events().get(1).entityType()).isEqualTo(CatalogEntityType.CATEGORY);
+		assertThat(sink.events().get(2).changeType()).isEqualTo(ChangeType.DELETED);
+		assertThat(meterRegistry.get("shop.outbox.relay.batch-size").summary().count()).isEqualTo(13);
+		assertThat(repository.findPending(settled().instant(), Integer.MAX_VALUE)).isEmpty();
+	}
+
+	@Test
+	void payloadIsTheEntityAsReturnedByItsEndpoints() {
+		UUID productId = UUID.randomUUID();
+		recorder.onProductChange(ProductChangeEvent.updated(product(productId, "Wireless Mouse")));
+		recorder.onProductChange(ProductChangeEvent.deleted(productId));
+		recorder.onProductChange(ProductChangeEvent.bulkChanged());
+
+		relay(10, settled()).relay();
+
+		List<CatalogChangeEventDTO> events = sink.events();
+		assertThat(events).extracting(CatalogChangeEventDTO::changeType)
+				.containsExactly(ChangeType.UPDATED, ChangeType.DELETED, ChangeType.BULK_CHANGED);
+		assertThat(events.get(0).payload().get("id").asText()).isEqualTo(productId.toString());
+		assertThat(events.get(0).payload().get("name").asText()).isEqualTo("Wireless Mouse");
+		assertThat(events.get(0).payload().get("price").decimalValue()).isEqualByComparingTo("29.99");
+		assertThat(events.get(1).payload()).isNull();
+		assertThat(events.get(2).entityId()).isNull();
+	}
+
+	@Test
+	void eventsAreOnlyPublishedOnceTheSettleTimeHasPassed() {
+		recorder.onProductChange(ProductChangeEvent.created(product(UUID.randomUUID(), "Fresh")));
+
+		assertThat(relay(10, Clock.systemUTC()).relay()).isZero();
+		assertThat(relay(10, settled()).relay()).isEqualTo(1);
+	}
+
+	@Test
+	void failedBatchIsPublishedAgainBeforeTheLaterEvents() {
+		for (int i = 0; i < 25; i++) {
+			recorder.onProductChange(ProductChangeEvent.created(product(UUID.randomUUID(), "Product " + i)));
+		}
+		AtomicBoolean failing = new AtomicBoolean(true);
+		List<List<UUID>> batches = new ArrayList<>();
+		OutboxSink flakySink = events -> {
+			if (failing.getAndSet(false)) {
+				throw new IOException("Sink unavailable");
+			}
+			batches.add(events.stream().map(CatalogChangeEventDTO::eventId).toList());
+			sink.publish(events);
+		};
+		OutboxRelay relay = new OutboxRelay(repository, flakySink, objectMapper, meterRegistry, 10, SETTLE_TIME,
+				Duration.ofDays(7), LEASE, "relay-1", settled());
+
+		assertThat(relay.relay()).isZero();
+		assertThat(meterRegistry.get("shop.outbox.relay.failures").counter().count()).isEqualTo(1);
+		assertThat(relay.relay()).isEqualTo(25);
+
+		assertThat(batches).hasSize(3);
+		assertThat(sink.events()).hasSize(25);
+		assertThat(sink.events()).extracting(CatalogChangeEventDTO::eventId).isSorted();
+	}
+
+	@Test
+	void changesRecordedWhileRelayingAreAllPublishedOnceInTheirOrder() throws Exception {
+		int threads = 4;
+		int changesPerThread = 2_000;
+		Map<UUID, List<String>> namesByProduct = new HashMap<>();
+		sink.subscribe(event -> namesByProduct.computeIfAbsent(event.entityId(), id -> new ArrayList<>())
+				.add(event.payload().get("name").asText()));
+		OutboxRelay relay = new OutboxRelay(repository, sink, objectMapper, meterRegistry, 64, Duration.ZERO,
+				Duration.ofDays(7), LEASE, "relay-1", settled());
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicBoolean recording = new AtomicBoolean(true);
+		List<Future<?>> writers = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(threads + 1)) {
+			for (int t = 0; t < threads; t++) {
+				UUID productId = UUID.randomUUID();
+				writers.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < changesPerThread; i++) {
+						recorder.onProductChange(ProductChangeEvent.updated(product(productId, "Version " + i)));
+					}
+					return null;
+				}));
+			}
+			Future<?> relaying = executor.submit(() -> {
+				start.await();
+				while (recording.get()) {
+					relay.relay();
+				}
+				return null;
+			});
+			start.countDown();
+			for (Future<?> writer : writers) {
+				writer.get();
+			}
+			recording.set(false);
+			relaying.get();
+		}
+		relay.relay();
+
+		assertThat(sink.events()).hasSize(threads * changesPerThread);
+		assertThat(new HashSet<>(sink.events().stream().map(CatalogChangeEventDTO::eventId).toList())).hasSize(threads * changesPerThread);
+		assertThat(namesByProduct).hasSize(threads);
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < changesPerThread; i++) {
+			expected.add("Version " + i);
+		}
+		namesByProduct.values().forEach(names -> assertThat(names).containsExactlyElementsOf(expected));
+	}
+
+	@Test
+	void onlyTheRelayHoldingTheLeasePublishesUntilItGivesItUp() {
+		OutboxRelay first = relay(10, settled(), "relay-1");
+		OutboxRelay second = relay(10, settled(), "relay-2");
+		recorder.onProductChange(ProductChangeEvent.deleted(UUID.randomUUID()));
+		assertThat(first.relay()).isEqualTo(1);
+
+		recorder.onProductChange(ProductChangeEvent.deleted(UUID.randomUUID()));
+		assertThat(second.relay()).isZero();
+		assertThat(first.relay()).isEqualTo(1);
+
+		first.close();
+		recorder.onProductChange(ProductChangeEvent.deleted(UUID.randomUUID()));
+		assertThat(second.relay()).isEqualTo(1);
+		assertThat(first.relay()).isZero();
+		assertThat(sink.events()).hasSize(3);
+	}
+
+	@Test
+	void expiredLeaseIsTakenOverByAnotherRelay() {
+		OutboxRelay first = relay(10, settled(), "relay-1");
+		first.relay();
+		recorder.onProductChange(ProductChangeEvent.deleted(UUID.randomUUID()));
+
+		// The first relay stopped without giving up its lease
+		OutboxRelay second = relay(10, Clock.offset(settled(), LEASE.plusSeconds(1)), "relay-2");
+
+		assertThat(second.relay()).isEqualTo(1);
+	}
+
+	private OutboxRelay relay(int batchSize, Clock clock) {
+		return relay(batchSize, clock, "relay-1");
+	}
+
+	private OutboxRelay relay(int batchSize, Clock clock, String owner) {
+		return new OutboxRelay(repository, sink, objectMapper, meterRegistry, batchSize, SETTLE_TIME, Duration.ofDays(7), LEASE,
+				owner, clock);
+	}
+
+	/**
+	 * A clock past the settle time of the events recorded so far.
+	 */
+	private static Clock settled() {
+		return Clock.offset(Clock.systemUTC(), SETTLE_TIME.multipliedBy(5));
+	}
+
+	private static Product product(UUID id, String name) {
+		return Product.builder().id(id).name(name).description("Description of " + name).price(new BigDecimal("29.99")).build();
+	}
+}
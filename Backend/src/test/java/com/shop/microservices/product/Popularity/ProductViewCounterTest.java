@@ -0,0 +1,148 @@
+package com.shop.microservices.product.Popularity;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.shop.microservices.product.Event.ProductChangeEvent;
+import com.shop.microservices.product.Model.ProductViews;
+import com.shop.microservices.product.Repository.InMemory.InMemoryProductViewRepository;
+import com.shop.microservices.product.Repository.ProductViewRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductViewCounterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void viewsCountedConcurrentlyWithFlushesAreAllWritten() throws Exception {
+		InMemoryProductViewRepository repository = new InMemoryProductViewRepository(event -> { });
+		ProductViewCounter counter = new ProductViewCounter(repository, meterRegistry, true);
+		List<UUID> productIds = IntStream.range(0, 20).mapToObj(i -> UUID.randomUUID()).toList();
+		int threads = 8;
+		int viewsPerThread = 20_000;
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(threads + 1)) {
+			for (int t = 0; t < threads; t++) {
+				SplittableRandom random = new SplittableRandom(t);
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < viewsPerThread; i++) {
+						// Skewed towards the first products, as views are
+						counter.record(productIds.get(Math.min(random.nextInt(productIds.size()), random.nextInt(productIds.size()))));
+					}
+					return null;
+				}));
+			}
+			Future<?> flusher = executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < 50; i++) {
+					counter.flush();
+					Thread.sleep(1);
+				}
+				return null;
+			});
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			flusher.get();
+		}
+		counter.flush();
+
+		assertThat(repository.findAll().stream().mapToLong(ProductViews::getViews).sum())
+				.isEqualTo((long) threads * viewsPerThread);
+		assertThat(meterRegistry.get("shop.view-counter.flushed").counter().count()).isEqualTo((double) threads * viewsPerThread);
+		assertThat(meterRegistry.get("shop.view-counter.flush").timer().count()).isPositive();
+		assertThat(meterRegistry.get("shop.view-counter.batch-size").summary().max()).isLessThanOrEqualTo(productIds.size());
+	}
+
+	@Test
+	void countsOfAFailedFlushAreWrittenByTheNextOne() {
+		ProductViewRepository repository = mock(ProductViewRepository.class);
+		List<Map<UUID, Long>> written = new ArrayList<>();
+		when(repository.incrementViews(any(), any()))
+				.thenThrow(new DataAccessResourceFailureException("Timed out while waiting for a server"))
+				.thenAnswer(invocation -> {
+					written.add(new LinkedHashMap<>(invocation.getArgument(0)));
+					return BulkWriteResult.unacknowledged();
+				});
+		ProductViewCounter counter = new ProductViewCounter(repository, meterRegistry, true);
+		UUID mouse = UUID.randomUUID();
+
+		counter.record(mouse);
+		counter.record(mouse);
+		counter.flush();
+		assertThat(counter.pendingViews(mouse)).isEqualTo(2);
+		counter.record(mouse);
+		counter.flush();
+
+		assertThat(written).containsExactly(Map.of(mouse, 3L));
+		assertThat(counter.pendingViews(mouse)).isZero();
+		assertThat(meterRegistry.get("shop.view-counter.failures").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void onlyTheFailedIncrementsOfABulkAreRetried() {
+		ProductViewRepository repository = mock(ProductViewRepository.class);
+		UUID mouse = UUID.randomUUID();
+		UUID keyboard = UUID.randomUUID();
+		when(repository.incrementViews(any(), any())).thenAnswer(invocation -> {
+			List<UUID> order = new ArrayList<>(invocation.<Map<UUID, Long>>getArgument(0).keySet());
+			BulkWriteError error = new BulkWriteError(91, "Shutdown in progress", new BsonDocument(), order.indexOf(keyboard));
+			throw new BulkOperationException("Bulk write failed", new MongoBulkWriteException(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()),
+					List.of(error), null, new ServerAddress(), Set.of()));
+		});
+		ProductViewCounter counter = new ProductViewCounter(repository, meterRegistry, true);
+
+		counter.record(mouse);
+		counter.record(keyboard);
+		counter.record(keyboard);
+		counter.flush();
+
+		assertThat(counter.pendingViews(mouse)).isZero();
+		assertThat(counter.pendingViews(keyboard)).isEqualTo(2);
+		assertThat(meterRegistry.get("shop.view-counter.flushed").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void deletedProductLosesItsViews() {
+		ProductViewRepository repository = mock(ProductViewRepository.class);
+		ProductViewCounter counter = new ProductViewCounter(repository, meterRegistry, true);
+		UUID mouse = UUID.randomUUID();
+		counter.record(mouse);
+
+		counter.onProductChange(ProductChangeEvent.deleted(mouse));
+		counter.flush();
+
+		assertThat(counter.pendingViews(mouse)).isZero();
+		verify(repository).deleteById(mouse);
+		verify(repository, never()).incrementViews(any(), any(Instant.class));
+	}
+}
@@ -0,0 +1,70 @@
+package com.shop.microservices.product.Popularity;
+
+import com.shop.microservices.product.Repository.InMemory.InMemoryProductViewRepository;
+import com.shop.microservices.product.Repository.ProductViewRepository;
+import com.shop.microservices.product.Typeahead.SuggestionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Limit;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductViewPopularityTest {
+
+	private final InMemoryProductViewRepository repository = new InMemoryProductViewRepository(event -> { });
+	private final ProductViewCounter counter = new ProductViewCounter(repository, new SimpleMeterRegistry(), true);
+
+	@Test
+	void flushedViewsWeighTheMostViewedProducts() {
+		UUID lamp = UUID.randomUUID();
+		UUID desk = UUID.randomUUID();
+		UUID chair = UUID.randomUUID();
+		view(lamp, 5);
+		view(desk, 3);
+		view(chair, 1);
+		ProductViewPopularity popularity = new ProductViewPopularity(repository, 2);
+
+		popularity.refresh();
+		counter.record(lamp);
+
+		// Views are only weighed once flushed and read again
+		assertThat(popularity.popularityOf(SuggestionType.PRODUCT, lamp)).isEqualTo(5);
+		assertThat(popularity.popularityOf(SuggestionType.PRODUCT, desk)).isEqualTo(3);
+		// Beyond the most viewed products read, and for the other kinds of entities, nothing weighs
+		assertThat(popularity.popularityOf(SuggestionType.PRODUCT, chair)).isZero();
+		assertThat(popularity.popularityOf(SuggestionType.CATEGORY, lamp)).isZero();
+
+		counter.flush();
+		popularity.refresh();
+		assertThat(popularity.popularityOf(SuggestionType.PRODUCT, lamp)).isEqualTo(6);
+	}
+
+	@Test
+	void countsAreKeptWhenTheyCannotBeRead() {
+		UUID lamp = UUID.randomUUID();
+		view(lamp, 2);
+		ProductViewRepository failing = mock(ProductViewRepository.class);
+		when(failing.findAllByOrderByViewsDesc(any(Limit.class)))
+				.thenReturn(repository.findAllByOrderByViewsDesc(Limit.unlimited()))
+				.thenThrow(new DataAccessResourceFailureException("down"));
+		ProductViewPopularity popularity = new ProductViewPopularity(failing, 10);
+
+		popularity.refresh();
+		popularity.refresh();
+
+		assertThat(popularity.popularityOf(SuggestionType.PRODUCT, lamp)).isEqualTo(2);
+	}
+
+	private void view(UUID productId, int views) {
+		for (int i = 0; i < views; i++) {
+			counter.record(productId);
+		}
+		counter.flush();
+	}
+}
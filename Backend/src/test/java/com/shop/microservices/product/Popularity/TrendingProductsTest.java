@@ -0,0 +1,119 @@
+package com.shop.microservices.product.Popularity;
+
+import com.shop.microservices.product.Event.ProductChangeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrendingProductsTest {
+
+	private static final Duration HALF_LIFE = Duration.ofMinutes(10);
+
+	private final AtomicLong clock = new AtomicLong();
+
+	@Test
+	void rankingFindsTheMostViewedProductsOfALongTail() throws Exception {
+		TrendingProducts trendingProducts = new TrendingProducts(10, HALF_LIFE, 4, 4096, clock::get);
+		List<UUID> hot = IntStream.range(0, 10).mapToObj(i -> UUID.randomUUID()).toList();
+		List<UUID> views = new ArrayList<>();
+		for (int i = 0; i < hot.size(); i++) {
+			views.addAll(Collections.nCopies(1000 - i * 50, hot.get(i)));
+		}
+		Random random = new Random(42);
+		for (int i = 0; i < 5000; i++) {
+			views.addAll(Collections.nCopies(1 + random.nextInt(3), UUID.randomUUID()));
+		}
+		Collections.shuffle(views, random);
+
+		int threads = 8;
+		List<Future<?>> futures = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+			for (int t = 0; t < threads; t++) {
+				int first = t;
+				futures.add(executor.submit(() -> {
+					for (int i = first; i < views.size(); i += threads) {
+						trendingProducts.record(views.get(i));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		// Views skipped by the ranking under contention are caught up by the next view of the same products
+		hot.forEach(trendingProducts::record);
+
+		List<TrendingProducts.Trend> top = trendingProducts.top();
+		assertThat(top).extracting(TrendingProducts.Trend::productId).containsExactlyElementsOf(hot);
+		assertThat(top.get(0).views()).isGreaterThanOrEqualTo(1001);
+	}
+
+	@Test
+	void viewsCountForHalfAfterEachHalfLife() {
+		TrendingProducts trendingProducts = new TrendingProducts(10, HALF_LIFE, 4, 4096, clock::get);
+		UUID mouse = UUID.randomUUID();
+		UUID keyboard = UUID.randomUUID();
+
+		record(trendingProducts, mouse, 100);
+		clock.addAndGet(HALF_LIFE.toNanos());
+		record(trendingProducts, keyboard, 60);
+
+		List<TrendingProducts.Trend> top = trendingProducts.top();
+		assertThat(top).extracting(TrendingProducts.Trend::productId).containsExactly(keyboard, mouse);
+		assertThat(top.get(0).views()).isCloseTo(60, within(1e-6));
+		assertThat(top.get(1).views()).isCloseTo(50, within(1e-6));
+	}
+
+	@Test
+	void rescalingKeepsTheDecayedCounts() {
+		TrendingProducts trendingProducts = new TrendingProducts(10, HALF_LIFE, 4, 4096, clock::get);
+		UUID mouse = UUID.randomUUID();
+		UUID keyboard = UUID.randomUUID();
+
+		record(trendingProducts, mouse, 10);
+		clock.addAndGet(HALF_LIFE.toNanos() * 70);
+		record(trendingProducts, keyboard, 10);
+		assertThat(trendingProducts.top()).extracting(TrendingProducts.Trend::productId).containsExactly(keyboard, mouse);
+		record(trendingProducts, keyboard, 10);
+		clock.addAndGet(HALF_LIFE.toNanos());
+
+		List<TrendingProducts.Trend> top = trendingProducts.top();
+		assertThat(top.get(0).productId()).isEqualTo(keyboard);
+		assertThat(top.get(0).views()).isCloseTo(10, within(1e-6));
+		assertThat(top.get(1).views()).isCloseTo(10 * Math.pow(2, -71), within(1e-12));
+	}
+
+	@Test
+	void deletedProductIsNoLongerRanked() {
+		TrendingProducts trendingProducts = new TrendingProducts(1, HALF_LIFE, 4, 4096, clock::get);
+		UUID mouse = UUID.randomUUID();
+		UUID keyboard = UUID.randomUUID();
+		record(trendingProducts, mouse, 5);
+		record(trendingProducts, keyboard, 3);
+		assertThat(trendingProducts.top()).extracting(TrendingProducts.Trend::productId).containsExactly(mouse);
+
+		trendingProducts.onProductChange(ProductChangeEvent.deleted(mouse));
+		trendingProducts.record(keyboard);
+
+		assertThat(trendingProducts.top()).extracting(TrendingProducts.Trend::productId).containsExactly(keyboard);
+	}
+
+	private static void record(TrendingProducts trendingProducts, UUID productId, int views) {
+		for (int i = 0; i < views; i++) {
+			trendingProducts.record(productId);
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package com.shop.microservices.product.ReadModel;
+
+import com.shop.microservices.product.Dto.ProductResponseDTO;
+import com.shop.microservices.product.Event.ProductChangeEvent;
+import com.shop.microservices.product.Mapper.ProductMapper;
+import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductListingViewTest {
+
+	private final ProductRepository repository = mock(ProductRepository.class);
+	private final ProductMapper mapper = new ProductMapper();
+	private final List<Product> collection = new ArrayList<>();
+	private ProductListingView view;
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 1; i <= 5; i++) {
+			collection.add(product(i * 10));
+		}
+		when(repository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+			Pageable pageable = invocation.getArgument(0);
+			List<Product> content = collection.subList(0, Math.min(pageable.getPageSize(), collection.size()));
+			return new PageImpl<>(List.copyOf(content), pageable, collection.size());
+		});
+		// Two pages of two products
+		view = new ProductListingView(repository, mapper, true, 2, 2);
+	}
+
+	@Test
+	void firstPagesAreServedFromTheView() {
+		assertThat(view.page(0, 2)).isEmpty();
+		view.refresh();
+
+		Page<ProductResponseDTO> second = view.page(1, 2).orElseThrow();
+		assertThat(ids(second)).containsExactly(id(30), id(40));
+		assertThat(second.getTotalElements()).isEqualTo(5);
+		assertThat(ids(view.page(0, 4).orElseThrow())).containsExactly(id(10), id(20), id(30), id(40));
+		assertThat(view.page(2, 2)).isEmpty();
+		verify(repository, times(1)).findAll(any(Pageable.class));
+	}
+
+	@Test
+	void changesAreAppliedIncrementally() {
+		view.refresh();
+
+		view.onProductChange(ProductChangeEvent.created(product(15)));
+		view.onProductChange(ProductChangeEvent.created(product(60)));
+		Product renamed = product(20);
+		renamed.setName("renamed");
+		view.onProductChange(ProductChangeEvent.updated(renamed));
+
+		assertThat(ids(view.page(0, 2).orElseThrow())).containsExactly(id(10), id(15));
+		Page<ProductResponseDTO> second = view.page(1, 2).orElseThrow();
+		assertThat(ids(second)).containsExactly(id(20), id(30));
+		assertThat(second.getContent().get(0).name()).isEqualTo("renamed");
+		assertThat(second.getTotalElements()).isEqualTo(7);
+		verify(repository, times(1)).findAll(any(Pageable.class));
+	}
+
+	@Test
+	void deletionRefillsTheViewAndBulkChangesRebuildIt() throws InterruptedException {
+		view.refresh();
+
+		collection.remove(1);
+		view.onProductChange(ProductChangeEvent.deleted(id(20)));
+		verify(repository, timeout(5000).times(2)).findAll(any(Pageable.class));
+		assertThat(ids(awaitPage(1, 2))).containsExactly(id(40), id(50));
+
+		view.onProductChange(ProductChangeEvent.bulkChanged());
+		verify(repository, timeout(5000).times(3)).findAll(any(Pageable.class));
+		assertThat(ids(awaitPage(0, 2))).containsExactly(id(10), id(30));
+	}
+
+	@Test
+	void changesRacingARebuildAreReplayedWithoutCountingThemTwice() {
+		AtomicBoolean racing = new AtomicBoolean(true);
+		when(repository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+			Pageable pageable = invocation.getArgument(0);
+			if (!racing.getAndSet(false)) {
+				return new PageImpl<>(List.copyOf(collection.subList(0, Math.min(pageable.getPageSize(), collection.size()))),
+						pageable, collection.size());
+			}
+			// Written and published while the rebuild reads the rows, before the count
+			collection.add(0, product(5));
+			view.onProductChange(ProductChangeEvent.created(product(5)));
+			collection.add(product(60));
+			view.onProductChange(ProductChangeEvent.created(product(60)));
+			collection.removeIf(product -> product.getId().equals(id(30)));
+			view.onProductChange(ProductChangeEvent.deleted(id(30)));
+			// The rows were read before the changes, the count after them
+			List<Product> rows = List.of(product(10), product(20), product(30), product(40));
+			return new PageImpl<>(rows, pageable, collection.size());
+		});
+
+		view.refresh();
+
+		Page<ProductResponseDTO> first = view.page(0, 2).orElseThrow();
+		assertThat(ids(first)).containsExactly(id(5), id(10));
+		assertThat(first.getTotalElements()).isEqualTo(6);
+		// Changes made after the rebuild still adjust the total, whether or not the refill it triggers has run
+		collection.add(product(70));
+		view.onProductChange(ProductChangeEvent.created(product(70)));
+		assertThat(view.page(0, 2).orElseThrow().getTotalElements()).isEqualTo(7);
+	}
+
+	private Page<ProductResponseDTO> awaitPage(int page, int size) throws InterruptedException {
+		for (int attempt = 0; attempt < 500 && view.page(page, size).isEmpty(); attempt++) {
+			Thread.sleep(10);
+		}
+		return view.page(page, size).orElseThrow();
+	}
+
+	private static List<UUID> ids(Page<ProductResponseDTO> page) {
+		return page.getContent().stream().map(ProductResponseDTO::id).toList();
+	}
+
+	private static UUID id(long value) {
+		return new UUID(0, value);
+	}
+
+	private static Product product(long id) {
+		return Product.builder().id(id(id)).name("product-" + id).description("Test product").price(new BigDecimal("9.99")).build();
+	}
+}
@@ -0,0 +1,185 @@
+package com.shop.microservices.product;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.shop.microservices.product.Routing.CausalConsistencyFilter;
+import com.shop.microservices.product.Routing.ReadOperation;
+import com.shop.microservices.product.Routing.ReadRouter;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.DecoderContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.oneOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the read routing against the single-host replica set started by {@link TestcontainersConfiguration}.
+ * <p>
+ * A single host serves every read whatever its preference, so the tests check the commands the driver actually
+ * sent: the {@code $readPreference} of routed reads and the {@code readConcern.afterClusterTime} of the causally
+ * consistent session started for a client token.
+ * </p>
+ */
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(properties = {"shop.read-routing.list=secondaryPreferred", "shop.read-routing.export=secondaryPreferred",
+		"shop.grpc.port=0"})
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class ReadRoutingIntegrationTest {
+
+	private static final Queue<CommandStartedEvent> COMMANDS = new ConcurrentLinkedQueue<>();
+
+	@TestConfiguration(proxyBeanMethods = false)
+	static class CommandRecording {
+
+		@Bean
+		MongoClientSettingsBuilderCustomizer commandRecorder() {
+			return settings -> settings.addCommandListener(new CommandListener() {
+				@Override
+				public void commandStarted(CommandStartedEvent event) {
+					COMMANDS.add(event);
+				}
+			});
+		}
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ReadRouter readRouter;
+
+	@Autowired
+	private MongoDatabaseFactory mongoDatabaseFactory;
+
+	@Test
+	void routedReadsUseTheConfiguredReadPreference() {
+		ReadPreference routed = readRouter.route(ReadOperation.LIST, () -> mongoDatabaseFactory.getMongoDatabase().getReadPreference());
+
+		assertThat(routed).isEqualTo(ReadPreference.secondaryPreferred());
+		assertThat(mongoDatabaseFactory.getMongoDatabase().getReadPreference()).isEqualTo(ReadPreference.primary());
+	}
+
+	@Test
+	void clientReadsItsOwnWriteWithTheCausalConsistencyToken() throws Exception {
+		String name = "routing-" + UUID.randomUUID();
+
+		MvcResult created = mockMvc.perform(post("/api/v1/product")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"" + name + "\",\"description\":\"Routing test\",\"price\":12.50}"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(CausalConsistencyFilter.TOKEN_HEADER))
+				.andReturn();
+		String token = created.getResponse().getHeader(CausalConsistencyFilter.TOKEN_HEADER);
+
+		mockMvc.perform(get("/api/v1/product").param("size", "1000")
+						.header(CausalConsistencyFilter.TOKEN_HEADER, token))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString(name)));
+	}
+
+	@Test
+	void listingWithATokenIsRoutedAndWaitsForTheClientsWrite() throws Exception {
+		MvcResult created = mockMvc.perform(post("/api/v1/category")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"routing-" + UUID.randomUUID() + "\",\"description\":\"Routing test\"}"))
+				.andExpect(status().isOk())
+				.andReturn();
+		String token = created.getResponse().getHeader(CausalConsistencyFilter.TOKEN_HEADER);
+		COMMANDS.clear();
+
+		mockMvc.perform(get("/api/v1/category").header(CausalConsistencyFilter.TOKEN_HEADER, token))
+				.andExpect(status().isOk());
+
+		assertThat(reads("find", "category")).anySatisfy(command -> {
+			assertThat(command.getDocument("$readPreference").getString("mode").getValue()).isEqualTo("secondaryPreferred");
+			assertThat(command.getDocument("readConcern").getTimestamp("afterClusterTime")).isGreaterThanOrEqualTo(operationTime(token));
+		});
+	}
+
+	@Test
+	void listingWithoutATokenIsRoutedWithoutWaiting() throws Exception {
+		COMMANDS.clear();
+
+		mockMvc.perform(get("/api/v1/category")).andExpect(status().is(oneOf(200, 404)));
+
+		// Reads of background tasks go to the primary and carry no read preference
+		assertThat(reads("find", "category")).filteredOn(command -> command.containsKey("$readPreference")).isNotEmpty()
+				.allSatisfy(command -> {
+					assertThat(command.getDocument("$readPreference").getString("mode").getValue()).isEqualTo("secondaryPreferred");
+					assertThat(command.containsKey("readConcern")).isFalse();
+				});
+	}
+
+	@Test
+	void streamedExportKeepsTheReadPreferenceAndTheSessionOfItsRequest() throws Exception {
+		MvcResult created = mockMvc.perform(post("/api/v1/product")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"export-" + UUID.randomUUID() + "\",\"description\":\"Export test\",\"price\":3.50}"))
+				.andExpect(status().isOk())
+				.andReturn();
+		String token = created.getResponse().getHeader(CausalConsistencyFilter.TOKEN_HEADER);
+		COMMANDS.clear();
+
+		MvcResult export = mockMvc.perform(get("/api/v1/product/export").header(CausalConsistencyFilter.TOKEN_HEADER, token))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk());
+
+		assertThat(reads("find", "product")).anySatisfy(command -> {
+			assertThat(command.getDocument("$readPreference").getString("mode").getValue()).isEqualTo("secondaryPreferred");
+			assertThat(command.getDocument("readConcern").getTimestamp("afterClusterTime")).isGreaterThanOrEqualTo(operationTime(token));
+		});
+	}
+
+	@Test
+	void invalidTokenIsIgnored() throws Exception {
+		mockMvc.perform(get("/api/v1/product").header(CausalConsistencyFilter.TOKEN_HEADER, "not-a-token"))
+				.andExpect(status().is(oneOf(200, 404)));
+	}
+
+	private static List<BsonDocument> reads(String commandName, String collection) {
+		return COMMANDS.stream()
+				.filter(event -> event.getCommandName().equals(commandName))
+				.map(CommandStartedEvent::getCommand)
+				.filter(command -> command.getString(commandName).getValue().equals(collection))
+				.toList();
+	}
+
+	private static BsonTimestamp operationTime(String token) {
+		BsonDocument document = new BsonDocumentCodec().decode(new BsonBinaryReader(ByteBuffer.wrap(Base64.getUrlDecoder().decode(token))),
+				DecoderContext.builder().build());
+		return document.getTimestamp("operationTime");
+	}
+}
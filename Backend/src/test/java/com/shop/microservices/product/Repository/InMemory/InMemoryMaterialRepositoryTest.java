@@ -0,0 +1,54 @@
+package com.shop.microservices.product.Repository.InMemory;
+
+import com.shop.microservices.product.Identifier.IdGenerationStrategy;
+import com.shop.microservices.product.Model.Material;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryMaterialRepositoryTest {
+
+	private final InMemoryMaterialRepository repository =
+			new InMemoryMaterialRepository(InMemoryProductRepositoryTest.publisher(IdGenerationStrategy.UUID_V7));
+
+	@Test
+	void findsMaterialsByNameAndType() {
+		Material steel = repository.save(material("Steel", "Metal"));
+		repository.save(material("Steel", "Alloy"));
+
+		assertThat(repository.existsByMaterialNameAndMaterialType("Steel", "Metal")).isTrue();
+		assertThat(repository.existsByMaterialNameAndMaterialType("Steel", "Wood")).isFalse();
+		assertThat(repository.findByMaterialNameAndMaterialType("Steel", "Metal").getMaterialId())
+				.isEqualTo(steel.getMaterialId());
+
+		steel.setMaterialType("Stainless");
+		repository.save(steel);
+
+		assertThat(repository.findByMaterialNameAndMaterialType("Steel", "Metal")).isNull();
+		assertThat(repository.findByMaterialNameAndMaterialType("Steel", "Stainless").getMaterialId())
+				.isEqualTo(steel.getMaterialId());
+	}
+
+	@Test
+	void changesAndIdentifiersFollowWritesAndDeletions() {
+		Material oak = repository.save(material("Oak", "Wood"));
+		Instant since = Instant.now();
+		Material pine = repository.save(material("Pine", "Wood"));
+
+		assertThat(repository.findByLastModifiedGreaterThanEqual(since)).extracting(Material::getMaterialId)
+				.containsExactly(pine.getMaterialId());
+
+		repository.deleteById(pine.getMaterialId());
+
+		assertThat(repository.findByLastModifiedGreaterThanEqual(since)).isEmpty();
+		assertThat(repository.existsByMaterialNameAndMaterialType("Pine", "Wood")).isFalse();
+		assertThat(repository.findIdsBy()).extracting(Material::getMaterialId).containsExactly(oak.getMaterialId());
+		assertThat(repository.count()).isEqualTo(1);
+	}
+
+	private static Material material(String name, String type) {
+		return Material.builder().materialName(name).materialType(type).description("Description of " + name).build();
+	}
+}
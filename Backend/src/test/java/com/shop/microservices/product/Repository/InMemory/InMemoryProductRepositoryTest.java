@@ -0,0 +1,279 @@
+package com.shop.microservices.product.Repository.InMemory;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.shop.microservices.product.Identifier.IdGenerationStrategy;
+import com.shop.microservices.product.Identifier.IdGeneratorRegistry;
+import com.shop.microservices.product.Listener.EntityEventListener;
+import com.shop.microservices.product.Model.PriceAdjustmentType;
+import com.shop.microservices.product.Model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryProductRepositoryTest {
+
+	private final InMemoryProductRepository repository = new InMemoryProductRepository(publisher(IdGenerationStrategy.RANDOM));
+
+	@Test
+	void derivedQueriesFollowTheCurrentDocuments() {
+		Product mouse = repository.save(product("Wireless Mouse", "19.99"));
+		repository.save(product("Wireless Keyboard", "49.99"));
+		repository.save(product("Mouse Pad", "4.99"));
+
+		assertThat(mouse.getId()).isNotNull();
+		assertThat(mouse.getLastModified()).isNotNull();
+		assertThat(repository.findByNameContaining("Mouse")).extracting(Product::getName)
+				.containsExactlyInAnyOrder("Wireless Mouse", "Mouse Pad");
+		assertThat(repository.findByPriceGreaterThanEqual(new BigDecimal("19.99"))).extracting(Product::getName)
+				.containsExactlyInAnyOrder("Wireless Mouse", "Wireless Keyboard");
+		assertThat(repository.existsByName("Mouse Pad")).isTrue();
+
+		mouse.setName("Optical Mouse");
+		mouse.setPrice(new BigDecimal("9.99"));
+		repository.save(mouse);
+
+		assertThat(repository.existsByName("Wireless Mouse")).isFalse();
+		assertThat(repository.findByName("Optical Mouse").getId()).isEqualTo(mouse.getId());
+		assertThat(repository.findByPriceGreaterThanEqual(new BigDecimal("19.99"))).extracting(Product::getName)
+				.containsExactly("Wireless Keyboard");
+		assertThat(repository.count()).isEqualTo(3);
+	}
+
+	@Test
+	void returnedDocumentsAreCopies() {
+		Product mouse = repository.save(product("Wireless Mouse", "19.99"));
+
+		repository.findById(mouse.getId()).orElseThrow().setPrice(BigDecimal.ONE);
+
+		assertThat(repository.findById(mouse.getId()).orElseThrow().getPrice()).isEqualByComparingTo("19.99");
+	}
+
+	@Test
+	void pagesFollowTheIdentifierOrderOfMongoDb() {
+		for (int i = 0; i < 25; i++) {
+			repository.save(product("Product " + i, String.valueOf(i + 1)));
+		}
+		List<UUID> ids = new ArrayList<>(repository.findAll().stream().map(Product::getId).toList());
+		ids.sort(InMemoryMongoRepository.ID_ORDER);
+
+		Page<Product> page = repository.findAll(PageRequest.of(1, 10, Sort.by("id")));
+		Page<Product> byPrice = repository.findAll(PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "price")));
+
+		assertThat(page.getTotalElements()).isEqualTo(25);
+		assertThat(page.getTotalPages()).isEqualTo(3);
+		assertThat(page.getContent()).extracting(Product::getId).containsExactlyElementsOf(ids.subList(10, 20));
+		assertThat(byPrice.getContent()).extracting(Product::getName)
+				.containsExactly("Product 24", "Product 23", "Product 22");
+	}
+
+	@Test
+	void keysetPagesWalkTheIdentifierOrderOfMongoDb() {
+		for (int i = 0; i < 25; i++) {
+			repository.save(product("Product " + i, String.valueOf(i + 1)));
+		}
+		List<UUID> ids = new ArrayList<>(repository.findAll().stream().map(Product::getId).toList());
+		ids.sort(InMemoryMongoRepository.ID_ORDER);
+
+		List<UUID> walked = new ArrayList<>();
+		List<Product> page = repository.findAllByOrderByIdAsc(Limit.of(10));
+		while (!page.isEmpty()) {
+			page.forEach(product -> walked.add(product.getId()));
+			page = repository.findByIdGreaterThanOrderByIdAsc(walked.get(walked.size() - 1), Limit.of(10));
+		}
+
+		assertThat(walked).containsExactlyElementsOf(ids);
+		assertThat(repository.findByIdGreaterThanOrderByIdAsc(ids.get(19), Limit.unlimited()))
+				.extracting(Product::getId).containsExactlyElementsOf(ids.subList(20, 25));
+	}
+
+	@Test
+	void uniqueNameRejectsASecondProduct() {
+		repository.save(product("Wireless Mouse", "19.99"));
+
+		assertThatThrownBy(() -> repository.save(product("Wireless Mouse", "9.99")))
+				.isInstanceOf(DuplicateKeyException.class);
+		assertThat(repository.count()).isEqualTo(1);
+		assertThat(repository.findByPriceGreaterThanEqual(BigDecimal.ZERO)).hasSize(1);
+	}
+
+	@Test
+	void upsertUpdatesExistingNamesAndInsertsTheOthers() {
+		Product mouse = repository.save(product("Wireless Mouse", "19.99"));
+		Product updatedMouse = product("Wireless Mouse", "17.99");
+		updatedMouse.setId(UUID.randomUUID());
+		Product keyboard = product("Wireless Keyboard", "49.99");
+		keyboard.setId(UUID.randomUUID());
+
+		BulkWriteResult result = repository.upsertAllByName(List.of(updatedMouse, keyboard));
+
+		assertThat(result.getMatchedCount()).isEqualTo(1);
+		assertThat(result.getUpserts()).hasSize(1);
+		assertThat(result.getUpserts().get(0).getIndex()).isEqualTo(1);
+		assertThat(repository.findByName("Wireless Mouse").getId()).isEqualTo(mouse.getId());
+		assertThat(repository.findByName("Wireless Mouse").getPrice()).isEqualByComparingTo("17.99");
+		assertThat(repository.findByName("Wireless Keyboard").getId()).isEqualTo(keyboard.getId());
+	}
+
+	@Test
+	void adjustPricesRoundsLikeTheAggregationPipeline() {
+		repository.save(product("Wireless Mouse", "19.99"));
+		repository.save(product("Wireless Keyboard", "49.99"));
+		repository.save(product("Mouse Pad", "4.99"));
+
+		long modified = repository.adjustPrices(null, new BigDecimal("5"), null, "Wireless", PriceAdjustmentType.PERCENTAGE,
+				new BigDecimal("-10")).getModifiedCount();
+
+		assertThat(modified).isEqualTo(2);
+		assertThat(repository.findByName("Wireless Mouse").getPrice()).isEqualByComparingTo("17.99");
+		assertThat(repository.findByName("Wireless Keyboard").getPrice()).isEqualByComparingTo("44.99");
+		assertThat(repository.findByName("Mouse Pad").getPrice()).isEqualByComparingTo("4.99");
+		assertThat(repository.findByPriceGreaterThanEqual(new BigDecimal("44.99"))).extracting(Product::getName)
+				.containsExactly("Wireless Keyboard");
+	}
+
+	@Test
+	void adjustPricesRoundsHalfUpAndSkipsPricesThatWouldNotBePositive() {
+		repository.save(product("Halved", "10.05"));
+		repository.save(product("Raised", "10.00"));
+		repository.save(product("Cheap", "0.01"));
+		repository.save(product("Refunded", "4.99"));
+
+		long halved = repository.adjustPrices(null, null, null, "Halved", PriceAdjustmentType.PERCENTAGE,
+				new BigDecimal("-50")).getModifiedCount();
+		long raised = repository.adjustPrices(null, null, null, "Raised", PriceAdjustmentType.ABSOLUTE,
+				new BigDecimal("0.005")).getModifiedCount();
+		long cheap = repository.adjustPrices(null, null, null, "Cheap", PriceAdjustmentType.PERCENTAGE,
+				new BigDecimal("-60")).getModifiedCount();
+		long refunded = repository.adjustPrices(null, null, null, "Refunded", PriceAdjustmentType.ABSOLUTE,
+				new BigDecimal("-5")).getModifiedCount();
+
+		assertThat(halved).isEqualTo(1);
+		assertThat(repository.findByName("Halved").getPrice()).isEqualTo(new BigDecimal("5.03"));
+		assertThat(raised).isEqualTo(1);
+		assertThat(repository.findByName("Raised").getPrice()).isEqualTo(new BigDecimal("10.01"));
+		// 0.004 rounds to 0.00 and -0.01 is negative: neither product is touched
+		assertThat(cheap).isZero();
+		assertThat(repository.findByName("Cheap").getPrice()).isEqualByComparingTo("0.01");
+		assertThat(refunded).isZero();
+		assertThat(repository.findByName("Refunded").getPrice()).isEqualByComparingTo("4.99");
+	}
+
+	@Test
+	void concurrentWritesKeepTheIndexesConsistent() throws Exception {
+		int threads = 16;
+		int operations = 2_000;
+		int names = 200;
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger contendedInserts = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+			for (int t = 0; t < threads; t++) {
+				SplittableRandom random = new SplittableRandom(t);
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < operations; i++) {
+						String name = "Product " + random.nextInt(names);
+						try {
+							switch (random.nextInt(4)) {
+								case 0 -> repository.insert(product(name, String.valueOf(random.nextInt(1, 100))));
+								case 1 -> {
+									Product existing = repository.findByName(name);
+									if (existing != null) {
+										existing.setName("Product " + random.nextInt(names));
+										existing.setPrice(new BigDecimal(random.nextInt(1, 100)));
+										repository.save(existing);
+									}
+								}
+								case 2 -> {
+									Product existing = repository.findByName(name);
+									if (existing != null) {
+										repository.deleteById(existing.getId());
+									}
+								}
+								default -> repository.upsertAllByName(List.of(product(name, "1")));
+							}
+						} catch (DuplicateKeyException ex) {
+							contendedInserts.incrementAndGet();
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+
+		List<Product> products = repository.findAll();
+		assertThat(contendedInserts).hasPositiveValue();
+		assertThat(repository.count()).isEqualTo(products.size());
+		assertThat(products).extracting(Product::getName).doesNotHaveDuplicates();
+		for (Product product : products) {
+			assertThat(repository.findByName(product.getName()).getId()).isEqualTo(product.getId());
+		}
+		assertThat(repository.findByPriceGreaterThanEqual(BigDecimal.ZERO)).extracting(Product::getId)
+				.containsExactlyInAnyOrderElementsOf(products.stream().map(Product::getId).toList());
+		assertThat(repository.findAll(Sort.by("id"))).extracting(Product::getId)
+				.isSortedAccordingTo(InMemoryMongoRepository.ID_ORDER);
+	}
+
+	@Test
+	void racingInsertsOfOneNameStoreASingleProduct() throws Exception {
+		int threads = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger inserted = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					try {
+						repository.insert(product("Wireless Mouse", "19.99"));
+						inserted.incrementAndGet();
+					} catch (DuplicateKeyException ex) {
+						// Lost the race
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+
+		assertThat(inserted).hasValue(1);
+		assertThat(repository.count()).isEqualTo(1);
+		assertThat(repository.findAll()).extracting(Product::getName).containsExactly("Wireless Mouse");
+	}
+
+	static ApplicationEventPublisher publisher(IdGenerationStrategy strategy) {
+		EntityEventListener listener = new EntityEventListener(new IdGeneratorRegistry(strategy, strategy, strategy, strategy));
+		return event -> listener.handleBeforeConvert((BeforeConvertEvent<?>) event);
+	}
+
+	private static Product product(String name, String price) {
+		return Product.builder().name(name).description("Description of " + name).price(new BigDecimal(price)).build();
+	}
+}
@@ -0,0 +1,81 @@
+package com.shop.microservices.product.Repository;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.shop.microservices.product.Model.Job;
+import com.shop.microservices.product.Model.JobStatus;
+import com.shop.microservices.product.Model.JobType;
+import org.bson.UuidRepresentation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class JobRepositoryCustomImplTest {
+
+	@Container
+	static final MongoDBContainer MONGO = new MongoDBContainer(DockerImageName.parse("mongo:latest"));
+
+	private MongoClient client;
+	private MongoTemplate mongoTemplate;
+	private JobRepositoryCustomImpl repository;
+
+	@BeforeEach
+	void connect() {
+		client = MongoClients.create(MongoClientSettings.builder()
+				.applyConnectionString(new ConnectionString(MONGO.getReplicaSetUrl("jobs")))
+				.uuidRepresentation(UuidRepresentation.STANDARD)
+				.build());
+		mongoTemplate = new MongoTemplate(client, "jobs");
+		mongoTemplate.getDb().drop();
+		repository = new JobRepositoryCustomImpl(mongoTemplate);
+	}
+
+	@AfterEach
+	void close() {
+		client.close();
+	}
+
+	@Test
+	void runningJobIsMarkedFinished() {
+		UUID jobId = insert(JobStatus.RUNNING);
+
+		boolean finished = repository.markFinished(jobId, JobStatus.SUCCEEDED, 3, Map.of("modifiedCount", 3), null, Instant.now());
+
+		assertThat(finished).isTrue();
+		Job job = mongoTemplate.findById(jobId, Job.class);
+		assertThat(job.getStatus()).isEqualTo(JobStatus.SUCCEEDED);
+		assertThat(job.getProcessed()).isEqualTo(3);
+	}
+
+	@Test
+	void jobFailedAsAbandonedKeepsItsFinalState() {
+		UUID jobId = insert(JobStatus.FAILED);
+
+		boolean finished = repository.markFinished(jobId, JobStatus.SUCCEEDED, 3, Map.of("modifiedCount", 3), null, Instant.now());
+
+		assertThat(finished).isFalse();
+		Job job = mongoTemplate.findById(jobId, Job.class);
+		assertThat(job.getStatus()).isEqualTo(JobStatus.FAILED);
+		assertThat(job.getResult()).isNull();
+	}
+
+	private UUID insert(JobStatus status) {
+		UUID jobId = UUID.randomUUID();
+		mongoTemplate.insert(Job.builder().jobId(jobId).type(JobType.PRICE_ADJUSTMENT).status(status).createdAt(Instant.now()).build());
+		return jobId;
+	}
+}
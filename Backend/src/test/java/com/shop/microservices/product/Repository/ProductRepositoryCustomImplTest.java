@@ -0,0 +1,129 @@
+package com.shop.microservices.product.Repository;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.result.UpdateResult;
+import com.shop.microservices.product.Configuration.MongoConversionConfig;
+import com.shop.microservices.product.Model.PriceAdjustmentType;
+import com.shop.microservices.product.Model.Product;
+import org.bson.Document;
+import org.bson.UuidRepresentation;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class ProductRepositoryCustomImplTest {
+
+	@Container
+	static final MongoDBContainer MONGO = new MongoDBContainer(DockerImageName.parse("mongo:latest"));
+
+	private MongoClient client;
+	private MongoTemplate mongoTemplate;
+	private ProductRepositoryCustomImpl repository;
+
+	@BeforeEach
+	void connect() {
+		client = MongoClients.create(MongoClientSettings.builder()
+				.applyConnectionString(new ConnectionString(MONGO.getReplicaSetUrl("adjustment")))
+				.uuidRepresentation(UuidRepresentation.STANDARD)
+				.build());
+		SimpleMongoClientDatabaseFactory databaseFactory = new SimpleMongoClientDatabaseFactory(client, "adjustment");
+		MongoCustomConversions conversions = new MongoConversionConfig().mongoCustomConversions();
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		mappingContext.afterPropertiesSet();
+		MappingMongoConverter converter = new MappingMongoConverter(new DefaultDbRefResolver(databaseFactory), mappingContext);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+		mongoTemplate = new MongoTemplate(databaseFactory, converter);
+		mongoTemplate.getDb().drop();
+		repository = new ProductRepositoryCustomImpl(mongoTemplate);
+	}
+
+	@AfterEach
+	void close() {
+		client.close();
+	}
+
+	@Test
+	void percentageAdjustmentRoundsHalfUpToTwoDecimals() {
+		UUID halved = insert("Summer Hat", "10.05");
+		UUID whole = insert("Summer Shirt", "40.00");
+		UUID other = insert("Winter Coat", "10.05");
+
+		UpdateResult result = repository.adjustPrices(null, null, null, "Summer", PriceAdjustmentType.PERCENTAGE, new BigDecimal("-50"));
+
+		assertThat(result.getMatchedCount()).isEqualTo(2);
+		assertThat(result.getModifiedCount()).isEqualTo(2);
+		// Half to even would give 5.02
+		assertThat(storedPrice(halved)).isEqualByComparingTo("5.03");
+		assertThat(storedPrice(whole)).isEqualByComparingTo("20.00");
+		assertThat(storedPrice(other)).isEqualByComparingTo("10.05");
+	}
+
+	@Test
+	void absoluteAdjustmentFiltersByIdsAndPriceRange() {
+		UUID cheap = insert("Pen", "1.50");
+		UUID mid = insert("Notebook", "4.25");
+		UUID expensive = insert("Backpack", "39.90");
+
+		UpdateResult result = repository.adjustPrices(List.of(cheap, mid, expensive), new BigDecimal("2.00"), new BigDecimal("40.00"),
+				null, PriceAdjustmentType.ABSOLUTE, new BigDecimal("0.005"));
+
+		assertThat(result.getModifiedCount()).isEqualTo(2);
+		assertThat(storedPrice(cheap)).isEqualByComparingTo("1.50");
+		assertThat(storedPrice(mid)).isEqualByComparingTo("4.26");
+		assertThat(storedPrice(expensive)).isEqualByComparingTo("39.91");
+	}
+
+	@Test
+	void productsWhoseNewPriceWouldNotBePositiveAreSkipped() {
+		UUID refunded = insert("Sticker", "4.99");
+		UUID roundedToZero = insert("Button", "0.01");
+		UUID kept = insert("Poster", "12.00");
+
+		UpdateResult refund = repository.adjustPrices(List.of(refunded, kept), null, null, null,
+				PriceAdjustmentType.ABSOLUTE, new BigDecimal("-5"));
+		UpdateResult discount = repository.adjustPrices(List.of(roundedToZero), null, null, null,
+				PriceAdjustmentType.PERCENTAGE, new BigDecimal("-60"));
+
+		assertThat(refund.getMatchedCount()).isEqualTo(1);
+		assertThat(storedPrice(kept)).isEqualByComparingTo("7.00");
+		assertThat(storedPrice(refunded)).isEqualByComparingTo("4.99");
+		assertThat(discount.getMatchedCount()).isZero();
+		assertThat(storedPrice(roundedToZero)).isEqualByComparingTo("0.01");
+	}
+
+	private UUID insert(String name, String price) {
+		UUID id = UUID.randomUUID();
+		mongoTemplate.insert(Product.builder().id(id).name(name).description("Description of " + name)
+				.price(new BigDecimal(price)).build());
+		return id;
+	}
+
+	private BigDecimal storedPrice(UUID id) {
+		Object price = mongoTemplate.getCollection("product").find(new Document("_id", id)).first().get("price");
+		assertThat(price).isInstanceOf(Decimal128.class);
+		return ((Decimal128) price).bigDecimalValue();
+	}
+}
@@ -0,0 +1,100 @@
+package com.shop.microservices.product.Routing;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoClient;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CausalConsistencyFilterTest {
+
+	private final MongoClient mongoClient = mock(MongoClient.class);
+	private final ClientSession session = mock(ClientSession.class);
+	private final CausalConsistencyFilter filter = new CausalConsistencyFilter(mongoClient);
+	private final CausalSessionCallableInterceptor interceptor = new CausalSessionCallableInterceptor();
+
+	@Test
+	void readWithATokenRunsInASessionAdvancedToIt() throws Exception {
+		when(mongoClient.startSession(any(ClientSessionOptions.class))).thenReturn(session);
+		ClientSession[] bound = new ClientSession[1];
+
+		filter.doFilter(read(), new MockHttpServletResponse(), (request, response) -> bound[0] = ReadRoutingContext.session());
+
+		assertThat(bound[0]).isSameAs(session);
+		verify(session).advanceOperationTime(new BsonTimestamp(42, 1));
+		verify(session).close();
+		assertThat(ReadRoutingContext.session()).isNull();
+	}
+
+	@Test
+	void streamedReadKeepsItsSessionOnTheThreadWritingTheResponse() throws Exception {
+		when(mongoClient.startSession(any(ClientSessionOptions.class))).thenReturn(session);
+		MockHttpServletRequest request = read();
+		request.setAsyncSupported(true);
+		ServletWebRequest webRequest = new ServletWebRequest(request);
+		Callable<Object> streamingBody = () -> null;
+
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+			req.startAsync();
+			interceptor.beforeConcurrentHandling(webRequest, streamingBody);
+		});
+		verify(session, never()).close();
+
+		ClientSession streamedIn = CompletableFuture.supplyAsync(() -> {
+			interceptor.preProcess(webRequest, streamingBody);
+			ClientSession current = ReadRoutingContext.session();
+			interceptor.postProcess(webRequest, streamingBody, null);
+			assertThat(ReadRoutingContext.session()).isNull();
+			return current;
+		}).get(5, TimeUnit.SECONDS);
+		assertThat(streamedIn).isSameAs(session);
+
+		request.getAsyncContext().complete();
+		verify(session).close();
+	}
+
+	@Test
+	void readWithoutATokenRunsWithoutASession() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/product/export");
+		ServletWebRequest webRequest = new ServletWebRequest(request);
+
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> interceptor.beforeConcurrentHandling(webRequest, () -> null));
+		interceptor.preProcess(webRequest, () -> null);
+
+		assertThat(ReadRoutingContext.session()).isNull();
+		verify(mongoClient, never()).startSession(any(ClientSessionOptions.class));
+	}
+
+	private static MockHttpServletRequest read() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/product/export");
+		request.addHeader(CausalConsistencyFilter.TOKEN_HEADER, token(new BsonTimestamp(42, 1)));
+		return request;
+	}
+
+	private static String token(BsonTimestamp operationTime) {
+		ByteBuffer buffer = new RawBsonDocument(new BsonDocument("operationTime", operationTime), new BsonDocumentCodec())
+				.getByteBuffer().asNIO();
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+}
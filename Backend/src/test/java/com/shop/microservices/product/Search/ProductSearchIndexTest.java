@@ -0,0 +1,94 @@
+package com.shop.microservices.product.Search;
+
+import com.shop.microservices.product.Dto.ProductResponseDTO;
+import com.shop.microservices.product.Model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+	private static final Product MOUSE = product("Wireless Mouse", "Ergonomic mouse with a silent click", "29.99");
+	private static final Product KEYBOARD = product("Wireless Keyboard", "Compact keyboard, pairs with any mouse", "59.90");
+	private static final Product CABLE = product("USB Cable", "Braided cable for keyboards and mice", "9.50");
+
+	@TempDir
+	Path directory;
+
+	private ProductSearchIndex index;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		index = new ProductSearchIndex(directory);
+		index.indexAll(List.of(MOUSE, KEYBOARD, CABLE));
+		index.refresh();
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		index.close();
+	}
+
+	@Test
+	void namesRankAboveDescriptions() throws IOException {
+		Page<ProductResponseDTO> page = index.search("mouse", SearchMode.AUTO, null, null, 0, 10);
+
+		assertThat(names(page)).containsExactly("Wireless Mouse", "Wireless Keyboard");
+		assertThat(page.getTotalElements()).isEqualTo(2);
+		assertThat(page.getContent().get(0).price()).isEqualByComparingTo("29.99");
+	}
+
+	@Test
+	void termsAreMatchedWithTyposByPrefixOrAsAPhrase() throws IOException {
+		assertThat(names(index.search("wirelss mouze", SearchMode.FUZZY, null, null, 0, 10))).containsExactly("Wireless Mouse", "Wireless Keyboard");
+		assertThat(names(index.search("wireless key", SearchMode.PREFIX, null, null, 0, 10))).containsExactly("Wireless Keyboard");
+		assertThat(names(index.search("silent click", SearchMode.PHRASE, null, null, 0, 10))).containsExactly("Wireless Mouse");
+		assertThat(index.search("click silent", SearchMode.PHRASE, null, null, 0, 10)).isEmpty();
+	}
+
+	@Test
+	void pricesFilterTheMatches() throws IOException {
+		Page<ProductResponseDTO> page = index.search("keyboard", SearchMode.AUTO, new BigDecimal("5"), new BigDecimal("30"), 0, 10);
+
+		assertThat(names(page)).containsExactly("USB Cable");
+	}
+
+	@Test
+	void changesAreVisibleAfterARefreshAndRebuildsDropStaleProducts() throws IOException {
+		index.delete(CABLE.getId());
+		index.refresh();
+		assertThat(index.search("cable", SearchMode.AUTO, null, null, 0, 10)).isEmpty();
+
+		index.beginRebuild();
+		index.indexAll(List.of(MOUSE));
+		index.completeRebuild();
+
+		assertThat(names(index.search("wireless", SearchMode.AUTO, null, null, 0, 10))).containsExactly("Wireless Mouse");
+	}
+
+	@Test
+	void indexIsKeptAcrossRestarts() throws IOException {
+		index.close();
+		index = new ProductSearchIndex(directory);
+
+		assertThat(names(index.search("cable", SearchMode.AUTO, null, null, 0, 10))).containsExactly("USB Cable");
+	}
+
+	private static List<String> names(Page<ProductResponseDTO> page) {
+		return page.getContent().stream().map(ProductResponseDTO::name).toList();
+	}
+
+	private static Product product(String name, String description, String price) {
+		return Product.builder().id(UUID.randomUUID()).name(name).description(description).price(new BigDecimal(price)).build();
+	}
+}
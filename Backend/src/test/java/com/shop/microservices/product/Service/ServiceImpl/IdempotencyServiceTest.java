@@ -0,0 +1,207 @@
+package com.shop.microservices.product.Service.ServiceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shop.microservices.product.Exception.ApplicationException;
+import com.shop.microservices.product.Exception.IdempotencyConflictException;
+import com.shop.microservices.product.Exception.InvalidInputException;
+import com.shop.microservices.product.Model.IdempotencyRecord;
+import com.shop.microservices.product.Repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+	private static final Duration TTL = Duration.ofHours(24);
+	private static final Duration LEASE = Duration.ofSeconds(30);
+
+	private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+	private final Map<String, IdempotencyRecord> records = new ConcurrentHashMap<>();
+	private final AtomicInteger runs = new AtomicInteger();
+
+	record Request(String name) {
+	}
+
+	record Response(int id, String name) {
+	}
+
+	@BeforeEach
+	void storeRecordsInAMap() {
+		when(repository.insert(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+			IdempotencyRecord idempotencyRecord = invocation.getArgument(0);
+			if (records.putIfAbsent(idempotencyRecord.getId(), copy(idempotencyRecord)) != null) {
+				throw new DuplicateKeyException("E11000 duplicate key error");
+			}
+			return idempotencyRecord;
+		});
+		when(repository.save(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+			IdempotencyRecord idempotencyRecord = invocation.getArgument(0);
+			records.put(idempotencyRecord.getId(), copy(idempotencyRecord));
+			return idempotencyRecord;
+		});
+		when(repository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(records.get(invocation.<String>getArgument(0))));
+		doAnswer(invocation -> records.remove(invocation.<String>getArgument(0))).when(repository).deleteById(anyString());
+		when(repository.deleteByIdAndExpiresAtBefore(anyString(), any(Instant.class))).thenAnswer(invocation -> {
+			Instant time = invocation.getArgument(1);
+			AtomicInteger deleted = new AtomicInteger();
+			records.computeIfPresent(invocation.getArgument(0), (id, idempotencyRecord) -> {
+				if (idempotencyRecord.getExpiresAt().isBefore(time)) {
+					deleted.incrementAndGet();
+					return null;
+				}
+				return idempotencyRecord;
+			});
+			return (long) deleted.get();
+		});
+	}
+
+	@Test
+	void replayedKeyReturnsTheStoredResponseWithoutRunningTheActionAgain() {
+		IdempotencyService first = idempotencyService();
+		Response created = first.execute("product", "key-1", new Request("Lamp"), Response.class, this::create);
+
+		Response replayedFromMemory = first.execute("product", "key-1", new Request("Lamp"), Response.class, this::create);
+		// Another instance has nothing cached and finds the completed record in the database
+		Response replayedFromDatabase = idempotencyService().execute("product", "key-1", new Request("Lamp"), Response.class, this::create);
+
+		assertThat(runs).hasValue(1);
+		assertThat(replayedFromMemory).isEqualTo(created);
+		assertThat(replayedFromDatabase).isEqualTo(created);
+		// The same key in another scope is another request
+		idempotencyService().execute("category", "key-1", new Request("Lamp"), Response.class, this::create);
+		assertThat(runs).hasValue(2);
+	}
+
+	@Test
+	void completedKeyIsKeptForTheTtl() {
+		Instant before = Instant.now();
+		idempotencyService().execute("product", "key-1", new Request("Lamp"), Response.class, this::create);
+
+		IdempotencyRecord stored = records.get("product:key-1");
+		assertThat(stored.isCompleted()).isTrue();
+		assertThat(stored.getExpiresAt()).isAfterOrEqualTo(before.plus(TTL));
+	}
+
+	@Test
+	void keyReusedForADifferentRequestIsRejected() {
+		IdempotencyService service = idempotencyService();
+		service.execute("product", "key-1", new Request("Lamp"), Response.class, this::create);
+
+		assertThatThrownBy(() -> service.execute("product", "key-1", new Request("Desk"), Response.class, this::create))
+				.isInstanceOf(InvalidInputException.class)
+				.extracting(ex -> ((ApplicationException) ex).getErrorCode())
+				.isEqualTo("prod.error.3802");
+		assertThatThrownBy(() -> service.execute("product", " ", new Request("Desk"), Response.class, this::create))
+				.extracting(ex -> ((ApplicationException) ex).getErrorCode())
+				.isEqualTo("prod.error.3800");
+		assertThat(runs).hasValue(1);
+	}
+
+	@Test
+	void keyOfARequestInProgressIsAConflictUntilItsLeaseExpires() {
+		IdempotencyService service = idempotencyService();
+		Instant before = Instant.now();
+
+		service.execute("product", "key-1", new Request("Lamp"), Response.class, () -> {
+			IdempotencyRecord placeholder = records.get("product:key-1");
+			assertThat(placeholder.isCompleted()).isFalse();
+			assertThat(placeholder.getExpiresAt()).isBetween(before.plus(LEASE), Instant.now().plus(LEASE));
+			assertThatThrownBy(() -> idempotencyService().execute("product", "key-1", new Request("Lamp"), Response.class, this::create))
+					.isInstanceOf(IdempotencyConflictException.class)
+					.extracting(ex -> ((ApplicationException) ex).getErrorCode())
+					.isEqualTo("prod.error.3801");
+			return create();
+		});
+
+		assertThat(runs).hasValue(1);
+	}
+
+	@Test
+	void placeholderLeftBehindByACrashedInstanceIsTakenOverOnceItsLeaseExpired() {
+		Instant crashedAt = Instant.now().minus(LEASE).minusSeconds(1);
+		records.put("product:key-1", IdempotencyRecord.builder().id("product:key-1").requestHash("unknown")
+				.createdAt(crashedAt).expiresAt(crashedAt.plus(LEASE)).build());
+
+		Response created = idempotencyService().execute("product", "key-1", new Request("Lamp"), Response.class, this::create);
+
+		assertThat(created.name()).isEqualTo("Lamp");
+		assertThat(records.get("product:key-1").isCompleted()).isTrue();
+	}
+
+	@Test
+	void expiredPlaceholderTakenOverByAnotherInstanceFirstIsKept() {
+		Instant crashedAt = Instant.now().minus(LEASE).minusSeconds(1);
+		records.put("product:key-1", IdempotencyRecord.builder().id("product:key-1").requestHash("unknown")
+				.createdAt(crashedAt).expiresAt(crashedAt.plus(LEASE)).build());
+		IdempotencyRecord other = IdempotencyRecord.builder().id("product:key-1").requestHash("other")
+				.createdAt(Instant.now()).expiresAt(Instant.now().plus(LEASE)).build();
+		// Another instance replaces the expired placeholder between the lookup and the removal of this one
+		when(repository.findById("product:key-1")).thenAnswer(invocation -> {
+			IdempotencyRecord found = records.get("product:key-1");
+			records.put("product:key-1", other);
+			return Optional.of(found);
+		}).thenAnswer(invocation -> Optional.ofNullable(records.get("product:key-1")));
+
+		assertThatThrownBy(() -> idempotencyService().execute("product", "key-1", new Request("Lamp"), Response.class, this::create))
+				.isInstanceOf(InvalidInputException.class);
+
+		assertThat(records.get("product:key-1")).isSameAs(other);
+		assertThat(runs).hasValue(0);
+	}
+
+	@Test
+	void failedRequestReleasesItsKey() {
+		IdempotencyService service = idempotencyService();
+
+		assertThatThrownBy(() -> service.execute("product", "key-1", new Request("Lamp"), Response.class, () -> {
+			throw new IllegalStateException("boom");
+		})).hasMessage("boom");
+
+		assertThat(records).isEmpty();
+		assertThat(service.execute("product", "key-1", new Request("Lamp"), Response.class, this::create).name()).isEqualTo("Lamp");
+	}
+
+	@Test
+	void responseThatCannotBeStoredLeavesOnlyTheLease() {
+		when(repository.save(any(IdempotencyRecord.class))).thenThrow(new DataAccessResourceFailureException("down"));
+		IdempotencyService service = idempotencyService();
+
+		Response created = service.execute("product", "key-1", new Request("Lamp"), Response.class, this::create);
+
+		// This instance still replays the response, the other ones wait for the lease instead of the TTL
+		assertThat(service.execute("product", "key-1", new Request("Lamp"), Response.class, this::create)).isEqualTo(created);
+		assertThat(runs).hasValue(1);
+		IdempotencyRecord stored = records.get("product:key-1");
+		assertThat(stored.isCompleted()).isFalse();
+		assertThat(stored.getExpiresAt()).isBefore(Instant.now().plus(LEASE).plusSeconds(1));
+	}
+
+	private IdempotencyService idempotencyService() {
+		return new IdempotencyService(repository, new ObjectMapper(), TTL, LEASE, 100);
+	}
+
+	private Response create() {
+		return new Response(runs.incrementAndGet(), "Lamp");
+	}
+
+	private static IdempotencyRecord copy(IdempotencyRecord idempotencyRecord) {
+		return new IdempotencyRecord(idempotencyRecord.getId(), idempotencyRecord.getRequestHash(), idempotencyRecord.isCompleted(),
+				idempotencyRecord.getResponse(), idempotencyRecord.getCreatedAt(), idempotencyRecord.getExpiresAt());
+	}
+}
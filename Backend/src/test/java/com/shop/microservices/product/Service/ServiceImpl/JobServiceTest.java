@@ -0,0 +1,244 @@
+package com.shop.microservices.product.Service.ServiceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shop.microservices.product.Dto.JobResponseDTO;
+import com.shop.microservices.product.Exception.ApplicationException;
+import com.shop.microservices.product.Exception.EntityCreationException;
+import com.shop.microservices.product.Exception.InvalidInputException;
+import com.shop.microservices.product.Identifier.IdGenerationStrategy;
+import com.shop.microservices.product.Identifier.IdGeneratorRegistry;
+import com.shop.microservices.product.Mapper.JobMapper;
+import com.shop.microservices.product.Model.Job;
+import com.shop.microservices.product.Model.JobStatus;
+import com.shop.microservices.product.Model.JobType;
+import com.shop.microservices.product.Repository.JobRepository;
+import com.shop.microservices.product.Utils.ErrorMessageUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobServiceTest {
+
+	private static final long TIMEOUT_MILLIS = 5_000;
+	private static final Duration ABANDONED_AFTER = Duration.ofMinutes(1);
+
+	private final JobRepository jobRepository = mock(JobRepository.class);
+	private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+	private final MockEnvironment environment = new MockEnvironment()
+			.withProperty("shop.jobs.max-concurrent.price-adjustment", "2")
+			.withProperty("shop.jobs.max-concurrent.product-import", "1");
+	private JobService jobService;
+
+	@AfterEach
+	void shutdown() {
+		if (jobService != null) {
+			jobService.shutdown();
+		}
+	}
+
+	@Test
+	void submittedJobIsQueuedThenRunAndItsResultRecorded() {
+		JobResponseDTO submitted = jobService(0).submit(JobType.PRICE_ADJUSTMENT, context -> {
+			context.reportProgress(3, 3L);
+			return Map.of("matchedCount", 3, "modifiedCount", 2);
+		});
+
+		assertThat(submitted.status()).isEqualTo(JobStatus.QUEUED);
+		assertThat(submitted.type()).isEqualTo(JobType.PRICE_ADJUSTMENT);
+		assertThat(jobs.get(submitted.jobId()).getHeartbeatAt()).isEqualTo(submitted.createdAt());
+		verify(jobRepository, timeout(TIMEOUT_MILLIS)).markFinished(eq(submitted.jobId()), eq(JobStatus.SUCCEEDED), eq(3L),
+				eq(Map.of("matchedCount", 3, "modifiedCount", 2)), isNull(), any(Instant.class));
+		verify(jobRepository).markRunning(eq(submitted.jobId()), any(Instant.class));
+		verify(jobRepository).updateProgress(submitted.jobId(), 3, 3L);
+		assertThat(jobService.getJob(submitted.jobId().toString()).jobId()).isEqualTo(submitted.jobId());
+	}
+
+	@Test
+	void progressWritesAreThrottled() {
+		JobResponseDTO submitted = jobService(60_000).submit(JobType.PRODUCT_IMPORT, context -> {
+			for (int i = 1; i <= 100; i++) {
+				context.reportProgress(i, null);
+			}
+			return null;
+		});
+
+		verify(jobRepository, timeout(TIMEOUT_MILLIS)).markFinished(eq(submitted.jobId()), eq(JobStatus.SUCCEEDED), eq(100L),
+				isNull(), isNull(), any(Instant.class));
+		verify(jobRepository).updateProgress(submitted.jobId(), 1, null);
+		verify(jobRepository, never()).updateProgress(eq(submitted.jobId()), eq(2L), any());
+	}
+
+	@Test
+	void cancellationRecordedByAnotherInstanceIsSeenWhenProgressIsWritten() {
+		when(jobRepository.updateProgress(any(), anyLong(), any())).thenReturn(false, true);
+		AtomicInteger batches = new AtomicInteger();
+
+		JobResponseDTO submitted = jobService(0).submit(JobType.PRODUCT_IMPORT, context -> {
+			while (!context.isCancelled()) {
+				context.reportProgress(batches.incrementAndGet(), null);
+			}
+			throw new CancellationException();
+		});
+
+		verify(jobRepository, timeout(TIMEOUT_MILLIS)).markFinished(eq(submitted.jobId()), eq(JobStatus.CANCELLED), eq(2L),
+				isNull(), isNull(), any(Instant.class));
+		assertThat(batches).hasValue(2);
+	}
+
+	@Test
+	void queuedJobCancelledOnThisInstanceNeverRuns() throws Exception {
+		when(jobRepository.requestCancellation(any())).thenReturn(true);
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger queuedRuns = new AtomicInteger();
+		jobService(0).submit(JobType.PRODUCT_IMPORT, context -> {
+			running.countDown();
+			await(release);
+			return null;
+		});
+		assertThat(running.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+		JobResponseDTO queued = jobService.submit(JobType.PRODUCT_IMPORT, context -> queuedRuns.incrementAndGet());
+
+		JobResponseDTO cancelled = jobService.cancelJob(queued.jobId().toString());
+
+		assertThat(cancelled.cancelRequested()).isTrue();
+		verify(jobRepository, timeout(TIMEOUT_MILLIS)).markFinished(eq(queued.jobId()), eq(JobStatus.CANCELLED), eq(0L),
+				isNull(), isNull(), any(Instant.class));
+		release.countDown();
+		verify(jobRepository, never()).markRunning(eq(queued.jobId()), any());
+		assertThat(queuedRuns).hasValue(0);
+	}
+
+	@Test
+	void finishedJobCannotBeCancelled() {
+		UUID jobId = UUID.randomUUID();
+		jobs.put(jobId, Job.builder().jobId(jobId).type(JobType.PRODUCT_IMPORT).status(JobStatus.SUCCEEDED).build());
+
+		assertThatThrownBy(() -> jobService(0).cancelJob(jobId.toString()))
+				.isInstanceOf(InvalidInputException.class)
+				.extracting(ex -> ((ApplicationException) ex).getErrorCode())
+				.isEqualTo("prod.error.3703");
+		assertThatThrownBy(() -> jobService.getJob("not-a-uuid"))
+				.extracting(ex -> ((ApplicationException) ex).getErrorCode())
+				.isEqualTo("prod.error.3701");
+		assertThatThrownBy(() -> jobService.getJob(UUID.randomUUID().toString()))
+				.extracting(ex -> ((ApplicationException) ex).getErrorCode())
+				.isEqualTo("prod.error.3702");
+	}
+
+	@Test
+	void concurrentJobsAreLimitedPerType() throws Exception {
+		AtomicInteger adjusting = new AtomicInteger();
+		AtomicInteger maxAdjusting = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch importRan = new CountDownLatch(1);
+		jobService(0);
+		for (int i = 0; i < 5; i++) {
+			jobService.submit(JobType.PRICE_ADJUSTMENT, context -> {
+				maxAdjusting.accumulateAndGet(adjusting.incrementAndGet(), Math::max);
+				await(release);
+				adjusting.decrementAndGet();
+				return null;
+			});
+		}
+
+		// Another type has slots of its own
+		jobService.submit(JobType.PRODUCT_IMPORT, context -> {
+			importRan.countDown();
+			return null;
+		});
+		assertThat(importRan.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+		verify(jobRepository, timeout(TIMEOUT_MILLIS).times(3)).markRunning(any(), any());
+		release.countDown();
+
+		verify(jobRepository, timeout(TIMEOUT_MILLIS).times(6)).markFinished(any(), eq(JobStatus.SUCCEEDED), anyLong(),
+				isNull(), isNull(), any(Instant.class));
+		assertThat(maxAdjusting).hasValue(2);
+	}
+
+	@Test
+	void failuresAreRecordedWithTheirMessage() {
+		JobResponseDTO known = jobService(0).submit(JobType.PRODUCT_IMPORT, context -> {
+			throw new EntityCreationException("prod.error.3121", new IllegalStateException());
+		});
+		JobResponseDTO unexpected = jobService.submit(JobType.PRICE_ADJUSTMENT, context -> {
+			throw new IllegalStateException("boom");
+		});
+
+		verify(jobRepository, timeout(TIMEOUT_MILLIS)).markFinished(eq(known.jobId()), eq(JobStatus.FAILED), eq(0L), isNull(),
+				argThat(error -> error.startsWith("prod.error.3121")), any(Instant.class));
+		verify(jobRepository, timeout(TIMEOUT_MILLIS)).markFinished(eq(unexpected.jobId()), eq(JobStatus.FAILED), eq(0L), isNull(),
+				argThat(error -> error.startsWith("prod.error.3705") && error.contains("boom")), any(Instant.class));
+	}
+
+	@Test
+	void heartbeatRefreshesTheLocalJobsAndFailsTheAbandonedOnes() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		JobResponseDTO running = jobService(0).submit(JobType.PRODUCT_IMPORT, context -> {
+			await(release);
+			return null;
+		});
+		verify(jobRepository, timeout(TIMEOUT_MILLIS)).markRunning(eq(running.jobId()), any());
+
+		Instant before = Instant.now();
+		jobService.heartbeat();
+		Instant after = Instant.now();
+		release.countDown();
+
+		verify(jobRepository).heartbeat(argThat(ids -> ids.contains(running.jobId())), argThat(at -> !at.isBefore(before)));
+		verify(jobRepository).failAbandoned(argThat(cutoff -> !cutoff.isBefore(before.minus(ABANDONED_AFTER))
+						&& !cutoff.isAfter(after.minus(ABANDONED_AFTER))),
+				argThat(error -> error.startsWith("prod.error.3706")), any(Instant.class));
+	}
+
+	private JobService jobService(long progressIntervalMillis) {
+		when(jobRepository.save(any(Job.class))).thenAnswer(invocation -> {
+			Job job = invocation.getArgument(0);
+			jobs.put(job.getJobId(), job);
+			return job;
+		});
+		when(jobRepository.findById(any(UUID.class))).thenAnswer(invocation -> Optional.ofNullable(jobs.get(invocation.<UUID>getArgument(0))));
+		ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+		messageSource.setBasename("error_message_en");
+		jobService = new JobService(jobRepository, new JobMapper(),
+				new IdGeneratorRegistry(IdGenerationStrategy.UUID_V7, IdGenerationStrategy.UUID_V7, IdGenerationStrategy.UUID_V7, IdGenerationStrategy.UUID_V7),
+				new ErrorMessageUtil(messageSource), new ObjectMapper(), environment, progressIntervalMillis, ABANDONED_AFTER.toMillis(), true);
+		return jobService;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			if (!latch.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+				throw new IllegalStateException("Not released");
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(ex);
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package com.shop.microservices.product.Service.ServiceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteInsert;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.shop.microservices.product.Dto.ProductImportErrorDTO;
+import com.shop.microservices.product.Dto.ProductImportReportDTO;
+import com.shop.microservices.product.Event.ChangeType;
+import com.shop.microservices.product.Event.ProductChangeEvent;
+import com.shop.microservices.product.Identifier.IdGenerationStrategy;
+import com.shop.microservices.product.Identifier.IdGeneratorRegistry;
+import com.shop.microservices.product.Import.ProductImportFormat;
+import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Repository.InMemory.InMemoryProductRepository;
+import com.shop.microservices.product.Repository.ProductRepository;
+import com.shop.microservices.product.Service.ServiceInterface.IJobService;
+import com.shop.microservices.product.Utils.ErrorMessageUtil;
+import com.shop.microservices.product.Utils.ProductValidationUtil;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.data.mongodb.BulkOperationException;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductImportServiceTest {
+
+	private final IdGeneratorRegistry idGeneratorRegistry = new IdGeneratorRegistry(IdGenerationStrategy.UUID_V7,
+			IdGenerationStrategy.UUID_V7, IdGenerationStrategy.UUID_V7, IdGenerationStrategy.UUID_V7);
+	private final InMemoryProductRepository repository = new InMemoryProductRepository(event -> { });
+	private final List<Object> events = new ArrayList<>();
+	private final List<ProductImportService> services = new ArrayList<>();
+
+	@AfterEach
+	void shutdown() {
+		services.forEach(ProductImportService::shutdown);
+	}
+
+	@Test
+	void newNamesAreInsertedAndExistingNamesUpdated() {
+		Product existing = repository.save(Product.builder().id(idGeneratorRegistry.nextId(Product.class))
+				.name("Lamp").description("Old lamp").price(new BigDecimal("9.99")).build());
+
+		ProductImportReportDTO report = importService(repository, 2, 100).importProducts(csv("""
+				name,description,price
+				Lamp,LED desk lamp,19.99
+				Desk,Oak desk,249.90
+				Chair,,49.00
+				"""), ProductImportFormat.CSV);
+
+		assertThat(report.inserted()).isEqualTo(2);
+		assertThat(report.updated()).isEqualTo(1);
+		assertThat(report.rejected()).isZero();
+		Product lamp = repository.findByName("Lamp");
+		assertThat(lamp.getId()).isEqualTo(existing.getId());
+		assertThat(lamp.getDescription()).isEqualTo("LED desk lamp");
+		assertThat(lamp.getPrice()).isEqualByComparingTo("19.99");
+		assertThat(repository.findByName("Desk").getPrice()).isEqualByComparingTo("249.90");
+		assertThat(repository.count()).isEqualTo(3);
+		assertThat(events).singleElement().isInstanceOfSatisfying(ProductChangeEvent.class,
+				event -> assertThat(event.type()).isEqualTo(ChangeType.BULK_CHANGED));
+	}
+
+	@Test
+	void invalidRowsAreRejectedWithTheirLineAndReason() {
+		ProductImportReportDTO report = importService(repository, 500, 100).importProducts(csv("""
+				name,price
+				Lamp,19.99
+				,5.00
+				Desk,abc
+				Chair,
+				Stool,-1
+				"""), ProductImportFormat.CSV);
+
+		assertThat(report.inserted()).isEqualTo(1);
+		assertThat(report.rejected()).isEqualTo(4);
+		assertThat(report.errors()).extracting(ProductImportErrorDTO::line).containsExactly(3L, 4L, 5L, 6L);
+		assertThat(report.errors()).extracting(error -> error.message().substring(0, "prod.error.0000".length()))
+				.containsExactly("prod.error.3119", "prod.error.3122", "prod.error.3120", "prod.error.3103");
+		assertThat(report.errors().get(1).message()).contains("abc");
+	}
+
+	@Test
+	void reportListsOnlyTheFirstRejectedRowsButCountsThemAll() {
+		StringBuilder ndjson = new StringBuilder();
+		for (int i = 0; i < 50; i++) {
+			ndjson.append(i % 2 == 0 ? "{\"name\":\"Product " + i + "\",\"price\":\"1." + i + "\"}" : "not json").append('\n');
+		}
+
+		ProductImportReportDTO report = importService(repository, 7, 10).importProducts(
+				new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)), ProductImportFormat.NDJSON);
+
+		assertThat(report.inserted()).isEqualTo(25);
+		assertThat(report.rejected()).isEqualTo(25);
+		assertThat(report.errors()).hasSize(10);
+		assertThat(report.errors()).extracting(ProductImportErrorDTO::line).isSorted();
+		assertThat(report.errors()).allSatisfy(error -> assertThat(error.message()).startsWith("prod.error.3118"));
+	}
+
+	@Test
+	void rowsLosingADuplicateKeyRaceAreRetriedAsUpdates() {
+		ProductRepository racing = mock(ProductRepository.class);
+		AtomicInteger calls = new AtomicInteger();
+		when(racing.upsertAllByName(anyList())).thenAnswer(invocation -> {
+			List<Product> products = invocation.getArgument(0);
+			if (calls.getAndIncrement() == 0) {
+				// The second row was inserted by a concurrent batch between the query and the insert of the upsert
+				BulkWriteResult partial = BulkWriteResult.acknowledged(0, 0, 0, 0,
+						List.of(new BulkWriteUpsert(0, new BsonString("id"))), List.<BulkWriteInsert>of());
+				BulkWriteError duplicate = new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1);
+				throw new BulkOperationException("Bulk write failed", new MongoBulkWriteException(partial, List.of(duplicate),
+						null, new ServerAddress(), Set.of()));
+			}
+			assertThat(products).extracting(Product::getName).containsExactly("Desk");
+			return BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of());
+		});
+
+		ProductImportReportDTO report = importService(racing, 500, 100).importProducts(csv("""
+				name,price
+				Lamp,19.99
+				Desk,249.90
+				"""), ProductImportFormat.CSV);
+
+		verify(racing, times(2)).upsertAllByName(anyList());
+		assertThat(report.inserted()).isEqualTo(1);
+		assertThat(report.updated()).isEqualTo(1);
+		assertThat(report.rejected()).isZero();
+	}
+
+	@Test
+	void rowsFailingForAnyOtherReasonAreRejected() {
+		ProductRepository failing = mock(ProductRepository.class);
+		when(failing.upsertAllByName(anyList())).thenThrow(new BulkOperationException("Bulk write failed",
+				new MongoBulkWriteException(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()),
+						List.of(new BulkWriteError(121, "Document failed validation", new BsonDocument(), 0)),
+						null, new ServerAddress(), Set.of())));
+
+		ProductImportReportDTO report = importService(failing, 500, 100).importProducts(csv("name,price\nLamp,19.99\n"),
+				ProductImportFormat.CSV);
+
+		verify(failing).upsertAllByName(anyList());
+		assertThat(report.rejected()).isEqualTo(1);
+		assertThat(report.errors()).singleElement().satisfies(error -> {
+			assertThat(error.line()).isEqualTo(2);
+			assertThat(error.message()).startsWith("prod.error.3123").contains("Document failed validation");
+		});
+		assertThat(events).isEmpty();
+	}
+
+	private ProductImportService importService(ProductRepository productRepository, int batchSize, int maxReportedErrors) {
+		ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+		messageSource.setBasename("error_message_en");
+		ProductImportService service = new ProductImportService(productRepository, new ProductValidationUtil(productRepository),
+				new ErrorMessageUtil(messageSource), idGeneratorRegistry, new ObjectMapper(), mock(IJobService.class),
+				events::add, batchSize, 2, maxReportedErrors);
+		services.add(service);
+		return service;
+	}
+
+	private static ByteArrayInputStream csv(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,150 @@
+package com.shop.microservices.product.Service.ServiceImpl;
+
+import com.shop.microservices.product.Catalog.CatalogCache;
+import com.shop.microservices.product.Mapper.ProductMapper;
+import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Popularity.ProductViewCounter;
+import com.shop.microservices.product.Popularity.TrendingProducts;
+import com.shop.microservices.product.ReadModel.ProductListingView;
+import com.shop.microservices.product.Repository.CategoryRepository;
+import com.shop.microservices.product.Repository.MaterialRepository;
+import com.shop.microservices.product.Repository.ProductRepository;
+import com.shop.microservices.product.Repository.ProductViewRepository;
+import com.shop.microservices.product.Routing.ReadRouter;
+import com.shop.microservices.product.Service.ServiceInterface.IJobService;
+import com.shop.microservices.product.Utils.BatchLoader;
+import com.shop.microservices.product.Utils.ProductValidationUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures how many repository calls bursts of concurrent product lookups issue, with and without the
+ * single-flight and batching layers of {@link ProductService}. The repository is a mock answering after a fixed
+ * latency, whatever the number of ids queried.
+ * Run with {@code mvn test -Pbenchmark -Dtest=ProductLookupContentionBenchmark [-Dbenchmark.callers=N]}.
+ */
+@Tag("benchmark")
+class ProductLookupContentionBenchmark {
+
+	private static final int CALLERS = Integer.getInteger("benchmark.callers", 500);
+	private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 20);
+	private static final long LATENCY_MILLIS = Long.getLong("benchmark.latency-ms", 5);
+
+	private final AtomicLong repositoryCalls = new AtomicLong();
+	private final ProductRepository repository = mock(ProductRepository.class);
+	private final ProductMapper mapper = new ProductMapper();
+
+	@Test
+	void compareRepositoryCallsForOneProduct() throws Exception {
+		List<UUID> ids = List.of(UUID.randomUUID());
+		try (BatchLoader<UUID, Product> loader = batchLoader()) {
+			ProductService service = productService(loader);
+
+			Result direct = run(id -> repository.findById(id).map(mapper::productToProductResponseDTO), ids);
+			Result coalesced = run(id -> service.getProductById(id.toString()), ids);
+
+			System.out.printf("%,d rounds of %,d concurrent lookups of one product, %d ms repository latency%n", ROUNDS, CALLERS, LATENCY_MILLIS);
+			System.out.printf("Without single-flight : %,d repository calls, %,.0f lookups/s%n", direct.calls(), direct.throughput());
+			System.out.printf("With single-flight    : %,d repository calls, %,.0f lookups/s (%.1fx fewer calls)%n",
+					coalesced.calls(), coalesced.throughput(), (double) direct.calls() / coalesced.calls());
+
+			assertThat(coalesced.calls()).isLessThan(direct.calls());
+		}
+	}
+
+	@Test
+	void compareRepositoryCallsForDistinctProducts() throws Exception {
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			ids.add(UUID.randomUUID());
+		}
+		try (BatchLoader<UUID, Product> loader = batchLoader()) {
+			ProductService service = productService(loader);
+
+			Result direct = run(id -> repository.findById(id).map(mapper::productToProductResponseDTO), ids);
+			Result batched = run(id -> service.getProductById(id.toString()), ids);
+
+			System.out.printf("%,d rounds of %,d concurrent lookups of distinct products, %d ms repository latency%n", ROUNDS, CALLERS, LATENCY_MILLIS);
+			System.out.printf("One findById per lookup : %,d repository calls, %,.0f lookups/s%n", direct.calls(), direct.throughput());
+			System.out.printf("Batched findAllById     : %,d repository calls, %,.0f lookups/s (%.1fx fewer calls)%n",
+					batched.calls(), batched.throughput(), (double) direct.calls() / batched.calls());
+
+			assertThat(batched.calls()).isLessThan(direct.calls());
+		}
+	}
+
+	private ProductService productService(BatchLoader<UUID, Product> loader) {
+		when(repository.findById(any(UUID.class))).thenAnswer(invocation -> {
+			repositoryCalls.incrementAndGet();
+			Thread.sleep(LATENCY_MILLIS);
+			return Optional.of(product(invocation.getArgument(0)));
+		});
+		return new ProductService(repository, mapper, mock(ProductValidationUtil.class), mock(IJobService.class), loader,
+				new ReadRouter(false, Duration.ZERO, new StandardEnvironment()), new ProductListingView(repository, mapper, false, 0, 0),
+				event -> { }, new CatalogCache(repository, mock(CategoryRepository.class), mock(MaterialRepository.class), event -> { },
+				false, Path.of("catalog-snapshot.bin"), Duration.ZERO, 0),
+				new ProductViewCounter(mock(ProductViewRepository.class), new SimpleMeterRegistry(), true),
+				new TrendingProducts(20, Duration.ofMinutes(10), 4, 4096));
+	}
+
+	private BatchLoader<UUID, Product> batchLoader() {
+		when(repository.findAllById(anyIterable())).thenAnswer(invocation -> {
+			repositoryCalls.incrementAndGet();
+			Thread.sleep(LATENCY_MILLIS);
+			List<Product> products = new ArrayList<>();
+			invocation.<Iterable<UUID>>getArgument(0).forEach(id -> products.add(product(id)));
+			return products;
+		});
+		return new BatchLoader<>("benchmark", ids -> repository.findAllById(ids).stream()
+				.collect(Collectors.toMap(Product::getId, Function.identity())), Duration.ofMillis(1), 100);
+	}
+
+	private static Product product(UUID id) {
+		return Product.builder().id(id).name("product-" + id).description("Benchmark product").price(new BigDecimal("9.99")).build();
+	}
+
+	private Result run(Consumer<UUID> lookup, List<UUID> ids) throws Exception {
+		repositoryCalls.set(0);
+		long start = System.nanoTime();
+		for (int round = 0; round < ROUNDS; round++) {
+			List<Future<?>> futures = new ArrayList<>(CALLERS);
+			try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+				for (int i = 0; i < CALLERS; i++) {
+					UUID id = ids.get(i % ids.size());
+					futures.add(executor.submit(() -> lookup.accept(id)));
+				}
+				for (Future<?> future : futures) {
+					future.get();
+				}
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		return new Result(repositoryCalls.get(), ROUNDS * CALLERS / seconds);
+	}
+
+	private record Result(long calls, double throughput) {
+	}
+}
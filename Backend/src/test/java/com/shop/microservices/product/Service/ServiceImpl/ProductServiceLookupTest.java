@@ -0,0 +1,89 @@
+package com.shop.microservices.product.Service.ServiceImpl;
+
+import com.shop.microservices.product.Catalog.CatalogCache;
+import com.shop.microservices.product.Exception.ResourceNotFoundException;
+import com.shop.microservices.product.Mapper.ProductMapper;
+import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Popularity.ProductViewCounter;
+import com.shop.microservices.product.Popularity.TrendingProducts;
+import com.shop.microservices.product.ReadModel.ProductListingView;
+import com.shop.microservices.product.Repository.ProductRepository;
+import com.shop.microservices.product.Repository.ProductViewRepository;
+import com.shop.microservices.product.Routing.ReadRouter;
+import com.shop.microservices.product.Service.ServiceInterface.IJobService;
+import com.shop.microservices.product.Utils.BatchLoader;
+import com.shop.microservices.product.Utils.ProductValidationUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductServiceLookupTest {
+
+	private static final Instant CACHED_AT = Instant.parse("2026-10-19T10:15:30.123456Z");
+
+	private final ProductRepository repository = mock(ProductRepository.class);
+	private final CatalogCache catalogCache = mock(CatalogCache.class);
+	@SuppressWarnings("unchecked")
+	private final BatchLoader<UUID, Product> batchLoader = mock(BatchLoader.class);
+	private final ProductService productService = productService();
+
+	@Test
+	void cachedProductIsServedOnceTheDatabaseConfirmsItsVersion() {
+		Product cached = product("Wireless Mouse", CACHED_AT);
+		when(catalogCache.product(cached.getId())).thenReturn(Optional.of(cached));
+		// Stored to the millisecond
+		when(repository.findLastModifiedById(cached.getId()))
+				.thenReturn(Optional.of(Product.builder().id(cached.getId()).lastModified(CACHED_AT.truncatedTo(ChronoUnit.MILLIS)).build()));
+
+		assertThat(productService.getProductById(cached.getId().toString()).name()).isEqualTo("Wireless Mouse");
+		verify(batchLoader, never()).load(any());
+	}
+
+	@Test
+	void productModifiedSinceItWasCachedIsLoadedAgain() {
+		Product cached = product("Wireless Mouse", CACHED_AT);
+		Product current = Product.builder().id(cached.getId()).name("Silent Wireless Mouse").lastModified(CACHED_AT.plusSeconds(1)).build();
+		when(catalogCache.product(cached.getId())).thenReturn(Optional.of(cached));
+		when(repository.findLastModifiedById(cached.getId())).thenReturn(Optional.of(current));
+		when(batchLoader.load(cached.getId())).thenReturn(current);
+
+		assertThat(productService.getProductById(cached.getId().toString()).name()).isEqualTo("Silent Wireless Mouse");
+	}
+
+	@Test
+	void productDeletedSinceItWasCachedIsNotFound() {
+		Product cached = product("Wireless Mouse", CACHED_AT);
+		when(catalogCache.product(cached.getId())).thenReturn(Optional.of(cached));
+		when(repository.findLastModifiedById(cached.getId())).thenReturn(Optional.empty());
+
+		assertThatThrownBy(() -> productService.getProductById(cached.getId().toString()))
+				.isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	private static Product product(String name, Instant lastModified) {
+		return Product.builder().id(UUID.randomUUID()).name(name).lastModified(lastModified).build();
+	}
+
+	private ProductService productService() {
+		ProductMapper mapper = new ProductMapper();
+		return new ProductService(repository, mapper, mock(ProductValidationUtil.class), mock(IJobService.class),
+				batchLoader, new ReadRouter(false, Duration.ZERO, new StandardEnvironment()),
+				new ProductListingView(repository, mapper, false, 0, 0), event -> { }, catalogCache,
+				new ProductViewCounter(mock(ProductViewRepository.class), new SimpleMeterRegistry(), true),
+				new TrendingProducts(20, Duration.ofMinutes(10), 4, 4096));
+	}
+}
@@ -0,0 +1,129 @@
+package com.shop.microservices.product.Service.ServiceImpl;
+
+import com.mongodb.client.result.UpdateResult;
+import com.shop.microservices.product.Catalog.CatalogCache;
+import com.shop.microservices.product.Dto.BulkPriceAdjustmentRequestDTO;
+import com.shop.microservices.product.Dto.BulkPriceAdjustmentResponseDTO;
+import com.shop.microservices.product.Event.ChangeType;
+import com.shop.microservices.product.Event.ProductChangeEvent;
+import com.shop.microservices.product.Exception.ApplicationException;
+import com.shop.microservices.product.Exception.InvalidInputException;
+import com.shop.microservices.product.Mapper.ProductMapper;
+import com.shop.microservices.product.Model.PriceAdjustmentType;
+import com.shop.microservices.product.Popularity.ProductViewCounter;
+import com.shop.microservices.product.Popularity.TrendingProducts;
+import com.shop.microservices.product.ReadModel.ProductListingView;
+import com.shop.microservices.product.Repository.CategoryRepository;
+import com.shop.microservices.product.Repository.MaterialRepository;
+import com.shop.microservices.product.Repository.ProductRepository;
+import com.shop.microservices.product.Repository.ProductViewRepository;
+import com.shop.microservices.product.Routing.ReadRouter;
+import com.shop.microservices.product.Service.ServiceInterface.IJobService;
+import com.shop.microservices.product.Utils.BatchLoader;
+import com.shop.microservices.product.Utils.ProductValidationUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ProductServicePriceAdjustmentTest {
+
+	private final ProductRepository repository = mock(ProductRepository.class);
+	private final List<Object> events = new ArrayList<>();
+	private final ProductService productService = productService();
+
+	@Test
+	void adjustmentIsRunByTheRepositoryAndReportsItsCounts() {
+		List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+		when(repository.adjustPrices(ids, new BigDecimal("10.00"), new BigDecimal("50.00"), "Summer",
+				PriceAdjustmentType.PERCENTAGE, new BigDecimal("-20")))
+				.thenReturn(UpdateResult.acknowledged(3, 2L, null));
+
+		BulkPriceAdjustmentResponseDTO response = productService.adjustPrices(request(ids, "10.00", "50.00", "Summer",
+				PriceAdjustmentType.PERCENTAGE, "-20"));
+
+		assertThat(response.matchedCount()).isEqualTo(3);
+		assertThat(response.modifiedCount()).isEqualTo(2);
+		assertThat(events).singleElement().isInstanceOfSatisfying(ProductChangeEvent.class,
+				event -> assertThat(event.type()).isEqualTo(ChangeType.BULK_CHANGED));
+	}
+
+	@Test
+	void adjustmentModifyingNothingPublishesNoChange() {
+		when(repository.adjustPrices(any(), any(), any(), any(), any(), any())).thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+		productService.adjustPrices(request(null, null, null, "Winter", PriceAdjustmentType.ABSOLUTE, "5"));
+
+		verify(repository).adjustPrices(null, null, null, "Winter", PriceAdjustmentType.ABSOLUTE, new BigDecimal("5"));
+		assertThat(events).isEmpty();
+	}
+
+	@Test
+	void invalidRequestsAreRejectedBeforeTheRepositoryIsCalled() {
+		assertRejected(null, "prod.error.3111");
+		assertRejected(request(null, "1", null, null, null, "5"), "prod.error.3112");
+		assertRejected(request(null, "1", null, null, PriceAdjustmentType.ABSOLUTE, null), "prod.error.3112");
+		assertRejected(request(null, "1", null, null, PriceAdjustmentType.PERCENTAGE, "-100"), "prod.error.3113");
+		assertRejected(request(null, null, null, null, PriceAdjustmentType.PERCENTAGE, "10"), "prod.error.3114");
+		assertRejected(request(List.of(), null, null, "", PriceAdjustmentType.PERCENTAGE, "10"), "prod.error.3114");
+		assertRejected(request(null, "50", "10", null, PriceAdjustmentType.ABSOLUTE, "1"), "prod.error.3115");
+
+		verifyNoInteractions(repository);
+	}
+
+	@Test
+	void largeDecreasesAreOnlyRejectedForPercentages() {
+		when(repository.adjustPrices(any(), any(), any(), any(), any(), any())).thenReturn(UpdateResult.acknowledged(1, 0L, null));
+
+		productService.adjustPrices(request(null, "200", null, null, PriceAdjustmentType.ABSOLUTE, "-150"));
+		productService.adjustPrices(request(null, "200", null, null, PriceAdjustmentType.PERCENTAGE, "-99.99"));
+
+		verify(repository, times(2)).adjustPrices(any(), any(), any(), any(), any(), any());
+	}
+
+	private void assertRejected(BulkPriceAdjustmentRequestDTO request, String errorCode) {
+		assertThatThrownBy(() -> productService.adjustPrices(request))
+				.isInstanceOf(InvalidInputException.class)
+				.extracting(ex -> ((ApplicationException) ex).getErrorCode())
+				.isEqualTo(errorCode);
+	}
+
+	private static BulkPriceAdjustmentRequestDTO request(List<UUID> ids, String minPrice, String maxPrice, String namePrefix,
+	                                                     PriceAdjustmentType type, String value) {
+		BulkPriceAdjustmentRequestDTO request = new BulkPriceAdjustmentRequestDTO();
+		request.setProductIds(ids);
+		request.setMinPrice(minPrice == null ? null : new BigDecimal(minPrice));
+		request.setMaxPrice(maxPrice == null ? null : new BigDecimal(maxPrice));
+		request.setNamePrefix(namePrefix);
+		request.setAdjustmentType(type);
+		request.setValue(value == null ? null : new BigDecimal(value));
+		return request;
+	}
+
+	@SuppressWarnings("unchecked")
+	private ProductService productService() {
+		ProductMapper mapper = new ProductMapper();
+		return new ProductService(repository, mapper, mock(ProductValidationUtil.class), mock(IJobService.class),
+				mock(BatchLoader.class), new ReadRouter(false, Duration.ZERO, new StandardEnvironment()),
+				new ProductListingView(repository, mapper, false, 0, 0), events::add,
+				new CatalogCache(repository, mock(CategoryRepository.class), mock(MaterialRepository.class), event -> { },
+						false, Path.of("catalog-snapshot.bin"), Duration.ZERO, 0),
+				new ProductViewCounter(mock(ProductViewRepository.class), new SimpleMeterRegistry(), true),
+				new TrendingProducts(20, Duration.ofMinutes(10), 4, 4096));
+	}
+}
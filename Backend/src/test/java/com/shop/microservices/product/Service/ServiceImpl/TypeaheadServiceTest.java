@@ -0,0 +1,68 @@
+package com.shop.microservices.product.Service.ServiceImpl;
+
+import com.shop.microservices.product.Catalog.CatalogCache;
+import com.shop.microservices.product.Dto.TypeaheadSuggestionDTO;
+import com.shop.microservices.product.Model.Product;
+import com.shop.microservices.product.Popularity.ProductViewCounter;
+import com.shop.microservices.product.Popularity.ProductViewPopularity;
+import com.shop.microservices.product.Repository.InMemory.InMemoryCategoryRepository;
+import com.shop.microservices.product.Repository.InMemory.InMemoryMaterialRepository;
+import com.shop.microservices.product.Repository.InMemory.InMemoryProductRepository;
+import com.shop.microservices.product.Repository.InMemory.InMemoryProductViewRepository;
+import com.shop.microservices.product.Routing.ReadRouter;
+import com.shop.microservices.product.Typeahead.SuggestionType;
+import com.shop.microservices.product.Typeahead.TypeaheadIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TypeaheadServiceTest {
+
+	private final InMemoryProductRepository productRepository = new InMemoryProductRepository(event -> { });
+	private final InMemoryProductViewRepository productViewRepository = new InMemoryProductViewRepository(event -> { });
+	private final ProductViewCounter counter = new ProductViewCounter(productViewRepository, new SimpleMeterRegistry(), true);
+	private final ProductViewPopularity popularity = new ProductViewPopularity(productViewRepository, 100);
+	private final TypeaheadService typeaheadService = new TypeaheadService(new TypeaheadIndex(), productRepository,
+			new InMemoryCategoryRepository(event -> { }), new InMemoryMaterialRepository(event -> { }),
+			new ReadRouter(false, Duration.ZERO, new MockEnvironment()), mock(CatalogCache.class), popularity, 20, 1000);
+
+	@Test
+	void mostViewedProductsAreSuggestedFirstOnceTheIndexIsRebuilt() {
+		UUID mouse = product("Wireless Mouse");
+		UUID keyboard = product("Wireless Keyboard");
+		typeaheadService.rebuild();
+		assertThat(names()).containsExactlyInAnyOrder("Wireless Mouse", "Wireless Keyboard");
+
+		view(mouse, 3);
+		view(keyboard, 7);
+		counter.flush();
+		popularity.refresh();
+		typeaheadService.rebuild();
+
+		assertThat(names()).containsExactly("Wireless Keyboard", "Wireless Mouse");
+	}
+
+	private UUID product(String name) {
+		return productRepository.save(Product.builder().id(UUID.randomUUID()).name(name).build()).getId();
+	}
+
+	private void view(UUID productId, int views) {
+		for (int i = 0; i < views; i++) {
+			counter.record(productId);
+		}
+	}
+
+	private List<String> names() {
+		return typeaheadService.suggest("wire", 10, EnumSet.of(SuggestionType.PRODUCT)).stream()
+				.map(TypeaheadSuggestionDTO::name)
+				.toList();
+	}
+}
@@ -0,0 +1,174 @@
+package com.shop.microservices.product;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares the time from process start to the first successful {@code GET /api/v1/product} of the regular jar and of
+ * the jar packaged by the {@code fast-startup} profile (Spring AOT and a class-data-sharing archive), against a real
+ * MongoDB holding one product. The two variants are started alternately, each run with an empty data directory.
+ * Package first, then run with
+ * {@code mvn -Pfast-startup -DskipTests package && mvn test -Pbenchmark -Dtest=StartupTimeBenchmark [-Dbenchmark.runs=N]}.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class StartupTimeBenchmark {
+
+	private static final int RUNS = Integer.getInteger("benchmark.runs", 5);
+	private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+	private static final Path TARGET = Path.of("target");
+	private static final Path FAST_STARTUP = TARGET.resolve("fast-startup");
+	private static final String JAVA = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+	@Container
+	static final MongoDBContainer MONGO = new MongoDBContainer(DockerImageName.parse("mongo:latest"));
+
+	private static String jarName;
+
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+	@BeforeAll
+	static void findJars() throws IOException {
+		assumeTrue(Files.exists(FAST_STARTUP.resolve("application.jsa")), "Package with -Pfast-startup first");
+		try (Stream<Path> jars = Files.list(FAST_STARTUP)) {
+			jarName = jars.map(jar -> jar.getFileName().toString())
+					.filter(name -> name.endsWith(".jar"))
+					.findFirst()
+					.orElseThrow();
+		}
+	}
+
+	@Test
+	void compareTimeToFirstRequest() throws Exception {
+		// Seeds the product, and warms up the file system cache, outside of the measured runs
+		int port = freePort();
+		Process seeding = start(baseline(), port);
+		try {
+			// The catalog is still empty, so the listing answers 404
+			awaitListing(port, 404);
+			HttpResponse<String> created = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/product"))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Startup benchmark\",\"description\":\"Seed\",\"price\":9.99}"))
+					.build(), HttpResponse.BodyHandlers.ofString());
+			assertThat(created.statusCode()).isEqualTo(200);
+		} finally {
+			stop(seeding);
+		}
+
+		List<Long> baseline = new ArrayList<>();
+		List<Long> fastStartup = new ArrayList<>();
+		for (int run = 0; run < RUNS; run++) {
+			baseline.add(timeToFirstListing(baseline()));
+			fastStartup.add(timeToFirstListing(fastStartup()));
+		}
+
+		System.out.printf("Time to the first successful GET /api/v1/product over %d runs%n", RUNS);
+		report("Regular jar ", baseline);
+		report("Fast startup", fastStartup);
+		System.out.printf("Median speed-up: %.2fx%n", (double) median(baseline) / median(fastStartup));
+	}
+
+	private static List<String> baseline() {
+		return List.of(JAVA, "-jar", TARGET.resolve(jarName).toAbsolutePath().toString());
+	}
+
+	private static List<String> fastStartup() {
+		return List.of(JAVA, "-XX:SharedArchiveFile=" + FAST_STARTUP.resolve("application.jsa").toAbsolutePath(),
+				"-Dspring.aot.enabled=true", "-jar", FAST_STARTUP.resolve(jarName).toAbsolutePath().toString());
+	}
+
+	/**
+	 * Starts the application and returns the milliseconds until the product listing answers 200.
+	 */
+	private long timeToFirstListing(List<String> command) throws Exception {
+		int port = freePort();
+		long start = System.nanoTime();
+		Process process = start(command, port);
+		try {
+			awaitListing(port, 200);
+			return Duration.ofNanos(System.nanoTime() - start).toMillis();
+		} finally {
+			stop(process);
+		}
+	}
+
+	private Process start(List<String> command, int port) throws IOException {
+		Path data = Files.createTempDirectory("startup-benchmark");
+		List<String> arguments = new ArrayList<>(command);
+		arguments.addAll(List.of(
+				"--server.port=" + port,
+				"--spring.data.mongodb.uri=" + MONGO.getReplicaSetUrl("product-service"),
+				"--shop.search.index-path=" + data.resolve("search-index"),
+				"--shop.catalog-cache.snapshot-path=" + data.resolve("catalog-snapshot.bin")));
+		return new ProcessBuilder(arguments)
+				.redirectErrorStream(true)
+				.redirectOutput(data.resolve("application.log").toFile())
+				.start();
+	}
+
+	private void awaitListing(int port, int expectedStatus) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/product"))
+				.timeout(Duration.ofSeconds(5))
+				.build();
+		long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+		while (System.nanoTime() < deadline) {
+			try {
+				HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+				if (response.statusCode() == expectedStatus) {
+					return;
+				}
+			} catch (IOException ex) {
+				// Not listening yet
+			}
+			Thread.sleep(10);
+		}
+		throw new AssertionError("The application did not answer within " + STARTUP_TIMEOUT);
+	}
+
+	private static void stop(Process process) throws InterruptedException {
+		process.destroy();
+		if (!process.waitFor(30, TimeUnit.SECONDS)) {
+			process.destroyForcibly().waitFor();
+		}
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	private static void report(String variant, List<Long> millis) {
+		System.out.printf("%s: median %,d ms, min %,d ms, max %,d ms%n",
+				variant, median(millis), Collections.min(millis), Collections.max(millis));
+	}
+
+	private static long median(List<Long> millis) {
+		List<Long> sorted = new ArrayList<>(millis);
+		Collections.sort(sorted);
+		return sorted.get(sorted.size() / 2);
+	}
+}
@@ -0,0 +1,77 @@
+package com.shop.microservices.product.Typeahead;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypeaheadIndexTest {
+
+	private static final Set<SuggestionType> ALL_TYPES = EnumSet.allOf(SuggestionType.class);
+
+	private final TypeaheadIndex index = new TypeaheadIndex();
+
+	@Test
+	void namesStartingWithThePrefixOrOneOfItsWordsAreSuggestedByPopularity() {
+		index.rebuild(() -> List.of(
+				product("Wireless Mouse", 5),
+				product("Wireless Keyboard", 50),
+				product("Mouse Pad", 20),
+				new Suggestion(SuggestionType.CATEGORY, UUID.randomUUID(), "Mice & Keyboards", 0),
+				new Suggestion(SuggestionType.MATERIAL, UUID.randomUUID(), "Métal", 0)));
+
+		assertThat(names("wire", 10, ALL_TYPES)).containsExactly("Wireless Keyboard", "Wireless Mouse");
+		assertThat(names("MOU", 10, ALL_TYPES)).containsExactly("Mouse Pad", "Wireless Mouse");
+		assertThat(names("key", 10, ALL_TYPES)).containsExactly("Wireless Keyboard", "Mice & Keyboards");
+		assertThat(names("key", 10, EnumSet.of(SuggestionType.CATEGORY))).containsExactly("Mice & Keyboards");
+		assertThat(names("meta", 10, ALL_TYPES)).containsExactly("Métal");
+		assertThat(names("w", 1, ALL_TYPES)).containsExactly("Wireless Keyboard");
+		assertThat(names("xyz", 10, ALL_TYPES)).isEmpty();
+	}
+
+	@Test
+	void changesShadowTheIndexUntilTheyAreCompacted() {
+		Suggestion mouse = product("Wireless Mouse", 5);
+		Suggestion keyboard = product("Wireless Keyboard", 50);
+		index.rebuild(() -> List.of(mouse, keyboard));
+
+		index.put(new Suggestion(SuggestionType.PRODUCT, mouse.id(), "Wireless Trackball", 100));
+		index.remove(SuggestionType.PRODUCT, keyboard.id());
+		index.put(product("Wired Headset", 1));
+
+		assertThat(names("wire", 10, ALL_TYPES)).containsExactly("Wireless Trackball", "Wired Headset");
+		assertThat(names("mouse", 10, ALL_TYPES)).isEmpty();
+		assertThat(index.pendingChanges()).isEqualTo(3);
+
+		index.compact();
+
+		assertThat(index.pendingChanges()).isZero();
+		assertThat(names("wire", 10, ALL_TYPES)).containsExactly("Wireless Trackball", "Wired Headset");
+	}
+
+	@Test
+	void changesWrittenDuringARebuildAreKept() {
+		Suggestion mouse = product("Wireless Mouse", 5);
+
+		index.rebuild(() -> {
+			// Written while the repositories are read, after the mouse was read
+			index.remove(SuggestionType.PRODUCT, mouse.id());
+			index.put(product("Wireless Keyboard", 50));
+			return List.of(mouse);
+		});
+
+		assertThat(names("wire", 10, ALL_TYPES)).containsExactly("Wireless Keyboard");
+	}
+
+	private List<String> names(String prefix, int limit, Set<SuggestionType> types) {
+		return index.suggest(prefix, limit, types).stream().map(Suggestion::name).toList();
+	}
+
+	private static Suggestion product(String name, long weight) {
+		return new Suggestion(SuggestionType.PRODUCT, UUID.randomUUID(), name, weight);
+	}
+}
@@ -0,0 +1,78 @@
+package com.shop.microservices.product.Typeahead;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the latency of typeahead lookups over a large catalog, with pending incremental changes on top of the
+ * prefix index, and checks the p99 stays under one millisecond.
+ * Run with {@code mvn test -Pbenchmark -Dtest=TypeaheadLatencyBenchmark [-Dbenchmark.names=N]}.
+ */
+@Tag("benchmark")
+class TypeaheadLatencyBenchmark {
+
+	private static final int NAMES = Integer.getInteger("benchmark.names", 500_000);
+	private static final int CHANGES = Integer.getInteger("benchmark.changes", 1_000);
+	private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 200_000);
+	private static final String[] WORDS = {"wireless", "mouse", "keyboard", "usb", "cable", "gaming", "headset", "monitor",
+			"stand", "laptop", "sleeve", "charger", "adapter", "speaker", "webcam", "desk", "lamp", "chair", "mat", "hub"};
+	private static final Set<SuggestionType> ALL_TYPES = EnumSet.allOf(SuggestionType.class);
+
+	private final Random random = new Random(42);
+
+	@Test
+	void lookupsStayUnderOneMillisecondAtP99() {
+		TypeaheadIndex index = new TypeaheadIndex();
+		List<Suggestion> suggestions = new ArrayList<>(NAMES);
+		for (int i = 0; i < NAMES; i++) {
+			suggestions.add(suggestion(i));
+		}
+		long buildStart = System.nanoTime();
+		index.rebuild(() -> suggestions);
+		long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+		for (int i = 0; i < CHANGES; i++) {
+			index.put(suggestion(NAMES + i));
+		}
+
+		List<String> prefixes = new ArrayList<>();
+		for (String word : WORDS) {
+			for (int length = 1; length <= word.length(); length++) {
+				prefixes.add(word.substring(0, length));
+			}
+		}
+		// Warm-up
+		for (int i = 0; i < LOOKUPS / 4; i++) {
+			index.suggest(prefixes.get(i % prefixes.size()), 10, ALL_TYPES);
+		}
+		long[] latencies = new long[LOOKUPS];
+		for (int i = 0; i < LOOKUPS; i++) {
+			String prefix = prefixes.get(random.nextInt(prefixes.size()));
+			long start = System.nanoTime();
+			index.suggest(prefix, 10, ALL_TYPES);
+			latencies[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(latencies);
+		long p50 = latencies[LOOKUPS / 2];
+		long p99 = latencies[(int) (LOOKUPS * 0.99)];
+
+		System.out.printf("Typeahead over %d names (+%d pending changes), built in %d ms: p50 %d us, p99 %d us, max %d us%n",
+				NAMES, CHANGES, buildMillis, p50 / 1_000, p99 / 1_000, latencies[LOOKUPS - 1] / 1_000);
+		assertThat(p99).isLessThan(1_000_000);
+	}
+
+	private Suggestion suggestion(int i) {
+		String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+		SuggestionType type = i % 10 == 0 ? SuggestionType.CATEGORY : SuggestionType.PRODUCT;
+		return new Suggestion(type, UUID.randomUUID(), name, random.nextInt(10_000));
+	}
+}
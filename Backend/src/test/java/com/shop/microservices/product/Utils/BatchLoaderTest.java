@@ -0,0 +1,82 @@
+package com.shop.microservices.product.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchLoaderTest {
+
+	private final List<Set<Integer>> batches = new CopyOnWriteArrayList<>();
+
+	@Test
+	void keysRequestedWithinTheWindowAreLoadedTogether() {
+		try (BatchLoader<Integer, String> loader = new BatchLoader<>("test", this::squares, Duration.ofMillis(50), 100)) {
+			CompletableFuture<String> one = loader.loadAsync(1);
+			CompletableFuture<String> two = loader.loadAsync(2);
+			CompletableFuture<String> twoAgain = loader.loadAsync(2);
+			CompletableFuture<String> missing = loader.loadAsync(-1);
+
+			assertThat(one.join()).isEqualTo("1");
+			assertThat(two.join()).isEqualTo("4");
+			assertThat(twoAgain.join()).isEqualTo("4");
+			assertThat(missing.join()).isNull();
+			assertThat(batches).containsExactly(Set.of(1, 2, -1));
+		}
+	}
+
+	@Test
+	void fullBatchIsLoadedWithoutWaitingForTheWindow() {
+		try (BatchLoader<Integer, String> loader = new BatchLoader<>("test", this::squares, Duration.ofHours(1), 2)) {
+			CompletableFuture<String> one = loader.loadAsync(1);
+			CompletableFuture<String> three = loader.loadAsync(3);
+
+			assertThat(three.join()).isEqualTo("9");
+			assertThat(one.join()).isEqualTo("1");
+			assertThat(batches).containsExactly(Set.of(1, 3));
+		}
+	}
+
+	@Test
+	void failureIsPropagatedToEveryCaller() {
+		try (BatchLoader<Integer, String> loader = new BatchLoader<>("test", keys -> {
+			throw new IllegalStateException("boom");
+		}, Duration.ofMillis(1), 100)) {
+			assertThatThrownBy(() -> loader.load(1)).isInstanceOf(IllegalStateException.class);
+		}
+	}
+
+	@Test
+	void errorIsPropagatedInsteadOfLeavingCallersWaiting() {
+		try (BatchLoader<Integer, String> loader = new BatchLoader<>("test", keys -> {
+			throw new StackOverflowError();
+		}, Duration.ofMillis(1), 100)) {
+			assertThat(loader.loadAsync(1)).failsWithin(Duration.ofSeconds(5));
+			assertThatThrownBy(() -> loader.load(2)).isInstanceOf(StackOverflowError.class);
+		}
+	}
+
+	@Test
+	void keysRequestedAfterCloseFailImmediately() {
+		BatchLoader<Integer, String> loader = new BatchLoader<>("test", this::squares, Duration.ZERO, 100);
+		loader.close();
+
+		assertThatThrownBy(() -> loader.load(1)).isInstanceOf(RejectedExecutionException.class);
+	}
+
+	private Map<Integer, String> squares(Set<Integer> keys) {
+		batches.add(Set.copyOf(keys));
+		Map<Integer, String> values = new HashMap<>();
+		keys.stream().filter(key -> key >= 0).forEach(key -> values.put(key, String.valueOf(key * key)));
+		return values;
+	}
+}
@@ -0,0 +1,70 @@
+package com.shop.microservices.product.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+	@Test
+	void concurrentCallersShareOneLoad() throws Exception {
+		SingleFlight<String, String> singleFlight = new SingleFlight<>();
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		int callers = 50;
+
+		List<Future<String>> results = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < callers; i++) {
+				results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+					loads.incrementAndGet();
+					await(release);
+					return "value";
+				})));
+			}
+			// Keep the leader in flight until every other caller is blocked on it
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (singleFlight.waiterCount("key") < callers - 1 && System.nanoTime() < deadline) {
+				Thread.onSpinWait();
+			}
+			assertThat(singleFlight.waiterCount("key")).isEqualTo(callers - 1);
+			release.countDown();
+			for (Future<String> result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+			}
+		}
+
+		assertThat(loads).hasValue(1);
+		assertThat(singleFlight.inFlightCount()).isZero();
+		assertThat(singleFlight.waiterCount("key")).isZero();
+	}
+
+	@Test
+	void failureIsRethrownAndKeyIsReleased() {
+		SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+		assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+			throw new IllegalStateException("boom");
+		})).isInstanceOf(IllegalStateException.class);
+
+		assertThat(singleFlight.execute("key", () -> "fresh")).isEqualTo("fresh");
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
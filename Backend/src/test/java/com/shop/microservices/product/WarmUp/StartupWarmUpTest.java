@@ -0,0 +1,69 @@
+package com.shop.microservices.product.WarmUp;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupWarmUpTest {
+
+	@Test
+	void instanceIsUnreadyUntilEveryTaskCompleted() throws InterruptedException {
+		// Both tasks only complete if they run at the same time
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		CountDownLatch release = new CountDownLatch(1);
+		StartupWarmUp warmUp = new StartupWarmUp(List.of(
+				new WarmUpTask("catalog", () -> {
+					barrier.await(5, TimeUnit.SECONDS);
+					release.await();
+					return 42L;
+				}),
+				new WarmUpTask("product-listing", () -> {
+					barrier.await(5, TimeUnit.SECONDS);
+					throw new IllegalStateException("database unavailable");
+				})), true, Duration.ofMinutes(1));
+		WarmUpHealthIndicator indicator = new WarmUpHealthIndicator(warmUp);
+
+		assertThat(indicator.health().getStatus()).isEqualTo(Status.DOWN);
+		warmUp.start();
+		awaitUntil(() -> warmUp.results().containsKey("product-listing"));
+		assertThat(warmUp.state()).isEqualTo(StartupWarmUp.State.RUNNING);
+		assertThat(indicator.health().getStatus()).isEqualTo(Status.DOWN);
+
+		release.countDown();
+		awaitUntil(() -> warmUp.state() == StartupWarmUp.State.COMPLETED);
+		assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+		assertThat(warmUp.results().get("catalog").entries()).isEqualTo(42);
+		assertThat(warmUp.results().get("product-listing").error()).isEqualTo("database unavailable");
+	}
+
+	@Test
+	void instanceIsReadyOnceTheDeadlinePassed() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		StartupWarmUp warmUp = new StartupWarmUp(List.of(new WarmUpTask("catalog", () -> {
+			release.await();
+			return 0L;
+		})), true, Duration.ofMillis(100));
+
+		warmUp.start();
+
+		awaitUntil(() -> warmUp.state() == StartupWarmUp.State.DEADLINE_EXCEEDED);
+		assertThat(new WarmUpHealthIndicator(warmUp).health().getStatus()).isEqualTo(Status.UP);
+		release.countDown();
+	}
+
+	private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition met within 5 s").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+}